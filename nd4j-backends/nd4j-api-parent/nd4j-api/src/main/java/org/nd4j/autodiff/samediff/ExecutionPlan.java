@@ -0,0 +1,283 @@
+package org.nd4j.autodiff.samediff;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NonNull;
+import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.linalg.api.ops.*;
+import org.nd4j.linalg.api.ops.impl.controlflow.If;
+import org.nd4j.linalg.api.ops.impl.controlflow.While;
+import org.nd4j.linalg.api.ops.impl.transforms.gradient.GradientBackwardsMarker;
+
+import java.util.*;
+
+/**
+ * Immutable execution plan for {@link SameDiff} graph, produced by {@link SameDiff#compile()}.
+ *
+ * Plan holds functions in topological order, with forward pass functions preceding backward pass ones,
+ * and with execution path for each function resolved once, so {@link SameDiff#exec()} doesn't need to
+ * re-walk and re-dispatch the graph on every call.
+ * Plan also holds liveness information: index of the last step reading each variable,
+ * so callers know when intermediate arrays aren't needed anymore,
+ * and dependencies between steps, so independent branches can be executed concurrently.
+ */
+public class ExecutionPlan {
+
+    /**
+     * Execution path for single step
+     */
+    public enum StepType {
+        IF, WHILE, CUSTOM, OP, OP_SPECIAL, ACCUMULATION, BROADCAST, INDEX_ACCUMULATION,
+        /**
+         * Function isn't executed, but reported as executed, same as {@link SameDiff#exec()} did before
+         */
+        NONE,
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Step {
+        private final DifferentialFunction function;
+        private final StepType type;
+        // true for functions after GradientBackwardsMarker
+        private final boolean backward;
+        private final int[] axes;
+
+        /**
+         * Barrier steps can't run concurrently with any other step: control flow and inplace ops
+         */
+        public boolean isBarrier() {
+            return type == StepType.IF || type == StepType.WHILE || function.isInPlace();
+        }
+    }
+
+    @Getter
+    private final List<Step> steps;
+    private final Map<String, Integer> lastUse;
+    private final List<List<String>> releasedAfter;
+    private final List<int[]> dependencies;
+    @Getter
+    private final int numForwardSteps;
+
+    protected ExecutionPlan(List<Step> steps) {
+        this.steps = Collections.unmodifiableList(steps);
+
+        int numForwardSteps = 0;
+        while (numForwardSteps < steps.size() && !steps.get(numForwardSteps).isBackward())
+            numForwardSteps++;
+        this.numForwardSteps = numForwardSteps;
+
+        Map<String, Integer> lastUse = new HashMap<>();
+        Map<String, Integer> producers = new HashMap<>();
+        List<int[]> dependencies = new ArrayList<>(steps.size());
+        int lastBarrier = -1;
+        for (int i = 0; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            Set<Integer> deps = new TreeSet<>();
+
+            if (step.isBarrier()) {
+                // barrier waits for everything scheduled before it
+                for (int j = Math.max(0, lastBarrier); j < i; j++)
+                    deps.add(j);
+                lastBarrier = i;
+            } else if (lastBarrier >= 0) {
+                deps.add(lastBarrier);
+            }
+
+            for (String var : inputsOf(step.getFunction())) {
+                lastUse.put(var, i);
+
+                Integer producer = producers.get(var);
+                if (producer != null)
+                    deps.add(producer);
+            }
+
+            for (SDVariable output : step.getFunction().outputVariables())
+                producers.put(output.getVarName(), i);
+
+            int[] array = new int[deps.size()];
+            int cnt = 0;
+            for (Integer dep : deps)
+                array[cnt++] = dep;
+            dependencies.add(array);
+        }
+        this.dependencies = Collections.unmodifiableList(dependencies);
+
+        List<List<String>> releasedAfter = new ArrayList<>(steps.size());
+        for (int i = 0; i < steps.size(); i++)
+            releasedAfter.add(new ArrayList<String>());
+
+        for (Map.Entry<String, Integer> e : lastUse.entrySet())
+            releasedAfter.get(e.getValue()).add(e.getKey());
+
+        for (int i = 0; i < steps.size(); i++)
+            releasedAfter.set(i, Collections.unmodifiableList(releasedAfter.get(i)));
+
+        this.lastUse = Collections.unmodifiableMap(lastUse);
+        this.releasedAfter = Collections.unmodifiableList(releasedAfter);
+    }
+
+    /**
+     * This method builds execution plan for given functions, in order they were defined in SameDiff
+     *
+     * @param functions
+     * @return
+     */
+    public static ExecutionPlan compile(@NonNull Collection<DifferentialFunction> functions) {
+        List<DifferentialFunction> forward = new ArrayList<>();
+        List<DifferentialFunction> backward = new ArrayList<>();
+
+        boolean onBackward = false;
+        for (DifferentialFunction function : functions) {
+            if (function instanceof GradientBackwardsMarker) {
+                onBackward = true;
+                continue;
+            }
+
+            (onBackward ? backward : forward).add(function);
+        }
+
+        List<Step> steps = new ArrayList<>(forward.size() + backward.size());
+        for (DifferentialFunction function : sort(forward))
+            steps.add(new Step(function, resolve(function), false, function.getDimensions()));
+
+        for (DifferentialFunction function : sort(backward))
+            steps.add(new Step(function, resolve(function), true, function.getDimensions()));
+
+        return new ExecutionPlan(steps);
+    }
+
+    /**
+     * This method returns index of the last step reading given variable, or -1 if variable isn't read by any step
+     *
+     * @param varName
+     * @return
+     */
+    public int getLastUse(@NonNull String varName) {
+        Integer step = lastUse.get(varName);
+        return step == null ? -1 : step;
+    }
+
+    /**
+     * This method returns indices of steps, that have to be finished before given step can be executed.
+     * All dependencies have lower indices than the step itself.
+     *
+     * @param step
+     * @return
+     */
+    public int[] getDependencies(int step) {
+        return dependencies.get(step).clone();
+    }
+
+    /**
+     * This method returns names of variables, that aren't read by any step after given one
+     *
+     * @param step
+     * @return
+     */
+    public List<String> getReleasedAfter(int step) {
+        return releasedAfter.get(step);
+    }
+
+    /**
+     * This method resolves execution path for given function, same way {@link SameDiff#exec()} does
+     */
+    protected static StepType resolve(DifferentialFunction function) {
+        if (function instanceof If)
+            return StepType.IF;
+
+        if (function instanceof While)
+            return StepType.WHILE;
+
+        if (function instanceof CustomOp)
+            return StepType.CUSTOM;
+
+        if (function instanceof Op) {
+            if (function.getDimensions() == null)
+                return StepType.OP;
+
+            if (((Op) function).isExecSpecial())
+                return StepType.OP_SPECIAL;
+
+            if (function instanceof Accumulation)
+                return StepType.ACCUMULATION;
+
+            if (function instanceof BroadcastOp)
+                return StepType.BROADCAST;
+
+            if (function instanceof GradientOp)
+                return StepType.OP;
+
+            if (function instanceof IndexAccumulation)
+                return StepType.INDEX_ACCUMULATION;
+        }
+
+        return StepType.NONE;
+    }
+
+    /**
+     * Stable topological sort: functions are reordered only if they read variables produced by functions
+     * defined after them, otherwise original order is preserved.
+     */
+    protected static List<DifferentialFunction> sort(List<DifferentialFunction> functions) {
+        int numFunctions = functions.size();
+
+        Map<String, Integer> producers = new HashMap<>();
+        for (int i = 0; i < numFunctions; i++)
+            for (SDVariable output : functions.get(i).outputVariables())
+                producers.put(output.getVarName(), i);
+
+        List<List<Integer>> consumers = new ArrayList<>(numFunctions);
+        int[] numDependencies = new int[numFunctions];
+        for (int i = 0; i < numFunctions; i++)
+            consumers.add(new ArrayList<Integer>());
+
+        for (int i = 0; i < numFunctions; i++) {
+            Set<Integer> dependencies = new HashSet<>();
+            for (String var : inputsOf(functions.get(i))) {
+                Integer producer = producers.get(var);
+                if (producer != null && producer != i && dependencies.add(producer)) {
+                    consumers.get(producer).add(i);
+                    numDependencies[i]++;
+                }
+            }
+        }
+
+        PriorityQueue<Integer> ready = new PriorityQueue<>();
+        for (int i = 0; i < numFunctions; i++)
+            if (numDependencies[i] == 0)
+                ready.add(i);
+
+        List<DifferentialFunction> result = new ArrayList<>(numFunctions);
+        boolean[] added = new boolean[numFunctions];
+        while (!ready.isEmpty()) {
+            int i = ready.poll();
+            result.add(functions.get(i));
+            added[i] = true;
+
+            for (int consumer : consumers.get(i))
+                if (--numDependencies[consumer] == 0)
+                    ready.add(consumer);
+        }
+
+        // cycles can't be sorted, so such functions are kept in their original order
+        for (int i = 0; i < numFunctions; i++)
+            if (!added[i])
+                result.add(functions.get(i));
+
+        return result;
+    }
+
+    private static List<String> inputsOf(DifferentialFunction function) {
+        SDVariable[] args = function.args();
+        if (args == null)
+            return Collections.emptyList();
+
+        List<String> result = new ArrayList<>(args.length);
+        for (SDVariable arg : args)
+            if (arg != null)
+                result.add(arg.getVarName());
+
+        return result;
+    }
+}
@@ -40,6 +40,7 @@ import org.nd4j.linalg.api.ops.impl.transforms.gradient.GradientBackwardsMarker;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.collection.IntArrayKeyMap;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.primitives.AtomicBoolean;
 import org.nd4j.linalg.primitives.Pair;
@@ -54,6 +55,9 @@ import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
 
 /**
  * SameDiff is the
@@ -114,6 +118,9 @@ public class SameDiff {
 
     private  Map<String,DifferentialFunction> functionInstancesById;
 
+    // compiled execution plan, reset every time new function is added
+    private transient ExecutionPlan executionPlan;
+
     // flag, shows if graph was already registered with libnd4j
     private transient AtomicBoolean wasRegistered = new AtomicBoolean(false);
 
@@ -370,6 +377,7 @@ public class SameDiff {
         }
 
         functionInstancesById.put(id,function);
+        executionPlan = null;
     }
 
 
@@ -4074,10 +4082,14 @@ public class SameDiff {
     }
 
     /**
-     * Creates and executes a list of operations
+     * Creates and executes a list of operations.
+     * If graph was compiled via {@link #compile()}, compiled execution plan is used instead.
      * @return
      */
     public Pair<Map<SDVariable,DifferentialFunction>,List<DifferentialFunction>> exec() {
+        if(executionPlan != null)
+            return exec(executionPlan);
+
         if(!resolvedVariables)
             resolveVariablesWith(new LinkedHashMap<String, INDArray>());
 
@@ -4087,163 +4099,352 @@ public class SameDiff {
         val funcs = new ArrayList<DifferentialFunction>(functionInstancesById.values());
         boolean onBackward = false;
         for(int i = 0; i < funcs.size(); i++) {
-            val opName = funcs.get(i).opName();
-            if(!onBackward && opName.equals(new GradientBackwardsMarker().opName())) {
+            DifferentialFunction differentialFunction = funcs.get(i);
+            if(differentialFunction instanceof GradientBackwardsMarker) {
                 onBackward = true;
+                continue;
             }
 
-            if(opName.equals(new GradientBackwardsMarker().opName()))
-                continue;
+            if(execFunction(differentialFunction, ExecutionPlan.resolve(differentialFunction), onBackward, differentialFunction.getDimensions()))
+                ops.add(differentialFunction);
 
-            DifferentialFunction differentialFunction = funcs.get(i);
+            //debug
+            printFunction(differentialFunction);
+        }
 
-            if(differentialFunction instanceof If) {
-                If ifOp = (If) differentialFunction;
-                if(!onBackward) {
-                    ifOp.getPredicateExecution().exec();
-                    //depending on the block add the proper graph body to this for persistence
-                    //and possible later processing.
-                    if(ifOp.getTargetBoolean().getArr().sumNumber().doubleValue() > 0) {
-                        ifOp.getLoopBodyExecution().exec();
-                        ifOp.exectedTrueOrFalse(true);
-                    }
-                    else {
-                        ifOp.getFalseBodyExecution().exec();
-                        ifOp.exectedTrueOrFalse(false);
+        return new Pair<>(opMap,ops);
+    }
 
-                    }
-                }
-                else {
-                    if(ifOp.getTrueBodyExecuted() != null) {
-                        Pair<Map<SDVariable, DifferentialFunction>, List<DifferentialFunction>> execBackwards = null;
-                        List<SDVariable> variablesForFunctions =  null;
-                        if(ifOp.getTrueBodyExecuted()) {
-                            execBackwards = ifOp.getLoopBodyExecution().execBackwards();
+    /**
+     * This method builds immutable execution plan for current graph: functions are sorted topologically,
+     * and execution path for each of them is resolved once.
+     * Subsequent {@link #exec()} and {@link #execWithPlaceHolder(Map)} calls run this plan,
+     * until new function is added to the graph.
+     *
+     * @return compiled plan
+     */
+    public ExecutionPlan compile() {
+        executionPlan = ExecutionPlan.compile(functionInstancesById.values());
+        return executionPlan;
+    }
 
-                            variablesForFunctions = ifOp.getLoopBodyExecution().getVariablesAssociatedWithFunctions(execBackwards.getRight());
-                        }
-                        else {
-                            execBackwards = ifOp.getFalseBodyExecution().execBackwards();
-                            variablesForFunctions = ifOp.getFalseBodyExecution().getVariablesAssociatedWithFunctions(execBackwards.getRight());
-                        }
+    /**
+     * This method returns current compiled execution plan, or null if graph wasn't compiled,
+     * or was modified after compilation
+     *
+     * @return
+     */
+    public ExecutionPlan getExecutionPlan() {
+        return executionPlan;
+    }
 
-                        /**
-                         * Maps the variables from the child namespace body to
-                         * the parent. This allows access to the underlying ndarray
-                         * and returning a valid variable reference for autodiff.
-                         */
-                        for(SDVariable variable : variablesForFunctions) {
-                            SDVariable proxyVar = var(variable);
-                        }
+    /**
+     * Executes given compiled plan
+     *
+     * @param plan plan built with {@link #compile()}
+     * @return
+     */
+    public Pair<Map<SDVariable,DifferentialFunction>,List<DifferentialFunction>> exec(@NonNull ExecutionPlan plan) {
+        if(!resolvedVariables)
+            resolveVariablesWith(new LinkedHashMap<String, INDArray>());
 
+        val steps = plan.getSteps();
+        List<DifferentialFunction> ops = new ArrayList<>(steps.size());
+        Map<SDVariable,DifferentialFunction> opMap = new HashMap<>();
 
-                    }
+        for(int i = 0; i < steps.size(); i++) {
+            val step = steps.get(i);
+            if(execFunction(step.getFunction(), step.getType(), step.isBackward(), step.getAxes()))
+                ops.add(step.getFunction());
 
-                    else
-                        throw new ND4JIllegalStateException("No body was run.");
+            if(log.isTraceEnabled())
+                printFunction(step.getFunction());
+        }
 
-                }
+        return new Pair<>(opMap,ops);
+    }
 
+    /**
+     * Executes compiled plan, running independent steps concurrently.
+     * Graph is compiled first, if it wasn't compiled yet.
+     *
+     * Steps are scheduled on {@link ExecutorServiceProvider#getForkJoinPool()} as soon as all steps they depend on
+     * are finished. Control flow and inplace steps act as barriers, and run on the calling thread.
+     *
+     * PLEASE NOTE: each op can use multiple native threads on its own, so maxParallelism should be chosen
+     * with number of OpenMP threads in mind
+     *
+     * @param maxParallelism max number of steps executed at the same time
+     * @return
+     */
+    public Pair<Map<SDVariable,DifferentialFunction>,List<DifferentialFunction>> execParallel(int maxParallelism) {
+        if(maxParallelism < 1)
+            throw new ND4JIllegalStateException("maxParallelism should be positive");
 
-                ops.add(differentialFunction);
+        val plan = executionPlan != null ? executionPlan : compile();
+
+        if(!resolvedVariables)
+            resolveVariablesWith(new LinkedHashMap<String, INDArray>());
+
+        val steps = plan.getSteps();
+        val reported = new boolean[steps.size()];
+
+        // forward pass has to be finished before backward pass starts
+        execParallel(plan, 0, plan.getNumForwardSteps(), maxParallelism, reported);
+        execParallel(plan, plan.getNumForwardSteps(), steps.size(), maxParallelism, reported);
+
+        List<DifferentialFunction> ops = new ArrayList<>(steps.size());
+        Map<SDVariable,DifferentialFunction> opMap = new HashMap<>();
+        for(int i = 0; i < steps.size(); i++)
+            if(reported[i])
+                ops.add(steps.get(i).getFunction());
+
+        return new Pair<>(opMap,ops);
+    }
+
+    private void execParallel(ExecutionPlan plan, int from, int to, int maxParallelism, final boolean[] reported) {
+        val steps = plan.getSteps();
+        int numSteps = to - from;
+        if(numSteps <= 0)
+            return;
+
+        // inputs and outputs are resolved up front, since SameDiff state isn't thread-safe
+        for(int i = from; i < to; i++) {
+            val step = steps.get(i);
+            if(step.isBarrier())
+                continue;
 
+            if(step.getType() == ExecutionPlan.StepType.CUSTOM) {
+                DynamicCustomOp customOp = (DynamicCustomOp) step.getFunction();
+                customOp.populateInputsAndOutputsFromSameDiff();
+                customOp.assertValidForExecution();
+            } else if(step.getFunction() instanceof Op) {
+                // legacy ops look up (and allocate) their arrays lazily, so we make them do it here, not on pool threads
+                Op op = (Op) step.getFunction();
+                op.x();
+                op.y();
+                op.z();
             }
-            else if(differentialFunction instanceof While) {
-                While whileOp = (While) differentialFunction;
-
-                if(!onBackward) {
-                    SameDiff execBody = whileOp.getLoopBodyExecution();
-                    //depending on the block add the proper graph body to this for persistence
-                    //and possible later processing.
-                    //note that we need to update the graph predicate by running the execution
-                    whileOp.getPredicateExecution().exec();
-                    while(whileOp.getTargetBoolean().getArr().sumNumber().doubleValue() > 0) {
-                        //run the body
-                        execBody.exec();
-                        //update the predicate
-                        whileOp.getPredicateExecution().exec();
-                        whileOp.incrementLoopCounter();
+        }
 
-                    }
+        val consumers = new ArrayList<List<Integer>>(numSteps);
+        val numDependencies = new int[numSteps];
+        for(int i = 0; i < numSteps; i++)
+            consumers.add(new ArrayList<Integer>());
 
-                    List<SDVariable> outputs = new ArrayList<>();
-                    val outputFuncArgs =  new ArrayList<>(execBody.functionInstancesById.values()).get(execBody.functionInstancesById.values() .size() -1).outputVariables();
-                    outputs.addAll(Arrays.asList(outputFuncArgs));
+        for(int i = from; i < to; i++) {
+            for(int dep : plan.getDependencies(i)) {
+                // dependencies from previous segments are already satisfied
+                if(dep < from)
+                    continue;
 
-                    whileOp.setOutputVars(outputs.toArray(new SDVariable[outputs.size()]));
-                    ops.add(differentialFunction);
-                }
+                consumers.get(dep - from).add(i);
+                numDependencies[i - from]++;
+            }
+        }
 
-                else {
-                    /**
-                     * Note: Need to accumulate gradients.
-                     * Multiply each value by the number of times looped.
-                     * This approximates accumulating the gradient
-                     * across a number of loop cycles.
-                     * We only compute the gradient for the internal loop once
-                     * and from that we multiply the gradient by 5.
-                     *
-                     */
-                    Pair<Map<SDVariable, DifferentialFunction>, List<DifferentialFunction>> mapListPair = whileOp.getLoopBodyExecution().execBackwards();
-                    for(SDVariable variable : mapListPair.getFirst().keySet()) {
-                        variable.getArr().muli(whileOp.getNumLooped());
+        val ready = new PriorityQueue<Integer>();
+        for(int i = from; i < to; i++)
+            if(numDependencies[i - from] == 0)
+                ready.add(i);
+
+        val completionService = new ExecutorCompletionService<Integer>(ExecutorServiceProvider.getForkJoinPool());
+        int inFlight = 0;
+        int finished = 0;
+        try {
+            while(finished < numSteps) {
+                // barrier steps are ready only when nothing else is running, so they're executed right here
+                while(!ready.isEmpty() && inFlight < maxParallelism) {
+                    final int idx = ready.poll();
+                    final ExecutionPlan.Step step = steps.get(idx);
+
+                    if(step.isBarrier() || numSteps == 1) {
+                        reported[idx] = execFunction(step.getFunction(), step.getType(), step.isBackward(), step.getAxes());
+                        finished++;
+                        release(idx, from, consumers, numDependencies, ready);
+                        continue;
                     }
 
-
+                    completionService.submit(new Callable<Integer>() {
+                        @Override
+                        public Integer call() throws Exception {
+                            // custom ops were prepared already, so they're executed directly
+                            if(step.getType() == ExecutionPlan.StepType.CUSTOM) {
+                                Nd4j.getExecutioner().exec((CustomOp) step.getFunction());
+                                reported[idx] = true;
+                            } else {
+                                reported[idx] = execFunction(step.getFunction(), step.getType(), step.isBackward(), step.getAxes());
+                            }
+                            return idx;
+                        }
+                    });
+                    inFlight++;
                 }
 
+                if(finished == numSteps)
+                    break;
 
+                if(inFlight == 0)
+                    throw new ND4JIllegalStateException("Execution plan has unsatisfiable dependencies");
 
+                int idx = completionService.take().get();
+                inFlight--;
+                finished++;
+                release(idx, from, consumers, numDependencies, ready);
             }
-            else if(differentialFunction instanceof CustomOp) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            // we don't leave running ops behind, even if one of them failed
+            while(inFlight > 0) {
+                try {
+                    completionService.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                inFlight--;
+            }
+        }
+    }
+
+    private static void release(int idx, int from, List<List<Integer>> consumers, int[] numDependencies, Queue<Integer> ready) {
+        for(int consumer : consumers.get(idx - from))
+            if(--numDependencies[consumer - from] == 0)
+                ready.add(consumer);
+    }
+
+    /**
+     * This method executes single function using given execution path
+     *
+     * @return true if function should be reported as executed
+     */
+    protected boolean execFunction(DifferentialFunction differentialFunction, ExecutionPlan.StepType type, boolean onBackward, int[] axes) {
+        switch (type) {
+            case IF:
+                execIf((If) differentialFunction, onBackward);
+                return true;
+            case WHILE:
+                return execWhile((While) differentialFunction, onBackward);
+            case CUSTOM: {
                 DynamicCustomOp customOp = (DynamicCustomOp) differentialFunction;
                 customOp.populateInputsAndOutputsFromSameDiff();
                 customOp.assertValidForExecution();
                 Nd4j.getExecutioner().exec(customOp);
-                ops.add(customOp);
+                return true;
+            }
+            case OP:
+                Nd4j.getExecutioner().exec((Op) differentialFunction);
+                return true;
+            case OP_SPECIAL:
+                ((Op) differentialFunction).exec();
+                return true;
+            case ACCUMULATION:
+                Nd4j.getExecutioner().exec((Accumulation) differentialFunction, axes);
+                return true;
+            case BROADCAST:
+                Nd4j.getExecutioner().exec((BroadcastOp) differentialFunction, axes);
+                return true;
+            case INDEX_ACCUMULATION:
+                Nd4j.getExecutioner().exec((IndexAccumulation) differentialFunction, axes);
+                return true;
+            default:
+                // ops with dimensions but without known execution path are reported as is
+                return differentialFunction instanceof Op;
+        }
+    }
+
+    private void execIf(If ifOp, boolean onBackward) {
+        if(!onBackward) {
+            ifOp.getPredicateExecution().exec();
+            //depending on the block add the proper graph body to this for persistence
+            //and possible later processing.
+            if(ifOp.getTargetBoolean().getArr().sumNumber().doubleValue() > 0) {
+                ifOp.getLoopBodyExecution().exec();
+                ifOp.exectedTrueOrFalse(true);
             }
+            else {
+                ifOp.getFalseBodyExecution().exec();
+                ifOp.exectedTrueOrFalse(false);
 
-            else if(differentialFunction instanceof Op) {
-                Op op = (Op) differentialFunction;
-                if(differentialFunction.getDimensions() == null)
-                    Nd4j.getExecutioner().exec(op);
-                else if(op.isExecSpecial()) {
-                    op.exec();
-                }
+            }
+        }
+        else {
+            if(ifOp.getTrueBodyExecuted() != null) {
+                Pair<Map<SDVariable, DifferentialFunction>, List<DifferentialFunction>> execBackwards = null;
+                List<SDVariable> variablesForFunctions =  null;
+                if(ifOp.getTrueBodyExecuted()) {
+                    execBackwards = ifOp.getLoopBodyExecution().execBackwards();
 
+                    variablesForFunctions = ifOp.getLoopBodyExecution().getVariablesAssociatedWithFunctions(execBackwards.getRight());
+                }
                 else {
-                    int[] axes = differentialFunction.getDimensions();
-                    if(differentialFunction instanceof Accumulation) {
-                        Accumulation accumulation = (Accumulation) differentialFunction;
-                        Nd4j.getExecutioner().exec(accumulation,axes);
+                    execBackwards = ifOp.getFalseBodyExecution().execBackwards();
+                    variablesForFunctions = ifOp.getFalseBodyExecution().getVariablesAssociatedWithFunctions(execBackwards.getRight());
+                }
 
-                    }
+                /**
+                 * Maps the variables from the child namespace body to
+                 * the parent. This allows access to the underlying ndarray
+                 * and returning a valid variable reference for autodiff.
+                 */
+                for(SDVariable variable : variablesForFunctions) {
+                    SDVariable proxyVar = var(variable);
+                }
 
-                    else if(differentialFunction instanceof BroadcastOp) {
-                        BroadcastOp broadcastOp = (BroadcastOp) differentialFunction;
-                        Nd4j.getExecutioner().exec(broadcastOp,axes);
-                    }
-                    else if(differentialFunction instanceof GradientOp) {
-                        Nd4j.getExecutioner().exec(op);
-                    }
-                    else if(differentialFunction instanceof IndexAccumulation) {
-                        IndexAccumulation indexAccumulation = (IndexAccumulation) differentialFunction;
-                        Nd4j.getExecutioner().exec(indexAccumulation,axes);
 
-                    }
-                }
+            }
+
+            else
+                throw new ND4JIllegalStateException("No body was run.");
 
+        }
+    }
 
+    private boolean execWhile(While whileOp, boolean onBackward) {
+        if(!onBackward) {
+            SameDiff execBody = whileOp.getLoopBodyExecution();
+            //depending on the block add the proper graph body to this for persistence
+            //and possible later processing.
+            //note that we need to update the graph predicate by running the execution
+            whileOp.getPredicateExecution().exec();
+            while(whileOp.getTargetBoolean().getArr().sumNumber().doubleValue() > 0) {
+                //run the body
+                execBody.exec();
+                //update the predicate
+                whileOp.getPredicateExecution().exec();
+                whileOp.incrementLoopCounter();
 
-                ops.add(differentialFunction);
             }
 
+            List<SDVariable> outputs = new ArrayList<>();
+            val outputFuncArgs =  new ArrayList<>(execBody.functionInstancesById.values()).get(execBody.functionInstancesById.values() .size() -1).outputVariables();
+            outputs.addAll(Arrays.asList(outputFuncArgs));
 
-            //debug
-            printFunction(differentialFunction);
+            whileOp.setOutputVars(outputs.toArray(new SDVariable[outputs.size()]));
+            return true;
         }
 
-        return new Pair<>(opMap,ops);
+        else {
+            /**
+             * Note: Need to accumulate gradients.
+             * Multiply each value by the number of times looped.
+             * This approximates accumulating the gradient
+             * across a number of loop cycles.
+             * We only compute the gradient for the internal loop once
+             * and from that we multiply the gradient by 5.
+             *
+             */
+            Pair<Map<SDVariable, DifferentialFunction>, List<DifferentialFunction>> mapListPair = whileOp.getLoopBodyExecution().execBackwards();
+            for(SDVariable variable : mapListPair.getFirst().keySet()) {
+                variable.getArr().muli(whileOp.getNumLooped());
+            }
+
+            return false;
+        }
     }
 
 
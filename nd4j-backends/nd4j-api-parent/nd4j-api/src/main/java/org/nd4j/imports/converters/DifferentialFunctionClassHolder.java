@@ -12,31 +12,114 @@ import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 import org.reflections.util.FilterBuilder;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Modifier;
+import java.net.URL;
 import java.util.*;
-
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of all known {@link DifferentialFunction} implementations.
+ *
+ * Ops are loaded from {@link #INDEX_RESOURCE} files generated at build time by {@link DifferentialFunctionIndexGenerator},
+ * and instantiated lazily, on first request. Classpath scanning is used only if no index was found,
+ * or if ND4J_CLASSPATH_SCAN environment variable (or org.nd4j.classpath.scan system property) is true,
+ * to pick up extensions built without index.
+ */
 @Slf4j
 public class DifferentialFunctionClassHolder {
-    private Map<String, DifferentialFunction> nodeConverters = new HashMap<>();
+    public static final String INDEX_RESOURCE = "META-INF/nd4j/differential-functions.index";
+
+    private Map<String, String> nodeConverters = new HashMap<>();
     private static DifferentialFunctionClassHolder INSTANCE = new DifferentialFunctionClassHolder();
-    private Map<String,DifferentialFunction> tensorFlowNames = new HashMap<>();
-    private Map<String,DifferentialFunction> onnxNames = new HashMap<>();
+    private Map<String, String> tensorFlowNames = new HashMap<>();
+    private Map<String, String> onnxNames = new HashMap<>();
     private List<String> missingOps = new ArrayList<>();
 
+    // op instances, by class name
+    private ConcurrentMap<String, DifferentialFunction> instances = new ConcurrentHashMap<>();
+
     /**
      * Get the
      * @param tensorflowName
      * @return
      */
     public DifferentialFunction getOpWithTensorflowName(String tensorflowName) {
-        return tensorFlowNames.get(tensorflowName);
+        return instanceOf(tensorFlowNames.get(tensorflowName));
     }
 
     public DifferentialFunction getOpWithOnnxName(String onnxName) {
-        return onnxNames.get(onnxName);
+        return instanceOf(onnxNames.get(onnxName));
     }
 
     private DifferentialFunctionClassHolder() {
+        long time1 = System.currentTimeMillis();
+
+        boolean indexed = loadIndex();
+        if (!indexed || Boolean.parseBoolean(System.getenv("ND4J_CLASSPATH_SCAN")) || Boolean.getBoolean("org.nd4j.classpath.scan"))
+            scan();
+
+        long time2 = System.currentTimeMillis();
+        log.debug("Registered {} ops in {} ms, index used: {}", nodeConverters.size(), time2 - time1, indexed);
+
+        val map = Nd4j.getExecutioner().getCustomOperations();
+        val set = map.keySet();
+        set.removeAll(nodeConverters.keySet());
+        missingOps.addAll(set);
+        Collections.sort(missingOps);
+        log.warn("Missing " + set.size() + " ops!");
+
+    }
+
+    /**
+     * This method registers ops from all index files available on classpath
+     *
+     * @return false if there's no index on classpath
+     */
+    protected boolean loadIndex() {
+        Enumeration<URL> resources;
+        try {
+            resources = DifferentialFunctionClassHolder.class.getClassLoader().getResources(INDEX_RESOURCE);
+        } catch (IOException e) {
+            log.warn("Can't look up op index, falling back to classpath scanning", e);
+            return false;
+        }
+
+        boolean indexed = false;
+        while (resources.hasMoreElements()) {
+            URL resource = resources.nextElement();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), "UTF-8"))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty())
+                        continue;
+
+                    String[] split = line.split("\t", -1);
+                    if (split.length < 4) {
+                        // op couldn't be instantiated at build time, so it's registered the old way
+                        register(instantiate(split[0]));
+                    } else {
+                        register(split[0], split[1], split[2].isEmpty() ? new String[0] : split[2].split(","),
+                                        split[3].isEmpty() ? null : split[3]);
+                    }
+                }
+                indexed = true;
+            } catch (IOException e) {
+                log.warn("Can't read op index " + resource + ", falling back to classpath scanning", e);
+                return false;
+            }
+        }
+
+        return indexed;
+    }
+
+    /**
+     * This method registers ops found by classpath scanning, that weren't registered via index
+     */
+    protected void scan() {
         Reflections f = new Reflections(new ConfigurationBuilder().filterInputsBy(
                 new FilterBuilder().include(FilterBuilder.prefix("org.nd4j.*")).exclude("^(?!.*\\.class$).*$") //Consider only .class files (to avoid debug messages etc. on .dlls, etc
                 //Exclude any not in the ops directory
@@ -46,54 +129,84 @@ public class DifferentialFunctionClassHolder {
 
         Set<Class<? extends DifferentialFunction>> clazzes = f.getSubTypesOf(DifferentialFunction.class);
 
+        Set<String> registered = new HashSet<>(nodeConverters.values());
+        registered.addAll(instances.keySet());
         for (Class<? extends DifferentialFunction> clazz : clazzes) {
-            if (Modifier.isAbstract(clazz.getModifiers()) || clazz.isInterface())
+            if (Modifier.isAbstract(clazz.getModifiers()) || clazz.isInterface() || registered.contains(clazz.getName()))
                 continue;
 
-            try {
-                DifferentialFunction node = clazz.newInstance();
-                val name = node.opName();
-                if(name == null)
-                    continue;
+            register(instantiate(clazz.getName()));
+        }
+    }
 
-                if(name.endsWith("_bp")) {
-                    //log.warn("Skipping derivative " + name);
-                }
-                if (nodeConverters.containsKey(name)) {
-                    throw new ND4JIllegalStateException("OpName duplicate found: " + name);
-                } else {
-                    //log.info("Adding converter for [" + name + "]");
-                    nodeConverters.put(name, node);
-                    try {
-                        for(String s : node.tensorflowNames())
-                            tensorFlowNames.put(s,node);
-                    }catch (NoOpNameFoundException e) {
-                        log.trace("Skipping op " + name + " for tensorflow.");
-                    }
+    private DifferentialFunction instantiate(String className) {
+        try {
+            return (DifferentialFunction) Class.forName(className).newInstance();
+        } catch (IllegalAccessException | InstantiationException | ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-                    try {
-                        onnxNames.put(node.onnxName(),node);
-                    }catch (NoOpNameFoundException e) {
-                        log.trace("Skipping op " + name + " for onnx.");
-                    }
-                }
-            } catch (NoOpNameFoundException e) {
-                log.trace("Skipping function  " + clazz);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            } catch (InstantiationException e) {
-                throw new RuntimeException(e);
-            }
+    private void register(DifferentialFunction node) {
+        instances.put(node.getClass().getName(), node);
+
+        String name;
+        try {
+            name = node.opName();
+        } catch (NoOpNameFoundException e) {
+            log.trace("Skipping function  " + node.getClass());
+            return;
         }
 
+        if (name == null)
+            return;
 
-        val map = Nd4j.getExecutioner().getCustomOperations();
-        val set = map.keySet();
-        set.removeAll(nodeConverters.keySet());
-        missingOps.addAll(set);
-        Collections.sort(missingOps);
-        log.warn("Missing " + set.size() + " ops!");
+        String[] tfNames;
+        try {
+            tfNames = node.tensorflowNames();
+        } catch (NoOpNameFoundException e) {
+            log.trace("Skipping op " + name + " for tensorflow.");
+            tfNames = new String[0];
+        }
+
+        String onnxName;
+        try {
+            onnxName = node.onnxName();
+        } catch (NoOpNameFoundException e) {
+            log.trace("Skipping op " + name + " for onnx.");
+            onnxName = null;
+        }
+
+        register(node.getClass().getName(), name, tfNames, onnxName);
+    }
+
+    private void register(String className, String name, String[] tfNames, String onnxName) {
+        if (nodeConverters.containsKey(name))
+            throw new ND4JIllegalStateException("OpName duplicate found: " + name);
+
+        nodeConverters.put(name, className);
+        for (String s : tfNames)
+            if (s != null)
+                tensorFlowNames.put(s, className);
+
+        if (onnxName != null)
+            onnxNames.put(onnxName, className);
+    }
+
+    private DifferentialFunction instanceOf(String className) {
+        if (className == null)
+            return null;
+
+        DifferentialFunction node = instances.get(className);
+        if (node == null) {
+            // concurrent callers might create 2 instances, but only one of them gets cached and returned
+            node = instantiate(className);
+            DifferentialFunction existing = instances.putIfAbsent(className, node);
+            if (existing != null)
+                node = existing;
+        }
 
+        return node;
     }
 
 
@@ -121,7 +234,7 @@ public class DifferentialFunctionClassHolder {
      * @return
      */
     public DifferentialFunction getInstance(String name) {
-        return nodeConverters.get(name);
+        return instanceOf(nodeConverters.get(name));
     }
 
     public static DifferentialFunctionClassHolder getInstance() {
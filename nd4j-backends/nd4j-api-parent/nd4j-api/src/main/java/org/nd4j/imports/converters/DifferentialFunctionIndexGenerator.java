@@ -0,0 +1,152 @@
+package org.nd4j.imports.converters;
+
+import lombok.extern.slf4j.Slf4j;
+import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.imports.NoOpNameFoundException;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.reflections.Reflections;
+import org.reflections.scanners.SubTypesScanner;
+import org.reflections.util.ClasspathHelper;
+import org.reflections.util.ConfigurationBuilder;
+import org.reflections.util.FilterBuilder;
+
+import java.io.*;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.security.CodeSource;
+import java.util.*;
+
+/**
+ * Build-time generator of {@link DifferentialFunctionClassHolder#INDEX_RESOURCE}.
+ *
+ * Scans given classes directory for {@link DifferentialFunction} implementations, and writes one line per op:
+ * class name, op name, comma-separated TensorFlow names and ONNX name, separated by tabs.
+ * If op can't be instantiated at build time, only class name is written, and op gets instantiated on startup instead.
+ *
+ * Modules defining their own ops can run this class in process-classes phase, same way nd4j-api does,
+ * so their ops are registered without classpath scanning too.
+ *
+ * Usage: DifferentialFunctionIndexGenerator [classes directory]
+ */
+@Slf4j
+public class DifferentialFunctionIndexGenerator {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1)
+            throw new IllegalArgumentException("Usage: DifferentialFunctionIndexGenerator [classes directory]");
+
+        File directory = new File(args[0]);
+        File index = new File(directory, DifferentialFunctionClassHolder.INDEX_RESOURCE);
+        index.getParentFile().mkdirs();
+
+        List<String> lines = generate(directory);
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(index), "UTF-8"))) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        }
+
+        log.info("Indexed {} ops into {}", lines.size(), index.getAbsolutePath());
+    }
+
+    /**
+     * This method returns index lines for all ops defined within given classes directory, sorted by class name
+     *
+     * @param directory
+     * @return
+     * @throws IOException
+     */
+    public static List<String> generate(File directory) throws IOException {
+        String location = directory.getCanonicalFile().toURI().toString();
+
+        // superclasses might be defined in dependencies, so whole classpath is scanned, but only classes from given directory are indexed
+        Set<URL> urls = new HashSet<>(ClasspathHelper.forPackage("org.nd4j"));
+        urls.add(directory.toURI().toURL());
+        Reflections reflections = new Reflections(new ConfigurationBuilder()
+                        .filterInputsBy(new FilterBuilder().include(FilterBuilder.prefix("org.nd4j"))
+                                        .exclude("^(?!.*\\.class$).*$"))
+                        .setUrls(urls).setScanners(new SubTypesScanner()));
+
+        Map<String, Class<? extends DifferentialFunction>> classes = new TreeMap<>();
+        for (Class<? extends DifferentialFunction> clazz : reflections.getSubTypesOf(DifferentialFunction.class)) {
+            if (Modifier.isAbstract(clazz.getModifiers()) || clazz.isInterface() || !isDefinedIn(clazz, location))
+                continue;
+
+            classes.put(clazz.getName(), clazz);
+        }
+
+        List<String> lines = new ArrayList<>();
+        Set<String> opNames = new HashSet<>();
+        for (Class<? extends DifferentialFunction> clazz : classes.values()) {
+            String name;
+            String names;
+            try {
+                DifferentialFunction node = clazz.newInstance();
+                name = node.opName();
+                names = join(tensorflowNames(node)) + "\t" + onnxName(node);
+            } catch (NoOpNameFoundException e) {
+                continue;
+            } catch (Throwable t) {
+                // op will be instantiated on startup, same as before
+                log.warn("Can't instantiate {} at build time: {}", clazz.getName(), t.toString());
+                lines.add(clazz.getName());
+                continue;
+            }
+
+            if (name == null)
+                continue;
+
+            if (!opNames.add(name))
+                throw new ND4JIllegalStateException("OpName duplicate found: " + name);
+
+            lines.add(clazz.getName() + "\t" + name + "\t" + names);
+        }
+
+        return lines;
+    }
+
+    private static boolean isDefinedIn(Class<?> clazz, String location) {
+        CodeSource source = clazz.getProtectionDomain().getCodeSource();
+        if (source == null || source.getLocation() == null)
+            return false;
+
+        try {
+            return new File(source.getLocation().toURI()).getCanonicalFile().toURI().toString().equals(location);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private static String[] tensorflowNames(DifferentialFunction node) {
+        try {
+            String[] names = node.tensorflowNames();
+            return names == null ? new String[0] : names;
+        } catch (NoOpNameFoundException e) {
+            return new String[0];
+        }
+    }
+
+    private static String onnxName(DifferentialFunction node) {
+        try {
+            String name = node.onnxName();
+            return name == null ? "" : name;
+        } catch (NoOpNameFoundException e) {
+            return "";
+        }
+    }
+
+    private static String join(String[] names) {
+        StringBuilder builder = new StringBuilder();
+        for (String name : names) {
+            if (name == null)
+                continue;
+
+            if (builder.length() > 0)
+                builder.append(",");
+
+            builder.append(name);
+        }
+        return builder.toString();
+    }
+}
@@ -10,8 +10,10 @@ import org.nd4j.autodiff.functions.DifferentialFunction;
 import org.nd4j.autodiff.samediff.SameDiff;
 import org.nd4j.imports.NoOpNameFoundException;
 import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.ops.Op;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.weightinit.impl.NDArraySupplierInitScheme;
 import org.nd4j.weightinit.impl.ZeroInitScheme;
 
 import java.io.*;
@@ -28,6 +30,22 @@ import java.util.Map;
 @Slf4j
 public abstract class BaseGraphMapper<GRAPH_TYPE,NODE_TYPE,ATTR_TYPE,TENSOR_TYPE> implements GraphMapper<GRAPH_TYPE,NODE_TYPE,ATTR_TYPE,TENSOR_TYPE> {
 
+    /**
+     * Lazy import is used by default if ND4J_LAZY_IMPORT=true environment variable is set.
+     * See {@link #importGraph(Object, boolean)}
+     */
+    protected static final boolean DEFAULT_LAZY_IMPORT = "true".equalsIgnoreCase(System.getenv("ND4J_LAZY_IMPORT"));
+
+    /**
+     * This method returns shape of array held by given tensor, if this array can be materialized lazily,
+     * or null otherwise. By default nothing is materialized lazily.
+     *
+     * @param tensor
+     * @return
+     */
+    protected int[] getLazyArrayShape(TENSOR_TYPE tensor) {
+        return null;
+    }
 
 
     @Override
@@ -49,8 +67,18 @@ public abstract class BaseGraphMapper<GRAPH_TYPE,NODE_TYPE,ATTR_TYPE,TENSOR_TYPE
      */
     @Override
     public  SameDiff importGraph(InputStream inputStream) {
+        return importGraph(inputStream, DEFAULT_LAZY_IMPORT);
+    }
+
+    /**
+     *
+     * @param inputStream
+     * @param lazy if true, weight constants are materialized on first access. See {@link #importGraph(Object, boolean)}
+     * @return
+     */
+    public SameDiff importGraph(InputStream inputStream, boolean lazy) {
         GRAPH_TYPE def = readGraph(inputStream);
-        return importGraph(def);
+        return importGraph(def, lazy);
     }
 
     protected GRAPH_TYPE readGraph(InputStream inputStream) {
@@ -86,9 +114,19 @@ public abstract class BaseGraphMapper<GRAPH_TYPE,NODE_TYPE,ATTR_TYPE,TENSOR_TYPE
      */
     @Override
     public  SameDiff importGraph(File graphFile) {
+        return importGraph(graphFile, DEFAULT_LAZY_IMPORT);
+    }
+
+    /**
+     *
+     * @param graphFile
+     * @param lazy if true, weight constants are materialized on first access. See {@link #importGraph(Object, boolean)}
+     * @return
+     */
+    public SameDiff importGraph(File graphFile, boolean lazy) {
         GRAPH_TYPE def = null;
         try (FileInputStream fis = new FileInputStream(graphFile)) {
-            return importGraph(fis);
+            return importGraph(fis, lazy);
         } catch (Exception e) {
             e.printStackTrace();
 
@@ -98,7 +136,7 @@ public abstract class BaseGraphMapper<GRAPH_TYPE,NODE_TYPE,ATTR_TYPE,TENSOR_TYPE
             throw new ND4JIllegalStateException("Unknown format: " + graphFile.getAbsolutePath());
 
 
-        return importGraph(def);
+        return importGraph(def, lazy);
     }
 
     @Override
@@ -118,6 +156,20 @@ public abstract class BaseGraphMapper<GRAPH_TYPE,NODE_TYPE,ATTR_TYPE,TENSOR_TYPE
      */
     @Override
     public SameDiff importGraph(GRAPH_TYPE tfGraph) {
+        return importGraph(tfGraph, DEFAULT_LAZY_IMPORT);
+    }
+
+    /**
+     * This method converts given TF graph.
+     *
+     * If lazy is true, weight constants aren't converted to arrays during import, but on first access
+     * to their variables instead. Imported graph keeps reference to source graph then, so constants can be materialized later.
+     *
+     * @param tfGraph
+     * @param lazy
+     * @return
+     */
+    public SameDiff importGraph(GRAPH_TYPE tfGraph, boolean lazy) {
         SameDiff diff = SameDiff.create();
         ImportState<GRAPH_TYPE,TENSOR_TYPE> importState = new ImportState<>();
         importState.setSameDiff(diff);
@@ -142,6 +194,23 @@ public abstract class BaseGraphMapper<GRAPH_TYPE,NODE_TYPE,ATTR_TYPE,TENSOR_TYPE
                 continue;
             }
 
+            if (lazy) {
+                int[] lazyShape = getLazyArrayShape(entry.getValue());
+                if (lazyShape != null) {
+                    final String name = entry.getKey();
+                    final TENSOR_TYPE tensor = entry.getValue();
+                    final GRAPH_TYPE graph = tfGraph;
+                    importState.getSameDiff().var(name, lazyShape, new NDArraySupplierInitScheme(
+                                    new NDArraySupplierInitScheme.NDArraySupplier() {
+                                        @Override
+                                        public INDArray getArr() {
+                                            return getNDArrayFromTensor(name, tensor, graph);
+                                        }
+                                    }));
+                    continue;
+                }
+            }
+
             val arr = getNDArrayFromTensor(entry.getKey(), entry.getValue(), tfGraph);
             if(arr != null) {
                 val var = importState.getSameDiff().var(entry.getKey(),arr);
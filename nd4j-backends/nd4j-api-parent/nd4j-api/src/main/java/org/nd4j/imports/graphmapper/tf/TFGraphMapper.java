@@ -1,15 +1,20 @@
 package org.nd4j.imports.graphmapper.tf;
 
 import com.google.common.primitives.Ints;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.Message;
+import com.google.protobuf.UnsafeByteOperations;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.nd4j.autodiff.functions.DifferentialFunction;
 import org.nd4j.autodiff.samediff.SDVariable;
+import org.nd4j.autodiff.samediff.SameDiff;
 import org.nd4j.imports.converters.DifferentialFunctionClassHolder;
 import org.nd4j.imports.graphmapper.BaseGraphMapper;
 import org.nd4j.imports.graphmapper.ImportState;
 import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
@@ -17,7 +22,10 @@ import org.nd4j.linalg.util.ArrayUtil;
 import org.tensorflow.framework.*;
 
 import java.io.*;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.*;
 
 /**
@@ -246,7 +254,46 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
 
     @Override
     public GraphDef parseGraphFrom(byte[] inputStream) throws IOException {
-        return GraphDef.parseFrom(inputStream);
+        return parseGraphFrom(UnsafeByteOperations.unsafeWrap(inputStream));
+    }
+
+    /**
+     * This method parses binary GraphDef from memory-mapped file.
+     * Tensor contents aren't copied to heap: they stay in page cache until arrays are created from them.
+     *
+     * @param graphFile
+     * @return
+     * @throws IOException
+     */
+    public GraphDef parseGraphFrom(File graphFile) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(graphFile, "r"); FileChannel channel = file.getChannel()) {
+            // mapping stays valid after channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return parseGraphFrom(UnsafeByteOperations.unsafeWrap(buffer));
+        }
+    }
+
+    /**
+     * This method parses GraphDef with aliasing enabled, so tensor contents are slices of given bytes instead of copies
+     */
+    protected GraphDef parseGraphFrom(ByteString bytes) throws IOException {
+        CodedInputStream input = bytes.newCodedInput();
+        input.enableAliasing(true);
+        input.setSizeLimit(Integer.MAX_VALUE);
+        return GraphDef.parseFrom(input);
+    }
+
+    @Override
+    public SameDiff importGraph(File graphFile, boolean lazy) {
+        GraphDef def;
+        try {
+            def = parseGraphFrom(graphFile);
+        } catch (IOException | IllegalArgumentException e) {
+            // text graphs, and files that can't be mapped, are read the old way
+            return super.importGraph(graphFile, lazy);
+        }
+
+        return importGraph(def, lazy);
     }
 
     @Override
@@ -382,29 +429,13 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
     @Override
     public  INDArray getNDArrayFromTensor(String tensorName, NodeDef node, GraphDef graph) {
         int[] arrayShape = null;
-        List<Integer> dimensions = new ArrayList<>();
         //placeholder of some kind
         if(!node.getAttrMap().containsKey("value")) {
             return null;
         }
         val tfTensor = node.getAttrOrThrow("value").getTensor();
         // building shape first
-        int dims = tfTensor.getTensorShape().getDimCount();
-        if(dims == 1) {
-            dimensions.add(1);
-            dimensions.add( (int) Math.max(1,tfTensor.getTensorShape().getDim(0).getSize()));
-        }
-        else {
-            for (int e = 0; e < dims; e++) {
-                // TODO: eventually we want long shapes :(
-                int dim = (int) tfTensor.getTensorShape().getDim(e).getSize();
-
-                dimensions.add(dim);
-            }
-        }
-
-
-        arrayShape = Ints.toArray(dimensions);
+        arrayShape = arrayShapeFromTensor(tfTensor);
 
         if (tfTensor.getDtype() == DataType.DT_INT32 || tfTensor.getDtype() == DataType.DT_INT16 || tfTensor.getDtype() == DataType.DT_INT8) {
             // valueOf
@@ -431,20 +462,8 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
                 INDArray array = Nd4j.create(jArray, arrayShape, 0, 'c');
                 return array;
             } else {
-                // FIXME: INT bytebuffers should be converted to floating point
-                //throw new UnsupportedOperationException("To be implemented yet");
-                long length = ArrayUtil.prodLong(arrayShape);
-                // binary representation
-                val bb = tfTensor.getTensorContent().asReadOnlyByteBuffer();
-                val fb = bb.order(ByteOrder.nativeOrder()).asIntBuffer();
-                val fa = new float[fb.capacity()];
-                for (int e = 0; e < fb.capacity(); e++)
-                    fa[e] = (float) fb.get(e);
-
-                val array = Nd4j.create(fa, arrayShape, 'c', 0);
-                //log.debug("SUM1: {}", array.sumNumber());
-                //log.debug("Data: {}", Arrays.toString(array.data().asFloat()));
-                return array;
+                // binary representation, INT values are converted to floating point
+                return arrayFromTensorContent(tfTensor.getTensorContent(), DataBuffer.Type.INT, arrayShape);
             }
         } else if (tfTensor.getDtype() == DataType.DT_FLOAT) {
             if (tfTensor.getFloatValCount() == 1 || ArrayUtil.prod(arrayShape) == 1) {
@@ -471,14 +490,7 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
                 return array;
             } else if (tfTensor.getTensorContent().size() > 0){
                 // binary representation
-                val bb = tfTensor.getTensorContent().asReadOnlyByteBuffer();
-                val fb = bb.order(ByteOrder.nativeOrder()).asFloatBuffer();
-                val fa = new float[fb.capacity()];
-                for (int e = 0; e < fb.capacity(); e++)
-                    fa[e] = fb.get(e);
-
-                val array = Nd4j.create(fa, arrayShape, 'c', 0);
-                return array;
+                return arrayFromTensorContent(tfTensor.getTensorContent(), DataBuffer.Type.FLOAT, arrayShape);
             }
         } else if (tfTensor.getDtype() == DataType.DT_DOUBLE) {
             if (tfTensor.getDoubleValCount() == 1 || ArrayUtil.prod(arrayShape) == 1) {
@@ -500,18 +512,7 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
                 return array;
             } else if (tfTensor.getTensorContent().size() > 0) {
                 // binary representation
-                //DataBuffer buffer = Nd4j.createBuffer(tfTensor.getTensorContent().asReadOnlyByteBuffer(), DataBuffer.Type.FLOAT, (int) length);
-                //INDArray array = Nd4j.createArrayFromShapeBuffer(buffer, Nd4j.getShapeInfoProvider().createShapeInformation(arrayShape, 'c'));
-
-                // binary representation
-                val bb = tfTensor.getTensorContent().asReadOnlyByteBuffer();
-                val fb = bb.order(ByteOrder.nativeOrder()).asDoubleBuffer();
-                val da = new double[fb.capacity()];
-                for (int e = 0; e < fb.capacity(); e++)
-                    da[e] = fb.get(e);
-
-                val array = Nd4j.create(da, arrayShape, 0, 'c');
-                return array;
+                return arrayFromTensorContent(tfTensor.getTensorContent(), DataBuffer.Type.DOUBLE, arrayShape);
             }
         } else if (tfTensor.getDtype() == DataType.DT_INT64) {
             if (tfTensor.getInt64ValCount() == 1 || ArrayUtil.prod(arrayShape) == 1) {
@@ -542,6 +543,105 @@ public class TFGraphMapper extends BaseGraphMapper<GraphDef,NodeDef,AttrValue,No
         throw new ND4JIllegalStateException("Invalid method state");
     }
 
+    /**
+     * This method returns shape of array created from given tensor: TF vectors become row vectors
+     */
+    protected int[] arrayShapeFromTensor(TensorProto tfTensor) {
+        List<Integer> dimensions = new ArrayList<>();
+        int dims = tfTensor.getTensorShape().getDimCount();
+        if(dims == 1) {
+            dimensions.add(1);
+            dimensions.add( (int) Math.max(1,tfTensor.getTensorShape().getDim(0).getSize()));
+        }
+        else {
+            for (int e = 0; e < dims; e++) {
+                // TODO: eventually we want long shapes :(
+                int dim = (int) tfTensor.getTensorShape().getDim(e).getSize();
+
+                dimensions.add(dim);
+            }
+        }
+
+        return Ints.toArray(dimensions);
+    }
+
+    /**
+     * This method creates array from binary tensor content.
+     * If tensor data type matches data type of arrays, bytes are copied straight into DataBuffer,
+     * otherwise values are bulk-read from content and converted.
+     *
+     * @param content binary tensor content, in native byte order
+     * @param sourceType data type of tensor content
+     * @param arrayShape
+     * @return
+     */
+    protected INDArray arrayFromTensorContent(ByteString content, DataBuffer.Type sourceType, int[] arrayShape) {
+        long length = ArrayUtil.prodLong(arrayShape);
+        int elementSize = sourceType == DataBuffer.Type.DOUBLE ? 8 : 4;
+
+        if (sourceType != DataBuffer.Type.INT && sourceType == Nd4j.dataType()
+                        && content.size() == length * elementSize) {
+            DataBuffer buffer = Nd4j.createBuffer(length, false);
+            ByteBuffer target = buffer.asNio();
+            target.order(ByteOrder.nativeOrder());
+            content.copyTo(target);
+            Nd4j.getAffinityManager().tagLocation(buffer, AffinityManager.Location.HOST);
+
+            // TF arrays are always C
+            return Nd4j.create(buffer, arrayShape, Nd4j.getStrides(arrayShape, 'c'), 0, 'c');
+        }
+
+        val bb = content.asReadOnlyByteBuffer().order(ByteOrder.nativeOrder());
+        switch (sourceType) {
+            case DOUBLE: {
+                val da = new double[content.size() / elementSize];
+                bb.asDoubleBuffer().get(da);
+                return Nd4j.create(da, arrayShape, 0, 'c');
+            }
+            case FLOAT: {
+                val fa = new float[content.size() / elementSize];
+                bb.asFloatBuffer().get(fa);
+                return Nd4j.create(fa, arrayShape, 'c', 0);
+            }
+            case INT: {
+                val ia = new int[content.size() / elementSize];
+                bb.asIntBuffer().get(ia);
+                val fa = new float[ia.length];
+                for (int e = 0; e < ia.length; e++)
+                    fa[e] = (float) ia[e];
+
+                return Nd4j.create(fa, arrayShape, 'c', 0);
+            }
+            default:
+                throw new UnsupportedOperationException("Unsupported tensor content type: [" + sourceType + "]");
+        }
+    }
+
+    /**
+     * Only constants with binary content, holding more than one element, are materialized lazily:
+     * these are weights, small constants are cheap to create during import.
+     */
+    @Override
+    protected int[] getLazyArrayShape(NodeDef node) {
+        if (!node.containsAttr(VALUE_ATTR_KEY))
+            return null;
+
+        val tfTensor = node.getAttrOrThrow(VALUE_ATTR_KEY).getTensor();
+        if (tfTensor.getTensorContent().isEmpty())
+            return null;
+
+        switch (tfTensor.getDtype()) {
+            case DT_FLOAT:
+            case DT_DOUBLE:
+                break;
+            default:
+                return null;
+        }
+
+        int[] arrayShape = arrayShapeFromTensor(tfTensor);
+        return ArrayUtil.prodLong(arrayShape) > 1 ? arrayShape : null;
+    }
+
     @Override
     public int[] getShapeFromTensor(NodeDef tensorProto) {
         if(tensorProto.containsAttr("shape")) {
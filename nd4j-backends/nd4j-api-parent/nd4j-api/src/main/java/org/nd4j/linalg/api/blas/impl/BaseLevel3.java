@@ -45,6 +45,11 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(true, A, B, C);
 
+        if (A.isSparse() && !B.isSparse()) {
+            Nd4j.getSparseBlasWrapper().level3().gemm(Order, TransA, TransB, alpha, A, B, beta, C);
+            return;
+        }
+
         GemmParams params = new GemmParams(A, B, C);
 
         int charOder = Order;
@@ -73,6 +78,11 @@ public abstract class BaseLevel3 extends BaseLevel implements Level3 {
         if (Nd4j.getExecutioner().getProfilingMode() == OpExecutioner.ProfilingMode.ALL)
             OpProfiler.getInstance().processBlasCall(true, A, B, C);
 
+        if (A.isSparse() && !B.isSparse()) {
+            Nd4j.getSparseBlasWrapper().level3().gemm(A, B, C, transposeA, transposeB, alpha, beta);
+            return;
+        }
+
         GemmParams params = new GemmParams(A, B, C, transposeA, transposeB);
         if (A.data().dataType() == DataBuffer.Type.DOUBLE) {
             DefaultOpExecutioner.validateDataType(DataBuffer.Type.DOUBLE, params.getA(), params.getB(), C);
@@ -1,24 +1,276 @@
 package org.nd4j.linalg.api.blas.impl;
 
 import org.nd4j.linalg.api.blas.Level3;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.BaseSparseNDArrayCOO;
+import org.nd4j.linalg.api.ndarray.BaseSparseNDArrayCSR;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ndarray.SparseFormat;
+import org.nd4j.linalg.api.ops.executioner.DefaultOpExecutioner;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ParallelRange;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+import static com.google.common.base.Preconditions.checkArgument;
 
 /**
+ * Sparse level 3 routines.
+ *
+ * gemm multiplies sparse CSR or COO matrix by dense matrix: C = alpha * op(A) * op(B) + beta * C.
+ * Sparse matrix is brought to row-pointers form once (COO entries and transposed matrices are bucketed by row),
+ * then rows of op(A) are split into chunks with similar number of non-zero entries, and chunks are processed
+ * in parallel. Each thread owns its rows of C, so no synchronization is needed.
+ *
  * @author Audrey Loeffel
  */
 public class SparseBaseLevel3 extends SparseBaseLevel implements Level3 {
+    // minimal number of multiply-adds processed by one thread
+    protected static final long MIN_WORK_PER_THREAD = 65536;
+
+    /**
+     * Transpose flags are resolved from arrays themselves, same way BaseLevel3 does,
+     * so this method computes C = alpha * A * B + beta * C
+     */
     @Override
     public void gemm(char Order, char TransA, char TransB, double alpha, INDArray A, INDArray B, double beta,
                     INDArray C) {
-
+        gemm(A, B, C, false, false, alpha, beta);
     }
 
     @Override
-    public void gemm(INDArray A, INDArray B, INDArray C, boolean transposeA, boolean transposeB, double alpha,
-                    double beta) {
+    public void gemm(INDArray A, INDArray B, INDArray C, boolean transposeA, boolean transposeB, final double alpha,
+                    final double beta) {
+        checkArgument(A.isSparse() && A.rank() == 2, "A should be sparse matrix");
+        checkArgument(!B.isSparse() && B.rank() == 2, "B should be dense matrix");
+        checkArgument(!C.isSparse() && C.rank() == 2, "C should be dense matrix");
+
+        final SparseRows rows = SparseRows.of(A, transposeA);
+        int k = transposeB ? B.columns() : B.rows();
+        final int n = transposeB ? B.rows() : B.columns();
+        if (rows.columns != k || C.rows() != rows.rows || C.columns() != n)
+            throw new ND4JIllegalStateException("Can't multiply arrays: op(A) is [" + rows.rows + ", " + rows.columns
+                            + "], op(B) is [" + k + ", " + n + "], C is [" + C.rows() + ", " + C.columns() + "]");
+
+        final DataBuffer.Type type = A.data().dataType();
+        if (type != DataBuffer.Type.DOUBLE && type != DataBuffer.Type.FLOAT)
+            throw new UnsupportedOperationException("Sparse gemm supports only FLOAT and DOUBLE data types");
+
+        DefaultOpExecutioner.validateDataType(type, B, C);
+
+        // pending ops have to be finished, and data has to be on host, before we touch memory directly
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(B, AffinityManager.Location.HOST);
+        Nd4j.getAffinityManager().ensureLocation(C, AffinityManager.Location.HOST);
+
+        // op(B)[k, n] and C[m, n] are addressed via strides, so transposed arrays and views need no copies
+        final int bRowStride = transposeB ? B.stride(1) : B.stride(0);
+        final int bColumnStride = transposeB ? B.stride(0) : B.stride(1);
+        final int cRowStride = C.stride(0);
+        final int cColumnStride = C.stride(1);
+
+        if (type == DataBuffer.Type.DOUBLE) {
+            final DoubleBuffer b = B.data().asNioDouble();
+            final DoubleBuffer c = C.data().asNioDouble();
+            final int bOffset = b.position();
+            final int cOffset = c.position();
+            run(rows, n, new ParallelRange.Kernel() {
+                @Override
+                public void apply(int from, int to) {
+                    dcsrmm(rows, from, to, n, alpha, b, bOffset, bRowStride, bColumnStride, beta, c, cOffset,
+                                    cRowStride, cColumnStride);
+                }
+            });
+        } else {
+            final FloatBuffer b = B.data().asNioFloat();
+            final FloatBuffer c = C.data().asNioFloat();
+            final int bOffset = b.position();
+            final int cOffset = c.position();
+            run(rows, n, new ParallelRange.Kernel() {
+                @Override
+                public void apply(int from, int to) {
+                    scsrmm(rows, from, to, n, (float) alpha, b, bOffset, bRowStride, bColumnStride, (float) beta, c,
+                                    cOffset, cRowStride, cColumnStride);
+                }
+            });
+        }
+
+        Nd4j.getAffinityManager().tagLocation(C, AffinityManager.Location.HOST);
+    }
+
+    /**
+     * This method computes rows [from, to) of C = alpha * A * B + beta * C, for double precision
+     */
+    protected void dcsrmm(SparseRows a, int from, int to, int n, double alpha, DoubleBuffer b, int bOffset,
+                    int bRowStride, int bColumnStride, double beta, DoubleBuffer c, int cOffset, int cRowStride,
+                    int cColumnStride) {
+        for (int m = from; m < to; m++) {
+            int cRow = cOffset + m * cRowStride;
+            if (beta == 0.0) {
+                for (int j = 0; j < n; j++)
+                    c.put(cRow + j * cColumnStride, 0.0);
+            } else if (beta != 1.0) {
+                for (int j = 0; j < n; j++) {
+                    int idx = cRow + j * cColumnStride;
+                    c.put(idx, beta * c.get(idx));
+                }
+            }
+
+            for (int p = a.begin[m]; p < a.end[m]; p++) {
+                double value = alpha * a.values[p];
+                int bRow = bOffset + a.columnIndices[p] * bRowStride;
+                for (int j = 0; j < n; j++) {
+                    int idx = cRow + j * cColumnStride;
+                    c.put(idx, c.get(idx) + value * b.get(bRow + j * bColumnStride));
+                }
+            }
+        }
+    }
+
+    /**
+     * This method computes rows [from, to) of C = alpha * A * B + beta * C, for single precision
+     */
+    protected void scsrmm(SparseRows a, int from, int to, int n, float alpha, FloatBuffer b, int bOffset,
+                    int bRowStride, int bColumnStride, float beta, FloatBuffer c, int cOffset, int cRowStride,
+                    int cColumnStride) {
+        for (int m = from; m < to; m++) {
+            int cRow = cOffset + m * cRowStride;
+            if (beta == 0.0f) {
+                for (int j = 0; j < n; j++)
+                    c.put(cRow + j * cColumnStride, 0.0f);
+            } else if (beta != 1.0f) {
+                for (int j = 0; j < n; j++) {
+                    int idx = cRow + j * cColumnStride;
+                    c.put(idx, beta * c.get(idx));
+                }
+            }
+
+            for (int p = a.begin[m]; p < a.end[m]; p++) {
+                float value = alpha * (float) a.values[p];
+                int bRow = bOffset + a.columnIndices[p] * bRowStride;
+                for (int j = 0; j < n; j++) {
+                    int idx = cRow + j * cColumnStride;
+                    c.put(idx, c.get(idx) + value * b.get(bRow + j * bColumnStride));
+                }
+            }
+        }
+    }
+
+    /**
+     * This method splits rows of sparse matrix into chunks with similar number of non-zero entries,
+     * and applies kernel to them in parallel
+     */
+    protected static void run(final SparseRows a, int n, ParallelRange.Kernel kernel) {
+        // rows are scaled by beta even if they have no entries, so row count is part of the work too
+        ParallelRange.run(a.rows, new ParallelRange.Weights() {
+            @Override
+            public long weight(int m) {
+                return a.end[m] - a.begin[m] + 1;
+            }
+        }, n, MIN_WORK_PER_THREAD, kernel);
+    }
 
+    /**
+     * Sparse matrix in row-pointers form: entries of row m are stored at [begin[m], end[m]) positions
+     * of columnIndices and values arrays
+     */
+    protected static class SparseRows {
+        protected final int rows;
+        protected final int columns;
+        protected final int[] begin;
+        protected final int[] end;
+        protected final int[] columnIndices;
+        protected final double[] values;
+
+        protected SparseRows(int rows, int columns, int[] begin, int[] end, int[] columnIndices, double[] values) {
+            this.rows = rows;
+            this.columns = columns;
+            this.begin = begin;
+            this.end = end;
+            this.columnIndices = columnIndices;
+            this.values = values;
+        }
+
+        /**
+         * This method returns op(A) in row-pointers form
+         *
+         * @param array sparse matrix
+         * @param transpose
+         * @return
+         */
+        protected static SparseRows of(INDArray array, boolean transpose) {
+            if (array.getFormat() == SparseFormat.CSR) {
+                BaseSparseNDArrayCSR csr = (BaseSparseNDArrayCSR) array;
+                int[] pointerB = csr.getPointerBArray();
+                int[] pointerE = csr.getPointerEArray();
+                int[] columns = csr.getVectorCoordinates().asInt();
+                double[] values = csr.data().asDouble();
+                if (!transpose)
+                    return new SparseRows(csr.rows(), csr.columns(), pointerB, pointerE, columns, values);
+
+                int[] rowIndices = new int[columns.length];
+                for (int m = 0; m < csr.rows(); m++)
+                    for (int p = pointerB[m]; p < pointerE[m]; p++)
+                        rowIndices[p] = m;
+
+                return bucket(csr.columns(), csr.rows(), columns, rowIndices, values, pointerB, pointerE);
+            } else if (array.getFormat() == SparseFormat.COO) {
+                BaseSparseNDArrayCOO coo = (BaseSparseNDArrayCOO) array;
+                int[] indices = coo.getIncludedIndices().asInt();
+                double[] values = coo.getIncludedValues().asDouble();
+                int[] rowIndices = new int[values.length];
+                int[] columnIndices = new int[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    rowIndices[i] = indices[i * 2];
+                    columnIndices[i] = indices[i * 2 + 1];
+                }
+
+                int[] pointerB = {0};
+                int[] pointerE = {values.length};
+                if (transpose)
+                    return bucket(coo.columns(), coo.rows(), columnIndices, rowIndices, values, pointerB, pointerE);
+                else
+                    return bucket(coo.rows(), coo.columns(), rowIndices, columnIndices, values, pointerB, pointerE);
+            } else {
+                throw new UnsupportedOperationException("Sparse gemm isn't supported for " + array.getFormat());
+            }
+        }
+
+        /**
+         * This method groups entries by row with counting sort, entries within each row keep their original order.
+         * Only entries at [pointerB[i], pointerE[i]) positions are taken into account.
+         */
+        private static SparseRows bucket(int rows, int columns, int[] rowIndices, int[] columnIndices,
+                        double[] values, int[] pointerB, int[] pointerE) {
+            int[] begin = new int[rows];
+            int[] end = new int[rows];
+            for (int i = 0; i < pointerB.length; i++)
+                for (int p = pointerB[i]; p < pointerE[i]; p++)
+                    end[rowIndices[p]]++;
+
+            int total = 0;
+            for (int m = 0; m < rows; m++) {
+                begin[m] = total;
+                total += end[m];
+                end[m] = begin[m];
+            }
+
+            int[] newColumns = new int[total];
+            double[] newValues = new double[total];
+            for (int i = 0; i < pointerB.length; i++)
+                for (int p = pointerB[i]; p < pointerE[i]; p++) {
+                    int position = end[rowIndices[p]]++;
+                    newColumns[position] = columnIndices[p];
+                    newValues[position] = values[p];
+                }
+
+            return new SparseRows(rows, columns, begin, end, newColumns, newValues);
+        }
     }
 
     @Override
@@ -21,141 +21,472 @@ package org.nd4j.linalg.api.instrumentation;
 
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.executors.ExecutorServiceProvider;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * Collects log entries in memory
+ * Collects log entries in memory, using fixed amount of memory.
+ *
+ * Each thread logs into its own ring buffer, so logging never blocks and never touches shared state:
+ * - allocations, frees and bytes are counted for every event, per object kind and data type
+ * - only sampled events are stored as log entries (with stack trace), and counted per call site.
+ *   Sampling is decided by object identity, so creation and destruction of the same object are either both sampled or both skipped.
+ * Once ring buffer is full, oldest entries are overwritten.
+ * Rings of finished threads are eventually dropped, but their counters are retained.
+ *
+ * Sampling rate and ring buffer size can be set via ND4J_INSTRUMENTATION_SAMPLING and ND4J_INSTRUMENTATION_BUFFER environment variables.
  *
  * @author Adam Gibson
  */
 public class InMemoryInstrumentation implements Instrumentation {
-    private List<LogEntry> entries = Collections.synchronizedList(new ArrayList<LogEntry>());
-    private List<DataBufferLogEntry> dataBufferLogEntries =
-                    Collections.synchronizedList(new ArrayList<DataBufferLogEntry>());
-    private ExecutorService executorService = ExecutorServiceProvider.getExecutorService();
-    private Map<String, Collection<LogEntry>> logEntries = new ConcurrentHashMap<>();
+    public static final String ALLOCATIONS = "allocations";
+    public static final String FREES = "frees";
+    public static final String ALLOCATED_BYTES = "allocatedBytes";
+    public static final String FREED_BYTES = "freedBytes";
 
-    @Override
-    public void log(final INDArray toLog, final String status) {
-        executorService.submit(new Runnable() {
-            @Override
-            public void run() {
-                LogEntry entry = new LogEntry(toLog, status);
-                entries.add(entry);
-                //                Collection<LogEntry> logEntries = InMemoryInstrumentation.this.logEntries.get(toLog.id());
-                //
-                //                if (logEntries == null) {
-                //                    logEntries = new CopyOnWriteArrayList<>();
-                //                    InMemoryInstrumentation.this.logEntries.put(toLog.id(), logEntries);
-                //                }
-
-                //                logEntries.add(entry);
-            }
-        });
+    public static final double DEFAULT_SAMPLING_RATE = 0.01;
+    public static final int DEFAULT_BUFFER_SIZE = 4096;
+    public static final int MAX_CALL_SITES = 1024;
+    public static final String OTHER_CALL_SITES = "other";
+
+    private static final String[] COUNTERS = new String[] {ALLOCATIONS, FREES, ALLOCATED_BYTES, FREED_BYTES};
+    private static final String[] KINDS = new String[] {"INDArray", "DataBuffer"};
+    private static final DataBuffer.Type[] TYPES = DataBuffer.Type.values();
+
+    private static final int SAMPLING_RANGE = 1 << 24;
+
+    private static final Comparator<DataBufferLogEntry> BY_TIMESTAMP = new Comparator<DataBufferLogEntry>() {
+        @Override
+        public int compare(DataBufferLogEntry o1, DataBufferLogEntry o2) {
+            return Long.compare(o1.timestamp, o2.timestamp);
+        }
+    };
 
+    private volatile int samplingThreshold;
+    private final int bufferSize;
 
+    private final List<EventRing> rings = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<EventRing> localRing = new ThreadLocal<EventRing>() {
+        @Override
+        protected EventRing initialValue() {
+            EventRing ring = new EventRing(bufferSize, Thread.currentThread());
+            register(ring);
+            return ring;
+        }
+    };
+
+    // counters of dropped rings, guarded by ringsLock along with removal of rings
+    private final long[] retired = new long[KINDS.length * TYPES.length * COUNTERS.length];
+    private final Object ringsLock = new Object();
+
+    private final ConcurrentMap<String, AtomicLongArray> callSites = new ConcurrentHashMap<>();
+
+    public InMemoryInstrumentation() {
+        this(parseDouble(System.getenv("ND4J_INSTRUMENTATION_SAMPLING"), DEFAULT_SAMPLING_RATE),
+                        (int) parseDouble(System.getenv("ND4J_INSTRUMENTATION_BUFFER"), DEFAULT_BUFFER_SIZE));
+    }
+
+    /**
+     * @param samplingRate fraction of events stored as log entries, 0.0 to 1.0
+     * @param bufferSize number of log entries kept per thread
+     */
+    public InMemoryInstrumentation(double samplingRate, int bufferSize) {
+        if (bufferSize < 1)
+            throw new IllegalArgumentException("Buffer size should be positive: " + bufferSize);
 
+        this.bufferSize = bufferSize;
+        setSamplingRate(samplingRate);
+    }
+
+    /**
+     * This method sets fraction of events, that are stored as log entries. Counters are updated for all events.
+     *
+     * @param samplingRate 0.0 to 1.0
+     */
+    public void setSamplingRate(double samplingRate) {
+        if (samplingRate < 0.0 || samplingRate > 1.0)
+            throw new IllegalArgumentException("Sampling rate should be within [0, 1]: " + samplingRate);
+
+        this.samplingThreshold = (int) Math.round(samplingRate * SAMPLING_RANGE);
+    }
+
+    public double getSamplingRate() {
+        return samplingThreshold / (double) SAMPLING_RANGE;
     }
 
     @Override
-    public void log(final DataBuffer buffer, final String status) {
-        executorService.submit(new Runnable() {
-            @Override
-            public void run() {
-                dataBufferLogEntries.add(new DataBufferLogEntry(buffer, status));
+    public void log(INDArray toLog, String status) {
+        boolean destroyed = DESTROYED.equals(status);
+        long bytes = toLog.length() * toLog.data().getElementSize();
+        EventRing ring = localRing.get();
+        ring.count(0, toLog.data().dataType(), destroyed, bytes);
 
-            }
-        });
+        if (isSampled(toLog)) {
+            LogEntry entry = new LogEntry(toLog, status);
+            entry.setId(idOf(toLog));
+            ring.publish(entry);
+            countCallSite(entry, destroyed, bytes);
+        }
     }
 
     @Override
-    public void log(final INDArray toLog) {
-        executorService.submit(new Runnable() {
-            @Override
-            public void run() {
-                entries.add(new LogEntry(toLog));
+    public void log(DataBuffer buffer, String status) {
+        boolean destroyed = DESTROYED.equals(status);
+        long bytes = buffer.length() * buffer.getElementSize();
+        EventRing ring = localRing.get();
+        ring.count(1, buffer.dataType(), destroyed, bytes);
 
-            }
-        });
+        if (isSampled(buffer)) {
+            DataBufferLogEntry entry = new DataBufferLogEntry(buffer, status);
+            ring.publish(entry);
+            countCallSite(entry, destroyed, bytes);
+        }
     }
 
     @Override
-    public void log(final DataBuffer buffer) {
-        executorService.submit(new Runnable() {
-            @Override
-            public void run() {
-                dataBufferLogEntries.add(new DataBufferLogEntry(buffer));
+    public void log(INDArray toLog) {
+        log(toLog, CREATED);
+    }
 
-            }
-        });
+    @Override
+    public void log(DataBuffer buffer) {
+        log(buffer, CREATED);
     }
 
     @Override
     public Collection<LogEntry> getStillAlive() {
-        Set<LogEntry> ret = new HashSet<>();
-        for (Map.Entry<String, Collection<LogEntry>> s : logEntries.entrySet()) {
-            Collection<LogEntry> coll = s.getValue();
-            boolean foundDestroyed = false;
-            LogEntry created = null;
-            for (LogEntry entry : coll) {
-                if (entry.getStatus().equals(Instrumentation.DESTROYED)) {
-                    foundDestroyed = true;
-                }
-                if (entry.getStatus().equals(Instrumentation.CREATED)) {
-                    created = entry;
-                }
-
-            }
+        Set<String> destroyed = new HashSet<>();
+        List<LogEntry> entries = getEntries();
+        for (LogEntry entry : entries)
+            if (DESTROYED.equals(entry.getStatus()))
+                destroyed.add(entry.getId());
 
-            if (!foundDestroyed)
-                if (created != null)
-                    ret.add(created);
-                else
-                    throw new IllegalStateException("Unable to add a non created entry");
+        Set<LogEntry> ret = new HashSet<>();
+        for (LogEntry entry : entries)
+            if (CREATED.equals(entry.getStatus()) && !destroyed.contains(entry.getId()))
+                ret.add(entry);
 
-        }
         return ret;
     }
 
     @Override
     public Collection<LogEntry> getDestroyed() {
         Set<LogEntry> ret = new HashSet<>();
-        for (Map.Entry<String, Collection<LogEntry>> s : logEntries.entrySet()) {
-            Collection<LogEntry> coll = s.getValue();
-            for (LogEntry entry : coll) {
-                if (entry.getStatus().equals(Instrumentation.DESTROYED)) {
-                    ret.add(entry);
-                }
-            }
-        }
+        for (LogEntry entry : getEntries())
+            if (DESTROYED.equals(entry.getStatus()))
+                ret.add(entry);
+
         return ret;
     }
 
+    /**
+     * Returns whether the given ndarray has been destroyed, if it was sampled, and its entries weren't overwritten yet
+     *
+     * @param id the id to check, as returned by {@link LogEntry#getId()}
+     * @return true if the ndarray has been destroyed, false otherwise
+     */
     @Override
     public boolean isDestroyed(String id) {
-        Collection<LogEntry> logged = logEntries.get(id);
-        if (logged == null)
+        boolean found = false;
+        for (LogEntry entry : getEntries()) {
+            if (!id.equals(entry.getId()))
+                continue;
+
+            if (DESTROYED.equals(entry.getStatus()))
+                return true;
+
+            found = true;
+        }
+
+        if (!found)
             throw new IllegalArgumentException("No key found " + id);
-        return logged.size() == 2;
+
+        return false;
+    }
+
+    /**
+     * This method returns all INDArray log entries currently held in ring buffers, oldest first
+     *
+     * @return
+     */
+    public List<LogEntry> getEntries() {
+        List<LogEntry> ret = new ArrayList<>();
+        for (DataBufferLogEntry entry : snapshot())
+            if (entry instanceof LogEntry)
+                ret.add((LogEntry) entry);
+
+        return ret;
     }
 
+    /**
+     * This method returns all DataBuffer log entries currently held in ring buffers, oldest first
+     *
+     * @return
+     */
     public List<DataBufferLogEntry> getDataBufferLogEntries() {
-        return dataBufferLogEntries;
+        List<DataBufferLogEntry> ret = new ArrayList<>();
+        for (DataBufferLogEntry entry : snapshot())
+            if (!(entry instanceof LogEntry))
+                ret.add(entry);
+
+        return ret;
+    }
+
+    /**
+     * This method replaces INDArray log entries with given ones, which are put into ring buffer of calling thread
+     *
+     * PLEASE NOTE: this method must only be called while no other thread logs events.
+     * Ring buffers are single-writer, but this method clears entries of all rings from calling thread,
+     * so entries logged concurrently might be lost, or survive the replacement.
+     *
+     * @deprecated entries are collected in ring buffers now, use {@link #reset()} to drop them
+     */
+    @Deprecated
+    public void setEntries(List<LogEntry> entries) {
+        replaceEntries(getDataBufferLogEntries(), entries);
     }
 
+    /**
+     * This method replaces DataBuffer log entries with given ones, which are put into ring buffer of calling thread
+     *
+     * PLEASE NOTE: this method must only be called while no other thread logs events.
+     * Ring buffers are single-writer, but this method clears entries of all rings from calling thread,
+     * so entries logged concurrently might be lost, or survive the replacement.
+     *
+     * @deprecated entries are collected in ring buffers now, use {@link #reset()} to drop them
+     */
+    @Deprecated
     public void setDataBufferLogEntries(List<DataBufferLogEntry> dataBufferLogEntries) {
-        this.dataBufferLogEntries = dataBufferLogEntries;
+        replaceEntries(getEntries(), dataBufferLogEntries);
     }
 
-    public List<LogEntry> getEntries() {
-        return entries;
+    /**
+     * This method returns counters for all events, by object kind and data type, i.e. "INDArray/FLOAT"
+     *
+     * @return map of {@link #ALLOCATIONS}, {@link #FREES}, {@link #ALLOCATED_BYTES} and {@link #FREED_BYTES} for each kind and data type
+     */
+    public Map<String, Map<String, Long>> getCounters() {
+        long[] totals;
+        synchronized (ringsLock) {
+            totals = retired.clone();
+            for (EventRing ring : rings)
+                for (int i = 0; i < totals.length; i++)
+                    totals[i] += ring.counters.get(i);
+        }
+
+        Map<String, Map<String, Long>> ret = new TreeMap<>();
+        for (int k = 0; k < KINDS.length; k++) {
+            for (int t = 0; t < TYPES.length; t++) {
+                int base = (k * TYPES.length + t) * COUNTERS.length;
+                if (totals[base] == 0 && totals[base + 1] == 0)
+                    continue;
+
+                ret.put(KINDS[k] + "/" + TYPES[t].name(), toMap(totals, base));
+            }
+        }
+        return ret;
     }
 
-    public void setEntries(List<LogEntry> entries) {
-        this.entries = entries;
+    /**
+     * This method returns counters for sampled events only, by call site: first stack frame outside of ND4J
+     *
+     * @return
+     */
+    public Map<String, Map<String, Long>> getCallSiteCounters() {
+        Map<String, Map<String, Long>> ret = new TreeMap<>();
+        for (Map.Entry<String, AtomicLongArray> e : callSites.entrySet()) {
+            long[] values = new long[COUNTERS.length];
+            for (int i = 0; i < values.length; i++)
+                values[i] = e.getValue().get(i);
+
+            ret.put(e.getKey(), toMap(values, 0));
+        }
+        return ret;
+    }
+
+    /**
+     * This method drops all log entries and counters. Events logged concurrently might be partially retained.
+     */
+    public void reset() {
+        synchronized (ringsLock) {
+            Arrays.fill(retired, 0);
+            for (EventRing ring : rings)
+                ring.clear();
+        }
+
+        callSites.clear();
+    }
+
+    protected boolean isSampled(Object object) {
+        int threshold = samplingThreshold;
+        if (threshold >= SAMPLING_RANGE)
+            return true;
+
+        if (threshold == 0)
+            return false;
+
+        // identity hashes aren't uniformly distributed in low bits, so they are mixed first
+        int h = System.identityHashCode(object) * 0x9E3779B9;
+        return ((h ^ (h >>> 16)) & (SAMPLING_RANGE - 1)) < threshold;
+    }
+
+    protected static String idOf(Object object) {
+        return Integer.toHexString(System.identityHashCode(object));
+    }
+
+    private void register(EventRing ring) {
+        // rings of finished threads are kept, unless there's too many of them
+        synchronized (ringsLock) {
+            if (rings.size() >= 256) {
+                for (EventRing r : rings) {
+                    if (r.isOwnerAlive())
+                        continue;
+
+                    // owner is gone, so counters won't change anymore
+                    for (int i = 0; i < retired.length; i++)
+                        retired[i] += r.counters.get(i);
+
+                    rings.remove(r);
+                }
+            }
+            rings.add(ring);
+        }
+    }
+
+    private void countCallSite(DataBufferLogEntry entry, boolean destroyed, long bytes) {
+        String site = callSite(entry.stackTraceElements);
+        AtomicLongArray counters = callSites.get(site);
+        if (counters == null) {
+            if (callSites.size() >= MAX_CALL_SITES)
+                site = OTHER_CALL_SITES;
+
+            AtomicLongArray fresh = new AtomicLongArray(COUNTERS.length);
+            counters = callSites.putIfAbsent(site, fresh);
+            if (counters == null)
+                counters = fresh;
+        }
+
+        counters.incrementAndGet(destroyed ? 1 : 0);
+        counters.addAndGet(destroyed ? 3 : 2, bytes);
+    }
+
+    private static String callSite(StackTraceElement[] stackTrace) {
+        if (stackTrace == null)
+            return OTHER_CALL_SITES;
+
+        for (StackTraceElement element : stackTrace) {
+            String className = element.getClassName();
+            if (className.startsWith("org.nd4j.") || className.startsWith("java.") || className.startsWith("sun."))
+                continue;
+
+            return className + "." + element.getMethodName() + ":" + element.getLineNumber();
+        }
+        return OTHER_CALL_SITES;
+    }
+
+    private List<DataBufferLogEntry> snapshot() {
+        List<DataBufferLogEntry> ret = new ArrayList<>();
+        for (EventRing ring : rings)
+            ring.drainTo(ret);
+
+        Collections.sort(ret, BY_TIMESTAMP);
+        return ret;
+    }
+
+    /**
+     * Not safe to call concurrently with logging, see {@link #setEntries(List)}
+     */
+    private void replaceEntries(List<? extends DataBufferLogEntry> kept,
+                    List<? extends DataBufferLogEntry> replacement) {
+        List<DataBufferLogEntry> merged = new ArrayList<>(kept);
+        merged.addAll(replacement);
+        Collections.sort(merged, BY_TIMESTAMP);
+
+        for (EventRing ring : rings)
+            ring.clearEntries();
+
+        EventRing ring = localRing.get();
+        for (DataBufferLogEntry entry : merged)
+            ring.publish(entry);
+    }
+
+    private static Map<String, Long> toMap(long[] values, int base) {
+        Map<String, Long> ret = new LinkedHashMap<>();
+        for (int i = 0; i < COUNTERS.length; i++)
+            ret.put(COUNTERS[i], values[base + i]);
+
+        return ret;
+    }
+
+    private static double parseDouble(String value, double defaultValue) {
+        if (value == null || value.isEmpty())
+            return defaultValue;
+
+        return Double.parseDouble(value);
+    }
+
+    /**
+     * Single-producer ring buffer: only owner thread writes into it, any thread can read it
+     */
+    private static class EventRing {
+        private final AtomicReferenceArray<DataBufferLogEntry> entries;
+        private final AtomicLong head = new AtomicLong();
+        private final AtomicLongArray counters = new AtomicLongArray(KINDS.length * TYPES.length * COUNTERS.length);
+        private final WeakReference<Thread> owner;
+
+        private EventRing(int size, Thread owner) {
+            this.entries = new AtomicReferenceArray<>(size);
+            this.owner = new WeakReference<>(owner);
+        }
+
+        private boolean isOwnerAlive() {
+            Thread thread = owner.get();
+            return thread != null && thread.isAlive();
+        }
+
+        private void count(int kind, DataBuffer.Type type, boolean destroyed, long bytes) {
+            int base = (kind * TYPES.length + type.ordinal()) * COUNTERS.length;
+            int events = base + (destroyed ? 1 : 0);
+            int volume = base + (destroyed ? 3 : 2);
+
+            // single writer, so there's no need for CAS loops
+            counters.lazySet(events, counters.get(events) + 1);
+            counters.lazySet(volume, counters.get(volume) + bytes);
+        }
+
+        private void publish(DataBufferLogEntry entry) {
+            long position = head.get();
+            entries.lazySet((int) (position % entries.length()), entry);
+            head.lazySet(position + 1);
+        }
+
+        private void drainTo(List<DataBufferLogEntry> target) {
+            long end = head.get();
+            long start = Math.max(0, end - entries.length());
+            for (long i = start; i < end; i++) {
+                DataBufferLogEntry entry = entries.get((int) (i % entries.length()));
+                if (entry != null)
+                    target.add(entry);
+            }
+        }
+
+        private void clearEntries() {
+            for (int i = 0; i < entries.length(); i++)
+                entries.set(i, null);
+        }
+
+        private void clear() {
+            clearEntries();
+
+            for (int i = 0; i < counters.length(); i++)
+                counters.set(i, 0);
+        }
     }
 }
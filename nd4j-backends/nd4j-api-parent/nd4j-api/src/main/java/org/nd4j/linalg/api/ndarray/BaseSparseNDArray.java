@@ -3,6 +3,7 @@ package org.nd4j.linalg.api.ndarray;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.math3.util.FastMath;
 import org.nd4j.linalg.api.blas.BlasBufferUtil;
+import org.nd4j.linalg.api.blas.params.MMulTranspose;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.complex.IComplexNDArray;
 import org.nd4j.linalg.api.complex.IComplexNumber;
@@ -893,7 +894,49 @@ public abstract class BaseSparseNDArray implements ISparseNDArray {
 
     @Override
     public INDArray mmul(INDArray other, INDArray result) {
-        return null;
+        return mmuli(other, result);
+    }
+
+    /**
+     * Perform a copy matrix multiplication.
+     * Transposes are applied by sparse gemm itself, without transposing sparse array
+     *
+     * @param other         the other matrix to perform matrix multiply with
+     * @param mMulTranspose the transpose status of each array
+     * @return the result of the matrix multiplication
+     */
+    @Override
+    public INDArray mmul(INDArray other, MMulTranspose mMulTranspose) {
+        int rows = mMulTranspose.isTransposeA() ? columns() : rows();
+        int columns = mMulTranspose.isTransposeB() ? other.rows() : other.columns();
+        int[] shape = mMulTranspose.isTransposeResult() ? new int[] {columns, rows} : new int[] {rows, columns};
+        return mmuli(other, createUninitialized(shape, 'f'), mMulTranspose);
+    }
+
+    @Override
+    public INDArray mmul(INDArray other, INDArray result, MMulTranspose mMulTranspose) {
+        return mmuli(other, result, mMulTranspose);
+    }
+
+    /**
+     * Perform a matrix multiplication, storing result in given dense array.
+     * If result has to be transposed, it's written through transposed view of result array
+     *
+     * @param other     the other matrix to perform matrix multiply with
+     * @param result    the result ndarray
+     * @param transpose the transpose status of each array
+     * @return the result of the matrix multiplication
+     */
+    @Override
+    public INDArray mmuli(INDArray other, INDArray result, MMulTranspose transpose) {
+        INDArray target = transpose.isTransposeResult() ? result.transpose() : result;
+        Nd4j.getSparseBlasWrapper().level3().gemm(this, other, target, transpose.isTransposeA(),
+                        transpose.isTransposeB(), 1.0, 0.0);
+
+        if (Nd4j.ENFORCE_NUMERICAL_STABILITY)
+            Nd4j.clearNans(result);
+
+        return result;
     }
 
     @Override
@@ -936,9 +979,24 @@ public abstract class BaseSparseNDArray implements ISparseNDArray {
         return null;
     }
 
+    /**
+     * In-place matrix multiplication isn't possible for sparse arrays, since result is dense.
+     * Use {@link #mmul(INDArray)} or {@link #mmuli(INDArray, INDArray)} instead
+     */
     @Override
     public INDArray mmuli(INDArray other) {
-        return null;
+        throw new UnsupportedOperationException(
+                        "Sparse array can't hold result of matrix multiplication. Use mmul() or mmuli(other, result)");
+    }
+
+    /**
+     * In-place matrix multiplication isn't possible for sparse arrays, since result is dense.
+     * Use {@link #mmul(INDArray, MMulTranspose)} or {@link #mmuli(INDArray, INDArray, MMulTranspose)} instead
+     */
+    @Override
+    public INDArray mmuli(INDArray other, MMulTranspose transpose) {
+        throw new UnsupportedOperationException(
+                        "Sparse array can't hold result of matrix multiplication. Use mmul() or mmuli(other, result, transpose)");
     }
 
     @Override
@@ -955,7 +1013,15 @@ public abstract class BaseSparseNDArray implements ISparseNDArray {
 
         /* check sizes and resize if necessary */
 
+        if (other.columns() != 1 || getFormat() != SparseFormat.COO) {
+            // sparse gemm addresses result via strides, so it doesn't need temporary 'f' array
+            Nd4j.getSparseBlasWrapper().level3().gemm(this, other, result, false, false, 1.0, 0.0);
 
+            if (Nd4j.ENFORCE_NUMERICAL_STABILITY)
+                Nd4j.clearNans(result);
+
+            return result;
+        }
 
         //We require that the result array is 'f' (fortran) order
         // However, user might have called mmuli with a c order array for the result
@@ -970,19 +1036,8 @@ public abstract class BaseSparseNDArray implements ISparseNDArray {
             gemmResultArr = result;
         }
 
-        if (other.columns() == 1) {
-            Nd4j.getBlasWrapper().level2().gemv(ordering(), BlasBufferUtil.getCharForTranspose(other), 1.0, this, other,
-                            0.0, gemmResultArr);
-        } else {
-            //gemm doesn't support strides so vectors and views
-            //don't work
-            if (isView() && isVector()) {
-                return dup().mmuli(other, gemmResultArr);
-            }
-
-            Nd4j.getBlasWrapper().level3().gemm(ordering(), BlasBufferUtil.getCharForTranspose(other),
-                            BlasBufferUtil.getCharForTranspose(gemmResultArr), 1.0, this, other, 0.0, gemmResultArr);
-        }
+        Nd4j.getBlasWrapper().level2().gemv(ordering(), BlasBufferUtil.getCharForTranspose(other), 1.0, this, other,
+                        0.0, gemmResultArr);
 
         if (requiresTemp) {
             result.assign(gemmResultArr);
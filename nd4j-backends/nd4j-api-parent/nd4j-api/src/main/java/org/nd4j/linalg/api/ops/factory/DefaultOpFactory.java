@@ -32,6 +32,8 @@ import org.nd4j.linalg.api.ops.impl.transforms.Step;
 import org.nd4j.linalg.api.ops.impl.transforms.gradient.SoftMaxDerivative;
 
 import java.lang.reflect.Constructor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
@@ -43,6 +45,19 @@ import java.lang.reflect.Constructor;
 public class DefaultOpFactory implements OpFactory {
 
 
+    // constructors are looked up once per op name, instead of on every call
+    private final ConstructorCache lossConstructors = new ConstructorCache(true, INDArray.class, INDArray.class);
+    private final ConstructorCache accumConstructors =
+                    new ConstructorCache(false, INDArray.class, INDArray.class, INDArray.class, long.class);
+    private final ConstructorCache indexAccumConstructors = new ConstructorCache(false, INDArray.class, INDArray.class);
+    private final ConstructorCache transformConstructors = new ConstructorCache(false, INDArray.class, INDArray.class);
+    private final ConstructorCache pairwiseConstructors =
+                    new ConstructorCache(false, INDArray.class, INDArray.class, INDArray.class);
+    private final ConstructorCache scalarConstructors = new ConstructorCache(false, INDArray.class, INDArray.class,
+                    INDArray.class, long.class, Number.class);
+    private final ConstructorCache broadcastConstructors =
+                    new ConstructorCache(false, INDArray.class, INDArray.class, INDArray.class, int[].class);
+
     public DefaultOpFactory() {
     }
 
@@ -77,9 +92,7 @@ public class DefaultOpFactory implements OpFactory {
     @Override
     public LossFunction createLossFunction(String name, INDArray x, INDArray y) {
         try {
-            Constructor<DifferentialFunction> constructor =
-                    (Constructor<DifferentialFunction>)  DifferentialFunctionClassHolder.getInstance().getInstance(name).getClass().getDeclaredConstructor(INDArray.class, INDArray.class);
-            Op create = (Op) constructor.newInstance(x, y);
+            Op create = (Op) lossConstructors.newInstance(name, x, y);
             return (LossFunction) create;
         } catch (Exception e) {
             throw new IllegalArgumentException("Illegal op " + name);
@@ -117,7 +130,7 @@ public class DefaultOpFactory implements OpFactory {
                 break;
             default:
                 try {
-                    ret = (Accumulation)  DifferentialFunctionClassHolder.getInstance().getInstance(name).getClass().getConstructor(INDArray.class, INDArray.class, INDArray.class, long.class).newInstance(x, y, z, x.length());
+                    ret = (Accumulation) accumConstructors.newInstance(name, x, y, z, x.length());
                 } catch (Exception e) {
                     throw new RuntimeException(e);
                 }
@@ -205,7 +218,7 @@ public class DefaultOpFactory implements OpFactory {
         IndexAccumulation ret = null;
 
         try {
-            ret = (IndexAccumulation)  DifferentialFunctionClassHolder.getInstance().getInstance(opName).getClass().getConstructor(INDArray.class, INDArray.class).newInstance(x, y);
+            ret = (IndexAccumulation) indexAccumConstructors.newInstance(opName, x, y);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -295,9 +308,9 @@ public class DefaultOpFactory implements OpFactory {
             default:
                 try {
                     if (y == null)
-                        op = (TransformOp)  DifferentialFunctionClassHolder.getInstance().getInstance(name).getClass().getConstructor(INDArray.class, INDArray.class).newInstance(x, z);
+                        op = (TransformOp) transformConstructors.newInstance(name, x, z);
                     else
-                        op = (TransformOp)  DifferentialFunctionClassHolder.getInstance().getInstance(name).getClass().getConstructor(INDArray.class, INDArray.class, INDArray.class).newInstance(x, y, z);
+                        op = (TransformOp) pairwiseConstructors.newInstance(name, x, y, z);
                 } catch (Exception e) {
                     throw new RuntimeException(e);
                 }
@@ -531,7 +544,7 @@ public class DefaultOpFactory implements OpFactory {
         ScalarOp ret = null;
 
         try {
-            ret = (ScalarOp)  DifferentialFunctionClassHolder.getInstance().getInstance(name).getClass().getConstructor(INDArray.class, INDArray.class, INDArray.class, long.class, Number.class).newInstance(x, y, z, x.length(), scalar);
+            ret = (ScalarOp) scalarConstructors.newInstance(name, x, y, z, x.length(), scalar);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -604,7 +617,7 @@ public class DefaultOpFactory implements OpFactory {
         BroadcastOp broadcastOp = null;
 
         try {
-            broadcastOp = (BroadcastOp) DifferentialFunctionClassHolder.getInstance().getInstance(name).getClass().getConstructor(INDArray.class, INDArray.class, INDArray.class, int[].class).newInstance(x, y, z, dimension);
+            broadcastOp = (BroadcastOp) broadcastConstructors.newInstance(name, x, y, z, dimension);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -672,4 +685,33 @@ public class DefaultOpFactory implements OpFactory {
     public Op getOpByName(String opName) {
         return (Op) DifferentialFunctionClassHolder.getInstance().getInstance(opName);
     }
+
+    /**
+     * Constructors with the same signature, cached by op name
+     */
+    private static class ConstructorCache {
+        private final boolean declared;
+        private final Class<?>[] signature;
+        private final ConcurrentMap<String, Constructor<?>> constructors = new ConcurrentHashMap<>();
+
+        private ConstructorCache(boolean declared, Class<?>... signature) {
+            this.declared = declared;
+            this.signature = signature;
+        }
+
+        private Object newInstance(String name, Object... args) throws Exception {
+            Constructor<?> constructor = constructors.get(name);
+            if (constructor == null) {
+                DifferentialFunction op = DifferentialFunctionClassHolder.getInstance().getInstance(name);
+                if (op == null)
+                    throw new IllegalArgumentException("Illegal op " + name);
+
+                constructor = declared ? op.getClass().getDeclaredConstructor(signature)
+                                : op.getClass().getConstructor(signature);
+                constructors.put(name, constructor);
+            }
+
+            return constructor.newInstance(args);
+        }
+    }
 }
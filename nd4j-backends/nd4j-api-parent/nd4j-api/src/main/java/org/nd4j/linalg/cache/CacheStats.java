@@ -0,0 +1,27 @@
+package org.nd4j.linalg.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Point-in-time snapshot of {@link EvictingCache} counters
+ */
+@Data
+@AllArgsConstructor
+public class CacheStats {
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long entries;
+    private long bytes;
+
+    /**
+     * This method returns ratio of successful lookups to all lookups, or 0.0 if cache wasn't used yet
+     *
+     * @return
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
@@ -0,0 +1,244 @@
+package org.nd4j.linalg.cache;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent cache with byte budget and approximate LRU eviction.
+ *
+ * Lookups are lock-free: ConcurrentHashMap read + relaxed access stamp update.
+ * Insertions use putIfAbsent, so concurrent creators of the same key always end up with the same cached value.
+ * Once byte budget (or entries limit) is exceeded, one of inserting threads evicts least recently used entries
+ * down to the low watermark, while other threads just proceed without waiting.
+ *
+ * PLEASE NOTE: evicted values are only released from cache, they aren't destroyed explicitly,
+ * so anyone still holding reference to evicted value can keep using it.
+ */
+@Slf4j
+public class EvictingCache<K, V> {
+
+    /**
+     * This interface describes memory footprint estimation for cached values
+     */
+    public interface Weigher<V> {
+        long sizeOf(V value);
+    }
+
+    protected static class Entry<V> {
+        protected final V value;
+        protected final long bytes;
+        protected volatile long lastAccess;
+
+        protected Entry(V value, long bytes, long lastAccess) {
+            this.value = value;
+            this.bytes = bytes;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    protected static class Candidate<K, V> implements Comparable<Candidate<K, V>> {
+        protected final K key;
+        protected final Entry<V> entry;
+        // access stamp is copied, since it might change while we're sorting
+        protected final long lastAccess;
+
+        protected Candidate(K key, Entry<V> entry) {
+            this.key = key;
+            this.entry = entry;
+            this.lastAccess = entry.lastAccess;
+        }
+
+        @Override
+        public int compareTo(Candidate<K, V> o) {
+            return lastAccess < o.lastAccess ? -1 : lastAccess == o.lastAccess ? 0 : 1;
+        }
+    }
+
+    protected final ConcurrentMap<K, Entry<V>> cache = new ConcurrentHashMap<>();
+    protected final Weigher<V> weigher;
+    protected final long maxBytes;
+    protected final int maxEntries;
+
+    // eviction stops once we're below these values, so eviction cost is amortized over multiple insertions
+    protected final long lowBytes;
+    protected final int lowEntries;
+
+    protected final AtomicLong bytes = new AtomicLong(0);
+    protected final AtomicInteger entries = new AtomicInteger(0);
+    protected final AtomicLong hits = new AtomicLong(0);
+    protected final AtomicLong misses = new AtomicLong(0);
+    protected final AtomicLong evictions = new AtomicLong(0);
+
+    // logical clock, advanced on insertions only, so cache hits don't contend on it
+    protected final AtomicLong clock = new AtomicLong(0);
+    protected final ReentrantLock evictionLock = new ReentrantLock();
+
+    /**
+     * @param maxBytes memory budget for cached values, in bytes. Values <= 0 mean no limit
+     * @param maxEntries max number of cached entries. Values <= 0 mean no limit
+     * @param weigher memory footprint estimator for cached values
+     */
+    public EvictingCache(long maxBytes, int maxEntries, @NonNull Weigher<V> weigher) {
+        this.maxBytes = maxBytes > 0 ? maxBytes : Long.MAX_VALUE;
+        this.maxEntries = maxEntries > 0 ? maxEntries : Integer.MAX_VALUE;
+        this.lowBytes = maxBytes > 0 ? maxBytes - maxBytes / 10 : Long.MAX_VALUE;
+        this.lowEntries = maxEntries > 0 ? maxEntries - maxEntries / 10 : Integer.MAX_VALUE;
+        this.weigher = weigher;
+    }
+
+    /**
+     * This method returns cache limit defined via environment variable, or default value if variable isn't set
+     *
+     * @param variable name of environment variable
+     * @param defaultValue
+     * @return
+     */
+    public static long limitFromEnvironment(@NonNull String variable, long defaultValue) {
+        String value = System.getenv(variable);
+        if (value == null)
+            return defaultValue;
+
+        try {
+            return Long.parseLong(value);
+        } catch (Exception e) {
+            log.error("Can't parse {}: [{}]", variable, value);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * This method returns cached value for given key, or null if there's no such value
+     *
+     * @param key
+     * @return
+     */
+    public V get(@NonNull K key) {
+        Entry<V> entry = cache.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        hits.incrementAndGet();
+
+        // we avoid redundant writes here, to keep hot entries' cache lines shared between threads
+        long time = clock.get();
+        if (entry.lastAccess != time)
+            entry.lastAccess = time;
+
+        return entry.value;
+    }
+
+    /**
+     * This method stores value in cache, unless there's value for this key already.
+     * Value that ends up in cache is returned, so callers can use it instead of their own copy.
+     *
+     * If value alone exceeds byte budget - it's not cached at all, and returned as is.
+     *
+     * @param key
+     * @param value
+     * @return
+     */
+    public V put(@NonNull K key, @NonNull V value) {
+        long size = weigher.sizeOf(value);
+        if (size > maxBytes)
+            return value;
+
+        Entry<V> entry = new Entry<>(value, size, clock.incrementAndGet());
+        Entry<V> existing = cache.putIfAbsent(key, entry);
+        if (existing != null)
+            return existing.value;
+
+        bytes.addAndGet(size);
+        entries.incrementAndGet();
+
+        // limits are re-checked after eviction, since insertions that couldn't take the lock might be missed by it
+        while ((bytes.get() > maxBytes || entries.get() > maxEntries) && evictionLock.tryLock()) {
+            try {
+                evict();
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * This method evicts least recently used entries, until cache gets below low watermark
+     */
+    protected void evict() {
+        List<Candidate<K, V>> candidates = new ArrayList<>(entries.get());
+        for (Map.Entry<K, Entry<V>> e : cache.entrySet())
+            candidates.add(new Candidate<>(e.getKey(), e.getValue()));
+
+        Collections.sort(candidates);
+
+        for (Candidate<K, V> candidate : candidates) {
+            if (bytes.get() <= lowBytes && entries.get() <= lowEntries)
+                break;
+
+            // entry might be replaced or removed concurrently, so we only remove exactly this entry
+            if (cache.remove(candidate.key, candidate.entry)) {
+                bytes.addAndGet(-candidate.entry.bytes);
+                entries.decrementAndGet();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * This method removes all cached entries. Counters are preserved.
+     */
+    public void invalidateAll() {
+        evictionLock.lock();
+        try {
+            for (K key : cache.keySet()) {
+                Entry<V> entry = cache.remove(key);
+                if (entry != null) {
+                    bytes.addAndGet(-entry.bytes);
+                    entries.decrementAndGet();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * This method returns memory used by cached values, in bytes
+     *
+     * @return
+     */
+    public long getCachedBytes() {
+        return bytes.get();
+    }
+
+    /**
+     * This method returns number of cached entries
+     *
+     * @return
+     */
+    public int size() {
+        return entries.get();
+    }
+
+    /**
+     * This method returns snapshot of cache counters
+     *
+     * @return
+     */
+    public CacheStats getStats() {
+        return new CacheStats(hits.get(), misses.get(), evictions.get(), entries.get(), bytes.get());
+    }
+}
@@ -0,0 +1,82 @@
+package org.nd4j.linalg.cache;
+
+import lombok.Data;
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.CustomOp;
+
+/**
+ * This is utility class, made to compare CustomOp invocations for output shape caching purposes.
+ *
+ * Idea: output shapes of CustomOp depend only on op itself, data type, shapes of inputs and op arguments.
+ * So for any given combination of these, output shapes can be calculated once and reused.
+ *
+ * PLEASE NOTE: some ops take shapes, axes or begin/end indices as input arrays (i.e. fill, reshape, tile, strided_slice),
+ * so for them contents of short inputs have to be part of descriptor as well. That's up to the caller,
+ * since for all other ops contents would only cause cache misses.
+ * Ops with output shape depending on contents of arbitrary inputs (i.e. unique) shouldn't be cached at all.
+ */
+@Data
+public class OutputShapeDescriptor {
+    private long opHash;
+    private DataBuffer.Type dataType;
+    private int[][] inputShapes;
+    private int[] iArgs;
+    private double[] tArgs;
+    // contents of inputs that might carry shape information, null for longer inputs, or if contents are ignored
+    private double[][] inputValues;
+
+    /**
+     * Inputs longer than this can't be shapes or axes, so their contents are ignored
+     */
+    public static final int MAX_SHAPE_INPUT_LENGTH = 64;
+
+    public OutputShapeDescriptor(@NonNull CustomOp op, DataBuffer.Type dataType) {
+        this(op, dataType, false);
+    }
+
+    /**
+     * @param op op to describe
+     * @param dataType data type op is executed with
+     * @param shapeInputs true if op takes shapes or axes as input arrays, so contents of short inputs are included
+     */
+    public OutputShapeDescriptor(@NonNull CustomOp op, DataBuffer.Type dataType, boolean shapeInputs) {
+        this.opHash = op.opHash();
+        this.dataType = dataType;
+
+        INDArray[] inputs = op.inputArguments();
+        this.inputShapes = new int[inputs.length][];
+        this.inputValues = new double[inputs.length][];
+        for (int e = 0; e < inputs.length; e++) {
+            this.inputShapes[e] = TadDescriptor.dataBufferToArray(inputs[e].shapeInfoDataBuffer());
+
+            if (shapeInputs && inputs[e].length() <= MAX_SHAPE_INPUT_LENGTH) {
+                this.inputValues[e] = new double[inputs[e].length()];
+                for (int i = 0; i < inputs[e].length(); i++)
+                    this.inputValues[e][i] = inputs[e].getDouble(i);
+            }
+        }
+
+        // arguments are copied, since op might be reused with different arguments later
+        this.iArgs = op.iArgs() == null ? new int[0] : op.iArgs().clone();
+        this.tArgs = op.tArgs() == null ? new double[0] : op.tArgs().clone();
+    }
+
+    /**
+     * This method returns approximate memory footprint of this descriptor, in bytes
+     *
+     * @return
+     */
+    public long sizeOf() {
+        long bytes = 4 * iArgs.length + 8 * tArgs.length + 32;
+        for (int[] shape : inputShapes)
+            bytes += 4 * shape.length;
+
+        for (double[] values : inputValues)
+            if (values != null)
+                bytes += 8 * values.length;
+
+        return bytes;
+    }
+}
@@ -12,7 +12,9 @@ import org.reflections.util.ConfigurationBuilder;
 import org.reflections.util.FilterBuilder;
 
 import java.lang.reflect.Modifier;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -32,9 +34,24 @@ public class BasicNDArrayCompressor {
 
     protected void loadCompressors() {
         /*
-            We scan classpath for NDArrayCompressor implementations and add them one by one to codecs map
+            Compressors are registered via META-INF/services, so there's no need to scan classpath on startup.
+            Classpath scanning is used only if no compressors were registered that way,
+            or if it's explicitly requested, to pick up compressors from jars without services file
          */
         codecs = new ConcurrentHashMap<>();
+        for (NDArrayCompressor compressor : ServiceLoader.load(NDArrayCompressor.class))
+            codecs.put(compressor.getDescriptor().toUpperCase(), compressor);
+
+        if (codecs.isEmpty() || Boolean.parseBoolean(System.getenv("ND4J_CLASSPATH_SCAN"))
+                        || Boolean.getBoolean("org.nd4j.classpath.scan"))
+            scanCompressors();
+    }
+
+    protected void scanCompressors() {
+        Set<Class<?>> registered = new HashSet<>();
+        for (NDArrayCompressor compressor : codecs.values())
+            registered.add(compressor.getClass());
+
         Set<Class<? extends NDArrayCompressor>> classes = new Reflections(new ConfigurationBuilder()
                         .filterInputsBy(new FilterBuilder().include(FilterBuilder.prefix("org.nd4j"))
                                         .exclude("^(?!.*\\.class$).*$")) //Consider only .class files (to avoid debug messages etc. on .dlls, etc
@@ -42,7 +59,7 @@ public class BasicNDArrayCompressor {
                                         .getSubTypesOf(NDArrayCompressor.class);
 
         for (Class<? extends NDArrayCompressor> impl : classes) {
-            if (Modifier.isAbstract(impl.getModifiers()) || impl.isInterface())
+            if (Modifier.isAbstract(impl.getModifiers()) || impl.isInterface() || registered.contains(impl))
                 continue;
 
             try {
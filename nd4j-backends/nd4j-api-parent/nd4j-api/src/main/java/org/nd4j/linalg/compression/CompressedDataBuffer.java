@@ -59,9 +59,13 @@ public class CompressedDataBuffer extends BaseDataBuffer {
         out.writeLong(compressionDescriptor.getOriginalLength());
         out.writeLong(compressionDescriptor.getNumberOfElements());
         //        out.write(((BytePointer) pointer).getStringBytes());
-        for (int x = 0; x < pointer.capacity() * pointer.sizeof(); x++) {
-            byte b = pointer.asByteBuffer().get(x);
-            out.writeByte(b);
+        long bytes = pointer.capacity() * pointer.sizeof();
+        BytePointer source = new BytePointer(pointer);
+        byte[] chunk = new byte[(int) Math.min(IO_CHUNK_SIZE, bytes)];
+        for (long position = 0; position < bytes; position += chunk.length) {
+            int chunkSize = (int) Math.min(chunk.length, bytes - position);
+            source.position(position).get(chunk, 0, chunkSize);
+            out.write(chunk, 0, chunkSize);
         }
     }
 
@@ -91,9 +95,7 @@ public class CompressedDataBuffer extends BaseDataBuffer {
                 long numberOfElements = s.readLong();
 
                 byte[] temp = new byte[(int) compressedLength];
-                for (int i = 0; i < compressedLength; i++) {
-                    temp[i] = s.readByte();
-                }
+                s.readFully(temp);
 
                 try (Pointer pointer = new BytePointer(temp)) {
                     CompressionDescriptor descriptor = new CompressionDescriptor();
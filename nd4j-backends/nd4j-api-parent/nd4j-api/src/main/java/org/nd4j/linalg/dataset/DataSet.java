@@ -36,6 +36,8 @@ import org.nd4j.linalg.indexing.conditions.Condition;
 import org.nd4j.linalg.util.ArrayUtil;
 import org.nd4j.linalg.util.FeatureUtil;
 import org.nd4j.linalg.util.MathUtils;
+import org.nd4j.serde.binary.IndexedArrayReader;
+import org.nd4j.serde.binary.IndexedArrayWriter;
 
 import java.io.*;
 import java.util.*;
@@ -62,6 +64,14 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
     private static final byte BITMASK_FEATURE_MASK_PRESENT = 1 << 3;
     private static final byte BITMASK_LABELS_MASK_PRESENT = 1 << 4;
 
+    /**
+     * Array names used by {@link #saveIndexed(File)}, so single arrays can be read with {@link IndexedArrayReader}
+     */
+    public static final String INDEXED_FEATURES = "features";
+    public static final String INDEXED_LABELS = "labels";
+    public static final String INDEXED_FEATURES_MASK = "featuresMask";
+    public static final String INDEXED_LABELS_MASK = "labelsMask";
+
     private List<String> columnNames = new ArrayList<>();
     private List<String> labelNames = new ArrayList<>();
     private INDArray features, labels;
@@ -259,8 +269,23 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
         }
     }
 
+    /**
+     * Load the DataSet from file, saved with either {@link #save(File)} or {@link #saveIndexed(File)}.
+     * Indexed files are memory-mapped instead of being deserialized.
+     *
+     * @param from File to load the DataSet from
+     */
     @Override
     public void load(File from) {
+        try {
+            if (IndexedArrayReader.isIndexed(from)) {
+                loadIndexed(from, -1, -1);
+                return;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
         try (FileInputStream fis = new FileInputStream(from);
                         BufferedInputStream bis = new BufferedInputStream(fis, 1024 * 1024)) {
             load(bis);
@@ -269,6 +294,57 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
         }
     }
 
+    /**
+     * Load examples [fromExample, toExample) of the DataSet from file.
+     * For files saved with {@link #saveIndexed(File)} only requested examples are memory-mapped,
+     * for other files the whole DataSet is loaded first.
+     *
+     * @param from File to load the DataSet from
+     * @param fromExample first example, inclusive
+     * @param toExample last example, exclusive
+     */
+    public void load(File from, int fromExample, int toExample) {
+        try {
+            if (IndexedArrayReader.isIndexed(from)) {
+                loadIndexed(from, fromExample, toExample);
+                return;
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        DataSet full = new DataSet();
+        full.load(from);
+        org.nd4j.linalg.dataset.api.DataSet range = full.getRange(fromExample, toExample);
+        features = range.getFeatures();
+        labels = range.getLabels();
+        featuresMask = range.getFeaturesMaskArray();
+        labelsMask = range.getLabelsMaskArray();
+    }
+
+    private void loadIndexed(File from, int fromExample, int toExample) {
+        try (IndexedArrayReader reader = new IndexedArrayReader(from)) {
+            features = readIndexed(reader, INDEXED_FEATURES, fromExample, toExample);
+            if (reader.isSameArray(INDEXED_FEATURES, INDEXED_LABELS))
+                labels = features;
+            else
+                labels = readIndexed(reader, INDEXED_LABELS, fromExample, toExample);
+
+            featuresMask = readIndexed(reader, INDEXED_FEATURES_MASK, fromExample, toExample);
+            labelsMask = readIndexed(reader, INDEXED_LABELS_MASK, fromExample, toExample);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static INDArray readIndexed(IndexedArrayReader reader, String name, int fromExample, int toExample)
+                    throws IOException {
+        if (!reader.contains(name))
+            return null;
+
+        return fromExample < 0 ? reader.get(name) : reader.get(name, fromExample, toExample);
+    }
+
 
     @Override
     public void save(OutputStream to) {
@@ -321,6 +397,29 @@ public class DataSet implements org.nd4j.linalg.dataset.api.DataSet {
         }
     }
 
+    /**
+     * Save this DataSet to indexed file: each array is stored as raw page-aligned data, with footer index
+     * of array offsets, shapes and data types. Such files can be loaded with {@link #load(File)}
+     * or {@link #load(File, int, int)} without deserialization, and single arrays can be read
+     * with {@link IndexedArrayReader}, using INDEXED_* names.
+     *
+     * @param to File to save the DataSet to
+     */
+    public void saveIndexed(File to) {
+        try (IndexedArrayWriter writer = new IndexedArrayWriter(to)) {
+            if (features != null)
+                writer.add(INDEXED_FEATURES, features);
+            if (labels != null)
+                writer.add(INDEXED_LABELS, labels);
+            if (featuresMask != null)
+                writer.add(INDEXED_FEATURES_MASK, featuresMask);
+            if (labelsMask != null)
+                writer.add(INDEXED_LABELS_MASK, labelsMask);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     @Override
     public DataSetIterator iterateWithMiniBatches() {
         return null;
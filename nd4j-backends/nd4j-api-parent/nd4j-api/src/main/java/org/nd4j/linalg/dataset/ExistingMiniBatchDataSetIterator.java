@@ -11,6 +11,9 @@ import java.util.List;
  * Read in existing mini batches created
  * by the mini batch file datasetiterator.
  *
+ * Both regular and indexed (see {@link DataSet#saveIndexed(File)}) files are supported,
+ * indexed files are memory-mapped instead of being deserialized.
+ *
  * @author Adam Gibson
  */
 public class ExistingMiniBatchDataSetIterator implements DataSetIterator {
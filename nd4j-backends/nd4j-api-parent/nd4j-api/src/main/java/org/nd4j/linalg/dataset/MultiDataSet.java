@@ -7,6 +7,8 @@ import org.nd4j.linalg.dataset.api.DataSetUtil;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.indexing.INDArrayIndex;
 import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.serde.binary.IndexedArrayReader;
+import org.nd4j.serde.binary.IndexedArrayWriter;
 
 import java.io.*;
 import java.util.*;
@@ -17,6 +19,14 @@ import java.util.*;
 public class MultiDataSet implements org.nd4j.linalg.dataset.api.MultiDataSet {
     private static final INDArray EMPTY_MASK_ARRAY_PLACEHOLDER = Nd4j.create(new float[] {-1});
 
+    /**
+     * Array name prefixes used by {@link #saveIndexed(File)}: i-th features array is stored as "features_i", etc
+     */
+    public static final String INDEXED_FEATURES = "features_";
+    public static final String INDEXED_LABELS = "labels_";
+    public static final String INDEXED_FEATURES_MASK = "featuresMask_";
+    public static final String INDEXED_LABELS_MASK = "labelsMask_";
+
     private INDArray[] features;
     private INDArray[] labels;
     private INDArray[] featuresMaskArrays;
@@ -261,9 +271,95 @@ public class MultiDataSet implements org.nd4j.linalg.dataset.api.MultiDataSet {
         return result;
     }
 
+    /**
+     * Load the MultiDataSet from file, saved with either {@link #save(File)} or {@link #saveIndexed(File)}.
+     * Indexed files are memory-mapped instead of being deserialized.
+     */
     @Override
     public void load(File from) throws IOException {
-        load(new FileInputStream(from));
+        if (IndexedArrayReader.isIndexed(from))
+            loadIndexed(from, -1, -1);
+        else
+            load(new FileInputStream(from));
+    }
+
+    /**
+     * Load examples [fromExample, toExample) of the MultiDataSet from file saved with {@link #saveIndexed(File)}.
+     * Only requested examples are memory-mapped.
+     *
+     * @param from File to load the MultiDataSet from
+     * @param fromExample first example, inclusive
+     * @param toExample last example, exclusive
+     */
+    public void load(File from, int fromExample, int toExample) throws IOException {
+        if (!IndexedArrayReader.isIndexed(from))
+            throw new IllegalArgumentException("Loading range of examples requires indexed file: " + from);
+
+        loadIndexed(from, fromExample, toExample);
+    }
+
+    private void loadIndexed(File from, int fromExample, int toExample) throws IOException {
+        try (IndexedArrayReader reader = new IndexedArrayReader(from)) {
+            int numFArr = countIndexedArrays(reader, INDEXED_FEATURES);
+            int numLArr = countIndexedArrays(reader, INDEXED_LABELS);
+
+            // missing mask arrays aren't stored, but mask arrays always match features/labels arrays
+            int numFMArr = countIndexedArrays(reader, INDEXED_FEATURES_MASK) > 0 ? numFArr : 0;
+            int numLMArr = countIndexedArrays(reader, INDEXED_LABELS_MASK) > 0 ? numLArr : 0;
+
+            features = loadIndexedArrays(reader, INDEXED_FEATURES, numFArr, fromExample, toExample);
+            labels = loadIndexedArrays(reader, INDEXED_LABELS, numLArr, fromExample, toExample);
+            featuresMaskArrays = loadIndexedArrays(reader, INDEXED_FEATURES_MASK, numFMArr, fromExample, toExample);
+            labelsMaskArrays = loadIndexedArrays(reader, INDEXED_LABELS_MASK, numLMArr, fromExample, toExample);
+        }
+    }
+
+    private int countIndexedArrays(IndexedArrayReader reader, String prefix) {
+        int numArrays = 0;
+        for (String name : reader.names())
+            if (name.startsWith(prefix))
+                numArrays = Math.max(numArrays, Integer.parseInt(name.substring(prefix.length())) + 1);
+
+        return numArrays;
+    }
+
+    private INDArray[] loadIndexedArrays(IndexedArrayReader reader, String prefix, int numArrays, int fromExample,
+                    int toExample) throws IOException {
+        if (numArrays == 0)
+            return null;
+
+        INDArray[] result = new INDArray[numArrays];
+        for (int i = 0; i < numArrays; i++) {
+            String name = prefix + i;
+            if (reader.contains(name))
+                result[i] = fromExample < 0 ? reader.get(name) : reader.get(name, fromExample, toExample);
+        }
+        return result;
+    }
+
+    /**
+     * Save this MultiDataSet to indexed file: each array is stored as raw page-aligned data, with footer index
+     * of array offsets, shapes and data types. Such files can be loaded with {@link #load(File)}
+     * or {@link #load(File, int, int)} without deserialization.
+     *
+     * @param to File to save the MultiDataSet to
+     */
+    public void saveIndexed(File to) throws IOException {
+        try (IndexedArrayWriter writer = new IndexedArrayWriter(to)) {
+            saveIndexedArrays(writer, INDEXED_FEATURES, features);
+            saveIndexedArrays(writer, INDEXED_LABELS, labels);
+            saveIndexedArrays(writer, INDEXED_FEATURES_MASK, featuresMaskArrays);
+            saveIndexedArrays(writer, INDEXED_LABELS_MASK, labelsMaskArrays);
+        }
+    }
+
+    private void saveIndexedArrays(IndexedArrayWriter writer, String prefix, INDArray[] arrays) throws IOException {
+        if (arrays == null)
+            return;
+
+        for (int i = 0; i < arrays.length; i++)
+            if (arrays[i] != null)
+                writer.add(prefix + i, arrays[i]);
     }
 
     @Override
@@ -1,14 +1,28 @@
 package org.nd4j.linalg.dataset.api.iterator;
 
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.DataSet;
 import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
 import org.nd4j.linalg.dataset.api.iterator.cache.DataSetCache;
+import org.nd4j.linalg.factory.Nd4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
+import java.util.concurrent.*;
 
 /**
+ * DataSetIterator that caches DataSets of underlying iterator during first epoch,
+ * and reads them from {@link DataSetCache} during subsequent epochs.
+ *
+ * Optionally, cached DataSets can be read ahead: up to readAhead DataSets are fetched from cache on background threads,
+ * while consumer works with current one. Background threads can be attached to the same device as thread that created
+ * this iterator, so fetched DataSets are relocated to that device before they're requested.
+ * During first epoch cache writes can happen in background as well (write-behind), so consumer doesn't wait for them.
+ *
  * Created by anton on 7/16/16.
  */
 public class CachingDataSetIterator implements DataSetIterator {
@@ -21,12 +35,41 @@ public class CachingDataSetIterator implements DataSetIterator {
     private boolean usingCache = false;
     private boolean allowPrefetching;
 
+    private final int readAhead;
+    private final boolean writeBehind;
+    private final Integer deviceId;
+    private ExecutorService readers;
+    private ExecutorService writer;
+
+    // index of the next DataSet to be requested from cache
+    private int scheduledIndex = 0;
+    private final Deque<Future<DataSet>> pendingReads = new ArrayDeque<>();
+    private final Deque<Future<?>> pendingWrites = new ArrayDeque<>();
+
     public CachingDataSetIterator(DataSetIterator sourceIterator, DataSetCache cache, String namespace) {
         this(sourceIterator, cache, namespace, false);
     }
 
     public CachingDataSetIterator(DataSetIterator sourceIterator, DataSetCache cache, String namespace,
                     boolean allowPrefetching) {
+        this(sourceIterator, cache, namespace, allowPrefetching, 0, false, false);
+    }
+
+    /**
+     * @param sourceIterator underlying iterator
+     * @param cache cache to use
+     * @param namespace cache namespace
+     * @param allowPrefetching whether this iterator can be wrapped with async iterator
+     * @param readAhead max number of DataSets read from cache in background. 0 means synchronous reads.
+     * @param writeBehind whether cache writes during first epoch should happen in background.
+     *                    Since DataSets are written after they're returned to consumer, they're copied first.
+     * @param pinToDevice whether background threads should be attached to the device of the thread creating this iterator
+     */
+    public CachingDataSetIterator(DataSetIterator sourceIterator, DataSetCache cache, String namespace,
+                    boolean allowPrefetching, int readAhead, boolean writeBehind, boolean pinToDevice) {
+        if (readAhead < 0)
+            throw new IllegalArgumentException("readAhead can't be negative");
+
         this.sourceIterator = sourceIterator;
         this.cache = cache;
         this.namespace = namespace;
@@ -34,6 +77,9 @@ public class CachingDataSetIterator implements DataSetIterator {
 
         this.usingCache = cache.isComplete(namespace);
         this.allowPrefetching = allowPrefetching;
+        this.readAhead = readAhead;
+        this.writeBehind = writeBehind;
+        this.deviceId = pinToDevice ? Nd4j.getAffinityManager().getDeviceForCurrentThread() : null;
     }
 
     public CachingDataSetIterator(DataSetIterator sourceIterator, DataSetCache cache) {
@@ -41,9 +87,32 @@ public class CachingDataSetIterator implements DataSetIterator {
     }
 
     private String makeKey(int index) {
+        return makeKey(namespace, index);
+    }
+
+    /**
+     * This method returns cache key of DataSet with given index within given namespace
+     *
+     * @param namespace
+     * @param index
+     * @return
+     */
+    public static String makeKey(String namespace, int index) {
         return String.format("data-set-cache-%s-%06d.bin", namespace, index);
     }
 
+    /**
+     * This method checks, if given cache key belongs to given namespace, see {@link #makeKey(String, int)}
+     *
+     * @param namespace
+     * @param key
+     * @return
+     */
+    public static boolean isKeyOf(String namespace, String key) {
+        String prefix = "data-set-cache-" + namespace + "-";
+        return key.startsWith(prefix) && key.substring(prefix.length()).matches("\\d{6,}\\.bin");
+    }
+
     @Override
     public DataSet next(int num) {
         throw new UnsupportedOperationException();
@@ -76,6 +145,14 @@ public class CachingDataSetIterator implements DataSetIterator {
 
     @Override
     public void reset() {
+        // DataSets read ahead aren't needed anymore, but pending writes have to be finished
+        for (Future<DataSet> read : pendingReads)
+            read.cancel(false);
+        pendingReads.clear();
+        scheduledIndex = 0;
+
+        flushWrites();
+
         sourceIterator.reset();
         currentIndex = 0;
     }
@@ -113,11 +190,17 @@ public class CachingDataSetIterator implements DataSetIterator {
     @Override
     public boolean hasNext() {
         if (usingCache) {
-            return cache.contains(makeKey(currentIndex));
+            if (readAhead == 0)
+                return cache.contains(makeKey(currentIndex));
+
+            scheduleReads();
+            return !pendingReads.isEmpty();
         } else {
             if (sourceIterator.hasNext()) {
                 return true;
             } else {
+                // cache can't be marked as complete until all DataSets are actually written
+                flushWrites();
                 usingCache = true;
                 cache.setComplete(namespace, true);
                 return false;
@@ -132,10 +215,21 @@ public class CachingDataSetIterator implements DataSetIterator {
         DataSet ds;
 
         if (usingCache) {
-            ds = cache.get(key);
+            if (readAhead == 0) {
+                ds = cache.get(key);
+            } else {
+                scheduleReads();
+                ds = pendingReads.isEmpty() ? null : await(pendingReads.poll());
+
+                // keeping pipeline full
+                scheduleReads();
+            }
         } else {
             ds = sourceIterator.next();
-            cache.put(key, ds);
+            if (writeBehind)
+                scheduleWrite(key, ds);
+            else
+                cache.put(key, ds);
         }
 
         currentIndex += 1;
@@ -143,6 +237,102 @@ public class CachingDataSetIterator implements DataSetIterator {
         return ds;
     }
 
+    private void scheduleReads() {
+        while (pendingReads.size() < readAhead) {
+            final String key = makeKey(scheduledIndex);
+            if (!cache.contains(key))
+                break;
+
+            pendingReads.add(getReaders().submit(new Callable<DataSet>() {
+                @Override
+                public DataSet call() throws Exception {
+                    DataSet ds = cache.get(key);
+                    if (ds != null && deviceId != null) {
+                        touch(ds.getFeatures());
+                        touch(ds.getLabels());
+                        touch(ds.getFeaturesMaskArray());
+                        touch(ds.getLabelsMaskArray());
+                    }
+                    return ds;
+                }
+            }));
+            scheduledIndex++;
+        }
+    }
+
+    private void scheduleWrite(final String key, DataSet dataSet) {
+        // we keep the number of pending writes bounded, so consumer can't run away from cache
+        while (pendingWrites.size() >= Math.max(1, readAhead))
+            await(pendingWrites.poll());
+
+        // consumer is free to modify returned DataSet, or to reuse its workspace, so we write detached copy
+        final DataSet copy;
+        try (MemoryWorkspace workspace = Nd4j.getMemoryManager().scopeOutOfWorkspaces()) {
+            copy = dataSet.copy();
+        }
+
+        pendingWrites.add(getWriter().submit(new Runnable() {
+            @Override
+            public void run() {
+                cache.put(key, copy);
+            }
+        }));
+    }
+
+    private void flushWrites() {
+        while (!pendingWrites.isEmpty())
+            await(pendingWrites.poll());
+    }
+
+    private static void touch(INDArray array) {
+        if (array != null)
+            Nd4j.getAffinityManager().touch(array);
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("DataSet cache operation failed", e.getCause());
+        }
+    }
+
+    private ExecutorService getReaders() {
+        if (readers == null)
+            readers = createExecutor(readAhead);
+
+        return readers;
+    }
+
+    private ExecutorService getWriter() {
+        // writes are kept sequential, so caches don't have to be thread-safe for put() calls
+        if (writer == null)
+            writer = createExecutor(1);
+
+        return writer;
+    }
+
+    private ExecutorService createExecutor(int numThreads) {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(numThreads, numThreads, 60L, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                            @Override
+                            public Thread newThread(Runnable r) {
+                                Thread t = Executors.defaultThreadFactory().newThread(r);
+                                t.setDaemon(true);
+                                t.setName("CachingDataSetIterator thread " + t.getId());
+                                if (deviceId != null)
+                                    Nd4j.getAffinityManager().attachThreadToDevice(t, deviceId);
+                                return t;
+                            }
+                        });
+        // idle threads are released, so abandoned iterators don't leak them
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
     @Override
     public void remove() {
         throw new UnsupportedOperationException();
@@ -1,11 +1,21 @@
 package org.nd4j.linalg.dataset.api.iterator.cache;
 
+import org.nd4j.linalg.cache.CacheStats;
 import org.nd4j.linalg.dataset.DataSet;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
+ * Two-tier DataSet cache: DataSets are kept in memory within given byte budget, and DataSets evicted
+ * from memory are demoted to file tier (optionally compressed), instead of being dropped.
+ * DataSets read from file tier are promoted back to memory.
+ *
+ * File tier is written lazily: DataSet hits the disk only when it's evicted from memory,
+ * or when its namespace gets marked as complete, so completed namespaces can be reused from disk later.
+ *
  * Created by anton on 7/20/16.
  */
 public class InFileAndMemoryDataSetCache implements DataSetCache {
@@ -13,9 +23,13 @@ public class InFileAndMemoryDataSetCache implements DataSetCache {
     private InFileDataSetCache fileCache;
     private InMemoryDataSetCache memoryCache;
 
+    // keys stored in file tier, with their file sizes. Stale file copies are removed from here on put()
+    private final Map<String, Long> persisted = new HashMap<>();
+    private long fileHits;
+    private long fileMisses;
+
     public InFileAndMemoryDataSetCache(File cacheDirectory) {
-        this.fileCache = new InFileDataSetCache(cacheDirectory);
-        this.memoryCache = new InMemoryDataSetCache();
+        this(cacheDirectory, 0, InMemoryDataSetCache.EvictionPolicy.LRU, null);
     }
 
     public InFileAndMemoryDataSetCache(Path cacheDirectory) {
@@ -26,6 +40,24 @@ public class InFileAndMemoryDataSetCache implements DataSetCache {
         this(new File(cacheDirectory));
     }
 
+    /**
+     * @param cacheDirectory directory for file tier
+     * @param memoryBytes memory budget for memory tier, in bytes. Values <= 0 mean no limit
+     * @param policy eviction policy for memory tier
+     * @param compression name of compression algorithm applied to DataSets demoted to file tier. Null means no compression
+     */
+    public InFileAndMemoryDataSetCache(File cacheDirectory, long memoryBytes,
+                    InMemoryDataSetCache.EvictionPolicy policy, String compression) {
+        this.fileCache = new InFileDataSetCache(cacheDirectory, compression);
+        this.memoryCache = new InMemoryDataSetCache(memoryBytes, policy);
+        this.memoryCache.setEvictionListener(new InMemoryDataSetCache.EvictionListener() {
+            @Override
+            public void evicted(String key, DataSet dataSet) {
+                demote(key, dataSet);
+            }
+        });
+    }
+
     @Override
     public boolean isComplete(String namespace) {
         return fileCache.isComplete(namespace) || memoryCache.isComplete(namespace);
@@ -33,32 +65,50 @@ public class InFileAndMemoryDataSetCache implements DataSetCache {
 
     @Override
     public void setComplete(String namespace, boolean value) {
+        // file tier can't be marked as complete unless it actually holds all DataSets of this namespace
+        if (value) {
+            memoryCache.visit(namespace, new InMemoryDataSetCache.EvictionListener() {
+                @Override
+                public void evicted(String key, DataSet dataSet) {
+                    demote(key, dataSet);
+                }
+            });
+        }
+
         fileCache.setComplete(namespace, value);
         memoryCache.setComplete(namespace, value);
     }
 
     @Override
     public DataSet get(String key) {
-        DataSet dataSet = null;
+        DataSet dataSet = memoryCache.get(key);
+        if (dataSet != null)
+            return dataSet;
 
-        if (memoryCache.contains(key)) {
-            dataSet = memoryCache.get(key);
-            if (!fileCache.contains(key)) {
-                fileCache.put(key, dataSet);
-            }
-        } else if (fileCache.contains(key)) {
-            dataSet = fileCache.get(key);
-            if (dataSet != null && !memoryCache.contains(key)) {
-                memoryCache.put(key, dataSet);
+        dataSet = fileCache.get(key);
+        synchronized (this) {
+            if (dataSet == null) {
+                fileMisses++;
+                return null;
             }
+
+            fileHits++;
+            if (!persisted.containsKey(key))
+                persisted.put(key, fileCache.resolveKey(key).length());
         }
 
+        // file copy stays valid, so promoted DataSet won't be written again on eviction
+        memoryCache.put(key, dataSet);
+
         return dataSet;
     }
 
     @Override
     public void put(String key, DataSet dataSet) {
-        fileCache.put(key, dataSet);
+        synchronized (this) {
+            persisted.remove(key);
+        }
+
         memoryCache.put(key, dataSet);
     }
 
@@ -66,4 +116,39 @@ public class InFileAndMemoryDataSetCache implements DataSetCache {
     public boolean contains(String key) {
         return memoryCache.contains(key) || fileCache.contains(key);
     }
+
+    /**
+     * This method returns snapshot of memory tier counters
+     *
+     * @return
+     */
+    public CacheStats getMemoryStats() {
+        return memoryCache.getStats();
+    }
+
+    /**
+     * This method returns snapshot of file tier counters. Number of bytes is the size of files on disk
+     *
+     * @return
+     */
+    public synchronized CacheStats getFileStats() {
+        long bytes = 0;
+        for (Long size : persisted.values())
+            bytes += size;
+
+        return new CacheStats(fileHits, fileMisses, 0, persisted.size(), bytes);
+    }
+
+    protected void demote(String key, DataSet dataSet) {
+        synchronized (this) {
+            if (persisted.containsKey(key))
+                return;
+        }
+
+        fileCache.put(key, dataSet);
+
+        synchronized (this) {
+            persisted.put(key, fileCache.resolveKey(key).length());
+        }
+    }
 }
@@ -1,23 +1,44 @@
 package org.nd4j.linalg.dataset.api.iterator.cache;
 
+import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.factory.Nd4j;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 
 /**
+ * DataSet cache, storing DataSets as indexed files within cache directory.
+ * See {@link DataSet#saveIndexed(File)} for details.
+ *
+ * If compression algorithm is specified, DataSets are stored compressed instead, using {@link DataSet#save(File)},
+ * and decompressed on get().
+ *
  * Created by anton on 7/18/16.
  */
 public class InFileDataSetCache implements DataSetCache {
     private File cacheDirectory;
+    private String compression;
 
     public InFileDataSetCache(File cacheDirectory) {
+        this(cacheDirectory, null);
+    }
+
+    /**
+     * @param cacheDirectory directory to store DataSets in
+     * @param compression name of compression algorithm, as registered in BasicNDArrayCompressor. Null means no compression
+     */
+    public InFileDataSetCache(File cacheDirectory, String compression) {
         if (cacheDirectory.exists() && !cacheDirectory.isDirectory()) {
             throw new IllegalArgumentException("can't use path " + cacheDirectory + " as file cache directory "
                             + "because it already exists, but is not a directory");
         }
+        if (compression != null && !Nd4j.getCompressor().getAvailableCompressors().contains(compression.toUpperCase()))
+            throw new IllegalArgumentException("Non-existent compression algorithm requested: [" + compression + "]");
+
         this.cacheDirectory = cacheDirectory;
+        this.compression = compression;
     }
 
     public InFileDataSetCache(Path cacheDirectory) {
@@ -28,7 +49,7 @@ public class InFileDataSetCache implements DataSetCache {
         this(new File(cacheDirectory));
     }
 
-    private File resolveKey(String key) {
+    protected File resolveKey(String key) {
         String filename = key.replaceAll("[^a-zA-Z0-9.-]", "_");
         return new File(cacheDirectory, filename);
     }
@@ -74,6 +95,12 @@ public class InFileDataSetCache implements DataSetCache {
         } else {
             DataSet ds = new DataSet();
             ds.load(file);
+            if (compression != null) {
+                for (INDArray array : new INDArray[] {ds.getFeatures(), ds.getLabels(), ds.getFeaturesMaskArray(),
+                                ds.getLabelsMaskArray()})
+                    if (array != null)
+                        Nd4j.getCompressor().autoDecompress(array);
+            }
             return ds;
         }
     }
@@ -93,7 +120,20 @@ public class InFileDataSetCache implements DataSetCache {
             file.delete();
         }
 
-        dataSet.save(file);
+        if (compression != null) {
+            DataSet compressed = new DataSet(compress(dataSet.getFeatures()), null, compress(dataSet.getFeaturesMaskArray()),
+                            compress(dataSet.getLabelsMaskArray()));
+            compressed.setLabels(dataSet.getLabels() == dataSet.getFeatures() ? compressed.getFeatures()
+                            : compress(dataSet.getLabels()));
+            compressed.save(file);
+        } else {
+            // indexed files are memory-mapped on get(), instead of being deserialized
+            dataSet.saveIndexed(file);
+        }
+    }
+
+    private INDArray compress(INDArray array) {
+        return array == null || array.isCompressed() ? array : Nd4j.getCompressor().compress(array, compression);
     }
 
     @Override
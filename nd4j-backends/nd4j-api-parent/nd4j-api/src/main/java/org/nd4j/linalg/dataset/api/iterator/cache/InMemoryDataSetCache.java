@@ -1,33 +1,106 @@
 package org.nd4j.linalg.dataset.api.iterator.cache;
 
+import lombok.NonNull;
+import org.nd4j.linalg.cache.CacheStats;
 import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.api.iterator.CachingDataSetIterator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 /**
+ * DataSet cache, storing serialized DataSets in memory.
+ *
+ * Optionally, memory used by this cache can be limited: once total size of cached DataSets exceeds byte budget,
+ * DataSets are evicted according to {@link EvictionPolicy}, and passed to {@link EvictionListener} if one is set.
+ * Size of DataSet is the number of bytes its serialized copy occupies in this cache.
+ *
  * Created by anton on 7/16/16.
  */
 public class InMemoryDataSetCache implements DataSetCache {
 
     private static final Logger log = LoggerFactory.getLogger(DataSetCache.class);
 
-    private Map<String, byte[]> cache = new HashMap<>();
+    /**
+     * Order in which DataSets are evicted once byte budget is exceeded
+     */
+    public enum EvictionPolicy {
+        /**
+         * Least recently accessed DataSets are evicted first
+         */
+        LRU,
+        /**
+         * Oldest DataSets are evicted first, regardless of access pattern
+         */
+        FIFO,
+    }
+
+    /**
+     * This interface allows to act on DataSets evicted from cache, i.e. to move them to another cache tier
+     */
+    public interface EvictionListener {
+        void evicted(String key, DataSet dataSet);
+    }
+
+    protected static class CachedDataSet {
+        protected final byte[] data;
+        protected final long bytes;
+
+        protected CachedDataSet(byte[] data) {
+            this.data = data;
+            this.bytes = data.length;
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, CachedDataSet> cache;
     private Set<String> completeNamespaces = new HashSet<>();
+    private EvictionListener evictionListener;
+
+    private long cachedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public InMemoryDataSetCache() {
+        this(0);
+    }
+
+    /**
+     * @param maxBytes memory budget for cached DataSets, in bytes. Values <= 0 mean no limit
+     */
+    public InMemoryDataSetCache(long maxBytes) {
+        this(maxBytes, EvictionPolicy.LRU);
+    }
+
+    /**
+     * @param maxBytes memory budget for cached DataSets, in bytes. Values <= 0 mean no limit
+     * @param policy order of eviction
+     */
+    public InMemoryDataSetCache(long maxBytes, @NonNull EvictionPolicy policy) {
+        this.maxBytes = maxBytes > 0 ? maxBytes : Long.MAX_VALUE;
+        this.cache = new LinkedHashMap<>(16, 0.75f, policy == EvictionPolicy.LRU);
+    }
+
+    /**
+     * This method sets listener, that'll be notified about each DataSet evicted from this cache
+     *
+     * @param listener
+     */
+    public synchronized void setEvictionListener(EvictionListener listener) {
+        this.evictionListener = listener;
+    }
 
     @Override
-    public boolean isComplete(String namespace) {
+    public synchronized boolean isComplete(String namespace) {
         return completeNamespaces.contains(namespace);
     }
 
     @Override
-    public void setComplete(String namespace, boolean value) {
+    public synchronized void setComplete(String namespace, boolean value) {
         if (value) {
             completeNamespaces.add(namespace);
         } else {
@@ -37,38 +110,101 @@ public class InMemoryDataSetCache implements DataSetCache {
 
     @Override
     public DataSet get(String key) {
-
-        if (!cache.containsKey(key)) {
-            return null;
+        CachedDataSet cached;
+        synchronized (this) {
+            cached = cache.get(key);
+            if (cached == null) {
+                misses++;
+                return null;
+            }
+
+            hits++;
         }
 
-        byte[] data = cache.get(key);
-
-        ByteArrayInputStream is = new ByteArrayInputStream(data);
-
-        DataSet ds = new DataSet();
-
-        ds.load(is);
-
-        return ds;
+        return deserialize(cached.data);
     }
 
     @Override
     public void put(String key, DataSet dataSet) {
-        if (cache.containsKey(key)) {
-            log.debug("evicting key %s from data set cache", key);
-            cache.remove(key);
-        }
-
+        // serialization happens outside of lock
         ByteArrayOutputStream os = new ByteArrayOutputStream();
-
         dataSet.save(os);
+        CachedDataSet cached = new CachedDataSet(os.toByteArray());
+
+        Map<String, CachedDataSet> evicted = new LinkedHashMap<>();
+        EvictionListener listener;
+        synchronized (this) {
+            CachedDataSet previous = cache.remove(key);
+            if (previous != null) {
+                log.debug("evicting key {} from data set cache", key);
+                cachedBytes -= previous.bytes;
+            }
+
+            cache.put(key, cached);
+            cachedBytes += cached.bytes;
+
+            Iterator<Map.Entry<String, CachedDataSet>> iterator = cache.entrySet().iterator();
+            while (cachedBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<String, CachedDataSet> eldest = iterator.next();
+                iterator.remove();
+                cachedBytes -= eldest.getValue().bytes;
+                evictions++;
+                evicted.put(eldest.getKey(), eldest.getValue());
+            }
+
+            listener = evictionListener;
+        }
 
-        cache.put(key, os.toByteArray());
+        if (listener != null)
+            for (Map.Entry<String, CachedDataSet> e : evicted.entrySet())
+                listener.evicted(e.getKey(), deserialize(e.getValue().data));
     }
 
     @Override
-    public boolean contains(String key) {
+    public synchronized boolean contains(String key) {
         return cache.containsKey(key);
     }
+
+    /**
+     * This method passes DataSets of given namespace stored in this cache to given visitor, without evicting them
+     * and without affecting counters or eviction order
+     *
+     * @param namespace namespace, as used by {@link CachingDataSetIterator#makeKey(String, int)}
+     * @param visitor
+     */
+    protected void visit(@NonNull String namespace, @NonNull EvictionListener visitor) {
+        Map<String, CachedDataSet> snapshot = new LinkedHashMap<>();
+        synchronized (this) {
+            for (Map.Entry<String, CachedDataSet> e : cache.entrySet())
+                if (CachingDataSetIterator.isKeyOf(namespace, e.getKey()))
+                    snapshot.put(e.getKey(), e.getValue());
+        }
+
+        for (Map.Entry<String, CachedDataSet> e : snapshot.entrySet())
+            visitor.evicted(e.getKey(), deserialize(e.getValue().data));
+    }
+
+    /**
+     * This method returns memory used by cached DataSets, in bytes
+     *
+     * @return
+     */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * This method returns snapshot of cache counters
+     *
+     * @return
+     */
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, cache.size(), cachedBytes);
+    }
+
+    private static DataSet deserialize(byte[] data) {
+        DataSet ds = new DataSet();
+        ds.load(new ByteArrayInputStream(data));
+        return ds;
+    }
 }
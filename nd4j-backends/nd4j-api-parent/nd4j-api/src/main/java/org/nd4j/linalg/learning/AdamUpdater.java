@@ -81,18 +81,24 @@ public class AdamUpdater implements GradientUpdater<Adam> {
         double learningRate = config.getLearningRate(iteration, epoch);
         double epsilon = config.getEpsilon();
 
-        INDArray oneMinusBeta1Grad = gradient.mul(1.0 - beta1);
-        m.muli(beta1).addi(oneMinusBeta1Grad);
-
-        INDArray oneMinusBeta2GradSquared = gradient.mul(gradient).muli(1 - beta2);
-        v.muli(beta2).addi(oneMinusBeta2GradSquared);
-
         double beta1t = FastMath.pow(beta1, iteration + 1);
         double beta2t = FastMath.pow(beta2, iteration + 1);
 
         double alphat = learningRate * FastMath.sqrt(1 - beta2t) / (1 - beta1t);
         if (Double.isNaN(alphat) || alphat == 0.0)
             alphat = epsilon;
+
+        if (FusedUpdaterKernels.canFuse(gradient, m, v)) {
+            FusedUpdaterKernels.adam(gradient, m, v, beta1, beta2, alphat, epsilon);
+            return;
+        }
+
+        INDArray oneMinusBeta1Grad = gradient.mul(1.0 - beta1);
+        m.muli(beta1).addi(oneMinusBeta1Grad);
+
+        INDArray oneMinusBeta2GradSquared = gradient.mul(gradient).muli(1 - beta2);
+        v.muli(beta2).addi(oneMinusBeta2GradSquared);
+
         INDArray sqrtV = Transforms.sqrt(v.dup(gradientReshapeOrder), false).addi(epsilon);
 
         gradient.assign(m).muli(alphat).divi(sqrtV);
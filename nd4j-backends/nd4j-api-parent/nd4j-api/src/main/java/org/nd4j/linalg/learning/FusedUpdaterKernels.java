@@ -0,0 +1,328 @@
+package org.nd4j.linalg.learning;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.environment.Nd4jEnvironment;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.util.ParallelRange;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+
+/**
+ * Single-pass updater kernels: gradient and updater state are read and written once per step,
+ * without temporary arrays, instead of ~8-15 passes done by chains of element-wise ops.
+ *
+ * Kernels perform exactly the same floating point operations, in the same order and precision,
+ * as element-wise ops chains they replace, so results are the same.
+ *
+ * Kernels are used only on CPU backend, for FLOAT and DOUBLE arrays, laid out linearly in the same order.
+ * For everything else updaters fall back to element-wise ops.
+ * Fused kernels can be disabled with ND4J_FUSED_UPDATERS=false environment variable, or via {@link #setEnabled(boolean)}.
+ */
+public class FusedUpdaterKernels {
+    // minimal number of elements processed by one thread
+    private static final int MIN_CHUNK_SIZE = 32768;
+
+    private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getenv("ND4J_FUSED_UPDATERS"));
+    private static volatile Boolean hostBackend;
+
+    private FusedUpdaterKernels() {}
+
+    /**
+     * This method enables or disables fused kernels for all updaters
+     *
+     * @param reallyEnable
+     */
+    public static void setEnabled(boolean reallyEnable) {
+        enabled = reallyEnable;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * This method checks, if fused kernels can be applied to given arrays
+     *
+     * @param arrays gradient and updater state arrays
+     * @return
+     */
+    public static boolean canFuse(@NonNull INDArray... arrays) {
+        if (!enabled || !isHostBackend())
+            return false;
+
+        DataBuffer.Type type = arrays[0].data().dataType();
+        if (type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.DOUBLE)
+            return false;
+
+        long length = arrays[0].lengthLong();
+        char order = arrays[0].ordering();
+        for (INDArray array : arrays) {
+            if (array == null || array.isCompressed() || array.data().dataType() != type
+                            || array.lengthLong() != length || array.lengthLong() >= Integer.MAX_VALUE
+                            || array.elementWiseStride() != 1 || (array.ordering() != order && !array.isVector()))
+                return false;
+        }
+
+        return true;
+    }
+
+    private static boolean isHostBackend() {
+        if (hostBackend == null)
+            hostBackend = "CPU".equals(Nd4j.getExecutioner().getEnvironmentInformation()
+                            .get(Nd4jEnvironment.BACKEND_KEY));
+
+        return hostBackend;
+    }
+
+    /**
+     * Adam step:
+     * m = beta1 * m + (1 - beta1) * g
+     * v = beta2 * v + (1 - beta2) * g * g
+     * g = alphat * m / (sqrt(v) + epsilon)
+     */
+    public static void adam(INDArray gradient, INDArray m, INDArray v, final double beta1, final double beta2,
+                    final double alphat, final double epsilon) {
+        final Buffers b = new Buffers(gradient, m, v);
+        run(b.length, new ParallelRange.Kernel() {
+            @Override
+            public void apply(int from, int to) {
+                if (b.isDouble()) {
+                    DoubleBuffer g = b.d[0], m = b.d[1], v = b.d[2];
+                    int go = b.o[0], mo = b.o[1], vo = b.o[2];
+                    double ob1 = 1.0 - beta1, ob2 = 1.0 - beta2;
+                    for (int i = from; i < to; i++) {
+                        double gi = g.get(go + i);
+                        double mi = m.get(mo + i) * beta1 + gi * ob1;
+                        double vi = v.get(vo + i) * beta2 + gi * gi * ob2;
+                        m.put(mo + i, mi);
+                        v.put(vo + i, vi);
+                        g.put(go + i, mi * alphat / (Math.sqrt(vi) + epsilon));
+                    }
+                } else {
+                    FloatBuffer g = b.f[0], m = b.f[1], v = b.f[2];
+                    int go = b.o[0], mo = b.o[1], vo = b.o[2];
+                    float b1 = (float) beta1, b2 = (float) beta2, ob1 = (float) (1.0 - beta1),
+                                    ob2 = (float) (1.0 - beta2), a = (float) alphat, e = (float) epsilon;
+                    for (int i = from; i < to; i++) {
+                        float gi = g.get(go + i);
+                        float mi = m.get(mo + i) * b1 + gi * ob1;
+                        float vi = v.get(vo + i) * b2 + gi * gi * ob2;
+                        m.put(mo + i, mi);
+                        v.put(vo + i, vi);
+                        g.put(go + i, mi * a / ((float) Math.sqrt(vi) + e));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Nadam step:
+     * m = beta1 * m + (1 - beta1) * g
+     * v = beta2 * v + (1 - beta2) * g * g
+     * g = (beta1 * m / (1 - beta1t) + (1 - beta1) * g / (1 - beta1t)) * lr / (sqrt(v) + epsilon)
+     */
+    public static void nadam(INDArray gradient, INDArray m, INDArray v, final double beta1, final double beta2,
+                    final double beta1t, final double learningRate, final double epsilon) {
+        final Buffers b = new Buffers(gradient, m, v);
+        run(b.length, new ParallelRange.Kernel() {
+            @Override
+            public void apply(int from, int to) {
+                if (b.isDouble()) {
+                    DoubleBuffer g = b.d[0], m = b.d[1], v = b.d[2];
+                    int go = b.o[0], mo = b.o[1], vo = b.o[2];
+                    double ob1 = 1.0 - beta1, ob2 = 1.0 - beta2, ob1t = 1.0 - beta1t;
+                    for (int i = from; i < to; i++) {
+                        double gi = g.get(go + i);
+                        double t = gi * ob1;
+                        double mi = m.get(mo + i) * beta1 + t;
+                        double vi = v.get(vo + i) * beta2 + gi * gi * ob2;
+                        m.put(mo + i, mi);
+                        v.put(vo + i, vi);
+                        g.put(go + i, (mi * beta1 / ob1t + t / ob1t) * learningRate / (Math.sqrt(vi) + epsilon));
+                    }
+                } else {
+                    FloatBuffer g = b.f[0], m = b.f[1], v = b.f[2];
+                    int go = b.o[0], mo = b.o[1], vo = b.o[2];
+                    float b1 = (float) beta1, b2 = (float) beta2, ob1 = (float) (1.0 - beta1),
+                                    ob2 = (float) (1.0 - beta2), ob1t = (float) (1.0 - beta1t),
+                                    lr = (float) learningRate, e = (float) epsilon;
+                    for (int i = from; i < to; i++) {
+                        float gi = g.get(go + i);
+                        float t = gi * ob1;
+                        float mi = m.get(mo + i) * b1 + t;
+                        float vi = v.get(vo + i) * b2 + gi * gi * ob2;
+                        m.put(mo + i, mi);
+                        v.put(vo + i, vi);
+                        g.put(go + i, (mi * b1 / ob1t + t / ob1t) * lr / ((float) Math.sqrt(vi) + e));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * AdaMax step:
+     * m = beta1 * m + (1 - beta1) * g
+     * u = max(beta2 * u, |g|) + 1e-32
+     * g = alphat * m / u
+     */
+    public static void adaMax(INDArray gradient, INDArray m, INDArray u, final double beta1, final double beta2,
+                    final double alphat) {
+        final Buffers b = new Buffers(gradient, m, u);
+        run(b.length, new ParallelRange.Kernel() {
+            @Override
+            public void apply(int from, int to) {
+                if (b.isDouble()) {
+                    DoubleBuffer g = b.d[0], m = b.d[1], u = b.d[2];
+                    int go = b.o[0], mo = b.o[1], uo = b.o[2];
+                    double ob1 = 1 - beta1;
+                    for (int i = from; i < to; i++) {
+                        double gi = g.get(go + i);
+                        double mi = m.get(mo + i) * beta1 + gi * ob1;
+                        double ui = u.get(uo + i) * beta2;
+                        double ai = Math.abs(gi);
+                        ui = (ui > ai ? ui : ai) + 1e-32;
+                        m.put(mo + i, mi);
+                        u.put(uo + i, ui);
+                        g.put(go + i, mi * alphat / ui);
+                    }
+                } else {
+                    FloatBuffer g = b.f[0], m = b.f[1], u = b.f[2];
+                    int go = b.o[0], mo = b.o[1], uo = b.o[2];
+                    float b1 = (float) beta1, b2 = (float) beta2, ob1 = (float) (1 - beta1), a = (float) alphat,
+                                    e = (float) 1e-32;
+                    for (int i = from; i < to; i++) {
+                        float gi = g.get(go + i);
+                        float mi = m.get(mo + i) * b1 + gi * ob1;
+                        float ui = u.get(uo + i) * b2;
+                        float ai = Math.abs(gi);
+                        ui = (ui > ai ? ui : ai) + e;
+                        m.put(mo + i, mi);
+                        u.put(uo + i, ui);
+                        g.put(go + i, mi * a / ui);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * RmsProp step:
+     * cache = decay * cache + (1 - decay) * g * g
+     * g = lr * g / (sqrt(cache) + epsilon)
+     */
+    public static void rmsProp(INDArray gradient, INDArray cache, final double learningRate, final double rmsDecay,
+                    final double epsilon) {
+        final Buffers b = new Buffers(gradient, cache);
+        run(b.length, new ParallelRange.Kernel() {
+            @Override
+            public void apply(int from, int to) {
+                if (b.isDouble()) {
+                    DoubleBuffer g = b.d[0], c = b.d[1];
+                    int go = b.o[0], co = b.o[1];
+                    double od = 1 - rmsDecay;
+                    for (int i = from; i < to; i++) {
+                        double gi = g.get(go + i);
+                        double ci = c.get(co + i) * rmsDecay + gi * gi * od;
+                        c.put(co + i, ci);
+                        g.put(go + i, gi * learningRate / (Math.sqrt(ci) + epsilon));
+                    }
+                } else {
+                    FloatBuffer g = b.f[0], c = b.f[1];
+                    int go = b.o[0], co = b.o[1];
+                    float d = (float) rmsDecay, od = (float) (1 - rmsDecay), lr = (float) learningRate,
+                                    e = (float) epsilon;
+                    for (int i = from; i < to; i++) {
+                        float gi = g.get(go + i);
+                        float ci = c.get(co + i) * d + gi * gi * od;
+                        c.put(co + i, ci);
+                        g.put(go + i, gi * lr / ((float) Math.sqrt(ci) + e));
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Nesterov momentum step:
+     * v' = momentum * v - lr * g
+     * g = momentum * v + (-momentum - 1) * v'
+     */
+    public static void nesterovs(INDArray gradient, INDArray v, final double momentum, final double learningRate) {
+        final Buffers b = new Buffers(gradient, v);
+        run(b.length, new ParallelRange.Kernel() {
+            @Override
+            public void apply(int from, int to) {
+                if (b.isDouble()) {
+                    DoubleBuffer g = b.d[0], v = b.d[1];
+                    int go = b.o[0], vo = b.o[1];
+                    double nm = -momentum - 1;
+                    for (int i = from; i < to; i++) {
+                        double vp = v.get(vo + i);
+                        double vi = vp * momentum - g.get(go + i) * learningRate;
+                        v.put(vo + i, vi);
+                        g.put(go + i, vp * momentum + vi * nm);
+                    }
+                } else {
+                    FloatBuffer g = b.f[0], v = b.f[1];
+                    int go = b.o[0], vo = b.o[1];
+                    float mu = (float) momentum, lr = (float) learningRate, nm = (float) (-momentum - 1);
+                    for (int i = from; i < to; i++) {
+                        float vp = v.get(vo + i);
+                        float vi = vp * mu - g.get(go + i) * lr;
+                        v.put(vo + i, vi);
+                        g.put(go + i, vp * mu + vi * nm);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * This method splits [0, length) range into chunks, and applies kernel to them in parallel
+     */
+    private static void run(int length, ParallelRange.Kernel kernel) {
+        ParallelRange.run(length, MIN_CHUNK_SIZE, kernel);
+    }
+
+    /**
+     * NIO views of array buffers, with offsets of the first element
+     */
+    private static class Buffers {
+        private final int length;
+        private final DoubleBuffer[] d;
+        private final FloatBuffer[] f;
+        private final int[] o;
+
+        private Buffers(INDArray... arrays) {
+            // pending ops have to be finished before we touch memory directly
+            Nd4j.getExecutioner().commit();
+
+            length = (int) arrays[0].lengthLong();
+            o = new int[arrays.length];
+            if (arrays[0].data().dataType() == DataBuffer.Type.DOUBLE) {
+                d = new DoubleBuffer[arrays.length];
+                f = null;
+                for (int i = 0; i < arrays.length; i++) {
+                    d[i] = arrays[i].data().asNioDouble();
+                    o[i] = d[i].position();
+                }
+            } else {
+                f = new FloatBuffer[arrays.length];
+                d = null;
+                for (int i = 0; i < arrays.length; i++) {
+                    f[i] = arrays[i].data().asNioFloat();
+                    o[i] = f[i].position();
+                }
+            }
+        }
+
+        private boolean isDouble() {
+            return d != null;
+        }
+    }
+}
@@ -81,6 +81,12 @@ public class NadamUpdater implements GradientUpdater<Nadam> {
         double learningRate = config.getLearningRate(iteration, epoch);
         double epsilon = config.getEpsilon();
 
+        if (FusedUpdaterKernels.canFuse(gradient, m, v)) {
+            FusedUpdaterKernels.nadam(gradient, m, v, beta1, beta2, FastMath.pow(beta1, iteration + 1), learningRate,
+                            epsilon);
+            return;
+        }
+
         INDArray oneMinusBeta1Grad = gradient.mul(1.0 - beta1);
         m.muli(beta1).addi(oneMinusBeta1Grad);
 
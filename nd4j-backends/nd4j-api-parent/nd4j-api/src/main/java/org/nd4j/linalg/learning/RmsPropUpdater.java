@@ -70,6 +70,11 @@ public class RmsPropUpdater implements GradientUpdater<RmsProp> {
         double rmsDecay = config.getRmsDecay();
         double epsilon = config.getEpsilon();
 
+        if (FusedUpdaterKernels.canFuse(gradient, lastGradient)) {
+            FusedUpdaterKernels.rmsProp(gradient, lastGradient, learningRate, rmsDecay, epsilon);
+            return;
+        }
+
         lastGradient.muli(rmsDecay).addi(gradient.mul(gradient).muli(1 - rmsDecay));
         // lr * gradient / (sqrt(cache) + 1e-8)
         gradient.muli(learningRate).divi(Transforms.sqrt(lastGradient.dup(gradientReshapeOrder), false).addi(epsilon));
@@ -0,0 +1,112 @@
+package org.nd4j.linalg.util;
+
+import org.nd4j.linalg.executors.ExecutorServiceProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * This class splits [0, length) range into contiguous chunks, and processes them in parallel on shared ForkJoinPool.
+ * Number of chunks is limited by pool parallelism, and by minimal amount of work worth a separate thread,
+ * so small ranges are processed in the calling thread.
+ */
+public class ParallelRange {
+
+    private ParallelRange() {}
+
+    /**
+     * Kernel processing [from, to) part of the range
+     */
+    public interface Kernel {
+        void apply(int from, int to);
+    }
+
+    /**
+     * Relative cost of single index of the range
+     */
+    public interface Weights {
+        long weight(int index);
+    }
+
+    /**
+     * This method processes range of equally expensive indices
+     *
+     * @param length length of the range
+     * @param minWorkPerThread minimal number of indices processed by one thread
+     * @param kernel kernel to apply
+     */
+    public static void run(int length, long minWorkPerThread, Kernel kernel) {
+        run(length, null, 1, minWorkPerThread, kernel);
+    }
+
+    /**
+     * This method processes range of indices with different cost, splitting it into chunks of similar total weight
+     *
+     * @param length length of the range
+     * @param weights weight of each index, or null if all indices have weight 1
+     * @param workPerWeight amount of work done per unit of weight
+     * @param minWorkPerThread minimal amount of work done by one thread
+     * @param kernel kernel to apply
+     */
+    public static void run(int length, Weights weights, long workPerWeight, long minWorkPerThread,
+                    final Kernel kernel) {
+        ForkJoinPool pool = ExecutorServiceProvider.getForkJoinPool();
+
+        long total = length;
+        if (weights != null) {
+            total = 0;
+            for (int i = 0; i < length; i++)
+                total += weights.weight(i);
+        }
+
+        long work = total * Math.max(1, workPerWeight);
+        int numThreads = (int) Math.min(Math.min(pool.getParallelism(), length), work / minWorkPerThread);
+        if (numThreads <= 1) {
+            kernel.apply(0, length);
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(numThreads);
+        if (weights == null) {
+            int chunkSize = (length + numThreads - 1) / numThreads;
+            for (int from = 0; from < length; from += chunkSize)
+                tasks.add(task(from, Math.min(length, from + chunkSize), kernel));
+        } else {
+            long perThread = (total + numThreads - 1) / numThreads;
+            int from = 0;
+            long accumulated = 0;
+            for (int i = 0; i < length; i++) {
+                accumulated += weights.weight(i);
+                if (accumulated >= perThread || i == length - 1) {
+                    tasks.add(task(from, i + 1, kernel));
+                    from = i + 1;
+                    accumulated = 0;
+                }
+            }
+        }
+
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks))
+                future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static Callable<Void> task(final int from, final int to, final Kernel kernel) {
+        return new Callable<Void>() {
+            @Override
+            public Void call() {
+                kernel.apply(from, to);
+                return null;
+            }
+        };
+    }
+}
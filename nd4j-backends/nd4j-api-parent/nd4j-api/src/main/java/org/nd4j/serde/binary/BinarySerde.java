@@ -3,18 +3,22 @@ package org.nd4j.serde.binary;
 import lombok.extern.slf4j.Slf4j;
 import org.nd4j.linalg.primitives.Pair;
 import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.Pointer;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.api.shape.Shape;
 import org.nd4j.linalg.compression.CompressedDataBuffer;
 import org.nd4j.linalg.compression.CompressionDescriptor;
 import org.nd4j.linalg.factory.Nd4j;
 
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.IntBuffer;
@@ -26,7 +30,8 @@ import java.util.Arrays;
  */
 @Slf4j
 public class BinarySerde {
-
+    // max size of single mapping used for arrays that don't fit into 2GB
+    private static final long MAX_MAPPING_SIZE = 1L << 30;
 
     /**
      * Create an ndarray
@@ -269,6 +274,188 @@ public class BinarySerde {
     }
 
 
+    /**
+     * Memory-map an ndarray saved earlier with {@link #writeArrayToDisk(INDArray, File)}.
+     *
+     * Data isn't copied: resulting array is backed by file mapping directly, so pages are loaded on demand,
+     * and multiple processes mapping the same file share page cache.
+     * Mapping is private (copy-on-write), so in-place modifications of returned array are never written back to file.
+     *
+     * PLEASE NOTE: single mapping can't exceed 2GB, so larger arrays are loaded chunk-by-chunk
+     * into single off-heap buffer instead, since DataBuffer has to be contiguous.
+     * Compressed arrays are always copied, since they need to be decompressed anyway.
+     *
+     * @param readFrom the file to map
+     * @return
+     * @throws IOException
+     */
+    public static INDArray mmap(File readFrom) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(readFrom, "r")) {
+            FileChannel channel = file.getChannel();
+
+            // rank and data opType go first
+            ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.nativeOrder());
+            readFully(channel, header, 0);
+            int rank = header.getInt(0);
+            if (rank < 0)
+                throw new IllegalStateException("Found negative integer. Corrupt serialization?");
+
+            DataBuffer.Type type = DataBuffer.Type.values()[header.getInt(4)];
+            if (type == DataBuffer.Type.COMPRESSED)
+                return toArray(channel.map(FileChannel.MapMode.PRIVATE, 0, channel.size()));
+
+            // shape information goes next
+            int shapeBufferLength = Shape.shapeInfoLength(rank);
+            ByteBuffer shapeBytes = ByteBuffer.allocate(shapeBufferLength * 4).order(ByteOrder.nativeOrder());
+            readFully(channel, shapeBytes, 8);
+            int[] shapeInfo = new int[shapeBufferLength];
+            for (int i = 0; i < shapeBufferLength; i++)
+                shapeInfo[i] = shapeBytes.getInt(i * 4);
+
+            DataBuffer shapeBuff = Nd4j.createBufferDetached(shapeInfo);
+
+            long length = 1;
+            for (int i = 1; i <= rank; i++)
+                length *= shapeInfo[i];
+
+            long dataOffset = 8 + shapeBufferLength * 4;
+
+            DataBuffer data = mapBuffer(channel, dataOffset, type, length);
+
+            return Nd4j.createArrayFromShapeBuffer(data, shapeBuff);
+        }
+    }
+
+    /**
+     * Map part of the file as DataBuffer of given opType and length, without copying.
+     * Mapping is private, so changes to the buffer are never written back to the file.
+     *
+     * Since single mapping can't exceed 2GB, larger buffers are loaded chunk-by-chunk
+     * into single off-heap buffer instead.
+     *
+     * @param channel channel to map
+     * @param offset position of the first byte of data within the file
+     * @param type data opType
+     * @param length number of elements
+     * @return
+     * @throws IOException
+     */
+    public static DataBuffer mapBuffer(FileChannel channel, long offset, DataBuffer.Type type, long length)
+                    throws IOException {
+        long dataBytes = length * Nd4j.sizeOfDataType(type);
+        if (offset + dataBytes > channel.size())
+            throw new IllegalStateException("File is shorter than array it describes. Corrupt serialization?");
+
+        if (dataBytes <= Integer.MAX_VALUE) {
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.PRIVATE, offset, dataBytes)
+                            .order(ByteOrder.nativeOrder());
+            return Nd4j.createBuffer(mapped, type, (int) length);
+        }
+
+        DataBuffer data = createDetached(type, length);
+        BytePointer target = new BytePointer(data.addressPointer());
+
+        for (long position = 0; position < dataBytes; position += MAX_MAPPING_SIZE) {
+            long chunkSize = Math.min(MAX_MAPPING_SIZE, dataBytes - position);
+            ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, offset + position, chunkSize);
+
+            target.position(position);
+            Pointer.memcpy(target, new BytePointer(chunk), chunkSize);
+        }
+
+        return data;
+    }
+
+    private static DataBuffer createDetached(DataBuffer.Type type, long length) {
+        switch (type) {
+            case DOUBLE:
+                return Nd4j.getDataBufferFactory().createDouble(length, false);
+            case FLOAT:
+                return Nd4j.getDataBufferFactory().createFloat(length, false);
+            case HALF:
+                return Nd4j.getDataBufferFactory().createHalf(length, false);
+            case INT:
+                return Nd4j.getDataBufferFactory().createInt(length, false);
+            default:
+                throw new IllegalArgumentException("Illegal opType " + type);
+        }
+    }
+
+    /**
+     * This method returns pointer to the first element of given buffer, with buffer offset applied.
+     * DataBuffer.address() isn't used here, since not every backend applies view offset there.
+     *
+     * @param buffer
+     * @return
+     */
+    public static BytePointer contentPointer(final DataBuffer buffer) {
+        return new BytePointer(buffer.pointer()) {
+            {
+                address = buffer.pointer().address() + buffer.getElementSize() * buffer.offset();
+            }
+        };
+    }
+
+    /**
+     * This method creates uninitialized buffer of given opType and length,
+     * attached to the current workspace, if there's one open
+     *
+     * @param type data opType
+     * @param length number of elements
+     * @return
+     */
+    public static DataBuffer createBuffer(DataBuffer.Type type, long length) {
+        MemoryWorkspace workspace = Nd4j.getMemoryManager().getCurrentWorkspace();
+        if (workspace == null)
+            return createDetached(type, length);
+
+        switch (type) {
+            case DOUBLE:
+                return Nd4j.getDataBufferFactory().createDouble(length, false, workspace);
+            case FLOAT:
+                return Nd4j.getDataBufferFactory().createFloat(length, false, workspace);
+            case HALF:
+                return Nd4j.getDataBufferFactory().createHalf(length, false, workspace);
+            case INT:
+                return Nd4j.getDataBufferFactory().createInt(length, false, workspace);
+            default:
+                throw new IllegalArgumentException("Illegal opType " + type);
+        }
+    }
+
+    /**
+     * This method reverses bytes of each element in place, to convert data between little and big endian
+     *
+     * @param pointer pointer to the first element
+     * @param bytes number of bytes to process
+     * @param elementSize size of single element, in bytes
+     */
+    public static void swapBytes(BytePointer pointer, long bytes, int elementSize) {
+        // chunk size is a multiple of any element size, so elements never cross chunk boundaries
+        for (long chunk = 0; chunk < bytes; chunk += MAX_MAPPING_SIZE) {
+            int chunkSize = (int) Math.min(MAX_MAPPING_SIZE, bytes - chunk);
+            ByteBuffer buffer = pointer.position(chunk).limit(chunk + chunkSize).asByteBuffer();
+            for (int e = 0; e < chunkSize; e += elementSize) {
+                for (int i = e, j = e + elementSize - 1; i < j; i++, j--) {
+                    byte tmp = buffer.get(i);
+                    buffer.put(i, buffer.get(j));
+                    buffer.put(j, tmp);
+                }
+            }
+        }
+
+        pointer.position(0);
+    }
+
+    static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0)
+                throw new EOFException("Unexpected end of file. Corrupt serialization?");
+        }
+    }
+
+
     /**
      * This method returns shape databuffer from saved earlier file
      *
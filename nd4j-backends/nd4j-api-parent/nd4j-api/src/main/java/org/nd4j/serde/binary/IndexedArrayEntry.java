@@ -0,0 +1,48 @@
+package org.nd4j.serde.binary;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Footer index entry of indexed array file: describes single array stored in the file.
+ */
+@Data
+@AllArgsConstructor
+public class IndexedArrayEntry {
+    private String name;
+    private DataBuffer.Type dataType;
+    private char order;
+    private int[] shape;
+    // position of the first byte of array data within the file
+    private long offset;
+    private long length;
+
+    protected void write(DataOutput out) throws IOException {
+        out.writeUTF(name);
+        out.writeInt(dataType.ordinal());
+        out.writeChar(order);
+        out.writeInt(shape.length);
+        for (int dim : shape)
+            out.writeInt(dim);
+        out.writeLong(offset);
+        out.writeLong(length);
+    }
+
+    protected static IndexedArrayEntry read(DataInput in) throws IOException {
+        String name = in.readUTF();
+        DataBuffer.Type dataType = DataBuffer.Type.values()[in.readInt()];
+        char order = in.readChar();
+        int[] shape = new int[in.readInt()];
+        for (int i = 0; i < shape.length; i++)
+            shape[i] = in.readInt();
+        long offset = in.readLong();
+        long length = in.readLong();
+
+        return new IndexedArrayEntry(name, dataType, order, shape, offset, length);
+    }
+}
@@ -0,0 +1,191 @@
+package org.nd4j.serde.binary;
+
+import lombok.NonNull;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * Reader for indexed multi-array files, written with {@link IndexedArrayWriter}.
+ *
+ * Only footer index is parsed on open. Arrays are memory-mapped on request, without deserialization,
+ * so reading one array (or a range of examples within it) doesn't touch the rest of the file.
+ * Mappings are private, so changes to returned arrays are never written back to the file,
+ * and returned arrays stay valid after reader is closed.
+ */
+public class IndexedArrayReader implements Closeable {
+    private final File source;
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final Map<String, IndexedArrayEntry> entries = new LinkedHashMap<>();
+
+    public IndexedArrayReader(@NonNull File source) throws IOException {
+        this.source = source;
+        this.file = new RandomAccessFile(source, "r");
+        this.channel = file.getChannel();
+
+        try {
+            readIndex();
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * This method checks, if given file was written with {@link IndexedArrayWriter}
+     *
+     * @param file
+     * @return
+     * @throws IOException
+     */
+    public static boolean isIndexed(@NonNull File file) throws IOException {
+        if (file.length() < 16)
+            return false;
+
+        try (DataInputStream dis = new DataInputStream(new FileInputStream(file))) {
+            return dis.readLong() == IndexedArrayWriter.MAGIC;
+        }
+    }
+
+    private void readIndex() throws IOException {
+        long size = channel.size();
+        if (size < IndexedArrayWriter.ALIGNMENT + 16)
+            throw new IllegalStateException("File " + source + " is too short to be indexed array file");
+
+        ByteBuffer header = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN);
+        BinarySerde.readFully(channel, header, 0);
+        if (header.getLong(0) != IndexedArrayWriter.MAGIC)
+            throw new IllegalStateException("File " + source + " isn't indexed array file");
+
+        int version = header.getInt(8);
+        if (version > IndexedArrayWriter.VERSION)
+            throw new IllegalStateException("Unsupported indexed array file version: " + version);
+
+        ByteOrder byteOrder = header.getInt(12) == IndexedArrayWriter.BYTE_ORDER_BIG_ENDIAN ? ByteOrder.BIG_ENDIAN
+                        : ByteOrder.LITTLE_ENDIAN;
+        if (byteOrder != ByteOrder.nativeOrder())
+            throw new IllegalStateException("File " + source + " was written with " + byteOrder
+                            + " byte order, which doesn't match native byte order");
+
+        ByteBuffer tail = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN);
+        BinarySerde.readFully(channel, tail, size - 16);
+        long footerOffset = tail.getLong(0);
+        if (tail.getLong(8) != IndexedArrayWriter.MAGIC || footerOffset < IndexedArrayWriter.ALIGNMENT
+                        || footerOffset > size - 16)
+            throw new IllegalStateException("File " + source + " has no valid index. Incomplete write?");
+
+        ByteBuffer footer = ByteBuffer.allocate((int) (size - 16 - footerOffset));
+        BinarySerde.readFully(channel, footer, footerOffset);
+
+        DataInputStream dis = new DataInputStream(new ByteArrayInputStream(footer.array()));
+        int numEntries = dis.readInt();
+        for (int i = 0; i < numEntries; i++) {
+            IndexedArrayEntry entry = IndexedArrayEntry.read(dis);
+            entries.put(entry.getName(), entry);
+        }
+    }
+
+    /**
+     * This method returns names of all arrays stored in the file, in order they were written
+     *
+     * @return
+     */
+    public Set<String> names() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * This method checks, if array with given name is stored in the file
+     *
+     * @param name
+     * @return
+     */
+    public boolean contains(@NonNull String name) {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * This method returns index entry for given array: opType, shape, order and position within the file
+     *
+     * @param name
+     * @return
+     */
+    public IndexedArrayEntry getEntry(@NonNull String name) {
+        IndexedArrayEntry entry = entries.get(name);
+        if (entry == null)
+            throw new NoSuchElementException("No array [" + name + "] in file " + source);
+
+        return entry;
+    }
+
+    /**
+     * This method checks, if two names refer to the same data within the file
+     *
+     * @param name1
+     * @param name2
+     * @return
+     */
+    public boolean isSameArray(@NonNull String name1, @NonNull String name2) {
+        return contains(name1) && contains(name2) && getEntry(name1).getOffset() == getEntry(name2).getOffset();
+    }
+
+    /**
+     * This method memory-maps the whole array
+     *
+     * @param name
+     * @return
+     * @throws IOException
+     */
+    public INDArray get(@NonNull String name) throws IOException {
+        IndexedArrayEntry entry = getEntry(name);
+        return map(entry, entry.getShape(), entry.getOffset(), entry.getLength());
+    }
+
+    /**
+     * This method memory-maps examples [from, to) of given array, where examples are along dimension 0.
+     * For 'c' ordered arrays only requested examples are mapped, for 'f' ordered arrays
+     * view of whole mapped array is returned.
+     *
+     * @param name
+     * @param from first example, inclusive
+     * @param to last example, exclusive
+     * @return
+     * @throws IOException
+     */
+    public INDArray get(@NonNull String name, int from, int to) throws IOException {
+        IndexedArrayEntry entry = getEntry(name);
+        int[] shape = entry.getShape();
+
+        if (shape.length < 1 || from < 0 || to > shape[0] || from >= to)
+            throw new IllegalArgumentException("Can't get examples [" + from + ", " + to + ") from array ["
+                            + name + "] with shape " + Arrays.toString(shape));
+
+        if (entry.getOrder() != 'c')
+            return get(name).get(NDArrayIndex.interval(from, to));
+
+        long exampleLength = entry.getLength() / shape[0];
+        int[] newShape = Arrays.copyOf(shape, shape.length);
+        newShape[0] = to - from;
+
+        return map(entry, newShape, entry.getOffset() + from * exampleLength * Nd4j.sizeOfDataType(entry.getDataType()),
+                        (to - from) * exampleLength);
+    }
+
+    private INDArray map(IndexedArrayEntry entry, int[] shape, long offset, long length) throws IOException {
+        DataBuffer buffer = BinarySerde.mapBuffer(channel, offset, entry.getDataType(), length);
+        return Nd4j.create(buffer, shape, Nd4j.getStrides(shape, entry.getOrder()), 0, entry.getOrder());
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,144 @@
+package org.nd4j.serde.binary;
+
+import lombok.NonNull;
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.*;
+
+/**
+ * Writer for indexed multi-array files.
+ *
+ * File layout:
+ * header: 8 bytes magic, 4 bytes format version, 4 bytes data byte order flag, padded to page size
+ * data: raw array data in native byte order, each array starts at page-aligned offset
+ * footer: number of arrays, followed by {@link IndexedArrayEntry} for each array
+ * tail: 8 bytes footer offset, 8 bytes magic
+ *
+ * Since all arrays are described in the footer, {@link IndexedArrayReader} can memory-map any array
+ * (or range of examples within it) without touching the rest of the file.
+ */
+public class IndexedArrayWriter implements Closeable {
+    public static final long MAGIC = 0x4E44344A49445831L; // ND4JIDX1
+    public static final int VERSION = 1;
+    public static final int ALIGNMENT = 4096;
+
+    protected static final long MAX_CHUNK_SIZE = 1L << 30;
+    protected static final int BYTE_ORDER_LITTLE_ENDIAN = 0;
+    protected static final int BYTE_ORDER_BIG_ENDIAN = 1;
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final List<IndexedArrayEntry> entries = new ArrayList<>();
+    private final Set<String> names = new HashSet<>();
+
+    // same array added multiple times is stored only once
+    private final Map<INDArray, IndexedArrayEntry> written = new IdentityHashMap<>();
+    private long position;
+
+    public IndexedArrayWriter(@NonNull File target) throws IOException {
+        // existing file might be memory-mapped by reader, so it's replaced rather than truncated in place
+        if (target.exists())
+            target.delete();
+
+        file = new RandomAccessFile(target, "rw");
+        file.setLength(0);
+        channel = file.getChannel();
+
+        ByteBuffer header = ByteBuffer.allocate(16).order(ByteOrder.BIG_ENDIAN);
+        header.putLong(MAGIC);
+        header.putInt(VERSION);
+        header.putInt(ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? BYTE_ORDER_BIG_ENDIAN
+                        : BYTE_ORDER_LITTLE_ENDIAN);
+        header.flip();
+        writeFully(header, 0);
+
+        position = ALIGNMENT;
+    }
+
+    /**
+     * This method writes array data to the file, under given name
+     *
+     * @param name unique name of the array within this file
+     * @param array array to write
+     * @throws IOException
+     */
+    public void add(@NonNull String name, @NonNull INDArray array) throws IOException {
+        if (!names.add(name))
+            throw new IllegalArgumentException("Array [" + name + "] was already added");
+
+        IndexedArrayEntry existing = written.get(array);
+        if (existing != null) {
+            entries.add(new IndexedArrayEntry(name, existing.getDataType(), existing.getOrder(), existing.getShape(),
+                            existing.getOffset(), existing.getLength()));
+            return;
+        }
+
+        INDArray arr = array.isCompressed() ? Nd4j.getCompressor().decompress(array) : array;
+
+        // views have to be written as contiguous arrays
+        if (arr.isView())
+            arr = arr.dup(arr.ordering());
+
+        // ensure we read data from host memory
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(arr, AffinityManager.Location.HOST);
+
+        long bytes = arr.lengthLong() * arr.data().getElementSize();
+        IndexedArrayEntry entry = new IndexedArrayEntry(name, arr.data().dataType(), arr.ordering(), arr.shape(),
+                        position, arr.lengthLong());
+
+        // single ByteBuffer can't exceed 2GB, so large arrays are written in chunks
+        BytePointer pointer = new BytePointer(arr.data().addressPointer());
+        for (long chunk = 0; chunk < bytes; chunk += MAX_CHUNK_SIZE) {
+            long chunkSize = Math.min(MAX_CHUNK_SIZE, bytes - chunk);
+            pointer.position(chunk).limit(chunk + chunkSize);
+            writeFully(pointer.asByteBuffer(), position + chunk);
+        }
+
+        position = align(position + bytes);
+
+        entries.add(entry);
+        written.put(array, entry);
+    }
+
+    /**
+     * This method writes footer index and closes the file
+     *
+     * @throws IOException
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            DataOutputStream dos = new DataOutputStream(bos);
+            dos.writeInt(entries.size());
+            for (IndexedArrayEntry entry : entries)
+                entry.write(dos);
+
+            dos.writeLong(position);
+            dos.writeLong(MAGIC);
+            dos.flush();
+
+            writeFully(ByteBuffer.wrap(bos.toByteArray()), position);
+        } finally {
+            file.close();
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long offset) throws IOException {
+        long current = offset;
+        while (buffer.hasRemaining())
+            current += channel.write(buffer, current);
+    }
+
+    private static long align(long value) {
+        return (value + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+}
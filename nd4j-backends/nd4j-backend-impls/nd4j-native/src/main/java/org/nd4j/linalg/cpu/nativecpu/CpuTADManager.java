@@ -10,28 +10,42 @@ import org.nd4j.linalg.api.buffer.DoubleBuffer;
 import org.nd4j.linalg.api.buffer.IntBuffer;
 import org.nd4j.linalg.api.buffer.LongBuffer;
 import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.cache.CacheStats;
 import org.nd4j.linalg.cache.ConstantHandler;
+import org.nd4j.linalg.cache.EvictingCache;
 import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.cache.TadDescriptor;
 import org.nd4j.nativeblas.LongPointerWrapper;
 import org.nd4j.nativeblas.NativeOps;
 
 import java.util.Arrays;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * TAD cache for CPU backend.
+ *
+ * TADs are kept within byte budget, with least recently used entries evicted first,
+ * so hot TADs stay cached for the whole lifetime of JVM.
+ * Budget can be set via ND4J_TAD_CACHE_LIMIT environment variable, in bytes.
+ *
  * @author raver119@gmail.com
  */
 public class CpuTADManager implements TADManager {
-    private Map<TadDescriptor, Pair<DataBuffer, DataBuffer>> cache = new ConcurrentHashMap<>();
+    private static final String CACHE_LIMIT = "ND4J_TAD_CACHE_LIMIT";
+    private static final long DEFAULT_MAX_BYTES = 128L * 1024L * 1024L;
+
+    private static final EvictingCache.Weigher<Pair<DataBuffer, DataBuffer>> WEIGHER =
+                    new EvictingCache.Weigher<Pair<DataBuffer, DataBuffer>>() {
+                        @Override
+                        public long sizeOf(Pair<DataBuffer, DataBuffer> value) {
+                            return value.getFirst().length() * value.getFirst().getElementSize()
+                                            + value.getSecond().length() * value.getSecond().getElementSize();
+                        }
+                    };
+
+    private final EvictingCache<TadDescriptor, Pair<DataBuffer, DataBuffer>> cache =
+                    new EvictingCache<>(EvictingCache.limitFromEnvironment(CACHE_LIMIT, DEFAULT_MAX_BYTES), 0, WEIGHER);
     private NativeOps nativeOps;
     private ConstantHandler constantHandler;
-    private AtomicLong bytes = new AtomicLong(0);
-    private AtomicInteger counter = new AtomicInteger(0);
-    private static final int MAX_ENTRIES = 100;
 
     public CpuTADManager() {
         //
@@ -47,7 +61,7 @@ public class CpuTADManager implements TADManager {
      */
     @Override
     public void purgeBuffers() {
-        cache = new ConcurrentHashMap<>();
+        cache.invalidateAll();
     }
 
     @Override
@@ -60,7 +74,8 @@ public class CpuTADManager implements TADManager {
         } else {
             TadDescriptor descriptor = new TadDescriptor(array, dimension);
 
-            if (!cache.containsKey(descriptor)) {
+            Pair<DataBuffer, DataBuffer> cached = cache.get(descriptor);
+            if (cached == null) {
                 int dimensionLength = dimension.length;
 
                 // FIXME: this is fast triage, remove it later
@@ -90,21 +105,26 @@ public class CpuTADManager implements TADManager {
                 // If the line below will be uncommented, shapes from JVM will be used on native side
                 //outputBuffer = array.tensorAlongDimension(0, dimension).shapeInfoDataBuffer();
                 Pair<DataBuffer, DataBuffer> pair = new Pair<>(outputBuffer, offsetsBuffer);
-                if (counter.get() < MAX_ENTRIES) {
-                    counter.incrementAndGet();
-                    cache.put(descriptor, pair);
 
-                    bytes.addAndGet((outputBuffer.length() * 4) + (offsetsBuffer.length() * 8));
-                }
-                return pair;
+                // if other thread was faster - we'll get its pair here
+                return cache.put(descriptor, pair);
             }
 
-            return cache.get(descriptor);
+            return cached;
         }
     }
 
     @Override
     public long getCachedBytes() {
-        return bytes.get();
+        return cache.getCachedBytes();
+    }
+
+    /**
+     * This method returns TAD cache hit/miss/eviction counters
+     *
+     * @return
+     */
+    public CacheStats getCacheStats() {
+        return cache.getStats();
     }
 }
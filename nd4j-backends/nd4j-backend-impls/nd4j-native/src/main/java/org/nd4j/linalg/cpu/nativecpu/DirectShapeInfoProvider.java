@@ -5,19 +5,34 @@ import org.nd4j.linalg.primitives.Pair;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.BaseShapeInfoProvider;
 import org.nd4j.linalg.api.shape.ShapeDescriptor;
-
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import org.nd4j.linalg.cache.CacheStats;
+import org.nd4j.linalg.cache.EvictingCache;
 
 /**
+ * Shape information provider for CPU backend.
+ *
+ * Shape buffers are cached within byte budget, with least recently used shapes evicted first.
+ * Cache lookups are lock-free, so array creation doesn't serialize on this provider.
+ * Budget can be set via ND4J_SHAPE_CACHE_LIMIT environment variable, in bytes.
+ *
  * @author raver119@gmail.com
  */
 @Slf4j
 public class DirectShapeInfoProvider extends BaseShapeInfoProvider {
-    private Map<ShapeDescriptor, Pair<DataBuffer, int[]>> shapeCache = new ConcurrentHashMap<>();
-    private AtomicInteger counter = new AtomicInteger(0);
-    private static final int MAX_ENTRIES = 1000;
+    private static final String CACHE_LIMIT = "ND4J_SHAPE_CACHE_LIMIT";
+    private static final long DEFAULT_MAX_BYTES = 32L * 1024L * 1024L;
+
+    private static final EvictingCache.Weigher<Pair<DataBuffer, int[]>> WEIGHER =
+                    new EvictingCache.Weigher<Pair<DataBuffer, int[]>>() {
+                        @Override
+                        public long sizeOf(Pair<DataBuffer, int[]> value) {
+                            // off-heap shape buffer + its on-heap copy
+                            return value.getFirst().length() * 4 * 2;
+                        }
+                    };
+
+    private final EvictingCache<ShapeDescriptor, Pair<DataBuffer, int[]>> shapeCache =
+                    new EvictingCache<>(EvictingCache.limitFromEnvironment(CACHE_LIMIT, DEFAULT_MAX_BYTES), 0, WEIGHER);
 
     @Override
     public Pair<DataBuffer, int[]> createShapeInformation(int[] shape, int[] stride, long offset, int elementWiseStride, char order) {
@@ -26,31 +41,33 @@ public class DirectShapeInfoProvider extends BaseShapeInfoProvider {
         offset = 0;
 
         ShapeDescriptor descriptor = new ShapeDescriptor(shape, stride, offset, elementWiseStride, order);
-        if (!shapeCache.containsKey(descriptor)) {
-            if (counter.get() < MAX_ENTRIES) {
-                synchronized (this) {
-                    if (!shapeCache.containsKey(descriptor)) {
-                        counter.incrementAndGet();
-                        Pair<DataBuffer, int[]> buffer =
-                                        super.createShapeInformation(shape, stride, offset, elementWiseStride, order);
-                        shapeCache.put(descriptor, buffer);
-
-                        bytes.addAndGet(buffer.getFirst().length() * 4 * 2);
-
-                        return buffer;
-                    } else
-                        return shapeCache.get(descriptor);
-                }
-            } else {
-                return super.createShapeInformation(shape, stride, offset, elementWiseStride, order);
-            }
+        Pair<DataBuffer, int[]> buffer = shapeCache.get(descriptor);
+        if (buffer == null) {
+            buffer = super.createShapeInformation(shape, stride, offset, elementWiseStride, order);
+
+            // if other thread was faster - we'll get its buffer here
+            return shapeCache.put(descriptor, buffer);
         }
 
-        return shapeCache.get(descriptor);
+        return buffer;
     }
 
     @Override
     public void purgeCache() {
-        shapeCache = new ConcurrentHashMap<>();
+        shapeCache.invalidateAll();
+    }
+
+    @Override
+    public long getCachedBytes() {
+        return shapeCache.getCachedBytes();
+    }
+
+    /**
+     * This method returns shape cache hit/miss/eviction counters
+     *
+     * @return
+     */
+    public CacheStats getCacheStats() {
+        return shapeCache.getStats();
     }
 }
@@ -2,7 +2,6 @@ package org.nd4j.linalg.cpu.nativecpu;
 
 import com.google.flatbuffers.FlatBufferBuilder;
 import lombok.extern.slf4j.Slf4j;
-import org.nd4j.linalg.api.blas.params.MMulTranspose;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.api.ndarray.*;
 
@@ -41,34 +40,6 @@ public class SparseNDArrayCSR extends BaseSparseNDArrayCSR {
         super(data, columns, pointerB, pointerE, shape);
     }
 
-    @Override
-    public INDArray mmul(INDArray other, MMulTranspose mMulTranspose) {
-        return null;
-    }
-
-    /**
-     * Perform an copy matrix multiplication
-     *
-     * @param other         the other matrix to perform matrix multiply with
-     * @param result        the result ndarray
-     * @param mMulTranspose the transpose status of each array
-     * @return the result of the matrix multiplication
-     */
-    @Override
-    public INDArray mmul(INDArray other, INDArray result, MMulTranspose mMulTranspose) {
-        return null;
-    }
-
-    @Override
-    public INDArray mmuli(INDArray other, MMulTranspose transpose) {
-        return null;
-    }
-
-    @Override
-    public INDArray mmuli(INDArray other, INDArray result, MMulTranspose transpose) {
-        return null;
-    }
-
     @Override
     public int toFlatArray(FlatBufferBuilder builder) {
         throw new UnsupportedOperationException();
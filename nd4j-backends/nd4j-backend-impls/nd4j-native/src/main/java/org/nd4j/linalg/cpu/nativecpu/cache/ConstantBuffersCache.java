@@ -3,39 +3,41 @@ package org.nd4j.linalg.cpu.nativecpu.cache;
 import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.cache.ArrayDescriptor;
 import org.nd4j.linalg.cache.BasicConstantHandler;
+import org.nd4j.linalg.cache.CacheStats;
+import org.nd4j.linalg.cache.EvictingCache;
 import org.nd4j.linalg.factory.Nd4j;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
-
 /**
+ * Constant buffers cache for CPU backend.
+ *
+ * Buffers are cached within byte budget, with least recently used buffers evicted first.
+ * Budget can be set via ND4J_CONSTANT_CACHE_LIMIT environment variable, in bytes.
+ *
  * @author raver119@gmail.com
  */
 public class ConstantBuffersCache extends BasicConstantHandler {
-    protected Map<ArrayDescriptor, DataBuffer> buffersCache = new ConcurrentHashMap<>();
-    private AtomicInteger counter = new AtomicInteger(0);
-    private AtomicLong bytes = new AtomicLong(0);
-    private static final int MAX_ENTRIES = 1000;
+    private static final String CACHE_LIMIT = "ND4J_CONSTANT_CACHE_LIMIT";
+    private static final long DEFAULT_MAX_BYTES = 32L * 1024L * 1024L;
+
+    private static final EvictingCache.Weigher<DataBuffer> WEIGHER = new EvictingCache.Weigher<DataBuffer>() {
+        @Override
+        public long sizeOf(DataBuffer value) {
+            return value.length() * value.getElementSize();
+        }
+    };
+
+    protected final EvictingCache<ArrayDescriptor, DataBuffer> buffersCache =
+                    new EvictingCache<>(EvictingCache.limitFromEnvironment(CACHE_LIMIT, DEFAULT_MAX_BYTES), 0, WEIGHER);
 
     @Override
     public DataBuffer getConstantBuffer(int[] array) {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
+        DataBuffer buffer = buffersCache.get(descriptor);
+        if (buffer == null)
+            return buffersCache.put(descriptor, Nd4j.createBufferDetached(array));
 
-            // we always allow int arrays with length < 3. 99.9% it's just dimension array. we don't want to recreate them over and over
-            if (counter.get() < MAX_ENTRIES || array.length < 4) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
-                bytes.addAndGet(array.length * 4);
-            }
-            return buffer;
-        }
-
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     /**
@@ -43,49 +45,42 @@ public class ConstantBuffersCache extends BasicConstantHandler {
      */
     @Override
     public void purgeConstants() {
-        buffersCache = new ConcurrentHashMap<>();
+        buffersCache.invalidateAll();
     }
 
     @Override
     public DataBuffer getConstantBuffer(float[] array) {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
-
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
-
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
-            }
-            return buffer;
-        }
+        DataBuffer buffer = buffersCache.get(descriptor);
+        if (buffer == null)
+            return buffersCache.put(descriptor, Nd4j.createBufferDetached(array));
 
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     @Override
     public DataBuffer getConstantBuffer(double[] array) {
         ArrayDescriptor descriptor = new ArrayDescriptor(array);
 
-        if (!buffersCache.containsKey(descriptor)) {
-            DataBuffer buffer = Nd4j.createBufferDetached(array);
-
-            if (counter.get() < MAX_ENTRIES) {
-                counter.incrementAndGet();
-                buffersCache.put(descriptor, buffer);
-
-                bytes.addAndGet(array.length * Nd4j.sizeOfDataType());
-            }
-            return buffer;
-        }
+        DataBuffer buffer = buffersCache.get(descriptor);
+        if (buffer == null)
+            return buffersCache.put(descriptor, Nd4j.createBufferDetached(array));
 
-        return buffersCache.get(descriptor);
+        return buffer;
     }
 
     @Override
     public long getCachedBytes() {
-        return bytes.get();
+        return buffersCache.getCachedBytes();
+    }
+
+    /**
+     * This method returns constant cache hit/miss/eviction counters
+     *
+     * @return
+     */
+    public CacheStats getCacheStats() {
+        return buffersCache.getStats();
     }
 }
@@ -23,7 +23,10 @@ import org.nd4j.linalg.api.ops.impl.accum.MatchCondition;
 import org.nd4j.linalg.api.ops.impl.accum.Variance;
 import org.nd4j.linalg.api.rng.Random;
 import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.cache.CacheStats;
 import org.nd4j.linalg.cache.ConstantHandler;
+import org.nd4j.linalg.cache.EvictingCache;
+import org.nd4j.linalg.cache.OutputShapeDescriptor;
 import org.nd4j.linalg.cache.TADManager;
 import org.nd4j.linalg.compression.CompressionDescriptor;
 import org.nd4j.linalg.compression.CompressionType;
@@ -59,6 +62,42 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
     private static final String DEBUG_ENABLED = "ND4J_DEBUG";
     private static final String VERBOSE = "ND4J_VERBOSE";
 
+    /**
+     * Output shapes of CustomOps are cached within this byte budget, configurable via environment variable
+     */
+    private static final String OUTPUT_SHAPES_CACHE_LIMIT = "ND4J_OUTPUT_SHAPE_CACHE_LIMIT";
+    private static final long DEFAULT_OUTPUT_SHAPES_CACHE_BYTES = 16L * 1024L * 1024L;
+
+    /**
+     * Output shapes of these ops depend on contents of inputs of any length, so they're never cached
+     */
+    private static final Set<String> UNCACHED_OUTPUT_SHAPES = new HashSet<>(Arrays.asList("unique", "where",
+                    "where_np", "dynamic_partition", "listdiff", "non_max_suppression"));
+
+    /**
+     * These ops take shapes, axes or begin/end indices as input arrays, so contents of their inputs are part of cache key.
+     * For all other ops only input shapes and arguments are.
+     */
+    private static final Set<String> SHAPE_INPUT_OPS = new HashSet<>(Arrays.asList("fill", "reshape", "tile",
+                    "strided_slice", "slice", "expand_dims", "squeeze", "permute", "transpose", "pad", "concat",
+                    "split", "split_v", "broadcast_to", "range", "randomuniform", "random_normal", "random_bernoulli"));
+
+    private static final EvictingCache.Weigher<List<int[]>> SHAPES_WEIGHER = new EvictingCache.Weigher<List<int[]>>() {
+        @Override
+        public long sizeOf(List<int[]> value) {
+            // fixed overhead accounts for key and list itself
+            long bytes = 128;
+            for (int[] shape : value)
+                bytes += 16 + 4 * shape.length;
+
+            return bytes;
+        }
+    };
+
+    private final EvictingCache<OutputShapeDescriptor, List<int[]>> outputShapesCache = new EvictingCache<>(
+                    EvictingCache.limitFromEnvironment(OUTPUT_SHAPES_CACHE_LIMIT, DEFAULT_OUTPUT_SHAPES_CACHE_BYTES), 0,
+                    SHAPES_WEIGHER);
+
 
     protected Map<String, CustomOpDescriptor> customOps = null;
 
@@ -71,6 +110,11 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
     private ThreadLocal<Map<Integer, Pointer>> batchPointers = new ThreadLocal<>();
     private ThreadLocal<Map<Integer, AggregateMemoryBlock>> memoryBlocks = new ThreadLocal<>();
 
+    /**
+     * Same approach for CustomOps: argument buffers are reused on thread basis, and grow to the largest op seen
+     */
+    private ThreadLocal<CustomOpArena> customOpArenas = new ThreadLocal<>();
+
     public NativeOpExecutioner() {
         tadManager.init(loop, constantHandler);
 
@@ -1281,6 +1325,87 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
         return tadManager;
     }
 
+    private CustomOpArena getCustomOpArena() {
+        CustomOpArena arena = customOpArenas.get();
+        if (arena == null) {
+            arena = new CustomOpArena();
+            customOpArenas.set(arena);
+        }
+
+        return arena;
+    }
+
+    /**
+     * This class holds argument buffers for CustomOp invocations on single thread.
+     * Each buffer is reallocated only when current op needs more elements than any previous one,
+     * so after warmup CustomOp execution doesn't allocate native memory at all.
+     *
+     * PLEASE NOTE: buffers are overwritten by the next invocation, so they can't be used for async execution
+     */
+    private static class CustomOpArena {
+        private static final int MIN_CAPACITY = 8;
+
+        private PointerPointer inputBuffers;
+        private PointerPointer inputShapes;
+        private PointerPointer outputBuffers;
+        private PointerPointer outputShapes;
+        private IntPointer iArgs;
+        private FloatPointer floatTArgs;
+        private DoublePointer doubleTArgs;
+        private ShortPointer halfTArgs;
+
+        private PointerPointer getInputBuffers(int length) {
+            return inputBuffers = ensureCapacity(inputBuffers, length);
+        }
+
+        private PointerPointer getInputShapes(int length) {
+            return inputShapes = ensureCapacity(inputShapes, length);
+        }
+
+        private PointerPointer getOutputBuffers(int length) {
+            return outputBuffers = ensureCapacity(outputBuffers, length);
+        }
+
+        private PointerPointer getOutputShapes(int length) {
+            return outputShapes = ensureCapacity(outputShapes, length);
+        }
+
+        private IntPointer getIArgs(int length) {
+            if (iArgs == null || iArgs.capacity() < length)
+                iArgs = new IntPointer(Math.max(length, MIN_CAPACITY));
+
+            return iArgs;
+        }
+
+        private FloatPointer getFloatTArgs(int length) {
+            if (floatTArgs == null || floatTArgs.capacity() < length)
+                floatTArgs = new FloatPointer(Math.max(length, MIN_CAPACITY));
+
+            return floatTArgs;
+        }
+
+        private DoublePointer getDoubleTArgs(int length) {
+            if (doubleTArgs == null || doubleTArgs.capacity() < length)
+                doubleTArgs = new DoublePointer(Math.max(length, MIN_CAPACITY));
+
+            return doubleTArgs;
+        }
+
+        private ShortPointer getHalfTArgs(int length) {
+            if (halfTArgs == null || halfTArgs.capacity() < length)
+                halfTArgs = new ShortPointer(Math.max(length, MIN_CAPACITY));
+
+            return halfTArgs;
+        }
+
+        private static PointerPointer ensureCapacity(PointerPointer pointer, int length) {
+            if (pointer == null || pointer.capacity() < length)
+                return new PointerPointer(Math.max(length, MIN_CAPACITY));
+
+            return pointer;
+        }
+    }
+
     /**
      * This class holds memory chunks required for single specific Aggregate op.
      * Can be used together with ThreadLocal variables
@@ -1504,10 +1629,10 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             throw new ND4JIllegalStateException("You can't execute non-inplace CustomOp without outputs being specified");
 
         val hash = op.opHash();
+        val arena = getCustomOpArena();
 
-
-        val inputShapes = new PointerPointer<>(op.numInputArguments());
-        val inputBuffers = new PointerPointer<>(op.numInputArguments());
+        val inputShapes = arena.getInputShapes(op.numInputArguments());
+        val inputBuffers = arena.getInputBuffers(op.numInputArguments());
 
         int cnt= 0;
         val inputArgs = op.inputArguments();
@@ -1523,8 +1648,8 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
         }
 
 
-        val outputShapes = new PointerPointer<>(op.numOutputArguments());
-        val outputBuffers = new PointerPointer<>(op.numOutputArguments());
+        val outputShapes = arena.getOutputShapes(op.numOutputArguments());
+        val outputBuffers = arena.getOutputBuffers(op.numOutputArguments());
 
         cnt= 0;
         for (val out: outputArgs) {
@@ -1534,14 +1659,14 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
 
 
 
-        val iArgs = op.numIArguments() > 0 ? new IntPointer(op.numIArguments()) : null;
+        val iArgs = op.numIArguments() > 0 ? arena.getIArgs(op.numIArguments()) : null;
         cnt = 0;
         val iArgs1 = op.iArgs();
         for (val i: iArgs1)
             iArgs.put(cnt++, i);
 
         if (Nd4j.dataType() == DataBuffer.Type.FLOAT) {
-            val tArgs = op.numTArguments() > 0 ? new FloatPointer(op.numTArguments()) : null;
+            val tArgs = op.numTArguments() > 0 ? arena.getFloatTArgs(op.numTArguments()) : null;
 
 
             val tArgs1 = op.tArgs();
@@ -1553,7 +1678,7 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             if (status != OpStatus.ND4J_STATUS_OK)
                 throw new ND4JIllegalStateException("Op execution failed: " + status);
         }  else if (Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
-            val tArgs = op.numTArguments() > 0 ? new DoublePointer(op.numTArguments()) : null;
+            val tArgs = op.numTArguments() > 0 ? arena.getDoubleTArgs(op.numTArguments()) : null;
             val tArgs1 = op.tArgs();
 
             cnt = 0;
@@ -1580,7 +1705,7 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             }
 
         } else if (Nd4j.dataType() == DataBuffer.Type.HALF) {
-            val tArgs = op.numTArguments() > 0 ? new ShortPointer(op.numTArguments()) : null;
+            val tArgs = op.numTArguments() > 0 ? arena.getHalfTArgs(op.numTArguments()) : null;
 
             cnt = 0;
             val tArgs1 = op.tArgs();
@@ -1613,22 +1738,31 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             return Collections.emptyList();
         }
 
+        // in steady state the same op gets the same input shapes and arguments, so we skip JNI call
+        OutputShapeDescriptor descriptor = UNCACHED_OUTPUT_SHAPES.contains(lc) ? null
+                        : new OutputShapeDescriptor(op, Nd4j.dataType(), SHAPE_INPUT_OPS.contains(lc));
+        if (descriptor != null) {
+            val cached = outputShapesCache.get(descriptor);
+            if (cached != null)
+                return copyShapes(cached);
+        }
 
-        val inputShapes = new PointerPointer<>(op.numInputArguments());
+        val arena = getCustomOpArena();
+        val inputShapes = arena.getInputShapes(op.numInputArguments());
         val inputArgs = op.inputArguments();
         int cnt= 0;
         for (val in: inputArgs)
             inputShapes.put(cnt++, in.shapeInfoDataBuffer().addressPointer());
 
 
-        val iArgs = op.numIArguments() > 0 ? new IntPointer(op.numIArguments()) : null;
+        val iArgs = op.numIArguments() > 0 ? arena.getIArgs(op.numIArguments()) : null;
         cnt = 0;
         val iArgs1 = op.iArgs();
         for (val i: iArgs1)
             iArgs.put(cnt++, i);
 
         if (Nd4j.dataType() == DataBuffer.Type.FLOAT) {
-            val tArgs = op.numTArguments() > 0 ? new FloatPointer(op.numTArguments()) : null;
+            val tArgs = op.numTArguments() > 0 ? arena.getFloatTArgs(op.numTArguments()) : null;
             val tArgs1 = op.tArgs();
             cnt = 0;
             for (val t: tArgs1)
@@ -1646,7 +1780,7 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
 
             loop.deleteShapeList(ptrptr);
         } else if (Nd4j.dataType() == DataBuffer.Type.DOUBLE) {
-            val tArgs = op.numTArguments() > 0 ? new DoublePointer(op.numTArguments()) : null;
+            val tArgs = op.numTArguments() > 0 ? arena.getDoubleTArgs(op.numTArguments()) : null;
 
             cnt = 0;
             val tArgs1 = op.tArgs();
@@ -1666,7 +1800,7 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
 
             loop.deleteShapeList(ptrptr);
         } else if (Nd4j.dataType() == DataBuffer.Type.HALF) {
-            val tArgs = op.numTArguments() > 0 ? new ShortPointer(op.numTArguments()) : null;
+            val tArgs = op.numTArguments() > 0 ? arena.getHalfTArgs(op.numTArguments()) : null;
 
             cnt = 0;
             val tArgs1 = op.tArgs();
@@ -1685,10 +1819,30 @@ public class NativeOpExecutioner extends DefaultOpExecutioner {
             loop.deleteShapeList(ptrptr);
         }
 
+        // cache keeps its own copy, since callers are free to modify returned shapes
+        if (descriptor != null)
+            outputShapesCache.put(descriptor, copyShapes(result));
 
         return result;
     }
 
+    private static List<int[]> copyShapes(List<int[]> shapes) {
+        val copy = new ArrayList<int[]>(shapes.size());
+        for (val shape : shapes)
+            copy.add(shape.clone());
+
+        return copy;
+    }
+
+    /**
+     * This method returns snapshot of output shapes cache counters
+     *
+     * @return
+     */
+    public CacheStats getOutputShapesCacheStats() {
+        return outputShapesCache.getStats();
+    }
+
 
     @Override
     public void enableDebugMode(boolean reallyEnable) {
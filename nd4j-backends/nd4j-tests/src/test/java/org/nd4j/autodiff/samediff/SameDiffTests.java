@@ -541,6 +541,84 @@ public class SameDiffTests {
 
 
 
+    @Test
+    public void testCompiledExecutionPlan() {
+        SameDiff sameDiff = SameDiff.create();
+        INDArray arr = Nd4j.linspace(1, 4, 4);
+        SDVariable x = sameDiff.var("x", arr);
+        SDVariable y = sameDiff.var("y", arr.dup());
+        SDVariable mul = x.mul(y);
+        SDVariable result = mul.add(x);
+
+        INDArray assertion = arr.mul(arr).addi(arr);
+        assertEquals(assertion, sameDiff.execAndEndResult());
+
+        ExecutionPlan plan = sameDiff.compile();
+        assertSame(plan, sameDiff.getExecutionPlan());
+        assertEquals(2, plan.getSteps().size());
+
+        // x is read by both steps, product of x and y only by the last one
+        assertEquals(1, plan.getLastUse("x"));
+        assertEquals(0, plan.getLastUse("y"));
+        assertEquals(1, plan.getLastUse(mul.getVarName()));
+        assertTrue(plan.getReleasedAfter(0).contains("y"));
+
+        for (int i = 0; i < 3; i++)
+            assertEquals(assertion, sameDiff.execAndEndResult());
+
+        // adding new function invalidates the plan
+        result.mul(x);
+        assertNull(sameDiff.getExecutionPlan());
+    }
+
+    @Test
+    public void testParallelExecution() {
+        SameDiff sameDiff = SameDiff.create();
+        INDArray arr = Nd4j.linspace(1, 4, 4);
+        SDVariable x = sameDiff.var("x", arr);
+        SDVariable y = sameDiff.var("y", arr.dup());
+
+        // two independent towers, joined at the end
+        SDVariable left = x.mul(y).add(x);
+        SDVariable right = x.add(y).mul(y);
+        SDVariable result = left.add(right);
+
+        INDArray assertion = arr.mul(arr).addi(arr).addi(arr.add(arr).muli(arr));
+
+        ExecutionPlan plan = sameDiff.compile();
+        int last = plan.getSteps().size() - 1;
+        assertEquals(2, plan.getDependencies(last).length);
+
+        for (int i = 0; i < 3; i++) {
+            sameDiff.execParallel(4);
+            assertEquals(assertion, result.getArr());
+        }
+    }
+
+    @Test
+    public void testParallelExecutionLegacyOps() {
+        SameDiff sameDiff = SameDiff.create();
+        INDArray arr = Nd4j.linspace(1, 4, 4).divi(4);
+        SDVariable x = sameDiff.var("x", arr);
+
+        // independent branches of legacy transform ops, so their arrays are resolved concurrently unless prepared up front
+        SDVariable[] branches = new SDVariable[] {sameDiff.neg(sameDiff.tanh(x)), sameDiff.exp(sameDiff.sigmoid(x)),
+                        sameDiff.sin(sameDiff.cos(x)), sameDiff.cos(sameDiff.neg(x)), sameDiff.tanh(sameDiff.exp(x)),
+                        sameDiff.sigmoid(sameDiff.sin(x))};
+
+        INDArray[] assertions = new INDArray[] {Transforms.tanh(arr, true).negi(),
+                        Transforms.exp(Transforms.sigmoid(arr, true), false), Transforms.sin(Transforms.cos(arr, true), false),
+                        Transforms.cos(arr.neg(), false), Transforms.tanh(Transforms.exp(arr, true), false),
+                        Transforms.sigmoid(Transforms.sin(arr, true), false)};
+
+        sameDiff.compile();
+        for (int i = 0; i < 3; i++) {
+            sameDiff.execParallel(4);
+            for (int e = 0; e < branches.length; e++)
+                assertEquals("Branch " + e, assertions[e], branches[e].getArr());
+        }
+    }
+
     @Test
     public void testDefineFunctionArrayExistence() {
         SameDiff sameDiff = SameDiff.create();
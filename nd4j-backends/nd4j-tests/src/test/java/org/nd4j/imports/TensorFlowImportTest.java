@@ -1,5 +1,6 @@
 package org.nd4j.imports;
 
+import com.google.protobuf.ByteString;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.junit.Before;
@@ -19,10 +20,15 @@ import org.nd4j.linalg.api.ops.executioner.OpExecutioner;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.io.ClassPathResource;
 import org.nd4j.linalg.util.HashUtil;
-import org.tensorflow.framework.GraphDef;
+import org.tensorflow.framework.*;
 
 import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
@@ -688,4 +694,71 @@ public class TensorFlowImportTest {
         }
     }
 
+    @Test
+    public void testTensorContentImport() throws Exception {
+        val weights = new float[24];
+        for (int e = 0; e < weights.length; e++)
+            weights[e] = e * 0.5f;
+
+        val bias = new double[] {1.0, 2.0, 3.0};
+
+        val wb = ByteBuffer.allocate(weights.length * 4).order(ByteOrder.nativeOrder());
+        wb.asFloatBuffer().put(weights);
+        val bb = ByteBuffer.allocate(bias.length * 8).order(ByteOrder.nativeOrder());
+        bb.asDoubleBuffer().put(bias);
+
+        val graphDef = GraphDef.newBuilder()
+                .addNode(constNode("weights", DataType.DT_FLOAT, ByteString.copyFrom(wb), 4, 6))
+                .addNode(constNode("bias", DataType.DT_DOUBLE, ByteString.copyFrom(bb), 3))
+                .build();
+
+        val file = File.createTempFile("tensor_content", ".pb");
+        file.deleteOnExit();
+        try (FileOutputStream os = new FileOutputStream(file)) {
+            graphDef.writeTo(os);
+        }
+
+        val expWeights = Nd4j.create(weights, new int[] {4, 6}, 'c');
+        val expBias = Nd4j.create(bias, new int[] {1, 3}, 'c');
+        val mapper = TFGraphMapper.getInstance();
+
+        // memory-mapped file
+        SameDiff tg = mapper.importGraph(file, false);
+        val importedWeights = tg.getVariable("weights").getArr();
+        assertArrayEquals(new int[] {4, 6}, importedWeights.shape());
+        assertEquals(0, importedWeights.offset());
+        for (int e = 0; e < weights.length; e++)
+            assertEquals(weights[e], importedWeights.getFloat(e), 1e-5f);
+
+        assertEquals(expWeights, importedWeights);
+        assertEquals(expBias, tg.getVariable("bias").getArr());
+
+        // stream
+        try (FileInputStream is = new FileInputStream(file)) {
+            tg = mapper.importGraph(is, false);
+        }
+        assertEquals(expWeights, tg.getVariable("weights").getArr());
+        assertEquals(expBias, tg.getVariable("bias").getArr());
+
+        tg = mapper.importGraph(file, true);
+        assertFalse(tg.arrayAlreadyExistsForVarName("weights"));
+        assertArrayEquals(new int[] {4, 6}, tg.getShapeForVarName("weights"));
+
+        assertEquals(expWeights, tg.getVariable("weights").getArr());
+        assertEquals(expBias, tg.getVariable("bias").getArr());
+    }
+
+    private static NodeDef constNode(String name, DataType dataType, ByteString content, int... shape) {
+        val shapeProto = TensorShapeProto.newBuilder();
+        for (int dim : shape)
+            shapeProto.addDim(TensorShapeProto.Dim.newBuilder().setSize(dim));
+
+        val tensor = TensorProto.newBuilder().setDtype(dataType).setTensorShape(shapeProto).setTensorContent(content);
+
+        return NodeDef.newBuilder().setName(name).setOp("Const")
+                .putAttr("dtype", AttrValue.newBuilder().setType(dataType).build())
+                .putAttr("value", AttrValue.newBuilder().setTensor(tensor).build())
+                .build();
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,175 @@
+package org.nd4j.linalg.api.blas;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.blas.params.MMulTranspose;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Sparse x dense gemm is compared against dense gemm on the same matrices
+ */
+@RunWith(Parameterized.class)
+public class SparseLevel3Test extends BaseNd4jTest {
+
+    public SparseLevel3Test(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testCsrGemm() {
+        INDArray dense = sparseMatrix(37, 23, 0.1, 119);
+        INDArray sparse = toCsr(dense);
+        INDArray b = Nd4j.rand(new int[] {23, 11}, 12345);
+
+        assertMatches(dense.mmul(b), sparse.mmul(b));
+        assertMatches(dense.mmul(b.dup('f')), sparse.mmul(b.dup('f')));
+    }
+
+    @Test
+    public void testCooGemm() {
+        INDArray dense = sparseMatrix(37, 23, 0.1, 119);
+        INDArray sparse = toCoo(dense);
+        INDArray b = Nd4j.rand(new int[] {23, 11}, 12345);
+
+        assertMatches(dense.mmul(b), sparse.mmul(b));
+    }
+
+    @Test
+    public void testMmulOrdering() {
+        INDArray sparse = toCsr(sparseMatrix(37, 23, 0.1, 119));
+        INDArray b = Nd4j.rand(new int[] {23, 11}, 12345);
+
+        // same convention as dense mmul
+        assertEquals('f', sparse.mmul(b).ordering());
+        assertEquals('f', sparse.mmul(b, MMulTranspose.allFalse()).ordering());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testInPlaceMmulUnsupported() {
+        INDArray sparse = toCsr(sparseMatrix(37, 23, 0.1, 119));
+        sparse.mmuli(Nd4j.rand(new int[] {23, 11}, 12345), MMulTranspose.allFalse());
+    }
+
+    @Test
+    public void testGemmTransposes() {
+        INDArray dense = sparseMatrix(37, 23, 0.2, 119);
+        INDArray b = Nd4j.rand(new int[] {37, 11}, 12345);
+        INDArray bt = Nd4j.rand(new int[] {11, 23}, 12345);
+
+        for (INDArray sparse : new INDArray[] {toCsr(dense), toCoo(dense)}) {
+            // A^T x B, as used for gradients w.r.t. weights
+            MMulTranspose transposeA = MMulTranspose.builder().transposeA(true).build();
+            assertMatches(dense.transpose().mmul(b), sparse.mmul(b, transposeA));
+
+            // A x B^T, as used for gradients w.r.t. inputs
+            MMulTranspose transposeB = MMulTranspose.builder().transposeB(true).build();
+            assertMatches(dense.mmul(bt.transpose()), sparse.mmul(bt, transposeB));
+
+            MMulTranspose transposeResult = MMulTranspose.builder().transposeResult(true).build();
+            INDArray result = sparse.mmul(bt.transpose(), transposeResult);
+            assertArrayEquals(new int[] {11, 37}, result.shape());
+            assertMatches(dense.mmul(bt.transpose()).transpose(), result);
+        }
+    }
+
+    @Test
+    public void testGemmAlphaBeta() {
+        INDArray dense = sparseMatrix(64, 32, 0.05, 119);
+        INDArray b = Nd4j.rand(new int[] {32, 16}, 12345);
+        INDArray c = Nd4j.rand(new int[] {64, 16}, 119);
+
+        INDArray expected = dense.mmul(b).muli(0.5).addi(c.mul(2.0));
+        Nd4j.getSparseBlasWrapper().level3().gemm(toCsr(dense), b, c, false, false, 0.5, 2.0);
+
+        assertMatches(expected, c);
+    }
+
+    @Test
+    public void testLargeGemm() {
+        // big enough to be split across threads
+        INDArray dense = sparseMatrix(2000, 300, 0.01, 119);
+        INDArray b = Nd4j.rand(new int[] {300, 128}, 12345);
+
+        assertMatches(dense.mmul(b), toCsr(dense).mmul(b));
+        assertMatches(dense.mmul(b), toCoo(dense).mmul(b));
+    }
+
+    private static void assertMatches(INDArray expected, INDArray actual) {
+        assertArrayEquals(expected.shape(), actual.shape());
+        assertTrue("Expected " + expected + ", got " + actual, expected.equalsWithEps(actual, 1e-4));
+    }
+
+    private static INDArray sparseMatrix(int rows, int columns, double density, long seed) {
+        Random random = new Random(seed);
+        INDArray array = Nd4j.zeros(rows, columns);
+        for (int i = 0; i < rows; i++)
+            for (int j = 0; j < columns; j++)
+                if (random.nextDouble() < density)
+                    array.putScalar(i, j, random.nextDouble() - 0.5);
+
+        return array;
+    }
+
+    private static INDArray toCsr(INDArray dense) {
+        List<Double> values = new ArrayList<>();
+        List<Integer> columns = new ArrayList<>();
+        int[] pointerB = new int[dense.rows()];
+        int[] pointerE = new int[dense.rows()];
+        for (int i = 0; i < dense.rows(); i++) {
+            pointerB[i] = values.size();
+            for (int j = 0; j < dense.columns(); j++) {
+                if (dense.getDouble(i, j) != 0.0) {
+                    values.add(dense.getDouble(i, j));
+                    columns.add(j);
+                }
+            }
+            pointerE[i] = values.size();
+        }
+
+        double[] data = new double[values.size()];
+        int[] columnIndices = new int[values.size()];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = values.get(i);
+            columnIndices[i] = columns.get(i);
+        }
+
+        return Nd4j.createSparseCSR(Nd4j.createBuffer(data), columnIndices, pointerB, pointerE, dense.shape());
+    }
+
+    private static INDArray toCoo(INDArray dense) {
+        List<Double> values = new ArrayList<>();
+        List<int[]> indices = new ArrayList<>();
+        // entries are added column by column, so they aren't sorted by row
+        for (int j = 0; j < dense.columns(); j++) {
+            for (int i = 0; i < dense.rows(); i++) {
+                if (dense.getDouble(i, j) != 0.0) {
+                    values.add(dense.getDouble(i, j));
+                    indices.add(new int[] {i, j});
+                }
+            }
+        }
+
+        double[] data = new double[values.size()];
+        for (int i = 0; i < data.length; i++)
+            data[i] = values.get(i);
+
+        return Nd4j.createSparseCOO(data, indices.toArray(new int[0][]), dense.shape());
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
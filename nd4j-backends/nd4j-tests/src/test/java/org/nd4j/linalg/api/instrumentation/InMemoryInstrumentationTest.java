@@ -0,0 +1,125 @@
+package org.nd4j.linalg.api.instrumentation;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+@RunWith(Parameterized.class)
+public class InMemoryInstrumentationTest extends BaseNd4jTest {
+
+    public InMemoryInstrumentationTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testBoundedEntries() {
+        InMemoryInstrumentation instrumentation = new InMemoryInstrumentation(1.0, 16);
+        INDArray array = Nd4j.create(10);
+
+        for (int i = 0; i < 100; i++)
+            instrumentation.log(array);
+
+        assertEquals(16, instrumentation.getEntries().size());
+
+        String type = "INDArray/" + array.data().dataType().name();
+        Map<String, Long> counters = instrumentation.getCounters().get(type);
+        assertEquals(100L, (long) counters.get(InMemoryInstrumentation.ALLOCATIONS));
+        assertEquals(100L * 10 * array.data().getElementSize(),
+                        (long) counters.get(InMemoryInstrumentation.ALLOCATED_BYTES));
+    }
+
+    @Test
+    public void testAliveAndDestroyed() {
+        InMemoryInstrumentation instrumentation = new InMemoryInstrumentation(1.0, 1024);
+        INDArray alive = Nd4j.create(10);
+        INDArray dead = Nd4j.create(20);
+
+        instrumentation.log(alive);
+        instrumentation.log(dead);
+        instrumentation.log(dead, Instrumentation.DESTROYED);
+
+        assertEquals(1, instrumentation.getStillAlive().size());
+        assertEquals(1, instrumentation.getDestroyed().size());
+        assertTrue(instrumentation.isDestroyed(InMemoryInstrumentation.idOf(dead)));
+        assertFalse(instrumentation.isDestroyed(InMemoryInstrumentation.idOf(alive)));
+
+        Map<String, Long> counters = instrumentation.getCallSiteCounters().values().iterator().next();
+        assertEquals(2L, (long) counters.get(InMemoryInstrumentation.ALLOCATIONS));
+        assertEquals(1L, (long) counters.get(InMemoryInstrumentation.FREES));
+    }
+
+    @Test
+    public void testSampling() throws Exception {
+        final InMemoryInstrumentation instrumentation = new InMemoryInstrumentation(0.1, 100000);
+        final List<INDArray> arrays = new ArrayList<>();
+        for (int i = 0; i < 10000; i++)
+            arrays.add(Nd4j.create(1));
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (INDArray array : arrays)
+                        instrumentation.log(array);
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        // every thread samples the same arrays
+        int sampled = instrumentation.getEntries().size();
+        assertEquals(0, sampled % threads.length);
+        assertTrue("Sampled " + sampled, sampled > 2000 && sampled < 6000);
+
+        long allocations = instrumentation.getCounters().get("INDArray/" + arrays.get(0).data().dataType().name())
+                        .get(InMemoryInstrumentation.ALLOCATIONS);
+        assertEquals(40000L, allocations);
+    }
+
+    @Test
+    public void testCountersSurviveRingPruning() throws Exception {
+        final InMemoryInstrumentation instrumentation = new InMemoryInstrumentation(0.0, 1);
+        final INDArray array = Nd4j.create(10);
+        String type = "INDArray/" + array.data().dataType().name();
+
+        // each thread gets its own ring, and rings of finished threads are dropped once there's 256 of them
+        long previous = 0;
+        for (int t = 0; t < 600; t++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    instrumentation.log(array);
+                }
+            });
+            thread.start();
+            thread.join();
+
+            Map<String, Long> counters = instrumentation.getCounters().get(type);
+            long allocations = counters.get(InMemoryInstrumentation.ALLOCATIONS);
+            assertTrue("Allocations dropped from " + previous + " to " + allocations, allocations >= previous);
+            assertEquals(t + 1, allocations);
+            assertEquals(allocations * 10 * array.data().getElementSize(),
+                            (long) counters.get(InMemoryInstrumentation.ALLOCATED_BYTES));
+            previous = allocations;
+        }
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
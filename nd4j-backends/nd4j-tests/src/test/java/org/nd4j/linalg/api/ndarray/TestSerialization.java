@@ -4,12 +4,14 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.api.buffer.DataBuffer;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 import org.nd4j.linalg.indexing.NDArrayIndex;
 
 import java.io.*;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 /**
@@ -153,6 +155,42 @@ public class TestSerialization extends BaseNd4jTest {
         assertEquals(subF, arr2F);
     }
 
+    @Test
+    public void testDataBufferWireFormat() throws Exception {
+        // longer than single I/O chunk, so data is written and read in multiple chunks
+        int length = 300000;
+        INDArray arr = Nd4j.linspace(1, length, length);
+        DataBuffer buffer = arr.data();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(baos)) {
+            buffer.write(dos);
+        }
+        byte[] bytes = baos.toByteArray();
+
+        // bulk I/O has to produce exactly the same bytes as element-wise DataOutputStream calls
+        baos = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(baos)) {
+            dos.writeUTF(buffer.allocationMode().name());
+            dos.writeInt(length);
+            dos.writeUTF(buffer.dataType().name());
+            for (int i = 0; i < length; i++) {
+                if (buffer.dataType() == DataBuffer.Type.DOUBLE)
+                    dos.writeDouble(buffer.getDouble(i));
+                else
+                    dos.writeFloat(buffer.getFloat(i));
+            }
+        }
+        assertArrayEquals(baos.toByteArray(), bytes);
+
+        DataBuffer restored = Nd4j.createBuffer(length);
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            restored.read(dis);
+        }
+
+        assertEquals(arr, Nd4j.create(restored, arr.shape()));
+    }
+
     @Override
     public char ordering() {
         return 'c';
@@ -0,0 +1,146 @@
+package org.nd4j.linalg.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Test;
+import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.factory.Nd4jBackend;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+@Slf4j
+public class EvictingCacheTest extends BaseNd4jTest {
+    private static final EvictingCache.Weigher<long[]> WEIGHER = new EvictingCache.Weigher<long[]>() {
+        @Override
+        public long sizeOf(long[] value) {
+            return value.length * 8;
+        }
+    };
+
+    public EvictingCacheTest(Nd4jBackend backend) {
+        super(backend);
+    }
+
+    @Test
+    public void testHitsAndMisses() {
+        EvictingCache<Integer, long[]> cache = new EvictingCache<>(1024, 0, WEIGHER);
+
+        assertNull(cache.get(1));
+
+        long[] value = new long[] {1, 2, 3};
+        assertTrue(value == cache.put(1, value));
+
+        // second put for the same key should return already cached value
+        assertTrue(value == cache.put(1, new long[] {4, 5, 6}));
+        assertTrue(value == cache.get(1));
+
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(0, stats.getEvictions());
+        assertEquals(1, stats.getEntries());
+        assertEquals(24, cache.getCachedBytes());
+        assertEquals(0.5, stats.getHitRate(), 1e-5);
+    }
+
+    @Test
+    public void testByteBudgetEviction() {
+        // 10 entries, 80 bytes each
+        EvictingCache<Integer, long[]> cache = new EvictingCache<>(800, 0, WEIGHER);
+
+        for (int e = 0; e < 10; e++)
+            cache.put(e, new long[10]);
+
+        assertEquals(800, cache.getCachedBytes());
+
+        // keeping entry 0 hot
+        assertNotNull(cache.get(0));
+
+        cache.put(10, new long[10]);
+
+        assertTrue(cache.getCachedBytes() <= 800);
+        assertTrue(cache.getStats().getEvictions() > 0);
+
+        // recently used entries should survive eviction, least recent ones should be gone
+        assertNotNull(cache.get(0));
+        assertNotNull(cache.get(10));
+        assertNull(cache.get(1));
+    }
+
+    @Test
+    public void testEntriesLimit() {
+        EvictingCache<Integer, long[]> cache = new EvictingCache<>(0, 100, WEIGHER);
+
+        for (int e = 0; e < 1000; e++)
+            cache.put(e, new long[1]);
+
+        assertTrue(cache.size() <= 100);
+        assertEquals(cache.size() * 8, cache.getCachedBytes());
+        assertNotNull(cache.get(999));
+    }
+
+    @Test
+    public void testOversizedValue() {
+        EvictingCache<Integer, long[]> cache = new EvictingCache<>(64, 0, WEIGHER);
+
+        long[] value = new long[100];
+        assertTrue(value == cache.put(1, value));
+        assertNull(cache.get(1));
+        assertEquals(0, cache.getCachedBytes());
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        EvictingCache<Integer, long[]> cache = new EvictingCache<>(1024, 0, WEIGHER);
+
+        for (int e = 0; e < 10; e++)
+            cache.put(e, new long[2]);
+
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getCachedBytes());
+        assertNull(cache.get(5));
+    }
+
+    @Test
+    public void testConcurrentPuts() throws Exception {
+        // 64 keys, 80 bytes each, so only 10 of them fit into budget and threads keep evicting each other
+        final EvictingCache<Integer, long[]> cache = new EvictingCache<>(800, 0, WEIGHER);
+        final AtomicInteger failures = new AtomicInteger(0);
+
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            final int thread = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int e = 0; e < 10000; e++) {
+                        int key = (e + thread * 7) % 64;
+                        long[] value = cache.get(key);
+                        if (value == null)
+                            value = cache.put(key, new long[10]);
+
+                        if (value == null || value.length != 10)
+                            failures.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertEquals(0, failures.get());
+        assertTrue(cache.getStats().getEvictions() > 0);
+        assertTrue("Cached bytes: " + cache.getCachedBytes(), cache.getCachedBytes() <= 800);
+        assertEquals(cache.size() * 80, cache.getCachedBytes());
+    }
+
+    @Override
+    public char ordering() {
+        return 'c';
+    }
+}
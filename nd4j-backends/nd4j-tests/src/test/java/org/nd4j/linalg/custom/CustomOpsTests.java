@@ -7,6 +7,7 @@ import org.nd4j.linalg.api.ops.CustomOp;
 import org.nd4j.linalg.api.ops.DynamicCustomOp;
 import org.nd4j.linalg.api.ops.custom.ScatterUpdate;
 import org.nd4j.linalg.api.ops.executioner.OpStatus;
+import org.nd4j.linalg.cache.OutputShapeDescriptor;
 import org.nd4j.linalg.exception.ND4JIllegalStateException;
 import org.nd4j.linalg.factory.Nd4j;
 
@@ -14,6 +15,7 @@ import java.util.Arrays;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 /**
  * This class holds various CustomOps tests
@@ -305,4 +307,73 @@ public class CustomOpsTests {
     public void testOpStatus1() throws Exception {
         assertEquals(OpStatus.ND4J_STATUS_OK, OpStatus.byNumber(0));
     }
+
+    @Test
+    public void testOutputShapeCaching1() throws Exception {
+        val arrayX = Nd4j.create(3, 4);
+        val arrayY = Nd4j.create(3, 4);
+
+        CustomOp op = DynamicCustomOp.builder("add")
+                .addInputs(arrayX, arrayY)
+                .build();
+
+        val shapes1 = Nd4j.getExecutioner().calculateOutputShape(op);
+        assertEquals(1, shapes1.size());
+        assertArrayEquals(new int[] {3, 4}, shapes1.get(0));
+
+        // modification of returned shapes shouldn't affect subsequent calls
+        shapes1.get(0)[0] = 119;
+
+        val shapes2 = Nd4j.getExecutioner().calculateOutputShape(op);
+        assertEquals(1, shapes2.size());
+        assertArrayEquals(new int[] {3, 4}, shapes2.get(0));
+
+        // different input shapes should give different output shapes
+        CustomOp op2 = DynamicCustomOp.builder("add")
+                .addInputs(Nd4j.create(5, 4), Nd4j.create(5, 4))
+                .build();
+
+        val shapes3 = Nd4j.getExecutioner().calculateOutputShape(op2);
+        assertArrayEquals(new int[] {5, 4}, shapes3.get(0));
+    }
+
+    @Test
+    public void testOutputShapeCaching2() throws Exception {
+        // same input shape, different contents: output shape of fill comes from its input values
+        CustomOp op1 = DynamicCustomOp.builder("fill")
+                .addInputs(Nd4j.create(new double[] {2, 3}))
+                .addFloatingPointArguments(1.0)
+                .build();
+
+        CustomOp op2 = DynamicCustomOp.builder("fill")
+                .addInputs(Nd4j.create(new double[] {4, 5}))
+                .addFloatingPointArguments(1.0)
+                .build();
+
+        assertNotEquals(new OutputShapeDescriptor(op1, Nd4j.dataType(), true),
+                new OutputShapeDescriptor(op2, Nd4j.dataType(), true));
+
+        val shapes1 = Nd4j.getExecutioner().calculateOutputShape(op1);
+        assertArrayEquals(new int[] {2, 3}, shapes1.get(0));
+
+        val shapes2 = Nd4j.getExecutioner().calculateOutputShape(op2);
+        assertArrayEquals(new int[] {4, 5}, shapes2.get(0));
+
+        // and cached value is still valid for the original input
+        assertArrayEquals(new int[] {2, 3}, Nd4j.getExecutioner().calculateOutputShape(op1).get(0));
+    }
+
+    @Test
+    public void testOutputShapeCaching3() throws Exception {
+        // contents of inputs aren't part of the key for ops that don't take shapes as inputs
+        CustomOp op1 = DynamicCustomOp.builder("add")
+                .addInputs(Nd4j.create(new double[] {1, 2}), Nd4j.create(new double[] {3, 4}))
+                .build();
+
+        CustomOp op2 = DynamicCustomOp.builder("add")
+                .addInputs(Nd4j.create(new double[] {5, 6}), Nd4j.create(new double[] {7, 8}))
+                .build();
+
+        assertEquals(new OutputShapeDescriptor(op1, Nd4j.dataType()), new OutputShapeDescriptor(op2, Nd4j.dataType()));
+    }
 }
@@ -6,19 +6,25 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 import org.nd4j.linalg.BaseNd4jTest;
+import org.nd4j.linalg.cache.CacheStats;
 import org.nd4j.linalg.dataset.api.DataSetPreProcessor;
 import org.nd4j.linalg.dataset.api.iterator.CachingDataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.SamplingDataSetIterator;
 import org.nd4j.linalg.dataset.api.iterator.cache.DataSetCache;
+import org.nd4j.linalg.dataset.api.iterator.cache.InFileAndMemoryDataSetCache;
 import org.nd4j.linalg.dataset.api.iterator.cache.InFileDataSetCache;
 import org.nd4j.linalg.dataset.api.iterator.cache.InMemoryDataSetCache;
 import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.linalg.factory.Nd4jBackend;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static org.junit.Assert.*;
 
@@ -54,7 +60,102 @@ public class CachingDataSetIteratorTest extends BaseNd4jTest {
         FileUtils.deleteDirectory(cacheDir.toFile());
     }
 
+    @Test
+    public void testInFileReadAheadWriteBehind() throws IOException {
+        Path cacheDir = Files.createTempDirectory("nd4j-data-set-cache-test");
+        DataSetCache cache = new InFileDataSetCache(cacheDir);
+
+        runDataSetTest(cache, 3, true);
+
+        FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+
+    @Test
+    public void testInMemoryReadAhead() {
+        DataSetCache cache = new InMemoryDataSetCache();
+
+        runDataSetTest(cache, 1, false);
+    }
+
+    @Test
+    public void testInFileAndMemoryTiered() throws IOException {
+        Path cacheDir = Files.createTempDirectory("nd4j-data-set-cache-test");
+
+        // with float data each serialized DataSet takes a bit over 4080 bytes, so only 2 of them fit into memory tier
+        InFileAndMemoryDataSetCache cache = new InFileAndMemoryDataSetCache(cacheDir.toFile(), 10000,
+                        InMemoryDataSetCache.EvictionPolicy.LRU, null);
+
+        runDataSetTest(cache);
+
+        CacheStats memoryStats = cache.getMemoryStats();
+        assertTrue(memoryStats.getBytes() <= 10000);
+        assertTrue(memoryStats.getEvictions() > 0);
+
+        // namespace completion flushes memory tier, so every DataSet has its file copy
+        CacheStats fileStats = cache.getFileStats();
+        assertEquals(5, fileStats.getEntries());
+        assertTrue(fileStats.getHits() > 0);
+
+        FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+
+    @Test
+    public void testInMemoryEviction() {
+        DataSet dataSet = new DataSet(Nd4j.ones(10, 100), Nd4j.zeros(10, 2));
+
+        // entries are sized by their serialized bytes, so only 2 DataSets fit into the budget
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        dataSet.save(os);
+        long entryBytes = os.size();
+        long budget = 2 * entryBytes + 1;
+        InMemoryDataSetCache cache = new InMemoryDataSetCache(budget, InMemoryDataSetCache.EvictionPolicy.LRU);
+        final List<String> evicted = new ArrayList<>();
+        cache.setEvictionListener(new InMemoryDataSetCache.EvictionListener() {
+            @Override
+            public void evicted(String key, DataSet dataSet) {
+                assertEquals(1000.0, dataSet.getFeatures().sumNumber().doubleValue(), 1e-5);
+                evicted.add(key);
+            }
+        });
+
+        cache.put("first", dataSet);
+        cache.put("second", dataSet);
+
+        // first one becomes the most recently used
+        assertNotNull(cache.get("first"));
+        cache.put("third", dataSet);
+
+        assertEquals(Collections.singletonList("second"), evicted);
+        assertTrue(cache.contains("first"));
+        assertFalse(cache.contains("second"));
+        assertEquals(2 * entryBytes, cache.getCachedBytes());
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    public void testCompleteFlushesOwnNamespaceOnly() throws IOException {
+        Path cacheDir = Files.createTempDirectory("nd4j-data-set-cache-test");
+        InFileAndMemoryDataSetCache cache = new InFileAndMemoryDataSetCache(cacheDir.toFile());
+        DataSet dataSet = new DataSet(Nd4j.ones(10, 100), Nd4j.zeros(10, 2));
+
+        cache.put(CachingDataSetIterator.makeKey("train", 0), dataSet);
+        cache.put(CachingDataSetIterator.makeKey("train", 1), dataSet);
+        cache.put(CachingDataSetIterator.makeKey("train-2", 0), dataSet);
+        cache.put(CachingDataSetIterator.makeKey("test", 0), dataSet);
+
+        cache.setComplete("train", true);
+        assertTrue(cache.isComplete("train"));
+        assertFalse(cache.isComplete("test"));
+        assertEquals(2, cache.getFileStats().getEntries());
+
+        FileUtils.deleteDirectory(cacheDir.toFile());
+    }
+
     private void runDataSetTest(DataSetCache cache) {
+        runDataSetTest(cache, 0, false);
+    }
+
+    private void runDataSetTest(DataSetCache cache, int readAhead, boolean writeBehind) {
         int rows = 500;
         int inputColumns = 100;
         int outputColumns = 2;
@@ -67,7 +168,8 @@ public class CachingDataSetIteratorTest extends BaseNd4jTest {
 
         String namespace = "test-namespace";
 
-        CachingDataSetIterator cachedIt = new CachingDataSetIterator(it, cache, namespace);
+        CachingDataSetIterator cachedIt =
+                        new CachingDataSetIterator(it, cache, namespace, false, readAhead, writeBehind, true);
         PreProcessor preProcessor = new PreProcessor();
         cachedIt.setPreProcessor(preProcessor);
 
@@ -814,6 +814,39 @@ public class DataSetTest extends BaseNd4jTest {
     }
 
 
+    @Test
+    public void testDataSetSaveLoadIndexed() throws IOException {
+        INDArray f = Nd4j.linspace(1, 24, 24).reshape('c', 4, 3, 2);
+        INDArray l = Nd4j.linspace(24, 48, 24).reshape('f', 4, 3, 2);
+        INDArray fm = Nd4j.linspace(100, 108, 8).reshape('c', 4, 2);
+
+        File tmpFile = File.createTempFile("dataset-indexed", ".bin");
+        tmpFile.deleteOnExit();
+
+        DataSet ds = new DataSet(f, l, fm, null);
+        ds.saveIndexed(tmpFile);
+
+        DataSet ds2 = new DataSet();
+        ds2.load(tmpFile);
+        assertEquals(ds, ds2);
+
+        // subset of examples, both for 'c' and 'f' ordered arrays
+        DataSet ds3 = new DataSet();
+        ds3.load(tmpFile, 1, 3);
+        assertEquals(f.get(interval(1, 3), all(), all()), ds3.getFeatures());
+        assertEquals(l.get(interval(1, 3), all(), all()), ds3.getLabels());
+        assertEquals(fm.get(interval(1, 3), all()), ds3.getFeaturesMaskArray());
+        assertNull(ds3.getLabelsMaskArray());
+
+        // labels same as features are stored only once
+        new DataSet(f, f).saveIndexed(tmpFile);
+        DataSet ds4 = new DataSet();
+        ds4.load(tmpFile);
+        assertEquals(f, ds4.getFeatures());
+        assertTrue(ds4.getFeatures() == ds4.getLabels());
+    }
+
+
     @Override
     public char ordering() {
         return 'f';
@@ -682,6 +682,34 @@ public class MultiDataSetTest extends BaseNd4jTest {
         }
     }
 
+    @Test
+    public void multiDataSetSaveLoadIndexedTest() throws IOException {
+        Nd4j.getRandom().setSeed(12345);
+
+        INDArray[] f = new INDArray[] {Nd4j.rand(new int[] {3, 4, 5}), Nd4j.rand(3, 2)};
+        INDArray[] l = new INDArray[] {Nd4j.rand(new int[] {3, 3, 4})};
+        INDArray[] fm = new INDArray[] {null, Nd4j.rand(3, 2)};
+
+        File tmpFile = File.createTempFile("multidataset-indexed", ".bin");
+        tmpFile.deleteOnExit();
+
+        MultiDataSet mds = new MultiDataSet(f, l, fm, null);
+        mds.saveIndexed(tmpFile);
+
+        MultiDataSet mds2 = new MultiDataSet();
+        mds2.load(tmpFile);
+        assertEquals(mds, mds2);
+        assertEquals(2, mds2.getFeaturesMaskArrays().length);
+        assertNull(mds2.getFeaturesMaskArray(0));
+
+        MultiDataSet mds3 = new MultiDataSet();
+        mds3.load(tmpFile, 1, 2);
+        assertEquals(f[0].get(NDArrayIndex.interval(1, 2), NDArrayIndex.all(), NDArrayIndex.all()),
+                        mds3.getFeatures(0));
+        assertEquals(l[0].get(NDArrayIndex.interval(1, 2), NDArrayIndex.all(), NDArrayIndex.all()),
+                        mds3.getLabels(0));
+    }
+
     @Override
     public char ordering() {
         return 'c';
@@ -174,6 +174,41 @@ public class UpdaterTest extends BaseNd4jTest {
         }
     }
 
+    @Test
+    public void testFusedUpdaters() {
+        // large enough to be split between threads
+        int length = 100000;
+
+        IUpdater[] configs = new IUpdater[] {new Adam(), new Nadam(), new AdaMax(), new RmsProp(), new Nesterovs(0.1, 0.9)};
+        for (IUpdater config : configs) {
+            INDArray fusedState = Nd4j.zeros(1, (int) config.stateSize(length));
+            INDArray referenceState = Nd4j.zeros(1, (int) config.stateSize(length));
+            GradientUpdater fused = config.instantiate(fusedState, true);
+            GradientUpdater reference = config.instantiate(referenceState, true);
+
+            for (int i = 0; i < 5; i++) {
+                INDArray gradient = Nd4j.randn(1, length);
+                INDArray fusedGradient = gradient.dup();
+                INDArray referenceGradient = gradient.dup();
+
+                boolean enabled = FusedUpdaterKernels.isEnabled();
+                try {
+                    FusedUpdaterKernels.setEnabled(true);
+                    fused.applyUpdater(fusedGradient, i, 0);
+
+                    FusedUpdaterKernels.setEnabled(false);
+                    reference.applyUpdater(referenceGradient, i, 0);
+                } finally {
+                    FusedUpdaterKernels.setEnabled(enabled);
+                }
+
+                String message = config.getClass().getSimpleName() + " at iteration " + i;
+                assertEquals(message, referenceGradient, fusedGradient);
+                assertEquals(message, referenceState, fusedState);
+            }
+        }
+    }
+
     @Override
     public char ordering() {
         return 'f';
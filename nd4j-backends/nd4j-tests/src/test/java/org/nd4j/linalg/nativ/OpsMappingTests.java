@@ -7,6 +7,7 @@ import org.junit.Test;
 import org.nd4j.autodiff.functions.DifferentialFunction;
 import org.nd4j.autodiff.samediff.SameDiff;
 import org.nd4j.imports.NoOpNameFoundException;
+import org.nd4j.imports.converters.DifferentialFunctionClassHolder;
 import org.nd4j.linalg.api.ops.*;
 import org.nd4j.linalg.api.ops.impl.accum.Variance;
 import org.nd4j.linalg.api.ops.random.BaseRandomOp;
@@ -25,6 +26,8 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -120,6 +123,38 @@ public class OpsMappingTests {
         }
     }
 
+    @Test
+    public void testOpsIndex() {
+        val holder = DifferentialFunctionClassHolder.getInstance();
+        assertNotNull("Ops index wasn't generated at build time",
+                        getClass().getClassLoader().getResource(DifferentialFunctionClassHolder.INDEX_RESOURCE));
+
+        // every op found by classpath scanning has to be registered via index
+        Reflections f = new Reflections(new ConfigurationBuilder()
+                .filterInputsBy(new FilterBuilder().include(FilterBuilder.prefix("org.nd4j.*")).exclude("^(?!.*\\.class$).*$"))
+                .setUrls(ClasspathHelper.forPackage("org.nd4j")).setScanners(new SubTypesScanner()));
+
+        for (val clazz : f.getSubTypesOf(DifferentialFunction.class)) {
+            if (Modifier.isAbstract(clazz.getModifiers()) || clazz.isInterface())
+                continue;
+
+            String name;
+            try {
+                name = clazz.newInstance().opName();
+            } catch (NoOpNameFoundException e) {
+                continue;
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+
+            if (name == null)
+                continue;
+
+            assertTrue("Op [" + name + "] isn't registered", holder.hasName(name));
+            assertEquals(clazz, holder.getInstance(name).getClass());
+        }
+    }
+
     protected List<Operation> getOperations(@NonNull Op.Type type) {
         val list = new ArrayList<Operation>();
 
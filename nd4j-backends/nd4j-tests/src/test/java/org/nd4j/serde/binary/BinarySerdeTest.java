@@ -67,6 +67,21 @@ public class BinarySerdeTest {
         assertEquals(rand, fromDisk);
     }
 
+    @Test
+    public void testMmapFile() throws Exception {
+        File tmpFile = new File(System.getProperty("java.io.tmpdir"),
+                        "ndarraytmp-" + UUID.randomUUID().toString() + " .bin");
+        tmpFile.deleteOnExit();
+        INDArray rand = Nd4j.randn(new int[] {3, 4, 5});
+        BinarySerde.writeArrayToDisk(rand, tmpFile);
+        INDArray mapped = BinarySerde.mmap(tmpFile);
+        assertEquals(rand, mapped);
+
+        // private mapping: changes should never hit the file
+        mapped.addi(1.0);
+        assertEquals(rand, BinarySerde.readFromDisk(tmpFile));
+    }
+
     @Test
     public void testReadShapeFile() throws Exception {
         File tmpFile = new File(System.getProperty("java.io.tmpdir"),
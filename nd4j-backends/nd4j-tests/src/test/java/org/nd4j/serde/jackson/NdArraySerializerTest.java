@@ -4,12 +4,19 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.shade.jackson.core.JsonFactory;
 import org.nd4j.shade.jackson.databind.ObjectMapper;
 import org.nd4j.shade.jackson.databind.module.SimpleModule;
+import org.nd4j.shade.jackson.dataformat.cbor.CBORFactory;
+import org.nd4j.shade.jackson.dataformat.smile.SmileFactory;
+import org.nd4j.shade.jackson.dataformat.smile.SmileGenerator;
 import org.nd4j.shade.serde.jackson.shaded.NDArrayDeSerializer;
 import org.nd4j.shade.serde.jackson.shaded.NDArraySerializer;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Created by agibsonccc on 6/23/16.
@@ -19,7 +26,7 @@ public class NdArraySerializerTest {
 
     @BeforeClass
     public static void before() {
-        objectMapper = objectMapper();
+        objectMapper = objectMapper(new JsonFactory());
 
     }
 
@@ -32,8 +39,32 @@ public class NdArraySerializerTest {
         assertEquals(assertion, test);
     }
 
-    private static ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
+    @Test
+    public void testBinarySerde() throws Exception {
+        SmileFactory smile = new SmileFactory();
+        smile.disable(SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT);
+
+        INDArray c = Nd4j.linspace(1, 4096, 4096).reshape(64, 64);
+        INDArray[] arrays = new INDArray[] {c, c.dup('f'), c.getColumn(3), c.get(NDArrayIndex.interval(3, 40),
+                        NDArrayIndex.interval(5, 55)), Nd4j.linspace(1, 24, 24).reshape(2, 3, 4).permute(2, 0, 1),
+                        Nd4j.scalar(3.0)};
+
+        for (ObjectMapper mapper : new ObjectMapper[] {objectMapper(smile), objectMapper(new SmileFactory()),
+                        objectMapper(new CBORFactory())}) {
+            for (INDArray array : arrays) {
+                byte[] bytes = mapper.writeValueAsBytes(array);
+                INDArray test = mapper.readValue(bytes, INDArray.class);
+                assertArrayEquals(array.shape(), test.shape());
+                assertEquals(array, test);
+            }
+        }
+
+        // raw binary is smaller than Base64 string
+        assertTrue(objectMapper(smile).writeValueAsBytes(c).length < objectMapper.writeValueAsBytes(c).length * 3 / 4);
+    }
+
+    private static ObjectMapper objectMapper(JsonFactory factory) {
+        ObjectMapper mapper = new ObjectMapper(factory);
         SimpleModule nd4j = new SimpleModule("nd4j");
         nd4j.addDeserializer(INDArray.class, new NDArrayDeSerializer());
         nd4j.addSerializer(INDArray.class, new NDArraySerializer());
@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.DoubleBuffer;
 import java.nio.FloatBuffer;
 import java.nio.IntBuffer;
@@ -53,6 +54,9 @@ import org.nd4j.linalg.util.ArrayUtil;
  */
 public abstract class BaseDataBuffer implements DataBuffer {
 
+    // size of chunks used for stream I/O, in bytes
+    protected static final int IO_CHUNK_SIZE = 1024 * 1024;
+
     protected Type type;
     protected long length;
     protected long underlyingLength;
@@ -1319,7 +1323,10 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
     protected void readContent(DataInputStream s, Type currentType, Type globalType) {
         try {
-            if (currentType == Type.DOUBLE) {
+            // no conversion needed, so data is copied in bulk
+            if (currentType == dataType() && isBulkType(currentType) && pointer != null) {
+                readBulk(s);
+            } else if (currentType == Type.DOUBLE) {
                 for (int i = 0; i < length(); i++) {
                     putByGlobalType(i, s.readDouble(), globalType);
                 }
@@ -1335,9 +1342,7 @@ public abstract class BaseDataBuffer implements DataBuffer {
 
                 // special case here. We should collect bytes, wrap them into pointer, and then decompress
                 byte[] temp = new byte[(int) compressedLength];
-                for (int i = 0; i < compressedLength; i++) {
-                    temp[i] = s.readByte();
-                }
+                s.readFully(temp);
                 pointer = new BytePointer(temp);
                 type = Type.COMPRESSED;
 
@@ -1363,7 +1368,9 @@ public abstract class BaseDataBuffer implements DataBuffer {
         out.writeUTF(allocationMode.name());
         out.writeInt((int) length());
         out.writeUTF(dataType().name());
-        if (dataType() == Type.DOUBLE) {
+        if (isBulkType(dataType()) && pointer() != null) {
+            writeBulk(out);
+        } else if (dataType() == Type.DOUBLE) {
             for (int i = 0; i < length(); i++)
                 out.writeDouble(getDouble(i));
         } else if (dataType() == Type.INT) {
@@ -1380,6 +1387,88 @@ public abstract class BaseDataBuffer implements DataBuffer {
         }
     }
 
+    /**
+     * Types, which are stored in the stream as is, just in big-endian byte order
+     */
+    private static boolean isBulkType(Type type) {
+        return type == Type.DOUBLE || type == Type.FLOAT || type == Type.INT || type == Type.HALF;
+    }
+
+    /**
+     * This method returns byte pointer to the first element of this buffer, with offset applied.
+     * address() isn't used here, since backends may override it without applying view offset.
+     */
+    private BytePointer contentPointer() {
+        final long contentAddress = pointer().address() + getElementSize() * offset();
+        return new BytePointer(pointer()) {
+            {
+                address = contentAddress;
+            }
+        };
+    }
+
+    /**
+     * This method writes buffer content to the stream in chunks, instead of element by element.
+     * Stream format is the same DataOutputStream produces: big-endian values, one after another.
+     *
+     * PLEASE NOTE: there's no separate FileChannel path for file-backed streams: values have to be converted
+     * to big-endian on the way out anyway, so content can't be handed over to the channel as is,
+     * and chunks larger than stream buffer already go straight to the underlying stream.
+     */
+    protected void writeBulk(DataOutputStream out) throws IOException {
+        long bytes = length() * getElementSize();
+        BytePointer source = contentPointer();
+        byte[] chunk = new byte[(int) Math.min(IO_CHUNK_SIZE, bytes)];
+
+        for (long position = 0; position < bytes; position += chunk.length) {
+            int chunkSize = (int) Math.min(chunk.length, bytes - position);
+            source.position(position).limit(position + chunkSize);
+
+            ByteBuffer src = source.asByteBuffer().order(ByteOrder.nativeOrder());
+            ByteBuffer dst = ByteBuffer.wrap(chunk, 0, chunkSize).order(ByteOrder.BIG_ENDIAN);
+            convert(src, dst, dataType());
+
+            out.write(chunk, 0, chunkSize);
+        }
+    }
+
+    /**
+     * This method reads buffer content from the stream in chunks, instead of element by element.
+     * Stream has to contain values of the same type as this buffer, in big-endian byte order.
+     */
+    protected void readBulk(DataInputStream s) throws IOException {
+        long bytes = length() * getElementSize();
+        BytePointer target = contentPointer();
+        byte[] chunk = new byte[(int) Math.min(IO_CHUNK_SIZE, bytes)];
+
+        for (long position = 0; position < bytes; position += chunk.length) {
+            int chunkSize = (int) Math.min(chunk.length, bytes - position);
+            s.readFully(chunk, 0, chunkSize);
+            target.position(position).limit(position + chunkSize);
+
+            ByteBuffer src = ByteBuffer.wrap(chunk, 0, chunkSize).order(ByteOrder.BIG_ENDIAN);
+            ByteBuffer dst = target.asByteBuffer().order(ByteOrder.nativeOrder());
+            convert(src, dst, dataType());
+        }
+    }
+
+    /**
+     * This method copies values between buffers, swapping byte order if buffers have different ones
+     */
+    private static void convert(ByteBuffer src, ByteBuffer dst, Type type) {
+        if (src.order() == dst.order()) {
+            dst.put(src);
+        } else if (type == Type.DOUBLE) {
+            dst.asDoubleBuffer().put(src.asDoubleBuffer());
+        } else if (type == Type.HALF) {
+            dst.asShortBuffer().put(src.asShortBuffer());
+        } else if (type == Type.INT) {
+            dst.asIntBuffer().put(src.asIntBuffer());
+        } else {
+            dst.asFloatBuffer().put(src.asFloatBuffer());
+        }
+    }
+
     public float toFloat(int hbits) {
         int mant = hbits & 0x03ff; // 10 bits mantissa
         int exp = hbits & 0x7c00; // 5 bits exponent
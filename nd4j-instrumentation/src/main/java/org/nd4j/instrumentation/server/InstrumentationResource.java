@@ -19,6 +19,8 @@
 
 package org.nd4j.instrumentation.server;
 
+import org.nd4j.linalg.api.instrumentation.InMemoryInstrumentation;
+import org.nd4j.linalg.api.instrumentation.Instrumentation;
 import org.nd4j.linalg.api.instrumentation.LogEntry;
 import org.nd4j.linalg.factory.Nd4j;
 
@@ -75,4 +77,24 @@ public class InstrumentationResource {
         Collection<LogEntry> dead = Nd4j.getInstrumentation().getDestroyed();
         return Response.ok(dead).build();
     }
+
+    @GET
+    @Path("/counters")
+    public Response getCounters() {
+        Instrumentation instrumentation = Nd4j.getInstrumentation();
+        if (!(instrumentation instanceof InMemoryInstrumentation))
+            return Response.status(Response.Status.NOT_FOUND).build();
+
+        return Response.ok(((InMemoryInstrumentation) instrumentation).getCounters()).build();
+    }
+
+    @GET
+    @Path("/callsites")
+    public Response getCallSites() {
+        Instrumentation instrumentation = Nd4j.getInstrumentation();
+        if (!(instrumentation instanceof InMemoryInstrumentation))
+            return Response.status(Response.Status.NOT_FOUND).build();
+
+        return Response.ok(((InMemoryInstrumentation) instrumentation).getCallSiteCounters()).build();
+    }
 }
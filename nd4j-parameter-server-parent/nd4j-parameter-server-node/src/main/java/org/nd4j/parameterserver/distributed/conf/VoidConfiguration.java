@@ -137,6 +137,13 @@ public class VoidConfiguration implements Serializable {
     @Builder.Default
     private long responseTimeout = 30000;
 
+    /**
+     * This variable defines initial size of buffer used to reassemble messages split into multiple Aeron fragments.
+     * Buffer is reused for all messages, and grows if larger message arrives.
+     */
+    @Builder.Default
+    private int fragmentBufferLength = 64 * 1024;
+
     /**
      * This optional variable defines IP address of the box which acts as master for gradients training.
      * Leave it null, and Spark Master node will be used as Master for parameter server as well.
@@ -2,17 +2,14 @@ package org.nd4j.parameterserver.distributed.messages;
 
 import lombok.extern.slf4j.Slf4j;
 import org.agrona.concurrent.UnsafeBuffer;
-import org.apache.commons.io.input.ClassLoaderObjectInputStream;
-import org.apache.commons.lang3.SerializationUtils;
 import org.nd4j.parameterserver.distributed.conf.VoidConfiguration;
 import org.nd4j.parameterserver.distributed.enums.NodeRole;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.logic.Storage;
+import org.nd4j.parameterserver.distributed.messages.codec.VoidMessageCodec;
 import org.nd4j.parameterserver.distributed.training.TrainingDriver;
 import org.nd4j.parameterserver.distributed.transport.Transport;
 
-import java.io.ByteArrayInputStream;
-import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -36,17 +33,11 @@ public interface VoidMessage extends Serializable {
 
     UnsafeBuffer asUnsafeBuffer();
 
+    /**
+     * This method decodes message from given bytes, either encoded with {@link VoidMessageCodec} or Java-serialized
+     */
     static <T extends VoidMessage> T fromBytes(byte[] array) {
-        try {
-            ObjectInputStream in = new ClassLoaderObjectInputStream(Thread.currentThread().getContextClassLoader(),
-                            new ByteArrayInputStream(array));
-
-            T result = (T) in.readObject();
-            return result;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-        //return SerializationUtils.deserialize(array);
+        return VoidMessageCodec.decode(new UnsafeBuffer(array), 0, array.length);
     }
 
     /**
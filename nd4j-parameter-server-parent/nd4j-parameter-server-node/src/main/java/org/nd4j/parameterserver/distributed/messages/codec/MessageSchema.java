@@ -0,0 +1,153 @@
+package org.nd4j.parameterserver.distributed.messages.codec;
+
+import lombok.Getter;
+import lombok.NonNull;
+import org.nd4j.parameterserver.distributed.messages.BaseVoidMessage;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.agrona.UnsafeAccess.UNSAFE;
+
+/**
+ * Binary layout of single message class: all non-static, non-transient fields,
+ * superclass fields first, and in declaration order within each class.
+ *
+ * Fingerprint covers names and types of all fields, so peers having different versions of message class
+ * fail fast instead of decoding garbage.
+ */
+public class MessageSchema {
+    public enum Kind {
+        BOOLEAN(1), BYTE(1), SHORT(2), CHAR(2), INT(4), LONG(8), FLOAT(4), DOUBLE(8), OBJECT(-1);
+
+        // encoded length in bytes, -1 for variable-length values
+        @Getter
+        private final int length;
+
+        Kind(int length) {
+            this.length = length;
+        }
+    }
+
+    @Getter
+    public static class FieldSchema {
+        private final Field field;
+        private final Kind kind;
+        private final long offset;
+
+        protected FieldSchema(Field field) {
+            this.field = field;
+            this.kind = kindOf(field.getType());
+            this.offset = UNSAFE.objectFieldOffset(field);
+        }
+    }
+
+    @Getter
+    private final Class<? extends VoidMessage> messageClass;
+    @Getter
+    private final short typeId;
+    @Getter
+    private final int fingerprint;
+    @Getter
+    private final List<FieldSchema> fields;
+
+    // position of messageType field within encoded message, if it's preceded by primitive fields only, -1 otherwise
+    @Getter
+    private final int messageTypePosition;
+
+    // messageType of classes which return constant from getMessageType(), like Frame or aggregations
+    @Getter
+    private final Integer fixedMessageType;
+
+    protected MessageSchema(@NonNull Class<? extends VoidMessage> messageClass, short typeId) {
+        this.messageClass = messageClass;
+        this.typeId = typeId;
+
+        List<Class<?>> hierarchy = new ArrayList<>();
+        for (Class<?> c = messageClass; c != null && c != Object.class; c = c.getSuperclass())
+            hierarchy.add(c);
+        Collections.reverse(hierarchy);
+
+        List<FieldSchema> fields = new ArrayList<>();
+        int fingerprint = messageClass.getName().hashCode();
+        int position = VoidMessageCodec.HEADER_LENGTH;
+        int messageTypePosition = -1;
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic())
+                    continue;
+
+                FieldSchema fieldSchema = new FieldSchema(field);
+                if (position >= 0 && fieldSchema.getKind() == Kind.INT && field.getName().equals("messageType"))
+                    messageTypePosition = position;
+
+                if (position >= 0)
+                    position = fieldSchema.getKind() == Kind.OBJECT ? -1 : position + fieldSchema.getKind().getLength();
+                fields.add(fieldSchema);
+                fingerprint = 31 * fingerprint + (c.getName() + "." + field.getName() + ":" + field.getType().getName())
+                                .hashCode();
+            }
+        }
+
+        this.fields = Collections.unmodifiableList(fields);
+        this.fingerprint = fingerprint;
+
+        // messageType field is meaningful only if getMessageType() isn't overridden, as it is in aggregations
+        boolean fieldBacked;
+        try {
+            fieldBacked = messageClass.getMethod("getMessageType").getDeclaringClass() == BaseVoidMessage.class;
+        } catch (NoSuchMethodException e) {
+            fieldBacked = false;
+        }
+        this.messageTypePosition = fieldBacked ? messageTypePosition : -1;
+
+        Integer fixedMessageType = null;
+        if (this.messageTypePosition < 0) {
+            try {
+                fixedMessageType = newInstance().getMessageType();
+            } catch (Exception e) {
+                // messageType can't be obtained without decoding the message then
+            }
+        }
+        this.fixedMessageType = fixedMessageType;
+    }
+
+    /**
+     * This method creates new instance of message class, without calling any constructor, same way Java serialization does
+     *
+     * @return
+     */
+    public VoidMessage newInstance() {
+        try {
+            return (VoidMessage) UNSAFE.allocateInstance(messageClass);
+        } catch (InstantiationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Kind kindOf(Class<?> type) {
+        if (type == boolean.class)
+            return Kind.BOOLEAN;
+        else if (type == byte.class)
+            return Kind.BYTE;
+        else if (type == short.class)
+            return Kind.SHORT;
+        else if (type == char.class)
+            return Kind.CHAR;
+        else if (type == int.class)
+            return Kind.INT;
+        else if (type == long.class)
+            return Kind.LONG;
+        else if (type == float.class)
+            return Kind.FLOAT;
+        else if (type == double.class)
+            return Kind.DOUBLE;
+        else
+            return Kind.OBJECT;
+    }
+}
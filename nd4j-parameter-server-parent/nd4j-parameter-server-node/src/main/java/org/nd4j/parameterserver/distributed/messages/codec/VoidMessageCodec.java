@@ -0,0 +1,786 @@
+package org.nd4j.parameterserver.distributed.messages.codec;
+
+import lombok.NonNull;
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.apache.commons.io.input.ClassLoaderObjectInputStream;
+import org.apache.commons.lang3.SerializationUtils;
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.distributed.messages.Frame;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.aggregations.DotAggregation;
+import org.nd4j.parameterserver.distributed.messages.aggregations.InitializationAggregation;
+import org.nd4j.parameterserver.distributed.messages.aggregations.VectorAggregation;
+import org.nd4j.parameterserver.distributed.messages.complete.FrameCompleteMessage;
+import org.nd4j.parameterserver.distributed.messages.complete.InitializationCompleteMessage;
+import org.nd4j.parameterserver.distributed.messages.complete.IntroductionCompleteMessage;
+import org.nd4j.parameterserver.distributed.messages.complete.VectorCompleteMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.*;
+import org.nd4j.parameterserver.distributed.messages.requests.*;
+import org.nd4j.serde.binary.BinarySerde;
+
+import java.io.ByteArrayInputStream;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.agrona.UnsafeAccess.UNSAFE;
+
+/**
+ * Compact, versioned binary codec for VoidMessages, used instead of Java object serialization.
+ *
+ * Every message starts with header: [byte version][byte flags][short typeId][int schema fingerprint],
+ * followed by values of all non-transient fields, as described by {@link MessageSchema}.
+ * Primitive fields are written as is, reference fields are prefixed with 1-byte tag.
+ * INDArrays are written as raw native bytes, copied straight from/to off-heap memory.
+ *
+ * Message classes not registered here, and field values of unknown types, fall back to Java serialization.
+ * Legacy Java-serialized messages are still accepted by {@link #decode(DirectBuffer, int, int)}.
+ *
+ * Unlike Java serialization, codec writes values, not references. So nested messages and lists referenced
+ * more than once (shared or cyclic references) are rejected, and INDArrays or Java-serialized values
+ * referenced from several fields are decoded as separate copies.
+ *
+ * PLEASE NOTE: type ids are positions in registry below, so new message classes should be appended to its end.
+ */
+public class VoidMessageCodec {
+    public static final byte VERSION = 1;
+
+    protected static final int HEADER_LENGTH = 8;
+
+    // Java serialization stream magic is 0xACED
+    private static final byte JAVA_STREAM_MAGIC = (byte) 0xAC;
+
+    private static final byte FLAG_BIG_ENDIAN = 1;
+
+    // all primitives are written in this order, array contents - in native one
+    private static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    private static final short TYPE_SERIALIZED = 0;
+
+    private static final byte TAG_NULL = 0;
+    private static final byte TAG_BOOLEAN = 1;
+    private static final byte TAG_BYTE = 2;
+    private static final byte TAG_SHORT = 3;
+    private static final byte TAG_INTEGER = 4;
+    private static final byte TAG_LONG = 5;
+    private static final byte TAG_FLOAT = 6;
+    private static final byte TAG_DOUBLE = 7;
+    private static final byte TAG_STRING = 8;
+    private static final byte TAG_INT_ARRAY = 9;
+    private static final byte TAG_BYTE_ARRAY = 10;
+    private static final byte TAG_NDARRAY = 11;
+    private static final byte TAG_MESSAGE = 12;
+    private static final byte TAG_LIST = 13;
+    private static final byte TAG_SERIALIZED = 14;
+
+    private static final List<Class<? extends VoidMessage>> REGISTRY = Collections.unmodifiableList(
+                    Arrays.<Class<? extends VoidMessage>>asList(
+                                    Frame.class,
+
+                                    DotAggregation.class, InitializationAggregation.class,
+                                    VectorAggregation.class,
+
+                                    FrameCompleteMessage.class, InitializationCompleteMessage.class,
+                                    IntroductionCompleteMessage.class, VectorCompleteMessage.class,
+
+                                    DistributedAssignMessage.class, DistributedCbowDotMessage.class,
+                                    DistributedInitializationMessage.class, DistributedIntroductionMessage.class,
+                                    DistributedSgDotMessage.class, DistributedShutdownMessage.class,
+                                    DistributedSkipGramMessage.class, DistributedSolidMessage.class,
+                                    DistributedVectorMessage.class,
+
+                                    AssignRequestMessage.class, CbowRequestMessage.class,
+                                    InitializationRequestMessage.class, IntroductionRequestMessage.class,
+                                    ShutdownRequestMessage.class, SkipGramRequestMessage.class,
+                                    VectorRequestMessage.class));
+
+    private static final Map<Class<?>, MessageSchema> schemas = new IdentityHashMap<>();
+    private static final MessageSchema[] schemasById = new MessageSchema[REGISTRY.size() + 1];
+
+    static {
+        for (int i = 0; i < REGISTRY.size(); i++) {
+            MessageSchema schema = new MessageSchema(REGISTRY.get(i), (short) (i + 1));
+            schemas.put(schema.getMessageClass(), schema);
+            schemasById[schema.getTypeId()] = schema;
+        }
+    }
+
+    private static class Cursor {
+        private int position;
+
+        private Cursor(int position) {
+            this.position = position;
+        }
+    }
+
+    private VoidMessageCodec() {}
+
+    /**
+     * This method returns schema for given message class, or null if this class has no schema, and is sent as Java-serialized object
+     *
+     * @param messageClass
+     * @return
+     */
+    public static MessageSchema getSchema(@NonNull Class<?> messageClass) {
+        return schemas.get(messageClass);
+    }
+
+    /**
+     * This method encodes given message into exactly-sized UnsafeBuffer
+     *
+     * @param message
+     * @return
+     */
+    public static UnsafeBuffer encode(@NonNull VoidMessage message) {
+        // Java-serialized values are kept between sizing and encoding, so each of them is serialized only once
+        checkReferences(message);
+
+        Deque<byte[]> serialized = new ArrayDeque<>();
+        UnsafeBuffer buffer = new UnsafeBuffer(new byte[sizeOf(message, serialized)]);
+        encode(message, buffer, 0, serialized);
+        return buffer;
+    }
+
+    /**
+     * This method returns number of bytes given message will occupy once encoded
+     *
+     * @param message
+     * @return
+     */
+    public static int sizeOf(@NonNull VoidMessage message) {
+        checkReferences(message);
+        return sizeOf(message, null);
+    }
+
+    /**
+     * This method encodes given message into given buffer, starting at given offset
+     *
+     * @param message
+     * @param buffer buffer with at least {@link #sizeOf(VoidMessage)} bytes available after offset
+     * @param offset
+     * @return offset right after encoded message
+     */
+    public static int encode(@NonNull VoidMessage message, @NonNull MutableDirectBuffer buffer, int offset) {
+        checkReferences(message);
+        return encode(message, buffer, offset, null);
+    }
+
+    /**
+     * This method walks nested messages and lists, and throws exception if any of them is referenced more than once,
+     * since codec would write it several times, or recurse forever for cyclic references
+     */
+    private static void checkReferences(VoidMessage message) {
+        MessageSchema schema = schemas.get(message.getClass());
+        if (schema == null)
+            return;
+
+        // most messages have no nested containers, so nothing is allocated for them
+        Map<Object, Boolean> seen = null;
+        for (MessageSchema.FieldSchema field : schema.getFields()) {
+            if (field.getKind() != MessageSchema.Kind.OBJECT)
+                continue;
+
+            Object value = UNSAFE.getObject(message, field.getOffset());
+            if (!isContainer(value))
+                continue;
+
+            if (seen == null) {
+                seen = new IdentityHashMap<>();
+                seen.put(message, Boolean.TRUE);
+            }
+            checkReferences(value, seen);
+        }
+    }
+
+    private static void checkReferences(Object value, Map<Object, Boolean> seen) {
+        if (!isContainer(value))
+            return;
+
+        if (seen.put(value, Boolean.TRUE) != null)
+            throw new ND4JIllegalStateException("Can't encode " + value.getClass().getName()
+                            + " referenced more than once: shared and cyclic references aren't supported");
+
+        if (value instanceof List) {
+            for (Object element : (List<?>) value)
+                checkReferences(element, seen);
+        } else {
+            for (MessageSchema.FieldSchema field : schemas.get(value.getClass()).getFields())
+                if (field.getKind() == MessageSchema.Kind.OBJECT)
+                    checkReferences(UNSAFE.getObject(value, field.getOffset()), seen);
+        }
+    }
+
+    /**
+     * Lists and messages with schema are written field by field, everything else is written as a whole
+     */
+    private static boolean isContainer(Object value) {
+        return value instanceof List || (value instanceof VoidMessage && schemas.containsKey(value.getClass()));
+    }
+
+    /**
+     * @param serialized if not null, Java-serialized values are appended to it, in the order they will be encoded
+     */
+    private static int sizeOf(VoidMessage message, Deque<byte[]> serialized) {
+        MessageSchema schema = schemas.get(message.getClass());
+        if (schema == null)
+            return HEADER_LENGTH + 4 + serializeAndKeep(message, serialized).length;
+
+        int size = HEADER_LENGTH;
+        for (MessageSchema.FieldSchema field : schema.getFields()) {
+            switch (field.getKind()) {
+                case BOOLEAN:
+                case BYTE:
+                    size += 1;
+                    break;
+                case SHORT:
+                case CHAR:
+                    size += 2;
+                    break;
+                case INT:
+                case FLOAT:
+                    size += 4;
+                    break;
+                case LONG:
+                case DOUBLE:
+                    size += 8;
+                    break;
+                default:
+                    size += sizeOfValue(UNSAFE.getObject(message, field.getOffset()), serialized);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @param serialized if not null, Java-serialized values are taken from it instead of being serialized again
+     */
+    private static int encode(VoidMessage message, MutableDirectBuffer buffer, int offset, Deque<byte[]> serialized) {
+        MessageSchema schema = schemas.get(message.getClass());
+
+        buffer.putByte(offset, VERSION);
+        buffer.putByte(offset + 1, ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? FLAG_BIG_ENDIAN : 0);
+        buffer.putShort(offset + 2, schema == null ? TYPE_SERIALIZED : schema.getTypeId(), ORDER);
+        buffer.putInt(offset + 4, schema == null ? 0 : schema.getFingerprint(), ORDER);
+        int position = offset + HEADER_LENGTH;
+
+        if (schema == null) {
+            byte[] bytes = takeSerialized(message, serialized);
+            buffer.putInt(position, bytes.length, ORDER);
+            buffer.putBytes(position + 4, bytes);
+            return position + 4 + bytes.length;
+        }
+
+        for (MessageSchema.FieldSchema field : schema.getFields()) {
+            long fieldOffset = field.getOffset();
+            switch (field.getKind()) {
+                case BOOLEAN:
+                    buffer.putByte(position, UNSAFE.getBoolean(message, fieldOffset) ? (byte) 1 : (byte) 0);
+                    position += 1;
+                    break;
+                case BYTE:
+                    buffer.putByte(position, UNSAFE.getByte(message, fieldOffset));
+                    position += 1;
+                    break;
+                case SHORT:
+                    buffer.putShort(position, UNSAFE.getShort(message, fieldOffset), ORDER);
+                    position += 2;
+                    break;
+                case CHAR:
+                    buffer.putChar(position, UNSAFE.getChar(message, fieldOffset), ORDER);
+                    position += 2;
+                    break;
+                case INT:
+                    buffer.putInt(position, UNSAFE.getInt(message, fieldOffset), ORDER);
+                    position += 4;
+                    break;
+                case FLOAT:
+                    buffer.putFloat(position, UNSAFE.getFloat(message, fieldOffset), ORDER);
+                    position += 4;
+                    break;
+                case LONG:
+                    buffer.putLong(position, UNSAFE.getLong(message, fieldOffset), ORDER);
+                    position += 8;
+                    break;
+                case DOUBLE:
+                    buffer.putDouble(position, UNSAFE.getDouble(message, fieldOffset), ORDER);
+                    position += 8;
+                    break;
+                default:
+                    position = encodeValue(UNSAFE.getObject(message, fieldOffset), buffer, position, serialized);
+            }
+        }
+
+        return position;
+    }
+
+    /**
+     * This method decodes message from given buffer.
+     * Both encoded and legacy Java-serialized messages are accepted.
+     *
+     * @param buffer
+     * @param offset
+     * @param length
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends VoidMessage> T decode(@NonNull DirectBuffer buffer, int offset, int length) {
+        if (length > 0 && buffer.getByte(offset) == JAVA_STREAM_MAGIC) {
+            byte[] bytes = new byte[length];
+            buffer.getBytes(offset, bytes);
+            return (T) deserialize(bytes);
+        }
+
+        Cursor cursor = new Cursor(offset);
+        T message = (T) decodeMessage(buffer, cursor);
+        if (cursor.position - offset != length)
+            throw new ND4JIllegalStateException("Message length mismatch: expected " + length + " bytes, decoded "
+                            + (cursor.position - offset));
+
+        return message;
+    }
+
+    /**
+     * This method returns messageType of encoded message, reading it straight from the buffer whenever possible,
+     * so messages which are only forwarded don't have to be decoded at all
+     *
+     * @param buffer
+     * @param offset
+     * @param length
+     * @return
+     */
+    public static int peekMessageType(@NonNull DirectBuffer buffer, int offset, int length) {
+        if (length >= HEADER_LENGTH && buffer.getByte(offset) == VERSION) {
+            short typeId = buffer.getShort(offset + 2, ORDER);
+            if (typeId > 0 && typeId < schemasById.length) {
+                MessageSchema schema = schemasById[typeId];
+                if (schema.getMessageTypePosition() >= 0)
+                    return buffer.getInt(offset + schema.getMessageTypePosition(), ORDER);
+                else if (schema.getFixedMessageType() != null)
+                    return schema.getFixedMessageType();
+            }
+        }
+
+        return decode(buffer, offset, length).getMessageType();
+    }
+
+    private static VoidMessage decodeMessage(DirectBuffer buffer, Cursor cursor) {
+        int position = cursor.position;
+        byte version = buffer.getByte(position);
+        if (version != VERSION)
+            throw new ND4JIllegalStateException("Unsupported message version: " + version);
+
+        boolean bigEndian = (buffer.getByte(position + 1) & FLAG_BIG_ENDIAN) != 0;
+        boolean swapArrays = bigEndian != (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN);
+        short typeId = buffer.getShort(position + 2, ORDER);
+        int fingerprint = buffer.getInt(position + 4, ORDER);
+        position += HEADER_LENGTH;
+
+        if (typeId == TYPE_SERIALIZED) {
+            int size = buffer.getInt(position, ORDER);
+            byte[] bytes = new byte[size];
+            buffer.getBytes(position + 4, bytes);
+            cursor.position = position + 4 + size;
+            return (VoidMessage) deserialize(bytes);
+        }
+
+        if (typeId < 0 || typeId >= schemasById.length)
+            throw new ND4JIllegalStateException("Unknown message type: " + typeId);
+
+        MessageSchema schema = schemasById[typeId];
+        if (schema.getFingerprint() != fingerprint)
+            throw new ND4JIllegalStateException("Schema mismatch for " + schema.getMessageClass().getSimpleName()
+                            + ": peers are running different versions of this message");
+
+        VoidMessage message = schema.newInstance();
+        for (MessageSchema.FieldSchema field : schema.getFields()) {
+            long fieldOffset = field.getOffset();
+            switch (field.getKind()) {
+                case BOOLEAN:
+                    UNSAFE.putBoolean(message, fieldOffset, buffer.getByte(position) != 0);
+                    position += 1;
+                    break;
+                case BYTE:
+                    UNSAFE.putByte(message, fieldOffset, buffer.getByte(position));
+                    position += 1;
+                    break;
+                case SHORT:
+                    UNSAFE.putShort(message, fieldOffset, buffer.getShort(position, ORDER));
+                    position += 2;
+                    break;
+                case CHAR:
+                    UNSAFE.putChar(message, fieldOffset, buffer.getChar(position, ORDER));
+                    position += 2;
+                    break;
+                case INT:
+                    UNSAFE.putInt(message, fieldOffset, buffer.getInt(position, ORDER));
+                    position += 4;
+                    break;
+                case FLOAT:
+                    UNSAFE.putFloat(message, fieldOffset, buffer.getFloat(position, ORDER));
+                    position += 4;
+                    break;
+                case LONG:
+                    UNSAFE.putLong(message, fieldOffset, buffer.getLong(position, ORDER));
+                    position += 8;
+                    break;
+                case DOUBLE:
+                    UNSAFE.putDouble(message, fieldOffset, buffer.getDouble(position, ORDER));
+                    position += 8;
+                    break;
+                default:
+                    cursor.position = position;
+                    Object value = decodeValue(buffer, cursor, swapArrays);
+                    if (value != null && !field.getField().getType().isInstance(value))
+                        throw new ND4JIllegalStateException("Field " + field.getField().getName() + " of "
+                                        + schema.getMessageClass().getSimpleName() + " can't hold "
+                                        + value.getClass().getSimpleName());
+
+                    UNSAFE.putObject(message, fieldOffset, value);
+                    position = cursor.position;
+            }
+        }
+
+        cursor.position = position;
+        return message;
+    }
+
+    private static int sizeOfValue(Object value, Deque<byte[]> serialized) {
+        if (value == null)
+            return 1;
+        else if (value instanceof Boolean || value instanceof Byte)
+            return 1 + 1;
+        else if (value instanceof Short)
+            return 1 + 2;
+        else if (value instanceof Integer || value instanceof Float)
+            return 1 + 4;
+        else if (value instanceof Long || value instanceof Double)
+            return 1 + 8;
+        else if (value instanceof String)
+            return 1 + 4 + ((String) value).getBytes(StandardCharsets.UTF_8).length;
+        else if (value instanceof int[])
+            return 1 + 4 + ((int[]) value).length * 4;
+        else if (value instanceof byte[])
+            return 1 + 4 + ((byte[]) value).length;
+        else if (value instanceof INDArray && isRawSupported((INDArray) value)) {
+            INDArray array = (INDArray) value;
+            return 1 + 2 + 4 + array.rank() * 4 + 4 + (int) (array.length() * array.data().getElementSize());
+        } else if (value instanceof VoidMessage)
+            return 1 + sizeOf((VoidMessage) value, serialized);
+        else if (value instanceof List) {
+            int size = 1 + 4;
+            for (Object element : (List<?>) value)
+                size += sizeOfValue(element, serialized);
+            return size;
+        } else
+            return 1 + 4 + serializeAndKeep(value, serialized).length;
+    }
+
+    private static int encodeValue(Object value, MutableDirectBuffer buffer, int position, Deque<byte[]> serialized) {
+        if (value == null) {
+            buffer.putByte(position, TAG_NULL);
+            return position + 1;
+        } else if (value instanceof Boolean) {
+            buffer.putByte(position, TAG_BOOLEAN);
+            buffer.putByte(position + 1, (Boolean) value ? (byte) 1 : (byte) 0);
+            return position + 2;
+        } else if (value instanceof Byte) {
+            buffer.putByte(position, TAG_BYTE);
+            buffer.putByte(position + 1, (Byte) value);
+            return position + 2;
+        } else if (value instanceof Short) {
+            buffer.putByte(position, TAG_SHORT);
+            buffer.putShort(position + 1, (Short) value, ORDER);
+            return position + 3;
+        } else if (value instanceof Integer) {
+            buffer.putByte(position, TAG_INTEGER);
+            buffer.putInt(position + 1, (Integer) value, ORDER);
+            return position + 5;
+        } else if (value instanceof Float) {
+            buffer.putByte(position, TAG_FLOAT);
+            buffer.putFloat(position + 1, (Float) value, ORDER);
+            return position + 5;
+        } else if (value instanceof Long) {
+            buffer.putByte(position, TAG_LONG);
+            buffer.putLong(position + 1, (Long) value, ORDER);
+            return position + 9;
+        } else if (value instanceof Double) {
+            buffer.putByte(position, TAG_DOUBLE);
+            buffer.putDouble(position + 1, (Double) value, ORDER);
+            return position + 9;
+        } else if (value instanceof String) {
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            buffer.putByte(position, TAG_STRING);
+            buffer.putInt(position + 1, bytes.length, ORDER);
+            buffer.putBytes(position + 5, bytes);
+            return position + 5 + bytes.length;
+        } else if (value instanceof int[]) {
+            int[] ints = (int[]) value;
+            buffer.putByte(position, TAG_INT_ARRAY);
+            buffer.putInt(position + 1, ints.length, ORDER);
+            position += 5;
+            for (int i : ints) {
+                buffer.putInt(position, i, ORDER);
+                position += 4;
+            }
+            return position;
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            buffer.putByte(position, TAG_BYTE_ARRAY);
+            buffer.putInt(position + 1, bytes.length, ORDER);
+            buffer.putBytes(position + 5, bytes);
+            return position + 5 + bytes.length;
+        } else if (value instanceof INDArray && isRawSupported((INDArray) value)) {
+            buffer.putByte(position, TAG_NDARRAY);
+            return encodeArray((INDArray) value, buffer, position + 1);
+        } else if (value instanceof VoidMessage) {
+            buffer.putByte(position, TAG_MESSAGE);
+            return encode((VoidMessage) value, buffer, position + 1, serialized);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            buffer.putByte(position, TAG_LIST);
+            buffer.putInt(position + 1, list.size(), ORDER);
+            position += 5;
+            for (Object element : list)
+                position = encodeValue(element, buffer, position, serialized);
+            return position;
+        } else {
+            byte[] bytes = takeSerialized(value, serialized);
+            buffer.putByte(position, TAG_SERIALIZED);
+            buffer.putInt(position + 1, bytes.length, ORDER);
+            buffer.putBytes(position + 5, bytes);
+            return position + 5 + bytes.length;
+        }
+    }
+
+    private static Object decodeValue(DirectBuffer buffer, Cursor cursor, boolean swapArrays) {
+        int position = cursor.position;
+        byte tag = buffer.getByte(position++);
+        Object value;
+        switch (tag) {
+            case TAG_NULL:
+                value = null;
+                break;
+            case TAG_BOOLEAN:
+                value = buffer.getByte(position) != 0;
+                position += 1;
+                break;
+            case TAG_BYTE:
+                value = buffer.getByte(position);
+                position += 1;
+                break;
+            case TAG_SHORT:
+                value = buffer.getShort(position, ORDER);
+                position += 2;
+                break;
+            case TAG_INTEGER:
+                value = buffer.getInt(position, ORDER);
+                position += 4;
+                break;
+            case TAG_FLOAT:
+                value = buffer.getFloat(position, ORDER);
+                position += 4;
+                break;
+            case TAG_LONG:
+                value = buffer.getLong(position, ORDER);
+                position += 8;
+                break;
+            case TAG_DOUBLE:
+                value = buffer.getDouble(position, ORDER);
+                position += 8;
+                break;
+            case TAG_STRING: {
+                int size = buffer.getInt(position, ORDER);
+                byte[] bytes = new byte[size];
+                buffer.getBytes(position + 4, bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+                position += 4 + size;
+                break;
+            }
+            case TAG_INT_ARRAY: {
+                int[] ints = new int[buffer.getInt(position, ORDER)];
+                position += 4;
+                for (int i = 0; i < ints.length; i++) {
+                    ints[i] = buffer.getInt(position, ORDER);
+                    position += 4;
+                }
+                value = ints;
+                break;
+            }
+            case TAG_BYTE_ARRAY: {
+                int size = buffer.getInt(position, ORDER);
+                byte[] bytes = new byte[size];
+                buffer.getBytes(position + 4, bytes);
+                value = bytes;
+                position += 4 + size;
+                break;
+            }
+            case TAG_NDARRAY:
+                cursor.position = position;
+                value = decodeArray(buffer, cursor, swapArrays);
+                position = cursor.position;
+                break;
+            case TAG_MESSAGE:
+                cursor.position = position;
+                value = decodeMessage(buffer, cursor);
+                position = cursor.position;
+                break;
+            case TAG_LIST: {
+                int size = buffer.getInt(position, ORDER);
+                List<Object> list = new ArrayList<>(size);
+                cursor.position = position + 4;
+                for (int i = 0; i < size; i++)
+                    list.add(decodeValue(buffer, cursor, swapArrays));
+                position = cursor.position;
+                value = list;
+                break;
+            }
+            case TAG_SERIALIZED: {
+                int size = buffer.getInt(position, ORDER);
+                byte[] bytes = new byte[size];
+                buffer.getBytes(position + 4, bytes);
+                value = deserialize(bytes);
+                position += 4 + size;
+                break;
+            }
+            default:
+                throw new ND4JIllegalStateException("Unknown value tag: " + tag);
+        }
+
+        cursor.position = position;
+        return value;
+    }
+
+    /**
+     * Only dense FLOAT, DOUBLE and HALF arrays are written as raw bytes, everything else goes through Java serialization
+     */
+    private static boolean isRawSupported(INDArray array) {
+        if (array instanceof IComplexNDArray || array.isSparse() || array.isCompressed())
+            return false;
+
+        DataBuffer.Type dataType = array.data().dataType();
+        return dataType == DataBuffer.Type.FLOAT || dataType == DataBuffer.Type.DOUBLE
+                        || dataType == DataBuffer.Type.HALF;
+    }
+
+    /**
+     * Array is written as [byte dataType][byte ordering][int rank][int shape...][int byteLength][contents]
+     */
+    private static int encodeArray(INDArray array, MutableDirectBuffer buffer, int position) {
+        // contents are copied as is, so anything but offset 0 and default strides (views, permuted arrays) is dup'ed
+        if (array.offset() != 0 || !Arrays.equals(array.stride(), Nd4j.getStrides(array.shape(), array.ordering())))
+            array = array.dup(array.ordering());
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+
+        DataBuffer data = array.data();
+        int[] shape = array.shape();
+        int bytes = (int) (array.length() * data.getElementSize());
+
+        buffer.putByte(position, (byte) data.dataType().ordinal());
+        buffer.putByte(position + 1, (byte) array.ordering());
+        buffer.putInt(position + 2, shape.length, ORDER);
+        position += 6;
+        for (int dim : shape) {
+            buffer.putInt(position, dim, ORDER);
+            position += 4;
+        }
+
+        buffer.putInt(position, bytes, ORDER);
+        position += 4;
+        if (bytes > 0)
+            buffer.putBytes(position, new UnsafeBuffer(BinarySerde.contentPointer(data).address(), bytes), 0, bytes);
+
+        return position + bytes;
+    }
+
+    private static INDArray decodeArray(DirectBuffer buffer, Cursor cursor, boolean swap) {
+        int position = cursor.position;
+        DataBuffer.Type dataType = DataBuffer.Type.values()[buffer.getByte(position)];
+        char ordering = (char) buffer.getByte(position + 1);
+        int[] shape = new int[buffer.getInt(position + 2, ORDER)];
+        position += 6;
+        long length = 1;
+        for (int i = 0; i < shape.length; i++) {
+            shape[i] = buffer.getInt(position, ORDER);
+            length *= shape[i];
+            position += 4;
+        }
+
+        int bytes = buffer.getInt(position, ORDER);
+        position += 4;
+
+        if (dataType != DataBuffer.Type.FLOAT && dataType != DataBuffer.Type.DOUBLE && dataType != DataBuffer.Type.HALF)
+            throw new ND4JIllegalStateException("Unsupported data type: " + dataType);
+
+        DataBuffer data = BinarySerde.createBuffer(dataType, length);
+        if (length * data.getElementSize() != bytes)
+            throw new ND4JIllegalStateException("Array contents length mismatch: expected "
+                            + length * data.getElementSize() + " bytes, got " + bytes);
+
+        if (bytes > 0) {
+            BytePointer target = BinarySerde.contentPointer(data);
+            new UnsafeBuffer(target.address(), bytes).putBytes(0, buffer, position, bytes);
+            if (swap)
+                BinarySerde.swapBytes(target, bytes, data.getElementSize());
+        }
+
+        INDArray array = Nd4j.create(data, shape, Nd4j.getStrides(shape, ordering), 0, ordering);
+        Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+
+        cursor.position = position + bytes;
+        return array;
+    }
+
+    private static byte[] serialize(Object value) {
+        if (!(value instanceof Serializable))
+            throw new ND4JIllegalStateException("Can't encode value of type " + value.getClass().getName());
+
+        return SerializationUtils.serialize((Serializable) value);
+    }
+
+    /**
+     * This method serializes given value, and appends bytes to given deque, if any
+     */
+    private static byte[] serializeAndKeep(Object value, Deque<byte[]> serialized) {
+        byte[] bytes = serialize(value);
+        if (serialized != null)
+            serialized.add(bytes);
+
+        return bytes;
+    }
+
+    /**
+     * This method returns bytes of given value, serialized during sizing, or serializes it now
+     */
+    private static byte[] takeSerialized(Object value, Deque<byte[]> serialized) {
+        byte[] bytes = serialized == null ? null : serialized.poll();
+        return bytes != null ? bytes : serialize(value);
+    }
+
+    private static Object deserialize(byte[] bytes) {
+        try (ObjectInputStream in = new ClassLoaderObjectInputStream(Thread.currentThread().getContextClassLoader(),
+                        new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import io.aeron.FragmentAssembler;
 import io.aeron.Publication;
 import io.aeron.Subscription;
 import io.aeron.driver.MediaDriver;
+import io.aeron.logbuffer.FragmentHandler;
 import io.aeron.logbuffer.Header;
 import lombok.Getter;
 import lombok.NonNull;
@@ -21,6 +22,7 @@ import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.messages.Frame;
 import org.nd4j.parameterserver.distributed.messages.MeaningfulMessage;
 import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.VoidMessageCodec;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -192,6 +194,17 @@ public abstract class BaseTransport implements Transport {
         }
     }
 
+    /**
+     * This method wraps given handler into FragmentAssembler, so messages larger than MTU are delivered to handler as a whole.
+     * Reassembly buffer is allocated once per handler, and reused for all messages.
+     *
+     * @param handler
+     * @return
+     */
+    protected FragmentAssembler fragmentAssembler(@NonNull FragmentHandler handler) {
+        return new FragmentAssembler(handler, voidConfiguration.getFragmentBufferLength());
+    }
+
     /**
      * This message handler is responsible for receiving messages on Shard side
      *
@@ -204,16 +217,13 @@ public abstract class BaseTransport implements Transport {
         /**
          * All incoming messages here are supposed to be unicast messages.
          */
-        // TODO: implement fragmentation handler here PROBABLY. Or forbid messages > MTU?
+        // messages larger than MTU are reassembled by FragmentAssembler before they get here.
+        // we decode straight from Aeron buffer, and only if message stays here: everything else is forwarded as is
         //log.info("shardMessageHandler message request incoming...");
-        byte[] data = new byte[length];
-        buffer.getBytes(offset, data);
-
-        VoidMessage message = VoidMessage.fromBytes(data);
-        if (message.getMessageType() == 7) {
+        if (VoidMessageCodec.peekMessageType(buffer, offset, length) == 7) {
             // if that's vector request message - it's special case, we don't send it to other shards yet
             //log.info("Shortcut for vector request");
-            messages.add(message);
+            messages.add(VoidMessageCodec.decode(buffer, offset, length));
         } else {
             // and send it away to other Shards
             publicationForShards.offer(buffer, offset, length);
@@ -232,10 +242,8 @@ public abstract class BaseTransport implements Transport {
         /**
          * All incoming internal messages are either op commands, or aggregation messages that are tied to commands
          */
-        byte[] data = new byte[length];
-        buffer.getBytes(offset, data);
-
-        VoidMessage message = VoidMessage.fromBytes(data);
+        // decoded message doesn't reference Aeron buffer, so it's safe to keep it after this callback returns
+        VoidMessage message = VoidMessageCodec.decode(buffer, offset, length);
 
         messages.add(message);
 
@@ -257,10 +265,7 @@ public abstract class BaseTransport implements Transport {
         // TODO: to be implemented
         //  log.info("clientMessageHandler message request incoming");
 
-        byte[] data = new byte[length];
-        buffer.getBytes(offset, data);
-
-        MeaningfulMessage message = (MeaningfulMessage) VoidMessage.fromBytes(data);
+        MeaningfulMessage message = VoidMessageCodec.decode(buffer, offset, length);
         completed.put(message.getTaskId(), message);
     }
 
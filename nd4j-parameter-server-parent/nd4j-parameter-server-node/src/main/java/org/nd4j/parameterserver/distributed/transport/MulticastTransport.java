@@ -1,7 +1,6 @@
 package org.nd4j.parameterserver.distributed.transport;
 
 import io.aeron.Aeron;
-import io.aeron.FragmentAssembler;
 import io.aeron.driver.MediaDriver;
 import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
@@ -99,11 +98,9 @@ public class MulticastTransport extends BaseTransport {
                 subscriptionForClients =
                                 aeron.addSubscription(multicastChannelUri, voidConfiguration.getStreamId() + 2);
 
-                messageHandlerForShards = new FragmentAssembler((buffer, offset, length,
-                                header) -> shardMessageHandler(buffer, offset, length, header));
+                messageHandlerForShards = fragmentAssembler(this::shardMessageHandler);
 
-                messageHandlerForClients = new FragmentAssembler(((buffer, offset, length,
-                                header) -> internalMessageHandler(buffer, offset, length, header)));
+                messageHandlerForClients = fragmentAssembler(this::internalMessageHandler);
 
 
 
@@ -141,8 +138,7 @@ public class MulticastTransport extends BaseTransport {
                 subscriptionForClients =
                                 aeron.addSubscription(multicastChannelUri, voidConfiguration.getStreamId() + 1);
 
-                messageHandlerForClients = new FragmentAssembler((buffer, offset, length,
-                                header) -> clientMessageHandler(buffer, offset, length, header));
+                messageHandlerForClients = fragmentAssembler(this::clientMessageHandler);
                 break;
             default:
                 log.warn("Unknown role passed: {}", nodeRole);
@@ -1,7 +1,6 @@
 package org.nd4j.parameterserver.distributed.transport;
 
 import io.aeron.Aeron;
-import io.aeron.FragmentAssembler;
 import io.aeron.Publication;
 import io.aeron.driver.MediaDriver;
 import io.aeron.logbuffer.Header;
@@ -19,6 +18,7 @@ import org.nd4j.parameterserver.distributed.logic.ClientRouter;
 import org.nd4j.parameterserver.distributed.logic.RetransmissionHandler;
 import org.nd4j.parameterserver.distributed.logic.completion.Clipboard;
 import org.nd4j.parameterserver.distributed.messages.*;
+import org.nd4j.parameterserver.distributed.messages.codec.VoidMessageCodec;
 import org.nd4j.parameterserver.distributed.messages.requests.IntroductionRequestMessage;
 import org.nd4j.parameterserver.distributed.logic.routing.InterleavedRouter;
 
@@ -93,8 +93,7 @@ public class RoutedTransport extends BaseTransport {
         }));
 
 
-        messageHandlerForClients = new FragmentAssembler(
-                        (buffer, offset, length, header) -> jointMessageHandler(buffer, offset, length, header));
+        messageHandlerForClients = fragmentAssembler(this::jointMessageHandler);
 
         /*
             Now, regardless of current role,
@@ -516,10 +515,8 @@ public class RoutedTransport extends BaseTransport {
          *  All of them should implement MeaningfulMessage interface
          */
 
-        byte[] data = new byte[length];
-        buffer.getBytes(offset, data);
-
-        VoidMessage message = VoidMessage.fromBytes(data);
+        // decoded message doesn't reference Aeron buffer, so it's safe to keep it after this callback returns
+        VoidMessage message = VoidMessageCodec.decode(buffer, offset, length);
 
         //        log.info("sI_{} received message: {}", shardIndex, message.getClass().getSimpleName());
 
@@ -0,0 +1,179 @@
+package org.nd4j.parameterserver.distributed.messages.codec;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.exception.ND4JIllegalStateException;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.parameterserver.distributed.messages.Frame;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.aggregations.VectorAggregation;
+import org.nd4j.parameterserver.distributed.messages.complete.VectorCompleteMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedIntroductionMessage;
+import org.nd4j.parameterserver.distributed.messages.intercom.DistributedSolidMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.AssignRequestMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.IntroductionRequestMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.SkipGramRequestMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.VectorRequestMessage;
+
+import java.util.Objects;
+
+import static org.junit.Assert.*;
+
+public class VoidMessageCodecTest {
+
+    @Test
+    public void testSkipGramRequest() throws Exception {
+        SkipGramRequestMessage message = new SkipGramRequestMessage(10, 12, new int[] {10, 20, 30, 40},
+                        new byte[] {(byte) 0, (byte) 0, (byte) 1, (byte) 0}, (short) 0, 0.0, 117L);
+        message.setOriginatorId(19L);
+
+        SkipGramRequestMessage restored = roundTrip(message);
+
+        assertEquals(message, restored);
+        assertArrayEquals(message.getPoints(), restored.getPoints());
+        assertArrayEquals(message.getCodes(), restored.getCodes());
+        assertEquals(19L, restored.getOriginatorId());
+    }
+
+    @Test
+    public void testArrayPayloads() throws Exception {
+        INDArray array = Nd4j.linspace(1, 120, 120).reshape(10, 12);
+
+        roundTrip(new VectorCompleteMessage(117L, array));
+        roundTrip(new DistributedSolidMessage(7, array.dup('f'), true));
+        roundTrip(new VectorAggregation(117L, (short) 2, (short) 1, array.getRow(3)));
+        roundTrip(new AssignRequestMessage(3, array));
+
+        // strided view is written as contiguous copy
+        VectorCompleteMessage restored = roundTrip(new VectorCompleteMessage(117L,
+                        array.get(NDArrayIndex.all(), NDArrayIndex.interval(0, 2, 12))));
+        assertEquals(array.get(NDArrayIndex.all(), NDArrayIndex.interval(0, 2, 12)), restored.getPayload());
+
+        // permuted array isn't a view, but its buffer isn't in logical order either
+        INDArray permuted = Nd4j.linspace(1, 24, 24).reshape(2, 3, 4).permute(2, 0, 1);
+        restored = roundTrip(new VectorCompleteMessage(117L, permuted));
+        assertArrayEquals(permuted.shape(), restored.getPayload().shape());
+        assertEquals(permuted, restored.getPayload());
+    }
+
+    @Test
+    public void testMixedFields() throws Exception {
+        roundTrip(new AssignRequestMessage(3, 1.5, 11));
+        roundTrip(new AssignRequestMessage(3, 17L, 11));
+        roundTrip(new IntroductionRequestMessage("192.168.1.1", 40123));
+        roundTrip(new DistributedIntroductionMessage("10.0.0.1", 40124));
+        roundTrip(new VectorRequestMessage(12, 117));
+    }
+
+    @Test
+    public void testFrame() throws Exception {
+        Frame<SkipGramRequestMessage> frame = new Frame<>(117L);
+        for (int i = 0; i < 10; i++)
+            frame.stackMessage(new SkipGramRequestMessage(i, i + 1, new int[] {1, 2, 3}, new byte[] {0, 1, 0},
+                            (short) 5, 0.025, 119L + i));
+
+        Frame<SkipGramRequestMessage> restored = roundTrip(frame);
+        assertEquals(frame.size(), restored.size());
+
+        int cnt = 0;
+        for (SkipGramRequestMessage message : restored)
+            assertEquals(cnt++, message.getW1());
+    }
+
+    @Test
+    public void testLegacyJavaSerialization() throws Exception {
+        SkipGramRequestMessage message = new SkipGramRequestMessage(10, 12, new int[] {10, 20, 30, 40},
+                        new byte[] {(byte) 0, (byte) 0, (byte) 1, (byte) 0}, (short) 0, 0.0, 117L);
+
+        SkipGramRequestMessage restored = VoidMessage.fromBytes(SerializationUtils.serialize(message));
+        assertEquals(message, restored);
+    }
+
+    @Test
+    public void testEncodingIsSmaller() throws Exception {
+        VectorCompleteMessage message = new VectorCompleteMessage(117L, Nd4j.create(1, 100));
+
+        int encoded = message.asBytes().length;
+        int serialized = SerializationUtils.serialize(message).length;
+
+        assertTrue("Encoded: " + encoded + " bytes, serialized: " + serialized + " bytes", encoded < serialized);
+    }
+
+    @Test
+    public void testDecodeAtOffset() throws Exception {
+        VectorCompleteMessage message = new VectorCompleteMessage(117L, Nd4j.linspace(1, 100, 100));
+
+        // message is decoded straight from shared buffer, the same way it happens within Aeron fragment handler
+        int offset = 37;
+        UnsafeBuffer buffer = new UnsafeBuffer(new byte[offset + VoidMessageCodec.sizeOf(message) + 11]);
+        int end = VoidMessageCodec.encode(message, buffer, offset);
+        assertEquals(buffer.capacity() - 11, end);
+
+        VectorCompleteMessage restored = VoidMessageCodec.decode(buffer, offset, end - offset);
+
+        // restored message shouldn't reference source buffer
+        buffer.setMemory(0, buffer.capacity(), (byte) 0);
+        assertEquals(Nd4j.linspace(1, 100, 100), restored.getPayload());
+        assertEquals(117L, restored.getTaskId());
+    }
+
+    @Test
+    public void testPeekMessageType() throws Exception {
+        INDArray array = Nd4j.create(1, 10);
+        SkipGramRequestMessage sg = new SkipGramRequestMessage(1, 2, new int[] {1}, new byte[] {0}, (short) 0, 0.0, 1L);
+        VoidMessage[] messages = new VoidMessage[] {new VectorRequestMessage(12, 117),
+                        new VectorCompleteMessage(117L, array), new VectorAggregation(117L, (short) 2, (short) 1, array),
+                        new Frame<>(sg)};
+
+        for (VoidMessage message : messages) {
+            UnsafeBuffer buffer = message.asUnsafeBuffer();
+            assertEquals(message.getMessageType(), VoidMessageCodec.peekMessageType(buffer, 0, buffer.capacity()));
+        }
+
+        assertEquals(-1, VoidMessageCodec.getSchema(VectorAggregation.class).getMessageTypePosition());
+        assertEquals(Integer.valueOf(21), VoidMessageCodec.getSchema(VectorAggregation.class).getFixedMessageType());
+        assertTrue(VoidMessageCodec.getSchema(VectorRequestMessage.class).getMessageTypePosition() > 0);
+    }
+
+    @Test(expected = ND4JIllegalStateException.class)
+    public void testSharedReferencesRejected() throws Exception {
+        SkipGramRequestMessage message = new SkipGramRequestMessage(1, 2, new int[] {1}, new byte[] {0}, (short) 0,
+                        0.0, 1L);
+        Frame<SkipGramRequestMessage> frame = new Frame<>(117L);
+        frame.stackMessage(message);
+        frame.stackMessage(message);
+
+        VoidMessageCodec.encode(frame);
+    }
+
+    /**
+     * This method encodes and decodes given message, and checks all fields covered by its schema
+     */
+    private static <T extends VoidMessage> T roundTrip(T message) throws Exception {
+        UnsafeBuffer buffer = message.asUnsafeBuffer();
+        assertEquals(VoidMessageCodec.sizeOf(message), buffer.capacity());
+
+        T restored = VoidMessage.fromBytes(message.asBytes());
+        assertNotNull(restored);
+        assertEquals(message.getClass(), restored.getClass());
+
+        MessageSchema schema = VoidMessageCodec.getSchema(message.getClass());
+        assertNotNull(schema);
+        for (MessageSchema.FieldSchema field : schema.getFields()) {
+            field.getField().setAccessible(true);
+            Object expected = field.getField().get(message);
+            Object actual = field.getField().get(restored);
+
+            if (expected instanceof INDArray && ((INDArray) expected).isView())
+                expected = ((INDArray) expected).dup();
+
+            assertTrue("Field " + field.getField().getName() + ": expected " + expected + ", got " + actual,
+                            Objects.deepEquals(expected, actual));
+        }
+
+        return restored;
+    }
+}
@@ -6,6 +6,7 @@ import org.nd4j.aeron.ipc.NDArrayMessage;
 import org.nd4j.aeron.ndarrayholder.InMemoryNDArrayHolder;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.parameterserver.updater.ParameterServerUpdater;
+import org.nd4j.parameterserver.updater.StreamingParameterUpdater;
 import org.nd4j.parameterserver.updater.SynchronousParameterUpdater;
 import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
 
@@ -74,8 +75,16 @@ public class ParameterServerListener implements NDArrayCallback {
      * @param dimensions the dimensions to act on for the tensor along dimension
      */
     @Override
-    public synchronized void onNDArrayPartial(INDArray arr, long idx, int... dimensions) {
-        updater.partialUpdate(arr, updater.ndArrayHolder().get(), idx, dimensions);
+    public void onNDArrayPartial(INDArray arr, long idx, int... dimensions) {
+        if (updater instanceof StreamingParameterUpdater) {
+            // streaming updater does its own striped locking
+            updater.partialUpdate(arr, updater.ndArrayHolder().get(), idx, dimensions);
+            return;
+        }
+
+        synchronized (this) {
+            updater.partialUpdate(arr, updater.ndArrayHolder().get(), idx, dimensions);
+        }
     }
 
     /**
@@ -84,11 +93,18 @@ public class ParameterServerListener implements NDArrayCallback {
      * @param arr
      */
     @Override
-    public synchronized void onNDArray(INDArray arr) {
+    public void onNDArray(INDArray arr) {
         if (shape == null)
-            updater.update(arr.reshape(1, arr.length()), updater.ndArrayHolder().get());
-        else
+            arr = arr.reshape(1, arr.length());
+
+        if (updater instanceof StreamingParameterUpdater) {
+            updater.update(arr, updater.ndArrayHolder().get());
+            return;
+        }
+
+        synchronized (this) {
             updater.update(arr, updater.ndArrayHolder().get());
+        }
     }
 
     /**
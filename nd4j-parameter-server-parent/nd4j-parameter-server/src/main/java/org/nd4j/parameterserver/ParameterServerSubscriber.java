@@ -30,13 +30,18 @@ import org.nd4j.parameterserver.model.SlaveConnectionInfo;
 import org.nd4j.parameterserver.model.SubscriberState;
 import org.nd4j.parameterserver.updater.ParameterServerUpdater;
 import org.nd4j.parameterserver.updater.SoftSyncParameterUpdater;
+import org.nd4j.parameterserver.updater.StreamingParameterUpdater;
 import org.nd4j.parameterserver.updater.SynchronousParameterUpdater;
+import org.nd4j.parameterserver.updater.storage.AppendOnlyLogStorage;
 import org.nd4j.parameterserver.updater.storage.InMemoryUpdateStorage;
+import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
+import org.nd4j.parameterserver.updater.storage.UpdateStorage;
 import org.nd4j.parameterserver.util.CheckSocket;
 import org.nd4j.shade.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -102,6 +107,10 @@ public class ParameterServerSubscriber implements AutoCloseable {
     @Parameter(names = {"-u", "--updatesPerEpoch"}, description = "The number of updates per epoch", arity = 1,
                     required = true)
     private int updatesPerEpoch;
+    @Parameter(names = {"-ul", "--updateLog"},
+                    description = "Path of the append-only log for updates, used by the streaming update opType. Only update counts are kept if not specified.",
+                    arity = 1)
+    private String updateLogPath;
 
 
     /**
@@ -115,7 +124,7 @@ public class ParameterServerSubscriber implements AutoCloseable {
      * instantiating various kinds of update types
      */
     public enum UpdateType {
-        HOGWILD, SYNC, TIME_DELAYED, SOFTSYNC, CUSTOM
+        HOGWILD, SYNC, STREAMING, TIME_DELAYED, SOFTSYNC, CUSTOM
     }
 
 
@@ -126,6 +135,8 @@ public class ParameterServerSubscriber implements AutoCloseable {
     private NDArrayCallback callback;
     //alias for the callback where relevant
     private ParameterServerListener parameterServerListener;
+    //storage of the updater created by this subscriber, closed along with it
+    private UpdateStorage updateStorage;
     private Aeron aeron;
     private ScheduledExecutorService heartbeat;
 
@@ -261,9 +272,17 @@ public class ParameterServerSubscriber implements AutoCloseable {
                     case HOGWILD:
                         break;
                     case SYNC:
-                        updater = new SynchronousParameterUpdater(new InMemoryUpdateStorage(),
+                        updateStorage = new InMemoryUpdateStorage();
+                        updater = new SynchronousParameterUpdater(updateStorage,
                                         new InMemoryNDArrayHolder(Ints.toArray(shape)), updatesPerEpoch);
                         break;
+                    case STREAMING:
+                        updateStorage = updateLogPath == null ? new NoUpdateStorage()
+                                        : new AppendOnlyLogStorage(new File(updateLogPath));
+                        updater = new StreamingParameterUpdater(updateStorage,
+                                        new InMemoryNDArrayHolder(Ints.toArray(shape)), updatesPerEpoch,
+                                        StreamingParameterUpdater.DEFAULT_STRIPES);
+                        break;
                     case SOFTSYNC:
                         updater = new SoftSyncParameterUpdater();
                         break;
@@ -357,6 +376,9 @@ public class ParameterServerSubscriber implements AutoCloseable {
             CloseHelper.quietClose(responder);
         if (scheduledExecutorService != null)
             scheduledExecutorService.shutdown();
+        //closed last, so updates received before the subscriber was closed get flushed to the log
+        if (updateStorage != null)
+            updateStorage.close();
     }
 
 
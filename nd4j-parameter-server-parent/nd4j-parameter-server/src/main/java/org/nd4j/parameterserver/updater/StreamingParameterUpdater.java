@@ -0,0 +1,243 @@
+package org.nd4j.parameterserver.updater;
+
+import org.nd4j.aeron.ipc.NDArrayHolder;
+import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.indexing.NDArrayIndex;
+import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
+import org.nd4j.parameterserver.updater.storage.UpdateStorage;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Synchronous updater which accumulates incoming updates
+ * straight into the master array, without keeping them around.
+ *
+ * The master array is split into stripes along its linear index,
+ * each guarded by its own lock, so concurrent updates
+ * only contend on the stripe they're currently adding.
+ * Partial updates lock only the stripes their tensor spans.
+ *
+ * By default only update counts are retained,
+ * an {@link org.nd4j.parameterserver.updater.storage.AppendOnlyLogStorage}
+ * can be passed in for durability.
+ */
+public class StreamingParameterUpdater extends SynchronousParameterUpdater {
+    public final static int DEFAULT_STRIPES = 16;
+
+    private final ReentrantLock[] locks;
+    private volatile Stripes stripes;
+
+    private final AtomicLong wholeUpdates = new AtomicLong(0);
+    private final AtomicLong partialUpdates = new AtomicLong(0);
+
+    /**
+     * Views of the master array, one per stripe
+     */
+    private static class Stripes {
+        private final INDArray result;
+        private final long stripeLength;
+        private final INDArray[] views;
+
+        private Stripes(INDArray result, int numStripes) {
+            this.result = result;
+            this.stripeLength = (result.length() + numStripes - 1) / numStripes;
+            this.views = new INDArray[numStripes];
+
+            INDArray row = result.reshape(result.ordering(), 1, result.length());
+            for (int i = 0; i < numStripes; i++) {
+                long from = Math.min(result.length(), i * stripeLength);
+                long to = Math.min(result.length(), from + stripeLength);
+                views[i] = from == to ? null : row.get(NDArrayIndex.all(), NDArrayIndex.interval(from, to));
+            }
+        }
+    }
+
+    /**
+     *
+     * @param updateStorage the update storage to use
+     * @param ndArrayHolder the holder for the master array
+     * @param workers the number of updates per pass
+     * @param numStripes the number of independently locked stripes of the master array
+     */
+    public StreamingParameterUpdater(UpdateStorage updateStorage, NDArrayHolder ndArrayHolder, int workers,
+                    int numStripes) {
+        super(updateStorage, ndArrayHolder, workers);
+        if (numStripes < 1)
+            throw new IllegalArgumentException("Number of stripes should be positive");
+
+        this.locks = new ReentrantLock[numStripes];
+        for (int i = 0; i < numStripes; i++)
+            locks[i] = new ReentrantLock();
+    }
+
+    /**
+     * Initializes this updater
+     * with {@link NoUpdateStorage}, so only
+     * update counts are retained
+     *
+     * @param ndArrayHolder the holder for the master array
+     * @param workers the number of updates per pass
+     */
+    public StreamingParameterUpdater(NDArrayHolder ndArrayHolder, int workers) {
+        this(new NoUpdateStorage(), ndArrayHolder, workers, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Returns the current status of this parameter server
+     * updater
+     *
+     * @return
+     */
+    @Override
+    public Map<String, Number> status() {
+        Map<String, Number> ret = super.status();
+        ret.put("stripes", locks.length);
+        ret.put("wholeUpdates", wholeUpdates.get());
+        ret.put("partialUpdates", partialUpdates.get());
+        return ret;
+    }
+
+    /**
+     * Do an update based on the ndarray message.
+     * The update is counted only after it was applied,
+     * so {@link #shouldReplicate()} never sees partially applied updates
+     *
+     * @param message
+     */
+    @Override
+    public void update(NDArrayMessage message) {
+        INDArray arr = message.getArr();
+        int[] dimensions = message.getDimensions();
+        boolean whole = dimensions.length == 1 && dimensions[0] == -1;
+
+        if (!whole)
+            partialUpdate(arr, ndArrayHolder.get(), message.getIndex(), dimensions);
+        else
+            update(arr, ndArrayHolder.get());
+
+        updateStorage.addUpdate(message);
+    }
+
+    /**
+     * Updates result
+     * based on arr along a particular
+     * {@link INDArray#tensorAlongDimension(int, int...)},
+     * holding only the stripes this tensor spans
+     *
+     * @param arr        the array to update
+     * @param result     the result ndarray to update
+     * @param idx        the index to update
+     * @param dimensions the dimensions to update
+     */
+    @Override
+    public void partialUpdate(INDArray arr, INDArray result, long idx, int... dimensions) {
+        INDArray tad = result.tensorAlongDimension((int) idx, dimensions);
+        Stripes current = stripesFor(result);
+
+        int first = 0;
+        int last = locks.length - 1;
+        if (current != null) {
+            long start = tad.offset() - result.offset();
+            long end = start;
+            for (int i = 0; i < tad.rank(); i++)
+                end += (tad.size(i) - 1) * (long) Math.abs(tad.stride(i));
+
+            first = (int) Math.min(last, start / current.stripeLength);
+            last = (int) Math.min(last, end / current.stripeLength);
+        }
+
+        // locks are always taken in ascending order, so partial updates can't deadlock each other
+        for (int i = first; i <= last; i++)
+            locks[i].lock();
+        try {
+            tad.addi(arr);
+        } finally {
+            for (int i = last; i >= first; i--)
+                locks[i].unlock();
+        }
+
+        partialUpdates.incrementAndGet();
+    }
+
+    /**
+     * Updates result
+     * based on arr, one stripe at a time
+     *
+     * @param arr    the array to update
+     * @param result the result ndarray to update
+     */
+    @Override
+    public void update(INDArray arr, INDArray result) {
+        Stripes current = stripesFor(result);
+        if (current == null || arr.length() != result.length()) {
+            for (ReentrantLock lock : locks)
+                lock.lock();
+            try {
+                result.addi(arr);
+            } finally {
+                for (int i = locks.length - 1; i >= 0; i--)
+                    locks[i].unlock();
+            }
+
+            wholeUpdates.incrementAndGet();
+            return;
+        }
+
+        if (arr.ordering() != result.ordering() || arr.isView())
+            arr = arr.dup(result.ordering());
+
+        INDArray row = arr.reshape(result.ordering(), 1, arr.length());
+
+        // every thread starts from its own stripe, so concurrent updates don't queue up on the first one
+        int start = (int) (Thread.currentThread().getId() % locks.length);
+        for (int i = 0; i < locks.length; i++) {
+            int s = (start + i) % locks.length;
+            INDArray view = current.views[s];
+            if (view == null)
+                continue;
+
+            long from = s * current.stripeLength;
+            INDArray source = row.get(NDArrayIndex.all(), NDArrayIndex.interval(from, from + view.length()));
+
+            locks[s].lock();
+            try {
+                view.addi(source);
+            } finally {
+                locks[s].unlock();
+            }
+        }
+
+        wholeUpdates.incrementAndGet();
+    }
+
+    /**
+     * Reset internal counters
+     * such as number of updates accumulated.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        wholeUpdates.set(0);
+        partialUpdates.set(0);
+    }
+
+    /**
+     * This method returns stripes of given master array,
+     * or null if it's a view, so it can't be safely split along its linear index
+     */
+    private Stripes stripesFor(INDArray result) {
+        if (result.isView())
+            return null;
+
+        Stripes current = stripes;
+        if (current == null || current.result != result) {
+            current = new Stripes(result, locks.length);
+            stripes = current;
+        }
+
+        return current;
+    }
+}
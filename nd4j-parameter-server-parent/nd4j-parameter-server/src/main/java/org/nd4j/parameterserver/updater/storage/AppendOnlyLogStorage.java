@@ -0,0 +1,254 @@
+package org.nd4j.parameterserver.updater.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.nd4j.aeron.ipc.NDArrayMessage;
+import org.nd4j.linalg.api.ndarray.INDArray;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Update storage which appends every update to a log file
+ * on a background thread, so callers never block on disk io.
+ * Only file offsets of updates are kept in memory.
+ *
+ * Each record is the length of the serialized {@link NDArrayMessage},
+ * followed by the message itself, as written by {@link NDArrayMessage#toBuffer(NDArrayMessage)}
+ */
+@Slf4j
+public class AppendOnlyLogStorage extends BaseUpdateStorage implements AutoCloseable {
+    public final static int DEFAULT_QUEUE_SIZE = 1024;
+
+    private static final ByteBuffer POISON = ByteBuffer.allocate(0);
+
+    private final File file;
+    private final FileChannel channel;
+    private final BlockingQueue<ByteBuffer> queue;
+    private final Thread writer;
+    private final AtomicInteger updateCount = new AtomicInteger(0);
+
+    // offsets of records written so far, guarded by this
+    private long[] offsets = new long[1024];
+    private int written = 0;
+    private volatile IOException failure;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    /**
+     * @param file the log file, truncated if it already exists
+     * @param queueSize the number of updates which may wait for being written, before callers start blocking
+     */
+    public AppendOnlyLogStorage(File file, int queueSize) {
+        this.file = file;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        try {
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            raf.setLength(0);
+            this.channel = raf.getChannel();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        this.writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeLoop();
+            }
+        }, "AppendOnlyLogStorage writer [" + file.getName() + "]");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public AppendOnlyLogStorage(File file) {
+        this(file, DEFAULT_QUEUE_SIZE);
+    }
+
+    /**
+     * Add an ndarray to the storage.
+     * The update is serialized right away, and the serialized buffer itself
+     * is written to the log asynchronously, without copying.
+     *
+     * @param array the array to add
+     */
+    @Override
+    public void addUpdate(NDArrayMessage array) {
+        if (closed.get())
+            throw new IllegalStateException("Update log " + file + " is closed");
+
+        if (failure != null)
+            throw new RuntimeException("Update log " + file + " is no longer writable", failure);
+
+        // toBuffer always wraps a freshly allocated direct ByteBuffer
+        DirectBuffer buffer = NDArrayMessage.toBuffer(array);
+        ByteBuffer record = buffer.byteBuffer().duplicate();
+        record.clear();
+
+        try {
+            queue.put(record);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        updateCount.incrementAndGet();
+    }
+
+    /**
+     * The number of updates added
+     * to the update storage
+     *
+     * @return
+     */
+    @Override
+    public int numUpdates() {
+        return updateCount.get();
+    }
+
+    /**
+     * Clear the array storage.
+     * Updates added so far are dropped from the log as well.
+     */
+    @Override
+    public void clear() {
+        flush();
+        synchronized (this) {
+            try {
+                channel.truncate(0);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            written = 0;
+            updateCount.set(0);
+        }
+    }
+
+    /**
+     * This method blocks until all updates added so far are written to the log
+     */
+    public void flush() {
+        while (!queue.isEmpty() || written() < updateCount.get()) {
+            if (failure != null)
+                throw new RuntimeException("Update log " + file + " is no longer writable", failure);
+
+            if (!writer.isAlive())
+                throw new IllegalStateException("Update log " + file + " is closed");
+
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * A method for actually performing the implementation
+     * of retrieving the ndarray
+     *
+     * @param index the index of the {@link INDArray} to get
+     * @return the ndarray at the specified index
+     */
+    @Override
+    public NDArrayMessage doGetUpdate(int index) {
+        flush();
+
+        long offset;
+        synchronized (this) {
+            offset = offsets[index];
+        }
+
+        try {
+            ByteBuffer length = ByteBuffer.allocate(4).order(ByteOrder.nativeOrder());
+            readFully(length, offset);
+
+            ByteBuffer record = ByteBuffer.allocateDirect(length.getInt(0)).order(ByteOrder.nativeOrder());
+            readFully(record, offset + 4);
+            return NDArrayMessage.fromBuffer(new UnsafeBuffer(record), 0);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Close the log, once all pending updates are written.
+     * Closing already closed log does nothing.
+     */
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true))
+            return;
+
+        try {
+            queue.put(POISON);
+            writer.join();
+            channel.force(true);
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            log.error("Unable to close update log " + file, e);
+        }
+    }
+
+    private synchronized int written() {
+        return written;
+    }
+
+    private void writeLoop() {
+        ByteBuffer header = ByteBuffer.allocateDirect(4).order(ByteOrder.nativeOrder());
+        while (true) {
+            ByteBuffer record;
+            try {
+                record = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (record == null)
+                continue;
+
+            if (record == POISON)
+                return;
+
+            synchronized (this) {
+                try {
+                    long offset = channel.size();
+                    header.putInt(0, record.remaining());
+                    header.clear();
+                    while (header.hasRemaining())
+                        channel.write(header, offset + header.position());
+                    while (record.hasRemaining())
+                        channel.write(record, offset + 4 + record.position());
+
+                    if (written == offsets.length)
+                        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+
+                    offsets[written++] = offset;
+                } catch (IOException e) {
+                    log.error("Unable to write update log " + file, e);
+                    failure = e;
+                    return;
+                }
+            }
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0)
+                throw new IOException("Unexpected end of update log " + file);
+        }
+    }
+}
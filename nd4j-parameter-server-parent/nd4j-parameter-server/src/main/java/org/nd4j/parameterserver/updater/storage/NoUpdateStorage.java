@@ -21,7 +21,7 @@ public class NoUpdateStorage extends BaseUpdateStorage {
      */
     @Override
     public void addUpdate(NDArrayMessage array) {
-        log.info("Adding array " + updateCount.get());
+        log.debug("Adding array {}", updateCount.get());
         updateCount.incrementAndGet();
     }
 
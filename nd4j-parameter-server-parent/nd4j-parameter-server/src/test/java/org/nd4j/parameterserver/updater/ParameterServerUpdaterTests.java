@@ -3,9 +3,12 @@ package org.nd4j.parameterserver.updater;
 import org.junit.Test;
 import org.nd4j.aeron.ipc.NDArrayMessage;
 import org.nd4j.aeron.ndarrayholder.InMemoryNDArrayHolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.ParameterServerListener;
 import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeNotNull;
@@ -32,4 +35,71 @@ public class ParameterServerUpdaterTests {
 
     }
 
+    @Test
+    public void streamingTest() throws Exception {
+        final int workers = 8;
+        final ParameterServerUpdater updater =
+                        new StreamingParameterUpdater(new InMemoryNDArrayHolder(Nd4j.zeros(37, 29)), workers);
+
+        Thread[] threads = new Thread[workers];
+        for (int i = 0; i < workers; i++) {
+            threads[i] = new Thread(() -> updater.update(NDArrayMessage.wholeArrayUpdate(Nd4j.ones(37, 29))));
+            threads[i].start();
+        }
+
+        for (Thread thread : threads)
+            thread.join();
+
+        assertTrue(updater.shouldReplicate());
+        assertEquals(Nd4j.valueArrayOf(new int[] {37, 29}, workers), updater.ndArrayHolder().get());
+        assertEquals(workers, updater.status().get("wholeUpdates").intValue());
+
+        // rows and columns both span different sets of stripes
+        updater.partialUpdate(Nd4j.ones(1, 29), updater.ndArrayHolder().get(), 3, 1);
+        updater.partialUpdate(Nd4j.ones(37, 1), updater.ndArrayHolder().get(), 5, 0);
+        assertEquals(workers + 1.0, updater.ndArrayHolder().get().getDouble(3, 0), 1e-5);
+        assertEquals(workers + 1.0, updater.ndArrayHolder().get().getDouble(0, 5), 1e-5);
+        assertEquals(workers + 2.0, updater.ndArrayHolder().get().getDouble(3, 5), 1e-5);
+        assertEquals(workers, updater.ndArrayHolder().get().getDouble(4, 4), 1e-5);
+
+        updater.reset();
+        assertFalse(updater.shouldReplicate());
+        assumeNotNull(updater.toJson());
+    }
+
+    @Test
+    public void streamingListenerTest() throws Exception {
+        final int[] shape = {37, 29};
+        final int threads = 8;
+        final int updatesPerThread = 50;
+        final ParameterServerListener listener = new ParameterServerListener(shape,
+                        new StreamingParameterUpdater(new InMemoryNDArrayHolder(Nd4j.zeros(shape)), threads));
+
+        // whole and partial updates race on the same stripes
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            final int row = i;
+            workers[i] = new Thread(() -> {
+                for (int e = 0; e < updatesPerThread; e++) {
+                    if (e % 2 == 0)
+                        listener.onNDArray(Nd4j.ones(shape));
+                    else
+                        listener.onNDArrayPartial(Nd4j.ones(1, shape[1]), row, 1);
+                }
+            });
+            workers[i].start();
+        }
+
+        for (Thread worker : workers)
+            worker.join();
+
+        INDArray expected = Nd4j.valueArrayOf(shape, threads * updatesPerThread / 2);
+        for (int i = 0; i < threads; i++)
+            expected.getRow(i).addi(updatesPerThread / 2);
+
+        assertEquals(expected, listener.getUpdater().ndArrayHolder().get());
+        assertEquals(threads * updatesPerThread / 2, listener.getUpdater().status().get("wholeUpdates").intValue());
+        assertEquals(threads * updatesPerThread / 2, listener.getUpdater().status().get("partialUpdates").intValue());
+    }
+
 }
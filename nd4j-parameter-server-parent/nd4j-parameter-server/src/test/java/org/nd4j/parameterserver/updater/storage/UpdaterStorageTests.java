@@ -4,6 +4,8 @@ import org.junit.Test;
 import org.nd4j.aeron.ipc.NDArrayMessage;
 import org.nd4j.linalg.factory.Nd4j;
 
+import java.io.File;
+
 import static junit.framework.TestCase.assertEquals;
 
 /**
@@ -34,4 +36,52 @@ public class UpdaterStorageTests {
         updateStorage.close();
     }
 
+    @Test
+    public void testAppendOnlyLog() throws Exception {
+        File file = File.createTempFile("updates", ".log");
+        file.deleteOnExit();
+
+        AppendOnlyLogStorage updateStorage = new AppendOnlyLogStorage(file);
+        for (int i = 0; i < 10; i++)
+            updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.scalar((double) i)));
+
+        assertEquals(10, updateStorage.numUpdates());
+        assertEquals(Nd4j.scalar(7.0), updateStorage.getUpdate(7).getArr());
+        updateStorage.clear();
+        assertEquals(0, updateStorage.numUpdates());
+
+        updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.scalar(19.0)));
+        assertEquals(Nd4j.scalar(19.0), updateStorage.getUpdate(0).getArr());
+        updateStorage.close();
+    }
+
+    @Test
+    public void testAppendOnlyLogClose() throws Exception {
+        File file = File.createTempFile("updates", ".log");
+        file.deleteOnExit();
+
+        AppendOnlyLogStorage updateStorage = new AppendOnlyLogStorage(file);
+        long expected = 0;
+        for (int i = 0; i < 10; i++) {
+            NDArrayMessage message = NDArrayMessage.wholeArrayUpdate(Nd4j.scalar((double) i));
+            expected += 4 + NDArrayMessage.toBuffer(message).capacity();
+            updateStorage.addUpdate(message);
+        }
+
+        // pending updates are written before the log is closed, closing twice is fine
+        updateStorage.close();
+        updateStorage.close();
+        assertEquals(expected, file.length());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAppendOnlyLogClosed() throws Exception {
+        File file = File.createTempFile("updates", ".log");
+        file.deleteOnExit();
+
+        AppendOnlyLogStorage updateStorage = new AppendOnlyLogStorage(file);
+        updateStorage.close();
+        updateStorage.addUpdate(NDArrayMessage.wholeArrayUpdate(Nd4j.scalar(1.0)));
+    }
+
 }
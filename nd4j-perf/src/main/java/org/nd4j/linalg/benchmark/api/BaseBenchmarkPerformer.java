@@ -9,7 +9,10 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * @author Adam Gibson
+ * @deprecated there's no warmup, forking or dead code elimination protection here, use JMH benchmarks
+ *             from org.nd4j.linalg.benchmark.jmh package instead
  */
+@Deprecated
 public abstract class BaseBenchmarkPerformer implements BenchMarkPerformer {
     protected int nTimes;
     protected long averageTime;
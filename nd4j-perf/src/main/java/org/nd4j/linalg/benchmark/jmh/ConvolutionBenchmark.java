@@ -0,0 +1,45 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.convolution.Convolution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * im2col and col2im with 3x3 kernel, stride 1 and padding 1, as used by convolution layers.
+ * Replaces {@link org.nd4j.linalg.benchmark.convolution.ConvolutionBenchmarkPerformer}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ConvolutionBenchmark {
+    // minibatch, channels, height, width
+    @Param({"32,3,32,32", "16,64,28,28"})
+    public String shape;
+
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray input;
+    private INDArray columns;
+
+    @Setup
+    public void setUp() {
+        input = JmhUtils.init(dataType, shape, "c");
+        columns = JmhUtils.sync(Convolution.im2col(input, 3, 3, 1, 1, 1, 1, false));
+    }
+
+    @Benchmark
+    public INDArray im2col() {
+        return JmhUtils.sync(Convolution.im2col(input, 3, 3, 1, 1, 1, 1, false));
+    }
+
+    @Benchmark
+    public INDArray col2im() {
+        return JmhUtils.sync(Convolution.col2im(columns, 1, 1, 1, 1, input.size(2), input.size(3)));
+    }
+}
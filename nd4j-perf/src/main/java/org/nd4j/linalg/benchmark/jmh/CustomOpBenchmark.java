@@ -0,0 +1,98 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.bytedeco.javacpp.Pointer;
+import org.bytedeco.javacpp.PointerPointer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.CustomOp;
+import org.nd4j.linalg.api.ops.DynamicCustomOp;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Small CustomOp invocations, so per-invocation overhead dominates over actual math.
+ * Run with -prof gc to get heap bytes allocated per op. Native memory held by unreleased pointers is printed on teardown.
+ *
+ * {@link #allocateArguments()} is the baseline for argument marshalling: it allocates pointers for the op arguments
+ * on every call, like NativeOpExecutioner did before thread-local argument buffers. {@link #reuseArguments()} fills
+ * pointers allocated once, like it does now.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class CustomOpBenchmark {
+    @Param({"4,4"})
+    public String shape;
+
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private CustomOp op;
+    private INDArray z;
+    private long nativeBytes;
+
+    private PointerPointer inputBuffers;
+    private PointerPointer inputShapes;
+    private PointerPointer outputBuffers;
+    private PointerPointer outputShapes;
+
+    @Setup
+    public void setUp() {
+        INDArray x = JmhUtils.init(dataType, shape, "c");
+        INDArray y = JmhUtils.init(dataType, shape, "c");
+        z = Nd4j.createUninitialized(x.shape());
+        op = DynamicCustomOp.builder("add").addInputs(x, y).addOutputs(z).build();
+
+        // first invocation allocates thread-local buffers
+        Nd4j.getExecutioner().exec(op);
+        nativeBytes = Pointer.totalBytes();
+
+        inputBuffers = new PointerPointer(op.numInputArguments());
+        inputShapes = new PointerPointer(op.numInputArguments());
+        outputBuffers = new PointerPointer(op.numOutputArguments());
+        outputShapes = new PointerPointer(op.numOutputArguments());
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.out.println("Native bytes held by unreleased pointers: " + (Pointer.totalBytes() - nativeBytes));
+    }
+
+    @Benchmark
+    public INDArray exec() {
+        Nd4j.getExecutioner().exec(op);
+        return JmhUtils.sync(z);
+    }
+
+    @Benchmark
+    public PointerPointer allocateArguments() {
+        return fill(new PointerPointer(op.numInputArguments()), new PointerPointer(op.numInputArguments()),
+                        new PointerPointer(op.numOutputArguments()), new PointerPointer(op.numOutputArguments()));
+    }
+
+    @Benchmark
+    public PointerPointer reuseArguments() {
+        return fill(inputBuffers, inputShapes, outputBuffers, outputShapes);
+    }
+
+    private PointerPointer fill(PointerPointer inputBuffers, PointerPointer inputShapes, PointerPointer outputBuffers,
+                    PointerPointer outputShapes) {
+        INDArray[] inputs = op.inputArguments();
+        for (int i = 0; i < inputs.length; i++) {
+            inputBuffers.put(i, inputs[i].data().addressPointer());
+            inputShapes.put(i, inputs[i].shapeInfoDataBuffer().addressPointer());
+        }
+
+        INDArray[] outputs = op.outputArguments();
+        for (int i = 0; i < outputs.length; i++) {
+            outputBuffers.put(i, outputs[i].data().addressPointer());
+            outputShapes.put(i, outputs[i].shapeInfoDataBuffer().addressPointer());
+        }
+
+        return outputShapes;
+    }
+}
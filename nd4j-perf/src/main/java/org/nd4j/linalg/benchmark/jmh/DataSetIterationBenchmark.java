@@ -0,0 +1,50 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.dataset.DataSet;
+import org.nd4j.linalg.dataset.ViewIterator;
+import org.nd4j.linalg.dataset.api.iterator.DataSetIterator;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single pass over in-memory DataSet, split into minibatches
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DataSetIterationBenchmark {
+    @Param({"784"})
+    public int features;
+
+    @Param({"32", "256"})
+    public int batchSize;
+
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private DataSetIterator iterator;
+
+    @Setup
+    public void setUp() {
+        int examples = 10000;
+        DataSet dataSet = new DataSet(JmhUtils.init(dataType, examples + "," + features, "c"),
+                        JmhUtils.init(dataType, examples + ",10", "c"));
+        iterator = new ViewIterator(dataSet, batchSize);
+        Nd4j.getExecutioner().commit();
+    }
+
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        iterator.reset();
+        while (iterator.hasNext())
+            blackhole.consume(iterator.next());
+
+        Nd4j.getExecutioner().commit();
+    }
+}
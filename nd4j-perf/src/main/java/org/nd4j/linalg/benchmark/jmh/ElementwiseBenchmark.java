@@ -0,0 +1,57 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.ops.transforms.Transforms;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar, transform and broadcast ops.
+ * Replaces scalar, transform and addiRowVector benchmark performers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ElementwiseBenchmark {
+    @Param({"1024,1024", "100,10000"})
+    public String shape;
+
+    @Param({"c", "f"})
+    public String order;
+
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray array;
+    private INDArray row;
+
+    @Setup
+    public void setUp() {
+        array = JmhUtils.init(dataType, shape, order);
+        row = JmhUtils.init(dataType, "1," + array.columns(), order);
+    }
+
+    @Benchmark
+    public INDArray scalarAddi() {
+        return JmhUtils.sync(array.addi(1.0));
+    }
+
+    @Benchmark
+    public INDArray sigmoid() {
+        return JmhUtils.sync(Transforms.sigmoid(array, true));
+    }
+
+    @Benchmark
+    public INDArray sigmoidInplace() {
+        return JmhUtils.sync(Transforms.sigmoid(array, false));
+    }
+
+    @Benchmark
+    public INDArray addiRowVector() {
+        return JmhUtils.sync(array.addiRowVector(row));
+    }
+}
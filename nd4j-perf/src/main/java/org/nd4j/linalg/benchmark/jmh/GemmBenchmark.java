@@ -0,0 +1,50 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Square matrix multiplication, with and without result allocation.
+ * Replaces {@link org.nd4j.linalg.benchmark.gemm.GemmBenchmarkPerformer}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class GemmBenchmark {
+    @Param({"64", "256", "1024"})
+    public int size;
+
+    @Param({"c", "f"})
+    public String order;
+
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray a;
+    private INDArray b;
+    private INDArray c;
+
+    @Setup
+    public void setUp() {
+        String shape = size + "," + size;
+        a = JmhUtils.init(dataType, shape, order);
+        b = JmhUtils.init(dataType, shape, order);
+        c = Nd4j.create(new int[] {size, size}, 'f');
+    }
+
+    @Benchmark
+    public INDArray mmul() {
+        return JmhUtils.sync(a.mmul(b));
+    }
+
+    @Benchmark
+    public INDArray gemm() {
+        return JmhUtils.sync(Nd4j.gemm(a, b, c, false, false, 1.0, 0.0));
+    }
+}
@@ -0,0 +1,56 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.kohsuke.args4j.CmdLineException;
+import org.kohsuke.args4j.CmdLineParser;
+import org.kohsuke.args4j.Option;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs JMH benchmarks, and writes results as JSON, so they can be compared between releases.
+ *
+ * All JMH options are available via benchmarks.jar too: java -jar benchmarks.jar -h
+ */
+public class JmhRunnerApp {
+    @Option(name = "--include", usage = "Regexp for benchmarks to run", aliases = "-i")
+    private String include = JmhRunnerApp.class.getPackage().getName() + ".*";
+    @Option(name = "--result", usage = "JSON file to write results to", aliases = "-o")
+    private String result = "nd4j-jmh-results.json";
+    @Option(name = "--forks", usage = "Number of forks, -1 to use benchmark defaults", aliases = "-f")
+    private int forks = -1;
+    @Option(name = "--param", usage = "Benchmark parameter override, given as name=value1,value2", aliases = "-p")
+    private String param;
+
+    public void doMain(String[] args) throws Exception {
+        CmdLineParser parser = new CmdLineParser(this);
+        try {
+            parser.parseArgument(args);
+        } catch (CmdLineException e) {
+            System.err.println(e.getMessage());
+            parser.printUsage(System.err);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().include(include).resultFormat(ResultFormatType.JSON)
+                        .result(result);
+        if (forks >= 0)
+            options.forks(forks);
+
+        if (param != null) {
+            String[] split = param.split("=", 2);
+            if (split.length != 2) {
+                System.err.println("Parameter should be given as name=value1,value2: " + param);
+                return;
+            }
+            options.param(split[0], split[1].split(","));
+        }
+
+        new Runner(options.build()).run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new JmhRunnerApp().doMain(args);
+    }
+}
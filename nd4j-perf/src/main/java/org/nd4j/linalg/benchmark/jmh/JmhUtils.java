@@ -0,0 +1,55 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+
+/**
+ * Helpers shared by JMH benchmarks
+ */
+public class JmhUtils {
+
+    private JmhUtils() {}
+
+    /**
+     * This method parses shape parameter, given as comma-separated dimensions, i.e. "1024,1024"
+     *
+     * @param shape
+     * @return
+     */
+    public static int[] parseShape(String shape) {
+        String[] split = shape.split(",");
+        int[] result = new int[split.length];
+        for (int i = 0; i < split.length; i++)
+            result[i] = Integer.parseInt(split[i].trim());
+
+        return result;
+    }
+
+    /**
+     * This method sets global data type, and returns random array of given shape and ordering,
+     * with all pending ops finished
+     *
+     * @param dataType
+     * @param shape
+     * @param order
+     * @return
+     */
+    public static INDArray init(String dataType, String shape, String order) {
+        Nd4j.setDataType(DataBuffer.Type.valueOf(dataType));
+        INDArray array = Nd4j.rand(parseShape(shape), 119).dup(order.charAt(0));
+        Nd4j.getExecutioner().commit();
+        return array;
+    }
+
+    /**
+     * This method waits for all ops issued by benchmark, so asynchronous backends are measured properly
+     *
+     * @param result
+     * @return
+     */
+    public static <T> T sync(T result) {
+        Nd4j.getExecutioner().commit();
+        return result;
+    }
+}
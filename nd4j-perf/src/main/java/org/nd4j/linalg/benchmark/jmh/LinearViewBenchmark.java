@@ -0,0 +1,51 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Linear view creation and scalar access through it.
+ * Replaces linear view benchmark performers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class LinearViewBenchmark {
+    @Param({"1000,1000"})
+    public String shape;
+
+    @Param({"c", "f"})
+    public String order;
+
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray array;
+    private INDArray linearView;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        array = JmhUtils.init(dataType, shape, order);
+        linearView = array.linearView();
+    }
+
+    @Benchmark
+    public INDArray linearView() {
+        array.resetLinearView();
+        return array.linearView();
+    }
+
+    @Benchmark
+    public double getPutScalar() {
+        index = (index + 7919) % (int) linearView.length();
+        double value = linearView.getDouble(index);
+        linearView.putScalar(index, value + 1.0);
+        return value;
+    }
+}
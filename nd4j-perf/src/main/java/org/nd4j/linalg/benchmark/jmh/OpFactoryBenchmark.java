@@ -0,0 +1,84 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.imports.converters.DifferentialFunctionClassHolder;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.ops.Op;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of ops by name via {@link org.nd4j.linalg.api.ops.factory.OpFactory}, without executing them,
+ * so only op creation overhead is measured.
+ *
+ * The *Reflective benchmarks are the baseline: they resolve the constructor on every call, the way
+ * {@link org.nd4j.linalg.api.ops.factory.DefaultOpFactory} did before it cached constructors per op name.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class OpFactoryBenchmark {
+    private INDArray x;
+    private INDArray row;
+
+    @Setup
+    public void setUp() {
+        x = JmhUtils.init("FLOAT", "4,4", "c");
+        row = JmhUtils.init("FLOAT", "1,4", "c");
+    }
+
+    @Benchmark
+    public Op transform() {
+        return Nd4j.getOpFactory().createTransform("tanh", x);
+    }
+
+    @Benchmark
+    public Op scalar() {
+        return Nd4j.getOpFactory().createScalarTransform("add_scalar", x, 1.0);
+    }
+
+    @Benchmark
+    public Op accumulation() {
+        return Nd4j.getOpFactory().createAccum("sum", x);
+    }
+
+    @Benchmark
+    public Op broadcast() {
+        return Nd4j.getOpFactory().createBroadcastOp("broadcastadd", x, row, 1);
+    }
+
+    @Benchmark
+    public Op transformReflective() throws Exception {
+        return (Op) holder().getInstance("tanh").getClass().getConstructor(INDArray.class, INDArray.class)
+                        .newInstance(x, x);
+    }
+
+    @Benchmark
+    public Op scalarReflective() throws Exception {
+        return (Op) holder().getInstance("add_scalar").getClass()
+                        .getConstructor(INDArray.class, INDArray.class, INDArray.class, long.class, Number.class)
+                        .newInstance(x, null, x, x.length(), 1.0);
+    }
+
+    @Benchmark
+    public Op accumulationReflective() throws Exception {
+        return (Op) holder().getInstance("sum").getClass()
+                        .getConstructor(INDArray.class, INDArray.class, INDArray.class, long.class)
+                        .newInstance(x, null, x, x.length());
+    }
+
+    @Benchmark
+    public Op broadcastReflective() throws Exception {
+        return (Op) holder().getInstance("broadcastadd").getClass()
+                        .getConstructor(INDArray.class, INDArray.class, INDArray.class, int[].class)
+                        .newInstance(x, row, x, new int[] {1});
+    }
+
+    private static DifferentialFunctionClassHolder holder() {
+        return DifferentialFunctionClassHolder.getInstance();
+    }
+}
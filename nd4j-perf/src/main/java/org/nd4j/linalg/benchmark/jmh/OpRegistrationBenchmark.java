@@ -0,0 +1,37 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.autodiff.functions.DifferentialFunction;
+import org.nd4j.imports.converters.DifferentialFunctionClassHolder;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of {@link DifferentialFunctionClassHolder}, plus first op lookup: op index vs classpath scanning,
+ * which was the only option before the index existed. Every fork measures a single cold registration,
+ * so the scan mode can't benefit from classes loaded by the index mode, and vice versa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class OpRegistrationBenchmark {
+    @Param({"false", "true"})
+    public String scan;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("org.nd4j.classpath.scan", scan);
+
+        // backend initialization isn't part of the measurement
+        JmhUtils.sync(Nd4j.create(1));
+    }
+
+    @Benchmark
+    public DifferentialFunction register() {
+        return DifferentialFunctionClassHolder.getInstance().getInstance("add");
+    }
+}
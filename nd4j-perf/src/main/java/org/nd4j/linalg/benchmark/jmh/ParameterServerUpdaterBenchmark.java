@@ -0,0 +1,90 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.aeron.ndarrayholder.InMemoryNDArrayHolder;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.ParameterServerListener;
+import org.nd4j.parameterserver.updater.ParameterServerUpdater;
+import org.nd4j.parameterserver.updater.StreamingParameterUpdater;
+import org.nd4j.parameterserver.updater.SynchronousParameterUpdater;
+import org.nd4j.parameterserver.updater.storage.NoUpdateStorage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent updates through {@link ParameterServerListener}: synchronous updater, serialized on the listener,
+ * vs striped {@link StreamingParameterUpdater}. Master array sum is checked against number of applied updates
+ * after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@Threads(8)
+public class ParameterServerUpdaterBenchmark {
+    @Param({"synchronous", "streaming"})
+    public String updater;
+
+    @Param({"1000,1000"})
+    public String shape;
+
+    private ParameterServerListener listener;
+    private INDArray whole;
+    private INDArray row;
+    private final AtomicLong wholeUpdates = new AtomicLong(0);
+    private final AtomicLong partialUpdates = new AtomicLong(0);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // double precision, so sums are exact
+        Nd4j.setDataType(DataBuffer.Type.DOUBLE);
+        int[] dims = JmhUtils.parseShape(shape);
+
+        ParameterServerUpdater parameterUpdater;
+        switch (updater) {
+            case "synchronous":
+                parameterUpdater = new SynchronousParameterUpdater(new NoUpdateStorage(),
+                                new InMemoryNDArrayHolder(Nd4j.zeros(dims)), Integer.MAX_VALUE);
+                break;
+            case "streaming":
+                parameterUpdater = new StreamingParameterUpdater(new InMemoryNDArrayHolder(Nd4j.zeros(dims)),
+                                Integer.MAX_VALUE);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown updater: " + updater);
+        }
+
+        listener = new ParameterServerListener(dims, parameterUpdater);
+        whole = Nd4j.ones(dims);
+        row = Nd4j.ones(1, dims[1]);
+        wholeUpdates.set(0);
+        partialUpdates.set(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        INDArray master = listener.getUpdater().ndArrayHolder().get();
+        double expected = wholeUpdates.get() * (double) master.length() + partialUpdates.get() * (double) row.length();
+        double actual = master.sumNumber().doubleValue();
+        if (actual != expected)
+            throw new IllegalStateException("Lost updates: expected sum " + expected + ", got " + actual);
+    }
+
+    @Benchmark
+    public void onNDArray() {
+        listener.onNDArray(whole);
+        JmhUtils.sync(wholeUpdates.incrementAndGet());
+    }
+
+    @Benchmark
+    public void onNDArrayPartial() {
+        long idx = partialUpdates.getAndIncrement() % whole.rows();
+        listener.onNDArrayPartial(row, idx, 1);
+        JmhUtils.sync(idx);
+    }
+}
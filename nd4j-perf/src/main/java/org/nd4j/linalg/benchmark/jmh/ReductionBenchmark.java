@@ -0,0 +1,49 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full and dimension-wise reductions.
+ * Replaces sum and dimension-wise benchmark performers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReductionBenchmark {
+    @Param({"1024,1024", "100,10000"})
+    public String shape;
+
+    @Param({"c", "f"})
+    public String order;
+
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray array;
+
+    @Setup
+    public void setUp() {
+        array = JmhUtils.init(dataType, shape, order);
+    }
+
+    @Benchmark
+    public Number sum() {
+        return array.sumNumber();
+    }
+
+    @Benchmark
+    public INDArray sumRows() {
+        return JmhUtils.sync(array.sum(1));
+    }
+
+    @Benchmark
+    public INDArray meanColumns() {
+        return JmhUtils.sync(array.mean(0));
+    }
+}
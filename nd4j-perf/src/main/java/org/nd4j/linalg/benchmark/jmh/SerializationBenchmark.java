@@ -0,0 +1,51 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Nd4j#write(INDArray, DataOutputStream)} and {@link Nd4j#read(DataInputStream)} over in-memory streams
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10000", "10000000"})
+    public int length;
+
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private INDArray array;
+    private ByteArrayOutputStream stream;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        array = JmhUtils.init(dataType, "1," + length, "c");
+        stream = new ByteArrayOutputStream();
+        write();
+        bytes = stream.toByteArray();
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        stream.reset();
+        DataOutputStream dos = new DataOutputStream(stream);
+        Nd4j.write(array, dos);
+        dos.flush();
+        return stream.size();
+    }
+
+    @Benchmark
+    public INDArray read() throws IOException {
+        return Nd4j.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+}
@@ -0,0 +1,81 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Random sparse matrix of given density multiplied by dense matrix,
+ * using either CSR representation of sparse matrix, or its dense copy
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SparseGemmBenchmark {
+    @Param({"4096,1024,256"})
+    public String shape;
+
+    @Param({"0.001", "0.01", "0.05", "0.1", "0.25"})
+    public double density;
+
+    private INDArray dense;
+    private INDArray sparse;
+    private INDArray b;
+    private INDArray c;
+
+    @Setup
+    public void setUp() {
+        Nd4j.setDataType(DataBuffer.Type.DOUBLE);
+        int[] dims = JmhUtils.parseShape(shape);
+        int rows = dims[0];
+        int columns = dims[1];
+
+        Random random = new Random(119);
+        double[] data = new double[rows * columns];
+        int[] pointerB = new int[rows];
+        int[] pointerE = new int[rows];
+        int nnz = 0;
+        for (int i = 0; i < data.length; i++)
+            if (random.nextDouble() < density) {
+                data[i] = random.nextGaussian();
+                nnz++;
+            }
+
+        double[] values = new double[nnz];
+        int[] columnIndices = new int[nnz];
+        int cnt = 0;
+        for (int i = 0; i < rows; i++) {
+            pointerB[i] = cnt;
+            for (int j = 0; j < columns; j++)
+                if (data[i * columns + j] != 0.0) {
+                    values[cnt] = data[i * columns + j];
+                    columnIndices[cnt++] = j;
+                }
+            pointerE[i] = cnt;
+        }
+
+        dense = Nd4j.create(data, new int[] {rows, columns}, 'c');
+        sparse = Nd4j.createSparseCSR(Nd4j.createBuffer(values), columnIndices, pointerB, pointerE,
+                        new int[] {rows, columns});
+        b = Nd4j.rand(new int[] {columns, dims[2]}, 119);
+        c = Nd4j.create(new int[] {rows, dims[2]}, 'c');
+        Nd4j.getExecutioner().commit();
+    }
+
+    @Benchmark
+    public INDArray dense() {
+        return JmhUtils.sync(dense.mmuli(b, c));
+    }
+
+    @Benchmark
+    public INDArray sparse() {
+        return JmhUtils.sync(sparse.mmuli(b, c));
+    }
+}
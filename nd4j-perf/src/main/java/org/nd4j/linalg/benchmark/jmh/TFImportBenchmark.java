@@ -0,0 +1,171 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import com.google.protobuf.ByteString;
+import org.nd4j.imports.graphmapper.tf.TFGraphMapper;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+import org.tensorflow.framework.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Import of frozen TF graph, made of FLOAT constants stored as tensor_content, with eager and lazy import of constants.
+ *
+ * Baseline mode does what import did before bulk tensor_content copies: it parses GraphDef from a stream and copies
+ * every constant into a float array one element at a time. It skips SameDiff construction, so it understates
+ * baseline cost.
+ *
+ * Each mode runs in its own fork. Peak RSS is reset before every iteration (via /proc/self/clear_refs, Linux only),
+ * and peak RSS growth during the iteration is printed after it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TFImportBenchmark {
+    @Param({"32"})
+    public int constants;
+
+    @Param({"1024,1024"})
+    public String shape;
+
+    @Param({"baseline", "eager", "lazy"})
+    public String mode;
+
+    private File graphFile;
+    private long rssBefore;
+
+    @Setup
+    public void setUp() throws IOException {
+        graphFile = createGraph(constants, JmhUtils.parseShape(shape));
+    }
+
+    @TearDown
+    public void tearDown() {
+        graphFile.delete();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() throws IOException {
+        try (OutputStream os = new FileOutputStream("/proc/self/clear_refs")) {
+            os.write("5".getBytes());
+        } catch (IOException e) {
+            // peak can't be reset on this platform, growth is measured against previous peak then
+        }
+
+        rssBefore = readStatus("VmRSS");
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportPeak() throws IOException {
+        long peak = readStatus("VmHWM");
+        if (peak >= 0)
+            System.out.println(mode + ": peak RSS " + peak + " kB, growth during import " + (peak - rssBefore) + " kB");
+    }
+
+    @Benchmark
+    public Object importGraph() throws IOException {
+        switch (mode) {
+            case "baseline":
+                return importElementwise(graphFile);
+            case "eager":
+                return TFGraphMapper.getInstance().importGraph(graphFile, false);
+            case "lazy":
+                return TFGraphMapper.getInstance().importGraph(graphFile, true);
+            default:
+                throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+    }
+
+    /**
+     * This method loads FLOAT constants of given graph the way TFGraphMapper did before bulk copies
+     */
+    private static List<INDArray> importElementwise(File file) throws IOException {
+        GraphDef graph;
+        try (InputStream is = new FileInputStream(file)) {
+            graph = GraphDef.parseFrom(is);
+        }
+
+        List<INDArray> arrays = new ArrayList<>();
+        for (NodeDef node : graph.getNodeList()) {
+            TensorProto tensor = node.getAttrOrThrow("value").getTensor();
+            int[] shape = new int[tensor.getTensorShape().getDimCount()];
+            for (int i = 0; i < shape.length; i++)
+                shape[i] = (int) tensor.getTensorShape().getDim(i).getSize();
+
+            FloatBuffer fb = tensor.getTensorContent().asReadOnlyByteBuffer().order(ByteOrder.nativeOrder())
+                            .asFloatBuffer();
+            float[] fa = new float[fb.capacity()];
+            for (int e = 0; e < fb.capacity(); e++)
+                fa[e] = fb.get(e);
+
+            arrays.add(Nd4j.create(fa, shape, 'c', 0));
+        }
+
+        return arrays;
+    }
+
+    /**
+     * This method returns value of given /proc/self/status field in kB, or -1 if it's not available
+     */
+    private static long readStatus(String field) throws IOException {
+        File status = new File("/proc/self/status");
+        if (!status.exists())
+            return -1;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(status))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(field + ":"))
+                    return Long.parseLong(line.substring(field.length() + 1).replace("kB", "").trim());
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * This method writes graph with given number of random FLOAT constants of given shape to temporary file
+     */
+    private static File createGraph(int constants, int[] dims) throws IOException {
+        Random random = new Random(119);
+        ByteBuffer content = ByteBuffer.allocate(dims[0] * dims[1] * 4).order(ByteOrder.nativeOrder());
+
+        TensorShapeProto shape = TensorShapeProto.newBuilder()
+                        .addDim(TensorShapeProto.Dim.newBuilder().setSize(dims[0]))
+                        .addDim(TensorShapeProto.Dim.newBuilder().setSize(dims[1])).build();
+
+        GraphDef.Builder graph = GraphDef.newBuilder();
+        for (int i = 0; i < constants; i++) {
+            content.clear();
+            while (content.hasRemaining())
+                content.putFloat(random.nextFloat());
+            content.flip();
+
+            TensorProto tensor = TensorProto.newBuilder().setDtype(DataType.DT_FLOAT).setTensorShape(shape)
+                            .setTensorContent(ByteString.copyFrom(content)).build();
+
+            graph.addNode(NodeDef.newBuilder().setName("weights_" + i).setOp("Const")
+                            .putAttr("dtype", AttrValue.newBuilder().setType(DataType.DT_FLOAT).build())
+                            .putAttr("value", AttrValue.newBuilder().setTensor(tensor).build()));
+        }
+
+        File file = File.createTempFile("tf_import", ".pb");
+        file.deleteOnExit();
+        try (OutputStream os = new FileOutputStream(file)) {
+            graph.build().writeTo(os);
+        }
+
+        return file;
+    }
+}
@@ -0,0 +1,63 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.apache.commons.lang3.SerializationUtils;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.parameterserver.distributed.messages.VoidMessage;
+import org.nd4j.parameterserver.distributed.messages.codec.VoidMessageCodec;
+import org.nd4j.parameterserver.distributed.messages.complete.VectorCompleteMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.AssignRequestMessage;
+import org.nd4j.parameterserver.distributed.messages.requests.SkipGramRequestMessage;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode + decode round trip of parameter server messages: Java serialization vs {@link VoidMessageCodec}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VoidMessageCodecBenchmark {
+    @Param({"SkipGramRequest", "VectorComplete", "AssignRequest"})
+    public String message;
+
+    @Param({"100"})
+    public int length;
+
+    private VoidMessage voidMessage;
+
+    @Setup
+    public void setUp() {
+        INDArray payload = Nd4j.create(1, length);
+        switch (message) {
+            case "SkipGramRequest":
+                voidMessage = new SkipGramRequestMessage(10, 12, new int[] {10, 20, 30, 40}, new byte[] {0, 0, 1, 0},
+                                (short) 5, 0.025, 117L);
+                break;
+            case "VectorComplete":
+                voidMessage = new VectorCompleteMessage(117L, payload);
+                break;
+            case "AssignRequest":
+                voidMessage = new AssignRequestMessage(3, payload);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown message: " + message);
+        }
+    }
+
+    @Benchmark
+    public VoidMessage javaSerialization() {
+        return VoidMessage.fromBytes(SerializationUtils.serialize(voidMessage));
+    }
+
+    @Benchmark
+    public VoidMessage codec() {
+        UnsafeBuffer buffer = VoidMessageCodec.encode(voidMessage);
+        return VoidMessageCodec.decode(buffer, 0, buffer.capacity());
+    }
+}
@@ -0,0 +1,70 @@
+package org.nd4j.linalg.benchmark.jmh;
+
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.memory.enums.AllocationPolicy;
+import org.nd4j.linalg.api.memory.enums.LearningPolicy;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation of arrays within workspace, compared to regular allocation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class WorkspaceBenchmark {
+    private static final String WORKSPACE_ID = "JMH_WORKSPACE";
+
+    @Param({"10", "1000,1000"})
+    public String shape;
+
+    // number of arrays allocated per invocation
+    @Param({"1", "16"})
+    public int arrays;
+
+    @Param({"FLOAT", "DOUBLE"})
+    public String dataType;
+
+    private int[] dims;
+    private WorkspaceConfiguration configuration;
+
+    @Setup
+    public void setUp() {
+        Nd4j.setDataType(DataBuffer.Type.valueOf(dataType));
+        dims = JmhUtils.parseShape(shape);
+        if (dims.length == 1)
+            dims = new int[] {1, dims[0]};
+
+        configuration = WorkspaceConfiguration.builder().policyAllocation(AllocationPolicy.STRICT)
+                        .policyLearning(LearningPolicy.FIRST_LOOP).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        Nd4j.getWorkspaceManager().destroyAllWorkspacesForCurrentThread();
+    }
+
+    @Benchmark
+    public void allocate(Blackhole blackhole) {
+        for (int i = 0; i < arrays; i++)
+            blackhole.consume(Nd4j.createUninitialized(dims));
+    }
+
+    @Benchmark
+    public void allocateInWorkspace(Blackhole blackhole) {
+        try (MemoryWorkspace workspace = Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration,
+                        WORKSPACE_ID)) {
+            for (int i = 0; i < arrays; i++)
+                blackhole.consume(Nd4j.createUninitialized(dims));
+        }
+    }
+}
@@ -5,7 +5,7 @@ import io.aeron.logbuffer.Header;
 import lombok.extern.slf4j.Slf4j;
 import org.agrona.DirectBuffer;
 import org.nd4j.aeron.ipc.chunk.ChunkAccumulator;
-import org.nd4j.aeron.ipc.chunk.InMemoryChunkAccumulator;
+import org.nd4j.aeron.ipc.chunk.InPlaceChunkAccumulator;
 import org.nd4j.aeron.ipc.chunk.NDArrayMessageChunk;
 
 import java.nio.ByteBuffer;
@@ -21,7 +21,7 @@ import java.nio.ByteOrder;
 @Slf4j
 public class NDArrayFragmentHandler implements FragmentHandler {
     private NDArrayCallback ndArrayCallback;
-    private ChunkAccumulator chunkAccumulator = new InMemoryChunkAccumulator();
+    private ChunkAccumulator chunkAccumulator = new InPlaceChunkAccumulator();
 
     public NDArrayFragmentHandler(NDArrayCallback ndArrayCallback) {
         this.ndArrayCallback = ndArrayCallback;
@@ -67,14 +67,9 @@ public class NDArrayFragmentHandler implements FragmentHandler {
             if (chunk.getNumChunks() < 1)
                 throw new IllegalStateException("Found invalid number of chunks " + chunk.getNumChunks()
                                 + " on chunk index " + chunk.getChunkIndex());
-            chunkAccumulator.accumulateChunk(chunk);
-            log.info("Number of chunks " + chunk.getNumChunks() + " and number of chunks " + chunk.getNumChunks()
-                            + " for id " + chunk.getId() + " is " + chunkAccumulator.numChunksSoFar(chunk.getId()));
-
-            if (chunkAccumulator.allPresent(chunk.getId())) {
-                NDArrayMessage message = chunkAccumulator.reassemble(chunk.getId());
+            NDArrayMessage message = chunkAccumulator.accumulate(chunk);
+            if (message != null)
                 ndArrayCallback.onNDArrayMessage(message);
-            }
         } else {
             NDArrayMessage message = NDArrayMessage.fromBuffer(buffer, offset);
             ndArrayCallback.onNDArrayMessage(message);
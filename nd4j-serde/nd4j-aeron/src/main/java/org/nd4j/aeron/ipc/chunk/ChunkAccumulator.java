@@ -46,4 +46,18 @@ public interface ChunkAccumulator {
      * @param chunk the chunk to accumulate
      */
     void accumulateChunk(NDArrayMessageChunk chunk);
+
+    /**
+     * Accumulate chunk, and reassemble the message
+     * if this chunk completed it
+     * @param chunk the chunk to accumulate
+     * @return the reassembled message, or null if chunks are still missing
+     */
+    default NDArrayMessage accumulate(NDArrayMessageChunk chunk) {
+        accumulateChunk(chunk);
+        if (allPresent(chunk.getId()))
+            return reassemble(chunk.getId());
+
+        return null;
+    }
 }
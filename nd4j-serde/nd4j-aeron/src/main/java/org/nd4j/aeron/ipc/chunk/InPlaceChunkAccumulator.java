@@ -0,0 +1,251 @@
+package org.nd4j.aeron.ipc.chunk;
+
+import com.google.common.collect.Maps;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.nd4j.aeron.ipc.NDArrayMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Accumulate chunks straight into the final buffer.
+ *
+ * The buffer for the whole message is allocated once, when the first chunk
+ * for a given id arrives, using chunk size and number of chunks every chunk carries.
+ * Each chunk is copied in place by its index as soon as it arrives, so chunks
+ * may come out of order, duplicates are ignored, and no chunk is retained.
+ * Ids of recently completed messages are remembered, so duplicates arriving after completion are ignored as well.
+ * Messages which didn't get all of their chunks within the timeout are dropped.
+ */
+@Slf4j
+public class InPlaceChunkAccumulator implements ChunkAccumulator {
+    public final static long DEFAULT_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(1);
+    public final static int MAX_COMPLETED_IDS = 1024;
+
+    private final ConcurrentMap<String, PendingMessage> pending = Maps.newConcurrentMap();
+    // oldest ids are evicted first
+    private final Set<String> completed = Collections.newSetFromMap(
+                    Collections.synchronizedMap(new LinkedHashMap<String, Boolean>() {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                            return size() > MAX_COMPLETED_IDS;
+                        }
+                    }));
+    private final long timeoutMs;
+    private volatile long lastExpiration = System.currentTimeMillis();
+
+    /**
+     * A message being reassembled
+     */
+    private static class PendingMessage {
+        private final ByteBuffer buffer;
+        private final int chunkSize;
+        private final int numChunks;
+        private final AtomicIntegerArray received;
+        private final AtomicInteger counter = new AtomicInteger(0);
+        private final AtomicBoolean taken = new AtomicBoolean(false);
+        private final long created = System.currentTimeMillis();
+
+        private PendingMessage(int chunkSize, int numChunks) {
+            this.chunkSize = chunkSize;
+            this.numChunks = numChunks;
+            this.buffer = ByteBuffer.allocateDirect(chunkSize * numChunks).order(ByteOrder.nativeOrder());
+            this.received = new AtomicIntegerArray(numChunks);
+        }
+
+        private boolean isComplete() {
+            return counter.get() == numChunks;
+        }
+    }
+
+    public InPlaceChunkAccumulator() {
+        this(DEFAULT_TIMEOUT_MS);
+    }
+
+    /**
+     * @param timeoutMs time in milliseconds after which incomplete messages are dropped
+     */
+    public InPlaceChunkAccumulator(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     * Returns the number of chunks
+     * accumulated for a given id so far
+     *
+     * @param id the id to get the
+     *           number of chunks for
+     * @return the number of chunks accumulated
+     * for a given id so far
+     */
+    @Override
+    public int numChunksSoFar(String id) {
+        PendingMessage message = pending.get(id);
+        return message == null ? 0 : message.counter.get();
+    }
+
+    /**
+     * Returns true if all chunks are present
+     *
+     * @param id the id to check for
+     * @return true if all the chunks are present,false otherwise
+     */
+    @Override
+    public boolean allPresent(String id) {
+        PendingMessage message = pending.get(id);
+        return message != null && message.isComplete();
+    }
+
+    /**
+     * Reassemble an ndarray message
+     * from a set of chunks.
+     * No data is copied here, since chunks were already written in place.
+     *
+     * Note that once reassemble is called,
+     * the associated buffer will automatically
+     * be removed from storage.
+     *
+     * @param id the id to reassemble
+     * @return the reassembled message
+     */
+    @Override
+    public NDArrayMessage reassemble(String id) {
+        PendingMessage message = pending.get(id);
+        if (message == null)
+            throw new IllegalStateException("No chunks were accumulated for message " + id);
+
+        if (!message.isComplete())
+            throw new IllegalStateException("Unable to reassemble message chunk " + id + " missing "
+                            + (message.numChunks - message.counter.get()) + " chunks");
+
+        if (!message.taken.compareAndSet(false, true))
+            throw new IllegalStateException("Message " + id + " was already reassembled");
+
+        complete(id, message);
+        return NDArrayMessage.fromBuffer(new UnsafeBuffer(message.buffer), 0);
+    }
+
+    /**
+     * Accumulate chunk, copying its data
+     * in place into the buffer of the whole message
+     *
+     * @param chunk the chunk to accumulate
+     */
+    @Override
+    public void accumulateChunk(NDArrayMessageChunk chunk) {
+        accumulate(chunk, false);
+    }
+
+    /**
+     * Accumulate chunk, and return reassembled message
+     * if this chunk was the last missing one.
+     * Exactly one caller gets the message, even if chunks of the same message
+     * are accumulated concurrently.
+     *
+     * @param chunk the chunk to accumulate
+     * @return the reassembled message, or null if chunks are still missing
+     */
+    @Override
+    public NDArrayMessage accumulate(NDArrayMessageChunk chunk) {
+        return accumulate(chunk, true);
+    }
+
+    /**
+     * Drop all messages which are incomplete for longer than the timeout
+     *
+     * @return the number of dropped messages
+     */
+    public int expire() {
+        long now = System.currentTimeMillis();
+        lastExpiration = now;
+
+        int cnt = 0;
+        Iterator<Map.Entry<String, PendingMessage>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, PendingMessage> entry = iterator.next();
+            if (now - entry.getValue().created > timeoutMs && !entry.getValue().isComplete()) {
+                iterator.remove();
+                cnt++;
+                log.warn("Dropping message {}: {} of {} chunks arrived within {} ms", entry.getKey(),
+                                entry.getValue().counter.get(), entry.getValue().numChunks, timeoutMs);
+            }
+        }
+
+        return cnt;
+    }
+
+    private NDArrayMessage accumulate(NDArrayMessageChunk chunk, boolean take) {
+        if (System.currentTimeMillis() - lastExpiration > timeoutMs)
+            expire();
+
+        String id = chunk.getId();
+        PendingMessage message = pending.get(id);
+        if (message == null) {
+            // late duplicate of already delivered message
+            if (completed.contains(id))
+                return null;
+
+            PendingMessage created = new PendingMessage(chunk.getChunkSize(), chunk.getNumChunks());
+            message = pending.putIfAbsent(id, created);
+            if (message == null) {
+                message = created;
+
+                // message might have been completed and removed right before putIfAbsent
+                if (completed.contains(id)) {
+                    pending.remove(id, created);
+                    return null;
+                }
+            }
+        }
+
+        int index = chunk.getChunkIndex();
+        if (index < 0 || index >= message.numChunks || chunk.getNumChunks() != message.numChunks
+                        || chunk.getChunkSize() != message.chunkSize)
+            throw new IllegalStateException("Chunk " + index + " of " + chunk.getNumChunks()
+                            + " doesn't match message " + id + " of " + message.numChunks + " chunks");
+
+        // duplicates are skipped
+        if (!message.received.compareAndSet(index, 0, 1))
+            return null;
+
+        ByteBuffer data = chunk.getData().duplicate();
+        data.position(0);
+        if (data.limit() > message.chunkSize)
+            data.limit(message.chunkSize);
+
+        ByteBuffer target = message.buffer.duplicate();
+        target.position(index * message.chunkSize);
+        target.put(data);
+
+        log.debug("Accumulated chunk {} of {} for id {}", index, message.numChunks, id);
+
+        // counter is updated only after data was copied, so complete message never has gaps
+        if (message.counter.incrementAndGet() == message.numChunks && take) {
+            if (message.taken.compareAndSet(false, true)) {
+                complete(id, message);
+                return NDArrayMessage.fromBuffer(new UnsafeBuffer(message.buffer), 0);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Id is marked as completed before removal, so chunks arriving concurrently always see at least one of them
+     */
+    private void complete(String id, PendingMessage message) {
+        completed.add(id);
+        pending.remove(id, message);
+    }
+}
@@ -4,7 +4,12 @@ import org.junit.Test;
 import org.nd4j.aeron.ipc.NDArrayMessage;
 import org.nd4j.linalg.factory.Nd4j;
 
-import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
 
 /**
  * Created by agibsonccc on 11/20/16.
@@ -25,4 +30,70 @@ public class ChunkAccumulatorTests {
         assertEquals(message, message1);
     }
 
+    @Test
+    public void testInPlaceAccumulator() {
+        ChunkAccumulator chunkAccumulator = new InPlaceChunkAccumulator();
+        NDArrayMessage message = NDArrayMessage.wholeArrayUpdate(Nd4j.ones(1000));
+        NDArrayMessageChunk[] chunks = NDArrayMessage.chunks(message, 128);
+        for (int i = 0; i < chunks.length; i++) {
+            chunkAccumulator.accumulateChunk(chunks[i]);
+        }
+
+        assertTrue(chunkAccumulator.allPresent(chunks[0].getId()));
+        NDArrayMessage message1 = chunkAccumulator.reassemble(chunks[0].getId());
+        assertEquals(message, message1);
+        assertEquals(0, chunkAccumulator.numChunksSoFar(chunks[0].getId()));
+    }
+
+    @Test
+    public void testOutOfOrderAndDuplicateChunks() {
+        ChunkAccumulator chunkAccumulator = new InPlaceChunkAccumulator();
+        NDArrayMessage message = NDArrayMessage.wholeArrayUpdate(Nd4j.linspace(1, 1000, 1000));
+        NDArrayMessageChunk[] chunks = NDArrayMessage.chunks(message, 128);
+
+        List<NDArrayMessageChunk> shuffled = new ArrayList<>();
+        Collections.addAll(shuffled, chunks);
+        // every chunk but the last one arrives twice
+        for (int i = 0; i < chunks.length - 1; i++)
+            shuffled.add(chunks[i]);
+        Collections.shuffle(shuffled.subList(0, shuffled.size() - 1), new Random(119));
+
+        int completed = 0;
+        NDArrayMessage message1 = null;
+        for (NDArrayMessageChunk chunk : shuffled) {
+            NDArrayMessage result = chunkAccumulator.accumulate(chunk);
+            if (result != null) {
+                completed++;
+                message1 = result;
+            }
+        }
+
+        assertEquals(1, completed);
+        assertEquals(message, message1);
+        assertFalse(chunkAccumulator.allPresent(chunks[0].getId()));
+
+        // duplicates arriving after completion neither start a new message nor get delivered again
+        for (NDArrayMessageChunk chunk : chunks) {
+            assertNull(chunkAccumulator.accumulate(chunk));
+            assertEquals(0, chunkAccumulator.numChunksSoFar(chunk.getId()));
+        }
+        assertFalse(chunkAccumulator.allPresent(chunks[0].getId()));
+    }
+
+    @Test
+    public void testExpiration() throws Exception {
+        InPlaceChunkAccumulator chunkAccumulator = new InPlaceChunkAccumulator(10);
+        NDArrayMessage message = NDArrayMessage.wholeArrayUpdate(Nd4j.ones(1000));
+        NDArrayMessageChunk[] chunks = NDArrayMessage.chunks(message, 128);
+        for (int i = 1; i < chunks.length; i++) {
+            assertNull(chunkAccumulator.accumulate(chunks[i]));
+        }
+
+        assertEquals(chunks.length - 1, chunkAccumulator.numChunksSoFar(chunks[0].getId()));
+
+        Thread.sleep(50);
+        assertEquals(1, chunkAccumulator.expire());
+        assertEquals(0, chunkAccumulator.numChunksSoFar(chunks[0].getId()));
+    }
+
 }
@@ -0,0 +1,259 @@
+package org.nd4j.camel.kafka;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.api.shape.Shape;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.binary.BinarySerde;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary serialization of a batch of ndarrays
+ * into a single kafka record.
+ *
+ * The record layout is:
+ * 4 bytes magic
+ * 4 bytes number of arrays
+ * and for each array:
+ * 4 bytes length of the array
+ * the array, as laid out by {@link BinarySerde}
+ * (rank, data opType, shape information, optional codec information and raw data)
+ *
+ * Unlike {@link BinarySerde}, everything is written in little-endian byte order,
+ * since records are exchanged between hosts. Values are converted on the fly on big-endian hosts,
+ * except for compressed arrays: their codec information and contents are opaque,
+ * so compressed arrays can be written and read on little-endian hosts only.
+ */
+public class NDArrayBatchSerde {
+    public final static int MAGIC = 0x4E444B42;
+    public final static ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    // magic and number of arrays
+    private final static int RECORD_HEADER = 8;
+    // length, rank and data opType
+    private final static int MIN_ARRAY_LENGTH = 12;
+    private final static int MAX_RANK = 32;
+
+    private NDArrayBatchSerde() {}
+
+    /**
+     * Serialize the given arrays
+     * in to a single record
+     * @param arrays the arrays to serialize
+     * @param compression the compression algorithm
+     *                    to apply to each array, as known to {@link Nd4j#getCompressor()},
+     *                    or null for raw data
+     * @return the serialized batch
+     */
+    public static byte[] toBytes(List<INDArray> arrays, String compression) {
+        List<INDArray> prepared = new ArrayList<>(arrays.size());
+        int length = RECORD_HEADER;
+        for (INDArray arr : arrays) {
+            //subset and get rid of 1 off non 1 element wise stride cases
+            if (arr.isView())
+                arr = arr.dup();
+
+            if (compression != null && !arr.isCompressed())
+                arr = Nd4j.getCompressor().compress(arr, compression);
+
+            if (arr.isCompressed() && ByteOrder.nativeOrder() != ORDER)
+                throw new UnsupportedOperationException("Compressed arrays can be written on little-endian hosts only");
+
+            prepared.add(arr);
+            length += 4 + sizeOf(arr);
+        }
+
+        byte[] record = new byte[length];
+        ByteBuffer buffer = ByteBuffer.wrap(record).order(ORDER);
+        buffer.putInt(MAGIC);
+        buffer.putInt(prepared.size());
+        for (INDArray arr : prepared) {
+            buffer.putInt(sizeOf(arr));
+            if (arr.isCompressed())
+                BinarySerde.doByteBufferPutCompressed(arr, buffer, false);
+            else
+                putUncompressed(arr, buffer);
+        }
+
+        return record;
+    }
+
+    /**
+     * Serialize the given arrays
+     * in to a single record, without compression
+     * @param arrays the arrays to serialize
+     * @return the serialized batch
+     */
+    public static byte[] toBytes(List<INDArray> arrays) {
+        return toBytes(arrays, null);
+    }
+
+    /**
+     * Deserialize a record created with {@link #toBytes(List, String)}.
+     *
+     * Data is copied straight from the record in to the array buffers,
+     * which are allocated in the current workspace, if there's one open.
+     * Compressed arrays are decompressed.
+     * @param record the record to deserialize
+     * @return the arrays in the record
+     * @throws IllegalStateException if the record is corrupt
+     */
+    public static List<INDArray> fromBytes(byte[] record) {
+        if (record.length < RECORD_HEADER)
+            throw new IllegalStateException("Record is too short: " + record.length + " bytes");
+
+        ByteBuffer buffer = ByteBuffer.wrap(record).order(ORDER);
+        int magic = buffer.getInt();
+        if (magic != MAGIC) {
+            if (magic == Integer.reverseBytes(MAGIC))
+                throw new IllegalStateException("Record was written with different byte order");
+            throw new IllegalStateException("Record is not a serialized ndarray batch. Found magic " + magic);
+        }
+
+        int numArrays = buffer.getInt();
+        if (numArrays < 0 || numArrays > (record.length - RECORD_HEADER) / MIN_ARRAY_LENGTH)
+            throw new IllegalStateException("Found " + numArrays + " arrays in record of " + record.length
+                            + " bytes. Corrupt serialization?");
+
+        List<INDArray> ret = new ArrayList<>(numArrays);
+        for (int i = 0; i < numArrays; i++) {
+            if (buffer.remaining() < 4)
+                throw new IllegalStateException("Record ends before array " + i + ". Corrupt serialization?");
+
+            int length = buffer.getInt();
+            int start = buffer.position();
+            if (length < MIN_ARRAY_LENGTH - 4 || length > record.length - start)
+                throw new IllegalStateException("Array " + i + " of length " + length
+                                + " doesn't fit in to the record. Corrupt serialization?");
+
+            ret.add(readArray(record, buffer, start, length));
+            buffer.position(start + length);
+        }
+
+        return ret;
+    }
+
+    private static int sizeOf(INDArray arr) {
+        if (arr.isCompressed())
+            return BinarySerde.byteBufferSizeFor(arr);
+
+        long bytes = 8 + Shape.shapeInfoLength(arr.rank()) * 4L + arr.data().length() * arr.data().getElementSize();
+        if (bytes > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Array of " + bytes + " bytes doesn't fit in to a record");
+
+        return (int) bytes;
+    }
+
+    /**
+     * Same layout as {@link BinarySerde#doByteBufferPutUnCompressed(INDArray, ByteBuffer, boolean)},
+     * but shape information and contents are converted to the byte order of given buffer
+     */
+    private static void putUncompressed(INDArray arr, ByteBuffer buffer) {
+        // ensure we read data from host memory
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(arr, AffinityManager.Location.HOST);
+
+        DataBuffer shapeInfo = arr.shapeInfoDataBuffer();
+        buffer.putInt(arr.rank());
+        buffer.putInt(arr.data().dataType().ordinal());
+        for (int i = 0; i < Shape.shapeInfoLength(arr.rank()); i++)
+            buffer.putInt(shapeInfo.getInt(i));
+
+        DataBuffer data = arr.data();
+        int bytes = (int) (data.length() * data.getElementSize());
+        if (bytes == 0)
+            return;
+
+        ByteBuffer src = BinarySerde.contentPointer(data).limit(bytes).asByteBuffer().order(ByteOrder.nativeOrder());
+        ByteBuffer dst = buffer.slice().order(buffer.order());
+        convert(src, dst, data.getElementSize());
+        buffer.position(buffer.position() + bytes);
+    }
+
+    private static INDArray readArray(byte[] record, ByteBuffer buffer, int start, int length) {
+        int rank = buffer.getInt(start);
+        if (rank < 0 || rank > MAX_RANK || 8 + Shape.shapeInfoLength(rank) * 4 > length)
+            throw new IllegalStateException("Found rank " + rank + " in array of " + length
+                            + " bytes. Corrupt serialization?");
+
+        int typeOrdinal = buffer.getInt(start + 4);
+        if (typeOrdinal < 0 || typeOrdinal >= DataBuffer.Type.values().length)
+            throw new IllegalStateException("Found unknown data opType " + typeOrdinal + ". Corrupt serialization?");
+
+        DataBuffer.Type type = DataBuffer.Type.values()[typeOrdinal];
+
+        int shapeBufferLength = Shape.shapeInfoLength(rank);
+        int[] shapeInfo = new int[shapeBufferLength];
+        for (int i = 0; i < shapeBufferLength; i++)
+            shapeInfo[i] = buffer.getInt(start + 8 + i * 4);
+
+        int dataOffset = start + 8 + shapeBufferLength * 4;
+        int dataLength = start + length - dataOffset;
+
+        //codec information goes along with compressed data, so we just hand it over to BinarySerde
+        if (type == DataBuffer.Type.COMPRESSED) {
+            if (ByteOrder.nativeOrder() != ORDER)
+                throw new IllegalStateException("Compressed arrays can be read on little-endian hosts only");
+
+            ByteBuffer direct = ByteBuffer.allocateDirect(length).order(ByteOrder.nativeOrder());
+            direct.put(record, start, length);
+            direct.rewind();
+            try {
+                return Nd4j.getCompressor().decompress(BinarySerde.toArray(direct));
+            } catch (IndexOutOfBoundsException | BufferUnderflowException | IllegalArgumentException e) {
+                throw new IllegalStateException("Can't decompress array. Corrupt serialization?", e);
+            }
+        }
+
+        if (type != DataBuffer.Type.DOUBLE && type != DataBuffer.Type.FLOAT && type != DataBuffer.Type.HALF
+                        && type != DataBuffer.Type.INT)
+            throw new IllegalStateException("Unsupported data opType " + type + ". Corrupt serialization?");
+
+        // array has to fit in to the record, which also keeps length from overflowing
+        int elementSize = Nd4j.sizeOfDataType(type);
+        long arrayLength = 1;
+        for (int i = 1; i <= rank; i++) {
+            if (shapeInfo[i] < 0)
+                throw new IllegalStateException("Found negative dimension " + shapeInfo[i] + ". Corrupt serialization?");
+
+            if (shapeInfo[i] != 0 && arrayLength > dataLength / elementSize / shapeInfo[i])
+                throw new IllegalStateException("Record is shorter than array it describes. Corrupt serialization?");
+
+            arrayLength *= shapeInfo[i];
+        }
+
+        int dataBytes = (int) arrayLength * elementSize;
+
+        DataBuffer data = BinarySerde.createBuffer(type, arrayLength);
+        if (dataBytes > 0) {
+            BytePointer target = BinarySerde.contentPointer(data);
+            ByteBuffer src = ByteBuffer.wrap(record, dataOffset, dataBytes).slice().order(ORDER);
+            ByteBuffer dst = target.limit(dataBytes).asByteBuffer().order(ByteOrder.nativeOrder());
+            convert(src, dst, elementSize);
+            Nd4j.getAffinityManager().tagLocation(data, AffinityManager.Location.HOST);
+        }
+
+        return Nd4j.createArrayFromShapeBuffer(data, Nd4j.createBufferDetached(shapeInfo));
+    }
+
+    /**
+     * This method copies values between buffers, swapping byte order if buffers have different ones
+     */
+    private static void convert(ByteBuffer src, ByteBuffer dst, int elementSize) {
+        if (src.order() == dst.order())
+            dst.put(src);
+        else if (elementSize == 8)
+            dst.asLongBuffer().put(src.asLongBuffer());
+        else if (elementSize == 4)
+            dst.asIntBuffer().put(src.asIntBuffer());
+        else
+            dst.asShortBuffer().put(src.asShortBuffer());
+    }
+}
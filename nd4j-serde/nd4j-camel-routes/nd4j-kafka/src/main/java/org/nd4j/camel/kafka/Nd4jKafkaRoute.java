@@ -6,53 +6,95 @@ import org.apache.camel.Exchange;
 import org.apache.camel.Processor;
 import org.apache.camel.builder.RouteBuilder;
 import org.apache.camel.component.kafka.KafkaConstants;
-import org.apache.commons.net.util.Base64;
+import org.apache.camel.processor.aggregate.AggregationStrategy;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.factory.Nd4j;
-import org.nd4j.serde.base64.Nd4jBase64;
 
-import java.io.ByteArrayOutputStream;
-import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 /**
- * Sends a test ndarray
+ * Sends ndarrays
  * to kafka
  *
+ * Arrays are batched: up to batchSize arrays
+ * are sent as one binary record (see {@link NDArrayBatchSerde}),
+ * and incomplete batches are flushed every lingerMs milliseconds.
+ *
  * @author Adam Gibson
  */
 @AllArgsConstructor
 @Builder
 public class Nd4jKafkaRoute extends RouteBuilder {
+    public final static int DEFAULT_BATCH_SIZE = 32;
+    public final static long DEFAULT_LINGER_MS = 10;
+
     private KafkaConnectionInformation kafkaConnectionInformation;
+    @Builder.Default
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    @Builder.Default
+    private long lingerMs = DEFAULT_LINGER_MS;
+    // compression algorithm applied to each array, null means raw data
+    private String compression;
+
+    /**
+     * Route with default batching and no compression
+     * @param kafkaConnectionInformation the kafka connection information
+     */
+    public Nd4jKafkaRoute(KafkaConnectionInformation kafkaConnectionInformation) {
+        this(kafkaConnectionInformation, DEFAULT_BATCH_SIZE, DEFAULT_LINGER_MS, null);
+    }
 
     @Override
     public void configure() throws Exception {
         final String kafkaUri = kafkaConnectionInformation.kafkaUri();
-        from("direct:start").process(new Processor() {
-            @Override
-            public void process(Exchange exchange) throws Exception {
-                final INDArray arr = (INDArray) exchange.getIn().getBody();
-                ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                DataOutputStream dos = new DataOutputStream(bos);
-                Nd4j.write(arr, dos);
-                byte[] bytes = bos.toByteArray();
-                String base64 = Base64.encodeBase64String(bytes);
-                exchange.getIn().setBody(base64, String.class);
-                String id = UUID.randomUUID().toString();
-                exchange.getIn().setHeader(KafkaConstants.KEY, id);
-                exchange.getIn().setHeader(KafkaConstants.PARTITION_KEY, id);
-            }
-        }).to(kafkaUri);
+        from("direct:start").aggregate(constant(true), new BatchAggregationStrategy(batchSize))
+                        .completionSize(batchSize).completionInterval(lingerMs).forceCompletionOnStop()
+                        .process(new Processor() {
+                            @Override
+                            public void process(Exchange exchange) throws Exception {
+                                @SuppressWarnings("unchecked")
+                                final List<INDArray> batch = exchange.getIn().getBody(List.class);
+                                exchange.getIn().setBody(NDArrayBatchSerde.toBytes(batch, compression), byte[].class);
+                                String id = UUID.randomUUID().toString();
+                                exchange.getIn().setHeader(KafkaConstants.KEY, id);
+                                exchange.getIn().setHeader(KafkaConstants.PARTITION_KEY, id);
+                            }
+                        }).to(kafkaUri);
 
         from(kafkaUri).process(new Processor() {
             @Override
             public void process(Exchange exchange) throws Exception {
-                byte[] body2 = (byte[]) exchange.getIn().getBody();
-                String body = new String(body2);
-                INDArray arr = Nd4jBase64.fromBase64(body);
-                exchange.getIn().setBody(arr);
+                byte[] body = (byte[]) exchange.getIn().getBody();
+                exchange.getIn().setBody(NDArrayBatchSerde.fromBytes(body));
             }
-        }).to("direct:receive");
+        }).split(body()).to("direct:receive");
+    }
+
+    /**
+     * Collects bodies of incoming exchanges in to a list
+     */
+    private static class BatchAggregationStrategy implements AggregationStrategy {
+        private final int batchSize;
+
+        private BatchAggregationStrategy(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public Exchange aggregate(Exchange oldExchange, Exchange newExchange) {
+            INDArray arr = (INDArray) newExchange.getIn().getBody();
+            if (oldExchange == null) {
+                List<INDArray> batch = new ArrayList<>(batchSize);
+                batch.add(arr);
+                newExchange.getIn().setBody(batch);
+                return newExchange;
+            }
+
+            @SuppressWarnings("unchecked")
+            List<INDArray> batch = oldExchange.getIn().getBody(List.class);
+            batch.add(arr);
+            return oldExchange;
+        }
     }
 }
@@ -0,0 +1,118 @@
+package org.nd4j.kafka;
+
+import org.junit.Test;
+import org.nd4j.camel.kafka.NDArrayBatchSerde;
+import org.nd4j.linalg.api.memory.MemoryWorkspace;
+import org.nd4j.linalg.api.memory.conf.WorkspaceConfiguration;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.base64.Nd4jBase64;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class NDArrayBatchSerdeTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        INDArray matrix = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+        List<INDArray> arrays = Arrays.asList(Nd4j.create(4), matrix, matrix.dup('f'), matrix.getColumn(1),
+                        Nd4j.scalar(3.0));
+
+        List<INDArray> restored = NDArrayBatchSerde.fromBytes(NDArrayBatchSerde.toBytes(arrays));
+        assertEquals(arrays.size(), restored.size());
+        for (int i = 0; i < arrays.size(); i++)
+            assertEquals(arrays.get(i), restored.get(i));
+    }
+
+    @Test
+    public void testCompressed() throws Exception {
+        INDArray arr = Nd4j.zeros(10000);
+        byte[] raw = NDArrayBatchSerde.toBytes(Collections.singletonList(arr));
+        byte[] compressed = NDArrayBatchSerde.toBytes(Collections.singletonList(arr), "GZIP");
+        assertTrue(compressed.length < raw.length);
+
+        List<INDArray> restored = NDArrayBatchSerde.fromBytes(compressed);
+        assertEquals(1, restored.size());
+        assertFalse(restored.get(0).isCompressed());
+        assertEquals(arr, restored.get(0));
+    }
+
+    @Test
+    public void testSmallerThanBase64() throws Exception {
+        INDArray arr = Nd4j.linspace(1, 100, 100);
+        byte[] binary = NDArrayBatchSerde.toBytes(Collections.singletonList(arr));
+        String base64 = Nd4jBase64.base64String(arr);
+        assertTrue(binary.length < base64.length());
+    }
+
+    @Test
+    public void testWorkspace() throws Exception {
+        INDArray arr = Nd4j.linspace(1, 100, 100);
+        byte[] record = NDArrayBatchSerde.toBytes(Collections.singletonList(arr));
+
+        WorkspaceConfiguration configuration = WorkspaceConfiguration.builder().initialSize(1024 * 1024).build();
+        try (MemoryWorkspace workspace =
+                        Nd4j.getWorkspaceManager().getAndActivateWorkspace(configuration, "KAFKA_BATCH")) {
+            INDArray restored = NDArrayBatchSerde.fromBytes(record).get(0);
+            assertTrue(restored.isAttached());
+            assertEquals(arr, restored);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCorruptRecord() throws Exception {
+        NDArrayBatchSerde.fromBytes(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCorruptDataType() throws Exception {
+        byte[] record = NDArrayBatchSerde.toBytes(Collections.singletonList(Nd4j.linspace(1, 10, 10)));
+        // data opType of the first array follows magic, number of arrays, array length and rank
+        ByteBuffer.wrap(record).order(NDArrayBatchSerde.ORDER).putInt(16, 1000);
+        NDArrayBatchSerde.fromBytes(record);
+    }
+
+    @Test
+    public void testFixedByteOrder() throws Exception {
+        byte[] record = NDArrayBatchSerde.toBytes(Collections.singletonList(Nd4j.linspace(1, 10, 10)));
+        assertEquals(NDArrayBatchSerde.MAGIC, ByteBuffer.wrap(record).order(ByteOrder.LITTLE_ENDIAN).getInt(0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCorruptNumberOfArrays() throws Exception {
+        byte[] record = NDArrayBatchSerde.toBytes(Collections.singletonList(Nd4j.linspace(1, 10, 10)));
+        ByteBuffer.wrap(record).order(NDArrayBatchSerde.ORDER).putInt(4, Integer.MAX_VALUE);
+        NDArrayBatchSerde.fromBytes(record);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCorruptRank() throws Exception {
+        byte[] record = NDArrayBatchSerde.toBytes(Collections.singletonList(Nd4j.linspace(1, 10, 10)));
+        // rank of the first array follows magic, number of arrays and array length
+        ByteBuffer.wrap(record).order(NDArrayBatchSerde.ORDER).putInt(12, Integer.MAX_VALUE / 2);
+        NDArrayBatchSerde.fromBytes(record);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCorruptShape() throws Exception {
+        byte[] record = NDArrayBatchSerde.toBytes(Collections.singletonList(Nd4j.linspace(1, 10, 10)));
+        // shape of the first array follows its rank, data opType and rank again in shape information
+        ByteBuffer buffer = ByteBuffer.wrap(record).order(NDArrayBatchSerde.ORDER);
+        buffer.putInt(24, Integer.MAX_VALUE);
+        buffer.putInt(28, Integer.MAX_VALUE);
+        NDArrayBatchSerde.fromBytes(record);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNegativeShape() throws Exception {
+        byte[] record = NDArrayBatchSerde.toBytes(Collections.singletonList(Nd4j.linspace(1, 10, 10)));
+        ByteBuffer.wrap(record).order(NDArrayBatchSerde.ORDER).putInt(24, -10);
+        NDArrayBatchSerde.fromBytes(record);
+    }
+}
@@ -9,6 +9,7 @@ import org.nd4j.camel.kafka.KafkaConnectionInformation;
 import org.nd4j.camel.kafka.Nd4jKafkaConsumer;
 import org.nd4j.camel.kafka.Nd4jKafkaProducer;
 import org.nd4j.camel.kafka.Nd4jKafkaRoute;
+import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
 
 import static org.junit.Assert.assertEquals;
@@ -62,5 +63,21 @@ public class Nd4jKafkaRouteTest {
         assertEquals(Nd4j.create(4), consumer.receive());
     }
 
+    @Test
+    public void testBatchedKafkaRoute() throws Exception {
+        Nd4jKafkaProducer kafkaProducer = Nd4jKafkaProducer.builder().camelContext(camelContext)
+                        .connectionInformation(connectionInformation).build();
+        INDArray[] arrays = new INDArray[Nd4jKafkaRoute.DEFAULT_BATCH_SIZE * 2 + 3];
+        for (int i = 0; i < arrays.length; i++) {
+            arrays[i] = Nd4j.linspace(1, 10, 10).addi(i);
+            kafkaProducer.publish(arrays[i]);
+        }
+
+        Nd4jKafkaConsumer consumer = Nd4jKafkaConsumer.builder().camelContext(camelContext)
+                        .connectionInformation(connectionInformation).build();
+        for (int i = 0; i < arrays.length; i++)
+            assertEquals(arrays[i], consumer.receive());
+    }
+
 
 }
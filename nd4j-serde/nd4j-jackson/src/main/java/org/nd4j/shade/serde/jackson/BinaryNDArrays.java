@@ -0,0 +1,276 @@
+package org.nd4j.shade.serde.jackson;
+
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
+import org.nd4j.linalg.api.ndarray.INDArray;
+import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.binary.BinarySerde;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Helpers shared by binary (Smile, CBOR etc) INDArray serializers.
+ *
+ * Array contents are streamed straight from/into native memory, in native byte order,
+ * so neither intermediate byte[] nor String holding the whole array is ever created.
+ */
+public class BinaryNDArrays {
+    public static final String FIELD_DATA_TYPE = "dataType";
+    public static final String FIELD_ORDERING = "ordering";
+    public static final String FIELD_BYTE_ORDER = "byteOrder";
+    public static final String FIELD_SHAPE = "shape";
+    public static final String FIELD_DATA = "data";
+
+    private BinaryNDArrays() {}
+
+    /**
+     * This method checks, if given array can be written as raw binary: only dense FLOAT, DOUBLE and HALF arrays can be
+     *
+     * @param array
+     * @return
+     */
+    public static boolean isSupported(INDArray array) {
+        if (array instanceof IComplexNDArray || array.isSparse() || array.isCompressed())
+            return false;
+
+        DataBuffer.Type dataType = array.data().dataType();
+        return dataType == DataBuffer.Type.FLOAT || dataType == DataBuffer.Type.DOUBLE
+                        || dataType == DataBuffer.Type.HALF;
+    }
+
+    /**
+     * This method returns array with contiguous contents available on host side: array itself,
+     * or its copy for arrays with offset or non-default strides (views, permuted arrays)
+     *
+     * @param array
+     * @return
+     */
+    public static INDArray prepare(INDArray array) {
+        if (array.offset() != 0 || !Arrays.equals(array.stride(), Nd4j.getStrides(array.shape(), array.ordering())))
+            array = array.dup(array.ordering());
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+        return array;
+    }
+
+    public static String nativeByteOrder() {
+        return ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? "BE" : "LE";
+    }
+
+    /**
+     * This method returns length of prepared array contents, in bytes
+     *
+     * @param array
+     * @return
+     */
+    public static long byteLength(INDArray array) {
+        return array.length() * array.data().getElementSize();
+    }
+
+    /**
+     * This method returns stream over contents of prepared array, read directly from native memory
+     *
+     * @param array array returned by {@link #prepare(INDArray)}
+     * @return
+     */
+    public static InputStream contentStream(INDArray array) {
+        final BytePointer source = BinarySerde.contentPointer(array.data());
+        final long bytes = byteLength(array);
+
+        return new InputStream() {
+            private long position = 0;
+
+            @Override
+            public int read() throws IOException {
+                if (position >= bytes)
+                    return -1;
+
+                return source.get(position++) & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0)
+                    return 0;
+
+                if (position >= bytes)
+                    return -1;
+
+                int n = (int) Math.min(len, bytes - position);
+                source.position(position);
+                source.get(b, off, n);
+                position += n;
+                return n;
+            }
+
+            @Override
+            public int available() throws IOException {
+                return (int) Math.min(Integer.MAX_VALUE, bytes - position);
+            }
+        };
+    }
+
+    /**
+     * This method allocates array of given type and shape, in current workspace if there's one open
+     *
+     * @param dataType
+     * @param shape
+     * @param ordering
+     * @return
+     */
+    public static INDArray create(DataBuffer.Type dataType, int[] shape, char ordering) {
+        long length = 1;
+        for (int dim : shape)
+            length *= dim;
+
+        DataBuffer buffer = BinarySerde.createBuffer(dataType, length);
+        return Nd4j.create(buffer, shape, Nd4j.getStrides(shape, ordering), 0, ordering);
+    }
+
+    /**
+     * This method returns stream writing directly into native memory of given array.
+     * Once closed, bytes of each element are reversed if byteOrder differs from native one,
+     * and array is marked as updated on host side.
+     *
+     * @param array array returned by {@link #create(DataBuffer.Type, int[], char)}
+     * @param byteOrder byte order of incoming data, as returned by {@link #nativeByteOrder()} on the writing side
+     * @return
+     */
+    public static OutputStream contentSink(final INDArray array, final String byteOrder) {
+        final BytePointer target = BinarySerde.contentPointer(array.data());
+        final long bytes = byteLength(array);
+
+        return new OutputStream() {
+            private long position = 0;
+
+            @Override
+            public void write(int b) throws IOException {
+                checkSpace(1);
+                target.put(position++, (byte) b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                checkSpace(len);
+                target.position(position);
+                target.put(b, off, len);
+                position += len;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (position != bytes)
+                    throw new IOException("Expected " + bytes + " bytes of array data, got " + position);
+
+                if (!nativeByteOrder().equals(byteOrder))
+                    BinarySerde.swapBytes(target, bytes, array.data().getElementSize());
+
+                Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+            }
+
+            private void checkSpace(int len) throws IOException {
+                if (position + len > bytes)
+                    throw new IOException("Array data exceeds " + bytes + " bytes");
+            }
+        };
+    }
+
+    /**
+     * Deserialization state shared by plain and shaded Jackson deserializers: collects array header fields,
+     * and streams raw data straight into native memory of the new array if it follows the header,
+     * or buffers it until the header is complete otherwise.
+     */
+    public static class Reader {
+        private INDArray array;
+        private String dataType;
+        private String ordering;
+        private String byteOrder;
+        private int[] shape;
+        private byte[] pending;
+
+        /**
+         * This method sets header field holding text value: {@link BinaryNDArrays#FIELD_DATA_TYPE},
+         * {@link BinaryNDArrays#FIELD_ORDERING} or {@link BinaryNDArrays#FIELD_BYTE_ORDER}
+         *
+         * @param field field name
+         * @param value field value
+         */
+        public void setField(String field, String value) {
+            switch (field) {
+                case FIELD_DATA_TYPE:
+                    dataType = value;
+                    break;
+                case FIELD_ORDERING:
+                    ordering = value;
+                    break;
+                case FIELD_BYTE_ORDER:
+                    byteOrder = value;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Not a text header field: " + field);
+            }
+        }
+
+        public void setShape(List<Integer> dims) {
+            shape = new int[dims.size()];
+            for (int i = 0; i < shape.length; i++)
+                shape[i] = dims.get(i);
+        }
+
+        /**
+         * This method sets array decoded from legacy Base64 field
+         */
+        public void setArray(INDArray array) {
+            this.array = array;
+        }
+
+        public boolean hasHeader() {
+            return dataType != null && ordering != null && byteOrder != null && shape != null;
+        }
+
+        /**
+         * This method allocates array described by header, and returns stream writing into its native memory
+         *
+         * @return
+         */
+        public OutputStream dataSink() {
+            array = create(DataBuffer.Type.valueOf(dataType), shape, ordering.charAt(0));
+            return contentSink(array, byteOrder);
+        }
+
+        /**
+         * This method keeps data that came before header, until header is complete
+         */
+        public void setPendingData(byte[] data) {
+            pending = data;
+        }
+
+        /**
+         * This method returns deserialized array, or null if neither Base64 nor binary data was found
+         *
+         * @return
+         * @throws IOException if data was found, but header is incomplete
+         */
+        public INDArray finish() throws IOException {
+            if (pending != null) {
+                if (!hasHeader())
+                    throw new IOException("Incomplete INDArray header");
+
+                try (OutputStream sink = dataSink()) {
+                    sink.write(pending);
+                }
+                pending = null;
+            }
+
+            return array;
+        }
+    }
+}
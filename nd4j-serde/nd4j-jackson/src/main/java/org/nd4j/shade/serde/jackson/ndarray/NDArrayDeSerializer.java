@@ -1,24 +1,71 @@
 package org.nd4j.shade.serde.jackson.ndarray;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonNode;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.serde.base64.Nd4jBase64;
+import org.nd4j.shade.serde.jackson.BinaryNDArrays;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
+ * Deserializer for INDArrays written by {@link NDArraySerializer}: either as Base64 string, or as raw binary.
+ * Raw binary is streamed straight into native memory of the new array, if it follows array header.
+ *
  * @author Adam Gibson
  */
 
 public class NDArrayDeSerializer extends JsonDeserializer<INDArray> {
     @Override
     public INDArray deserialize(JsonParser jp, DeserializationContext deserializationContext) throws IOException {
-        JsonNode node = jp.getCodec().readTree(jp);
-        String field = node.get("array").asText();
-        INDArray ret = Nd4jBase64.fromBase64(field);
+        JsonToken token = jp.getCurrentToken();
+        if (token == JsonToken.START_OBJECT)
+            token = jp.nextToken();
+
+        BinaryNDArrays.Reader reader = new BinaryNDArrays.Reader();
+        for (; token == JsonToken.FIELD_NAME; token = jp.nextToken()) {
+            String field = jp.getCurrentName();
+            jp.nextToken();
+            switch (field) {
+                case "array":
+                    reader.setArray(Nd4jBase64.fromBase64(jp.getText()));
+                    break;
+                case BinaryNDArrays.FIELD_SHAPE:
+                    List<Integer> dims = new ArrayList<>();
+                    while (jp.nextToken() != JsonToken.END_ARRAY)
+                        dims.add(jp.getIntValue());
+
+                    reader.setShape(dims);
+                    break;
+                case BinaryNDArrays.FIELD_DATA:
+                    if (reader.hasHeader()) {
+                        try (OutputStream sink = reader.dataSink()) {
+                            jp.readBinaryValue(sink);
+                        }
+                    } else {
+                        // header comes after data, so data has to be buffered
+                        reader.setPendingData(jp.getBinaryValue());
+                    }
+                    break;
+                case BinaryNDArrays.FIELD_DATA_TYPE:
+                case BinaryNDArrays.FIELD_ORDERING:
+                case BinaryNDArrays.FIELD_BYTE_ORDER:
+                    reader.setField(field, jp.getText());
+                    break;
+                default:
+                    jp.skipChildren();
+            }
+        }
+
+        INDArray ret = reader.finish();
+        if (ret == null)
+            throw deserializationContext.mappingException("No INDArray data found");
+
         return ret;
     }
 }
@@ -5,23 +5,53 @@ import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import org.nd4j.linalg.api.ndarray.INDArray;
-import org.nd4j.linalg.factory.Nd4j;
 import org.nd4j.serde.base64.Nd4jBase64;
+import org.nd4j.shade.serde.jackson.BinaryNDArrays;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 
 /**
+ * Serializer for INDArrays.
+ *
+ * With text formats (JSON, YAML) array is written as Base64 string.
+ * With binary formats (Smile, CBOR) dense arrays are written as raw binary instead, streamed straight
+ * from native memory, along with data type, ordering, byte order and shape.
+ * Note: Smile encodes binary as 7-bit by default, disable SmileGenerator.Feature.ENCODE_BINARY_AS_7BIT to get raw bytes.
+ *
  * @author Adam Gibson
  */
 public class NDArraySerializer extends JsonSerializer<INDArray> {
     @Override
     public void serialize(INDArray indArray, JsonGenerator jsonGenerator, SerializerProvider serializerProvider)
                     throws IOException {
+        if (jsonGenerator.canWriteBinaryNatively() && BinaryNDArrays.isSupported(indArray)
+                        && BinaryNDArrays.byteLength(indArray) <= Integer.MAX_VALUE) {
+            writeBinary(indArray, jsonGenerator);
+            return;
+        }
+
         String toBase64 = Nd4jBase64.base64String(indArray);
         jsonGenerator.writeStartObject();
         jsonGenerator.writeStringField("array", toBase64);
         jsonGenerator.writeEndObject();
 
     }
+
+    protected void writeBinary(INDArray indArray, JsonGenerator jsonGenerator) throws IOException {
+        INDArray array = BinaryNDArrays.prepare(indArray);
+
+        jsonGenerator.writeStartObject();
+        jsonGenerator.writeStringField(BinaryNDArrays.FIELD_DATA_TYPE, array.data().dataType().name());
+        jsonGenerator.writeStringField(BinaryNDArrays.FIELD_ORDERING, String.valueOf(array.ordering()));
+        jsonGenerator.writeStringField(BinaryNDArrays.FIELD_BYTE_ORDER, BinaryNDArrays.nativeByteOrder());
+
+        jsonGenerator.writeArrayFieldStart(BinaryNDArrays.FIELD_SHAPE);
+        for (int i = 0; i < array.rank(); i++)
+            jsonGenerator.writeNumber(array.size(i));
+        jsonGenerator.writeEndArray();
+
+        jsonGenerator.writeFieldName(BinaryNDArrays.FIELD_DATA);
+        jsonGenerator.writeBinary(BinaryNDArrays.contentStream(array), (int) BinaryNDArrays.byteLength(array));
+        jsonGenerator.writeEndObject();
+    }
 }
@@ -1,20 +1,65 @@
 package org.nd4j;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.Input;
 import com.esotericsoftware.kryo.io.Output;
+import org.bytedeco.javacpp.BytePointer;
+import org.nd4j.linalg.api.buffer.DataBuffer;
+import org.nd4j.linalg.api.complex.IComplexNDArray;
+import org.nd4j.linalg.api.concurrency.AffinityManager;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.serde.binary.BinarySerde;
 
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 
 /**
+ * Kryo serializer for INDArrays.
+ *
+ * Dense FLOAT, DOUBLE and HALF arrays are written as compact header (data type, ordering, byte order and shape),
+ * followed by raw array contents, copied straight from native memory into Kryo buffer.
+ * On deserialization contents are copied straight into newly allocated DataBuffer,
+ * which is attached to current workspace, if there's one open.
+ * Arrays with offset or non-default strides (views, permuted arrays) are written run by run, without dup(),
+ * if their innermost stride is 1, and dup'ed otherwise.
+ *
+ * Everything else (complex, sparse and compressed arrays) is written with {@link Nd4j#write(INDArray, DataOutputStream)}.
+ *
  * Created by agibsonccc on 5/22/16.
  */
 public class Nd4jSerializer extends Serializer<INDArray> {
+    private static final byte FORMAT_LEGACY = 0;
+    private static final byte FORMAT_BULK = 1;
+
+    private static final byte LITTLE_ENDIAN = 0;
+    private static final byte BIG_ENDIAN = 1;
+
+    // views with shorter contiguous runs are dup'ed instead
+    private static final int MIN_RUN_LENGTH = 16;
+
+    private static final int SCRATCH_SIZE = 256 * 1024;
+
+    private static final ThreadLocal<byte[]> scratch = new ThreadLocal<>();
+
+    private final boolean stridedViews;
+
+    public Nd4jSerializer() {
+        this(true);
+    }
+
+    /**
+     * @param stridedViews if true, strided views are written without dup(), run by run
+     */
+    public Nd4jSerializer(boolean stridedViews) {
+        this.stridedViews = stridedViews;
+    }
+
     /**
      * Writes the bytes for the object to the output.
      * <p>
@@ -27,13 +72,80 @@ public class Nd4jSerializer extends Serializer<INDArray> {
      */
     @Override
     public void write(Kryo kryo, Output output, INDArray object) {
-        DataOutputStream dos = new DataOutputStream(output);
-        try {
-            Nd4j.write(object, dos);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        if (!isBulkSupported(object)) {
+            output.writeByte(FORMAT_LEGACY);
+            DataOutputStream dos = new DataOutputStream(output);
+            try {
+                Nd4j.write(object, dos);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            //Note: output should NOT be closed manually here - may be needed elsewhere (and closing here will cause serialization to fail)
+            return;
+        }
+
+        INDArray array = object;
+        char order = array.ordering();
+        int runDimension = -1;
+        if (array.offset() != 0 || !Arrays.equals(array.stride(), Nd4j.getStrides(array.shape(), order))) {
+            int rank = array.rank();
+            if (stridedViews && array.stride(rank - 1) == 1 && array.size(rank - 1) >= MIN_RUN_LENGTH) {
+                order = 'c';
+                runDimension = rank - 1;
+            } else if (stridedViews && array.stride(0) == 1 && array.size(0) >= MIN_RUN_LENGTH) {
+                order = 'f';
+                runDimension = 0;
+            } else {
+                array = array.dup(array.ordering());
+            }
+        }
+
+        Nd4j.getExecutioner().commit();
+        Nd4j.getAffinityManager().ensureLocation(array, AffinityManager.Location.HOST);
+
+        DataBuffer data = array.data();
+        int[] shape = array.shape();
+
+        output.writeByte(FORMAT_BULK);
+        output.writeByte((byte) data.dataType().ordinal());
+        output.writeChar(order);
+        output.writeByte(ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN ? BIG_ENDIAN : LITTLE_ENDIAN);
+        output.writeInt(shape.length, true);
+        for (int dim : shape)
+            output.writeInt(dim, true);
+
+        BytePointer source = BinarySerde.contentPointer(data);
+        int elementSize = data.getElementSize();
+
+        if (runDimension < 0) {
+            copyOut(source, 0, array.length() * elementSize, output);
+            return;
+        }
+
+        // view is traversed in given order, one contiguous run along runDimension at a time
+        int[] stride = array.stride();
+        long runBytes = shape[runDimension] * (long) elementSize;
+        int[] counter = new int[shape.length];
+        long numRuns = array.length() / shape[runDimension];
+        for (long r = 0; r < numRuns; r++) {
+            long elementOffset = 0;
+            for (int d = 0; d < shape.length; d++)
+                elementOffset += counter[d] * (long) stride[d];
+
+            copyOut(source, elementOffset * elementSize, runBytes, output);
+
+            // advancing counter over all dimensions but runDimension, innermost first for 'c', outermost first for 'f'
+            for (int i = 0; i < shape.length; i++) {
+                int d = order == 'c' ? shape.length - 1 - i : i;
+                if (d == runDimension)
+                    continue;
+
+                if (++counter[d] < shape[d])
+                    break;
+
+                counter[d] = 0;
+            }
         }
-        //Note: output should NOT be closed manually here - may be needed elsewhere (and closing here will cause serialization to fail)
     }
 
     /**
@@ -53,15 +165,106 @@ public class Nd4jSerializer extends Serializer<INDArray> {
      */
     @Override
     public INDArray read(Kryo kryo, Input input, Class<INDArray> type) {
-        DataInputStream dis = new DataInputStream(input);
-        try {
-            return Nd4j.read(dis);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+        byte format = input.readByte();
+        if (format == FORMAT_LEGACY) {
+            DataInputStream dis = new DataInputStream(input);
+            try {
+                return Nd4j.read(dis);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            //Note: input should NOT be closed manually here - may be needed elsewhere (and closing here will cause serialization to fail)
+        } else if (format != FORMAT_BULK) {
+            throw new KryoException("Unknown INDArray format: " + format);
+        }
+
+        DataBuffer.Type dataType = DataBuffer.Type.values()[input.readByte()];
+        char order = input.readChar();
+        boolean swap = (input.readByte() == BIG_ENDIAN) != (ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN);
+        int[] shape = new int[input.readInt(true)];
+        long length = 1;
+        for (int i = 0; i < shape.length; i++) {
+            shape[i] = input.readInt(true);
+            length *= shape[i];
         }
-        //Note: input should NOT be closed manually here - may be needed elsewhere (and closing here will cause serialization to fail)
+
+        if (!isBulkSupported(dataType))
+            throw new KryoException("Unsupported data type: " + dataType);
+
+        DataBuffer data = BinarySerde.createBuffer(dataType, length);
+        BytePointer target = BinarySerde.contentPointer(data);
+        long bytes = length * data.getElementSize();
+        copyIn(input, target, bytes);
+        if (swap)
+            BinarySerde.swapBytes(target, bytes, data.getElementSize());
+
+        INDArray array = Nd4j.create(data, shape, Nd4j.getStrides(shape, order), 0, order);
+        Nd4j.getAffinityManager().tagLocation(array, AffinityManager.Location.HOST);
+        return array;
     }
 
+    private static boolean isBulkSupported(INDArray array) {
+        if (array instanceof IComplexNDArray || array.isSparse() || array.isCompressed())
+            return false;
 
+        return isBulkSupported(array.data().dataType());
+    }
 
+    private static boolean isBulkSupported(DataBuffer.Type dataType) {
+        return dataType == DataBuffer.Type.FLOAT || dataType == DataBuffer.Type.DOUBLE
+                        || dataType == DataBuffer.Type.HALF;
+    }
+
+    private static byte[] getScratch() {
+        byte[] chunk = scratch.get();
+        if (chunk == null) {
+            chunk = new byte[SCRATCH_SIZE];
+            scratch.set(chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * This method copies given number of bytes from native memory to the output,
+     * straight into Kryo buffer if it has enough space left, or via pooled chunk otherwise
+     */
+    private static void copyOut(BytePointer source, long position, long bytes, Output output) {
+        byte[] buffer = output.getBuffer();
+        if (output.getClass() == Output.class && buffer != null && buffer.length - output.position() >= bytes) {
+            source.position(position);
+            source.get(buffer, output.position(), (int) bytes);
+            output.setPosition(output.position() + (int) bytes);
+            return;
+        }
+
+        byte[] chunk = getScratch();
+        for (long p = 0; p < bytes; p += chunk.length) {
+            int chunkSize = (int) Math.min(chunk.length, bytes - p);
+            source.position(position + p);
+            source.get(chunk, 0, chunkSize);
+            output.writeBytes(chunk, 0, chunkSize);
+        }
+    }
+
+    /**
+     * This method copies given number of bytes from the input to native memory,
+     * straight from Kryo buffer if it's already holding all of them, or via pooled chunk otherwise
+     */
+    private static void copyIn(Input input, BytePointer target, long bytes) {
+        byte[] buffer = input.getBuffer();
+        if (input.getClass() == Input.class && buffer != null && input.limit() - input.position() >= bytes) {
+            target.position(0);
+            target.put(buffer, input.position(), (int) bytes);
+            input.setPosition(input.position() + (int) bytes);
+            return;
+        }
+
+        byte[] chunk = getScratch();
+        for (long p = 0; p < bytes; p += chunk.length) {
+            int chunkSize = (int) Math.min(chunk.length, bytes - p);
+            input.readBytes(chunk, 0, chunkSize);
+            target.position(p);
+            target.put(chunk, 0, chunkSize);
+        }
+    }
 }
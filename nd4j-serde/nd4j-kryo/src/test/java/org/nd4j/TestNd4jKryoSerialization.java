@@ -12,6 +12,7 @@ import org.junit.Before;
 import org.junit.Test;
 import org.nd4j.linalg.api.ndarray.INDArray;
 import org.nd4j.linalg.factory.Nd4j;
+import org.nd4j.linalg.indexing.NDArrayIndex;
 import org.nd4j.linalg.primitives.*;
 import scala.Tuple2;
 
@@ -19,6 +20,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
@@ -91,6 +93,55 @@ public class TestNd4jKryoSerialization {
         }
     }
 
+    @Test
+    public void testSerializationViews() {
+        SerializerInstance si = sc.env().serializer().newInstance();
+
+        INDArray c = Nd4j.linspace(1, 4096, 4096).reshape(64, 64);
+        INDArray f = c.dup('f');
+
+        INDArray[] arrays = new INDArray[] {
+                c,
+                f,
+                c.transpose(),
+                c.getRow(7),
+                c.getColumn(7),
+                f.getColumn(7),
+                // contiguous runs along last dimension
+                c.get(NDArrayIndex.interval(3, 40), NDArrayIndex.interval(5, 55)),
+                // contiguous runs along first dimension
+                f.get(NDArrayIndex.interval(3, 40), NDArrayIndex.interval(5, 55)),
+                // short runs, dup'ed before writing
+                c.get(NDArrayIndex.interval(0, 2, 64), NDArrayIndex.interval(0, 3)),
+                Nd4j.linspace(1, 60, 60).reshape('f', 3, 4, 5).get(NDArrayIndex.all(), NDArrayIndex.interval(1, 3), NDArrayIndex.all()),
+                // permuted, but not views
+                Nd4j.linspace(1, 24, 24).reshape(2, 3, 4).permute(2, 0, 1),
+                Nd4j.linspace(1, 1280, 1280).reshape(2, 20, 32).permute(1, 0, 2),
+                Nd4j.scalar(3.0)};
+
+        for (INDArray in : arrays) {
+            ByteBuffer bb = si.serialize(in, null);
+            INDArray deserialized = (INDArray) si.deserialize(bb, null);
+
+            assertArrayEquals(in.shape(), deserialized.shape());
+            assertEquals(in, deserialized);
+        }
+    }
+
+    @Test
+    public void testSerializationRowWithOffset() {
+        SerializerInstance si = sc.env().serializer().newInstance();
+
+        INDArray matrix = Nd4j.linspace(1, 12, 12).reshape(3, 4);
+        INDArray row = matrix.getRow(1);
+
+        ByteBuffer bb = si.serialize(row, null);
+        INDArray deserialized = (INDArray) si.deserialize(bb, null);
+
+        assertArrayEquals(row.shape(), deserialized.shape());
+        assertEquals(Nd4j.create(new double[] {5, 6, 7, 8}), deserialized);
+    }
+
     private <T> void testSerialization(T in, SerializerInstance si) {
         ByteBuffer bb = si.serialize(in, null);
         T deserialized = (T)si.deserialize(bb, null);